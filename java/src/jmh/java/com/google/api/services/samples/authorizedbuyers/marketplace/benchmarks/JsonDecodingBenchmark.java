@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.benchmarks;
+
+import com.google.api.client.json.JsonFactory;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListDealsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListFinalizedDealsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListProposalsResponse;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.standin.SyntheticResources;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures decoding of realistic list response pages with each supported JSON engine, through the
+ * same {@code JsonFactory} entry point that the client library uses to parse responses.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonDecodingBenchmark {
+
+  @Param({"gson", "jackson2"})
+  public String jsonEngine;
+
+  /**
+   * The number of resources on each page; 50 is the samples' default page size, and 1000 that of a
+   * large page requested with {@code --page_size}.
+   */
+  @Param({"50", "500", "1000"})
+  public int pageSize;
+
+  private JsonFactory jsonFactory;
+  private byte[] finalizedDealsPage;
+  private byte[] proposalsPage;
+  private byte[] dealsPage;
+
+  @Setup
+  public void setUp() throws IOException {
+    jsonFactory = Utils.getJsonFactory(jsonEngine);
+
+    // Payloads are always serialized with the same engine so every engine parses identical bytes.
+    JsonFactory serializer = Utils.getJsonFactory("gson");
+    finalizedDealsPage =
+        serializer.toByteArray(
+            SyntheticResources.newListFinalizedDealsResponse("buyers/1", 1, pageSize));
+    proposalsPage =
+        serializer.toByteArray(
+            SyntheticResources.newListProposalsResponse("buyers/1", 1, pageSize));
+    dealsPage =
+        serializer.toByteArray(
+            SyntheticResources.newListDealsResponse("buyers/1/proposals/MP1", 1, pageSize));
+  }
+
+  @Benchmark
+  public ListFinalizedDealsResponse decodeFinalizedDeals() throws IOException {
+    return jsonFactory.fromInputStream(
+        new ByteArrayInputStream(finalizedDealsPage),
+        StandardCharsets.UTF_8,
+        ListFinalizedDealsResponse.class);
+  }
+
+  @Benchmark
+  public ListProposalsResponse decodeProposals() throws IOException {
+    return jsonFactory.fromInputStream(
+        new ByteArrayInputStream(proposalsPage),
+        StandardCharsets.UTF_8,
+        ListProposalsResponse.class);
+  }
+
+  @Benchmark
+  public ListDealsResponse decodeDeals() throws IOException {
+    return jsonFactory.fromInputStream(
+        new ByteArrayInputStream(dealsPage), StandardCharsets.UTF_8, ListDealsResponse.class);
+  }
+}
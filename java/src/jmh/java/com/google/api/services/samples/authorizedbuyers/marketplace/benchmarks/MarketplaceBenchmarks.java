@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler enabled, so that each result reports the
+ * allocation rate ({@code gc.alloc.rate.norm}, in bytes per operation) next to the throughput.
+ * Accepts the standard JMH command-line options, e.g. a regular expression selecting the
+ * benchmarks to run.
+ */
+public class MarketplaceBenchmarks {
+
+  public static void main(String[] args) throws RunnerException {
+    Options options;
+    try {
+      options =
+          new OptionsBuilder()
+              .parent(new CommandLineOptions(args))
+              .addProfiler(GCProfiler.class)
+              .build();
+    } catch (CommandLineOptionException ex) {
+      System.out.printf("Invalid benchmark options:%n%s", ex.getMessage());
+      System.exit(1);
+      return;
+    }
+
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.benchmarks;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.standin.SyntheticResources;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the human-readable rendering used by the get and list samples. Standard output is
+ * redirected to a stream that discards its input, so the results include formatting and character
+ * encoding but not terminal I/O.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderingBenchmark {
+
+  private FinalizedDeal finalizedDeal;
+  private Deal deal;
+  private PrintStream originalOut;
+
+  @Setup
+  public void setUp() {
+    finalizedDeal = SyntheticResources.newFinalizedDeal("buyers/1", 1);
+    deal = SyntheticResources.newDeal("buyers/1/proposals/MP1", 2);
+    originalOut = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+  }
+
+  @TearDown
+  public void tearDown() {
+    System.setOut(originalOut);
+  }
+
+  @Benchmark
+  public void printFinalizedDeal() {
+    Utils.printFinalizedDeal(finalizedDeal);
+  }
+
+  @Benchmark
+  public void printDeal() {
+    Utils.printDeal(deal);
+  }
+}
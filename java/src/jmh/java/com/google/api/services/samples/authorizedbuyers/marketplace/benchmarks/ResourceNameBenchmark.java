@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.benchmarks;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.ApiMethod;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building resource names the way the samples do, and deriving the API method and
+ * account from a request URL, which the throttling and retry layers do for every request.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResourceNameBenchmark {
+
+  // Non-final so that the formatting can't be constant-folded.
+  private long accountId = 12345678L;
+  private long dealId = 9876543210L;
+  private String proposalId = "MP21673270";
+  private GenericUrl requestUrl;
+
+  @Setup
+  public void setUp() {
+    requestUrl =
+        new GenericUrl(
+            "https://authorizedbuyersmarketplace.googleapis.com/v1/buyers/12345678/proposals/"
+                + "MP21673270/deals?pageSize=50&pageToken=CgwI");
+  }
+
+  @Benchmark
+  public String formatFinalizedDealName() {
+    return String.format("buyers/%d/finalizedDeals/%d", accountId, dealId);
+  }
+
+  @Benchmark
+  public String formatDealParentName() {
+    return String.format("buyers/%d/proposals/%s", accountId, proposalId);
+  }
+
+  @Benchmark
+  public String concatenateFinalizedDealName() {
+    return "buyers/" + accountId + "/finalizedDeals/" + dealId;
+  }
+
+  @Benchmark
+  public ApiMethod resolveApiMethod() {
+    return ApiMethod.of("GET", requestUrl);
+  }
+}
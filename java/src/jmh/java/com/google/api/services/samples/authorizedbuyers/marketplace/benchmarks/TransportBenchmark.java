@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.benchmarks;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListFinalizedDealsResponse;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.standin.StandInServer;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput and latency of the HTTP transports on concurrent
+ * bidders.finalizedDeals.list requests, which share one client as the samples do.
+ *
+ * <p>By default, requests are sent to a local {@link StandInServer}, which only serves HTTP/1.1 in
+ * cleartext. The {@code http2} transport then falls back to HTTP/1.1, so the results compare
+ * per-request overhead and connection reuse, but don't exercise HTTP/2 multiplexing. To measure
+ * multiplexing, set {@code rootUrl} to an endpoint that negotiates HTTP/2 via TLS and ALPN, e.g.
+ * the stand-in server behind an HTTP/2 proxy, and that accepts unauthenticated requests. The
+ * protocol negotiated with the endpoint is printed before each trial, so that results can't be
+ * mistaken for HTTP/2 measurements when it fell back.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class TransportBenchmark {
+
+  private static final String PARENT = "bidders/1";
+
+  @Param({"pooled", "http2", "net"})
+  public String transportType;
+
+  /** The root URL of the endpoint, or empty to start a local stand-in server. */
+  @Param({""})
+  public String rootUrl;
+
+  /** The number of finalized deals on each page. */
+  @Param({"50"})
+  public int pageSize;
+
+  private StandInServer server;
+  private HttpTransport transport;
+  private AuthorizedBuyersMarketplace client;
+
+  @Setup
+  public void setUp() throws IOException, GeneralSecurityException {
+    JsonFactory jsonFactory = Utils.getJsonFactory();
+    String endpoint = rootUrl;
+    if (endpoint.isEmpty()) {
+      server = new StandInServer(jsonFactory, 1000);
+      server.start();
+      endpoint = server.getRootUrl();
+    }
+
+    System.out.printf("%nProtocol negotiated with %s: %s%n", endpoint, getProtocol(endpoint));
+
+    transport = Utils.newHttpTransport(transportType);
+    client =
+        new AuthorizedBuyersMarketplace.Builder(transport, jsonFactory, null)
+            .setRootUrl(endpoint)
+            .setApplicationName("TransportBenchmark")
+            .build();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    transport.shutdown();
+    if (server != null) {
+      server.stop();
+    }
+  }
+
+  @Benchmark
+  public ListFinalizedDealsResponse listFinalizedDeals() throws IOException {
+    return client.bidders().finalizedDeals().list(PARENT).setPageSize(pageSize).execute();
+  }
+
+  /** Returns the protocol that an HTTP/2-preferring client negotiates with the endpoint. */
+  private static HttpClient.Version getProtocol(String endpoint) throws IOException {
+    HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+    try {
+      HttpResponse<Void> response =
+          httpClient.send(
+              HttpRequest.newBuilder(URI.create(endpoint)).build(), BodyHandlers.discarding());
+      return response.version();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      InterruptedIOException interruptedException =
+          new InterruptedIOException("Interrupted while probing the endpoint.");
+      interruptedException.initCause(ex);
+      throw interruptedException;
+    }
+  }
+}
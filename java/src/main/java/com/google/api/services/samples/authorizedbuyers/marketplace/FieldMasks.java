@@ -0,0 +1,332 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.sourceforge.argparse4j.inf.Argument;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.ArgumentType;
+
+/**
+ * Partial-response field masks for the resources printed by the samples.
+ *
+ * <p>Each instance describes one resource type, the top-level fields that the corresponding {@code
+ * Utils.print*} method renders, and a set of named presets. The {@code --fields} argument of get
+ * and list samples accepts either a preset name or a comma-separated list of fields, which is sent
+ * as the standard {@code fields} system parameter so that the server omits everything else from
+ * the response. Field lists containing fields that can't be rendered, or that omit the resource
+ * name, are rejected when arguments are parsed.
+ */
+public class FieldMasks implements ArgumentType<String> {
+
+  /** Name of the preset that requests every field of the resource. */
+  public static final String FULL = "full";
+
+  public static final FieldMasks AUCTION_PACKAGE =
+      new FieldMasks(
+              "auctionPackages",
+              "name",
+              "creator",
+              "displayName",
+              "description",
+              "createTime",
+              "updateTime",
+              "subscribedClients")
+          .addPreset("summary", "name,displayName,creator")
+          .addPreset("subscriptions", "name,subscribedClients");
+
+  public static final FieldMasks CLIENT =
+      new FieldMasks(
+              "clients", "name", "displayName", "partnerClientId", "role", "state", "sellerVisible")
+          .addPreset("summary", "name,displayName,state");
+
+  public static final FieldMasks CLIENT_USER =
+      new FieldMasks("clientUsers", "name", "state", "email").addPreset("summary", "name,email");
+
+  public static final FieldMasks DEAL =
+      new FieldMasks(
+              "deals",
+              "name",
+              "createTime",
+              "updateTime",
+              "proposalRevision",
+              "displayName",
+              "billedBuyer",
+              "publisherProfile",
+              "dealType",
+              "estimatedGrossSpend",
+              "sellerTimeZone",
+              "description",
+              "flightStartTime",
+              "flightEndTime",
+              "targeting",
+              "creativeRequirements",
+              "deliveryControl",
+              "buyer",
+              "client",
+              "programmaticGuaranteedTerms",
+              "preferredDealTerms",
+              "privateAuctionTerms")
+          .addPreset(
+              "summary", "name,displayName,dealType,publisherProfile,flightStartTime,flightEndTime")
+          .addPreset(
+              "pricing",
+              "name,dealType,estimatedGrossSpend,programmaticGuaranteedTerms,preferredDealTerms,"
+                  + "privateAuctionTerms");
+
+  public static final FieldMasks FINALIZED_DEAL =
+      new FieldMasks(
+              "finalizedDeals",
+              "name",
+              "dealServingStatus",
+              "dealPausingInfo",
+              "rtbMetrics",
+              "readyToServe",
+              "deal")
+          .addPreset(
+              "summary",
+              "name,dealServingStatus,readyToServe,"
+                  + "deal(displayName,dealType,flightStartTime,flightEndTime)")
+          .addPreset("metrics", "name,dealServingStatus,rtbMetrics");
+
+  public static final FieldMasks PROPOSAL =
+      new FieldMasks(
+              "proposals",
+              "name",
+              "displayName",
+              "updateTime",
+              "proposalRevision",
+              "dealType",
+              "isRenegotiating",
+              "originatorRole",
+              "publisherProfile",
+              "buyerPrivateData",
+              "billedBuyer",
+              "sellerContacts",
+              "buyerContacts",
+              "lastUpdaterOrCommentorRole",
+              "termsAndConditions",
+              "pausingConsented",
+              "notes",
+              "buyer",
+              "client")
+          .addPreset(
+              "summary", "name,displayName,dealType,updateTime,proposalRevision,publisherProfile")
+          .addPreset("negotiation", "name,proposalRevision,lastUpdaterOrCommentorRole,notes");
+
+  public static final FieldMasks PUBLISHER_PROFILE =
+      new FieldMasks(
+              "publisherProfiles",
+              "name",
+              "displayName",
+              "domains",
+              "mobileApps",
+              "logoUrl",
+              "directDealsContact",
+              "programmaticDealsContact",
+              "mediaKitUrl",
+              "samplePageUrl",
+              "overview",
+              "pitchStatement",
+              "topHeadlines",
+              "audienceDescription",
+              "isParent",
+              "publisherCode")
+          .addPreset("summary", "name,displayName,domains,publisherCode")
+          .addPreset("contacts", "name,displayName,directDealsContact,programmaticDealsContact");
+
+  private final String collectionField;
+  private final Set<String> renderableFields;
+  private final Map<String, String> presets = new LinkedHashMap<>();
+
+  private FieldMasks(String collectionField, String... renderableFields) {
+    this.collectionField = collectionField;
+    this.renderableFields = new HashSet<>(Arrays.asList(renderableFields));
+    presets.put(FULL, null);
+  }
+
+  /**
+   * Registers a preset, verifying that it can be rendered.
+   *
+   * @throws IllegalStateException if the preset's fields can't be rendered.
+   */
+  private FieldMasks addPreset(String presetName, String fields) {
+    String error = validate(fields);
+    if (error != null) {
+      throw new IllegalStateException(
+          String.format("Invalid \"%s\" preset for %s: %s", presetName, collectionField, error));
+    }
+
+    presets.put(presetName, fields);
+    return this;
+  }
+
+  /**
+   * Adds the {@code --fields} argument to the given parser.
+   *
+   * @param parser The parser of a sample that gets or lists this resource type.
+   */
+  public void addArgument(ArgumentParser parser) {
+    parser
+        .addArgument("--fields")
+        .help(
+            String.format(
+                "The fields to retrieve, which can reduce the size of the response. Specify one "
+                    + "of the presets %s, or a comma-separated list of fields using the partial "
+                    + "response syntax, e.g. \"name,deal(displayName)\". The list must include "
+                    + "\"name\".",
+                presets.keySet()))
+        .type(this)
+        .setDefault(FULL);
+  }
+
+  /**
+   * Resolves a {@code --fields} argument to the field mask used for get requests.
+   *
+   * @param fieldsArgument A preset name or comma-separated field list.
+   * @return The value of the {@code fields} parameter, or {@code null} to retrieve every field.
+   */
+  public String forGet(String fieldsArgument) {
+    return presets.containsKey(fieldsArgument) ? presets.get(fieldsArgument) : fieldsArgument;
+  }
+
+  /**
+   * Resolves a {@code --fields} argument to the field mask used for list requests, which always
+   * includes the next page token so that pagination continues to work.
+   *
+   * @param fieldsArgument A preset name or comma-separated field list.
+   * @return The value of the {@code fields} parameter, or {@code null} to retrieve every field.
+   */
+  public String forList(String fieldsArgument) {
+    String fields = forGet(fieldsArgument);
+    return (fields == null)
+        ? null
+        : String.format("%s(%s),nextPageToken", collectionField, fields);
+  }
+
+  /**
+   * Resolves a {@code --fields} argument to the field mask used for list requests, adding fields
+   * that the sample needs in addition to those it prints, such as those it sorts by.
+   *
+   * @param fieldsArgument A preset name or comma-separated field list.
+   * @param requiredPaths Dot-separated paths of the additional fields, e.g. {@code
+   *     deal.flightStartTime}.
+   * @return The value of the {@code fields} parameter, or {@code null} to retrieve every field.
+   */
+  public String forList(String fieldsArgument, Collection<String> requiredPaths) {
+    String fields = forGet(fieldsArgument);
+    if (fields == null) {
+      return null;
+    }
+
+    StringBuilder builder = new StringBuilder(fields);
+    for (String path : requiredPaths) {
+      builder.append(',').append(path.replace('.', '/'));
+    }
+    return String.format("%s(%s),nextPageToken", collectionField, builder);
+  }
+
+  /** Validates a {@code --fields} argument as it is parsed. */
+  @Override
+  public String convert(ArgumentParser parser, Argument arg, String value)
+      throws ArgumentParserException {
+    if (presets.containsKey(value)) {
+      return value;
+    }
+
+    String error = validate(value);
+    if (error != null) {
+      throw new ArgumentParserException(
+          String.format("argument %s: %s", arg.textualName(), error), parser);
+    }
+    return value;
+  }
+
+  /**
+   * Checks that a field list selects the resource name and only contains fields rendered by the
+   * corresponding {@code Utils.print*} method.
+   *
+   * @return A description of the problem, or {@code null} if the field list is valid.
+   */
+  private String validate(String fields) {
+    List<String> topLevelFields = getTopLevelFields(fields);
+    if (topLevelFields == null) {
+      return String.format("\"%s\" is not a valid field list.", fields);
+    }
+
+    for (String field : topLevelFields) {
+      if (!renderableFields.contains(field)) {
+        return String.format(
+            "\"%s\" is not a field that can be printed. Expected a preset from %s or fields from "
+                + "%s.",
+            field, presets.keySet(), renderableFields);
+      }
+    }
+    if (!topLevelFields.contains("name")) {
+      return "The field list must include \"name\", which identifies each printed resource.";
+    }
+
+    return null;
+  }
+
+  /**
+   * Splits a partial response field list into the top-level field names it selects, e.g. {@code
+   * "name,deal(displayName),rtbMetrics/bids7Days"} yields {@code [name, deal, rtbMetrics]}.
+   *
+   * @return The top-level fields, or {@code null} if the field list is malformed.
+   */
+  private static List<String> getTopLevelFields(String fields) {
+    List<String> topLevelFields = new ArrayList<>();
+    int depth = 0;
+    int fieldStart = 0;
+
+    for (int i = 0; i <= fields.length(); i++) {
+      char c = (i < fields.length()) ? fields.charAt(i) : ',';
+      if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        if (--depth < 0) {
+          return null;
+        }
+      } else if (c == ',' && depth == 0) {
+        String field = fields.substring(fieldStart, i).trim();
+        int end = field.length();
+        for (char delimiter : new char[] {'/', '('}) {
+          int index = field.indexOf(delimiter);
+          if (index >= 0) {
+            end = Math.min(end, index);
+          }
+        }
+        if (end == 0) {
+          return null;
+        }
+        topLevelFields.add(field.substring(0, end));
+        fieldStart = i + 1;
+      }
+    }
+
+    return (depth == 0) ? topLevelFields : null;
+  }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace;
+
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonGenerator;
+import com.google.api.services.samples.authorizedbuyers.marketplace.filter.FieldSchema;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import net.sourceforge.argparse4j.inf.Argument;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * The format that samples print resources in, which is selected with the {@code --output}
+ * argument.
+ *
+ * <p>The default {@code text} format is the indented, human-readable output of the {@code
+ * Utils.print*} methods. With {@code ndjson}, each printed resource is instead written to standard
+ * output as one line of JSON, serialized by the JSON factory into a buffer rather than field by
+ * field, e.g. for piping to {@code jq}. Everything else that samples print, such as headings and
+ * errors, goes to standard error so that standard output only holds JSON. The buffer is flushed
+ * whenever a sample waits for the next page of a list, so each page is written out as a whole
+ * while the next one is being requested.
+ *
+ * <p>Samples that list a single resource type can also offer {@code csv} and {@code tsv}, which
+ * write a header row followed by one row per resource, holding the fields selected with the {@code
+ * --columns} argument. Rows are written through a large character buffer that is reused for the
+ * whole sample and flushed at the same points as JSON lines.
+ */
+public final class OutputFormat {
+
+  public static final String TEXT = "text";
+  public static final String NDJSON = "ndjson";
+  public static final String CSV = "csv";
+  public static final String TSV = "tsv";
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** Size in characters of the buffer that table rows are written to. */
+  private static final int TABLE_BUFFER_SIZE = 1024 * 1024;
+
+  private static OutputStream resourceOut;
+  private static OutputStream generatorOut;
+  private static Writer tableOut;
+  private static TableColumns<?> tableColumns;
+  private static char tableDelimiter;
+  private static PrintStream textOut;
+  private static boolean shutdownHookAdded;
+
+  private OutputFormat() {}
+
+  /**
+   * Adds the {@code --output} argument to the given parser.
+   *
+   * @param parser The parser of a sample that prints resources.
+   */
+  public static void addArgument(ArgumentParser parser) {
+    parser
+        .addArgument("--output")
+        .help(
+            "The format that resources are printed in. \"ndjson\" prints each resource as a line "
+                + "of JSON, and prints everything else to standard error.")
+        .choices(TEXT, NDJSON)
+        .setDefault(TEXT);
+  }
+
+  /**
+   * Adds the {@code --output} argument, including the tabular formats, and the {@code --columns}
+   * argument to the given parser.
+   *
+   * @param parser The parser of a sample that lists resources described by the given schema.
+   * @param schema The schema whose field paths name the columns.
+   * @param defaultColumns The comma-separated columns written if {@code --columns} isn't given.
+   */
+  public static <T> void addArgument(
+      ArgumentParser parser, FieldSchema<T> schema, String defaultColumns) {
+    parser
+        .addArgument("--output")
+        .help(
+            "The format that resources are printed in. \"ndjson\" prints each resource as a line "
+                + "of JSON, and \"csv\" and \"tsv\" print a header row followed by a row of "
+                + "--columns per resource. Everything else is printed to standard error unless "
+                + "the format is \"text\".")
+        .choices(TEXT, NDJSON, CSV, TSV)
+        .setDefault(TEXT);
+    parser
+        .addArgument("--columns")
+        .help(
+            "The comma-separated fields written as columns by the \"csv\" and \"tsv\" "
+                + "formats, given as dot-separated paths, e.g. \"name,rtbMetrics.bids7Days\".")
+        .type((columnsParser, arg, value) -> parseColumns(columnsParser, arg, schema, value))
+        .setDefault(TableColumns.parse(schema, defaultColumns));
+  }
+
+  /**
+   * Returns the field paths of the columns if a tabular format is selected, e.g. to add them to the
+   * field mask of list requests, or an empty list otherwise.
+   */
+  public static synchronized List<String> getColumnPaths() {
+    return (tableColumns != null) ? tableColumns.getPaths() : Collections.emptyList();
+  }
+
+  /**
+   * Selects the format given by the {@code --output} argument for the rest of the sample.
+   *
+   * @param parsedArgs The arguments of a sample whose parser has the {@code --output} argument.
+   */
+  public static synchronized void select(Namespace parsedArgs) {
+    finish();
+    String output = parsedArgs.getString("output");
+    if (!NDJSON.equals(output) && !CSV.equals(output) && !TSV.equals(output)) {
+      return;
+    }
+
+    textOut = System.out;
+    resourceOut = new BufferedOutputStream(textOut, BUFFER_SIZE);
+    // JSON generators flush their stream when done, which mustn't flush the buffer.
+    generatorOut =
+        new FilterOutputStream(resourceOut) {
+          @Override
+          public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+          }
+
+          @Override
+          public void flush() {}
+        };
+    if (!NDJSON.equals(output)) {
+      tableColumns = parsedArgs.get("columns");
+      tableDelimiter = CSV.equals(output) ? ',' : '\t';
+      tableOut =
+          new BufferedWriter(
+              new OutputStreamWriter(resourceOut, StandardCharsets.UTF_8), TABLE_BUFFER_SIZE);
+      try {
+        tableColumns.writeHeader(tableOut, tableDelimiter);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+    System.setOut(System.err);
+    if (!shutdownHookAdded) {
+      // Standalone samples end by returning from main or calling System.exit.
+      Runtime.getRuntime().addShutdownHook(new Thread(OutputFormat::finish));
+      shutdownHookAdded = true;
+    }
+  }
+
+  /**
+   * Writes a resource as a line of JSON if the {@code ndjson} format is selected, or as a row if a
+   * tabular format is selected and the resource has the type of its columns.
+   *
+   * @return Whether the resource was written, i.e. it mustn't also be printed as text.
+   */
+  public static synchronized boolean write(GenericJson resource) {
+    if (resourceOut == null) {
+      return false;
+    }
+    try {
+      if (tableOut != null) {
+        if (!tableColumns.accepts(resource)) {
+          return false;
+        }
+        tableColumns.writeRow(resource, tableOut, tableDelimiter);
+        return true;
+      }
+      JsonGenerator generator =
+          Utils.getJsonFactory().createJsonGenerator(generatorOut, StandardCharsets.UTF_8);
+      generator.serialize(resource);
+      generator.flush();
+      resourceOut.write('\n');
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return true;
+  }
+
+  /** Writes out the resources written so far, e.g. before waiting for the next page of a list. */
+  public static synchronized void flush() {
+    try {
+      if (tableOut != null) {
+        tableOut.flush();
+      } else if (resourceOut != null) {
+        resourceOut.flush();
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Writes out the resources written so far and restores the {@code text} format. Called when a
+   * sample ends.
+   */
+  public static synchronized void finish() {
+    if (resourceOut == null) {
+      return;
+    }
+    flush();
+    System.setOut(textOut);
+    resourceOut = null;
+    generatorOut = null;
+    tableOut = null;
+    tableColumns = null;
+    textOut = null;
+  }
+
+  /** Parses a {@code --columns} argument, reporting invalid columns as parse errors. */
+  private static <T> TableColumns<T> parseColumns(
+      ArgumentParser parser, Argument arg, FieldSchema<T> schema, String value)
+      throws ArgumentParserException {
+    try {
+      return TableColumns.parse(schema, value);
+    } catch (IllegalArgumentException ex) {
+      throw new ArgumentParserException(
+          String.format("argument %s: %s", arg.textualName(), ex.getMessage()), parser);
+    }
+  }
+}
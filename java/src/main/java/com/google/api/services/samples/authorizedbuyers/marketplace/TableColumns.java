@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace;
+
+import com.google.api.services.samples.authorizedbuyers.marketplace.filter.FieldSchema;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A selection of fields that resources are written as rows of, for the {@code csv} and {@code tsv}
+ * formats of {@link OutputFormat}.
+ *
+ * <p>Columns are named by the dot-separated field paths of a {@link FieldSchema}, e.g. {@code
+ * rtbMetrics.bids7Days} or {@code deal.programmaticGuaranteedTerms.fixedPrice.amount.units}. Each
+ * value is read with the field's typed getter, so a row is written without serializing the
+ * resource. Missing fields are written as empty values, and timestamps in the ISO-8601 format.
+ *
+ * @param <T> The type of the resources.
+ */
+public final class TableColumns<T> {
+
+  /** The columns written for finalized deals if {@code --columns} isn't given. */
+  public static final String FINALIZED_DEAL_COLUMNS =
+      String.join(
+          ",",
+          "name",
+          "dealServingStatus",
+          "deal.dealType",
+          "deal.flightStartTime",
+          "deal.flightEndTime",
+          "rtbMetrics.bidRequests7Days",
+          "rtbMetrics.bids7Days",
+          "rtbMetrics.adImpressions7Days",
+          "rtbMetrics.bidRate7Days",
+          "rtbMetrics.filteredBidRate7Days",
+          "rtbMetrics.mustBidRateCurrentMonth",
+          "deal.estimatedGrossSpend.currencyCode",
+          "deal.estimatedGrossSpend.units",
+          "deal.estimatedGrossSpend.nanos",
+          "deal.programmaticGuaranteedTerms.fixedPrice.amount.currencyCode",
+          "deal.programmaticGuaranteedTerms.fixedPrice.amount.units",
+          "deal.programmaticGuaranteedTerms.fixedPrice.amount.nanos",
+          "deal.preferredDealTerms.fixedPrice.amount.currencyCode",
+          "deal.preferredDealTerms.fixedPrice.amount.units",
+          "deal.preferredDealTerms.fixedPrice.amount.nanos",
+          "deal.privateAuctionTerms.floorPrice.amount.currencyCode",
+          "deal.privateAuctionTerms.floorPrice.amount.units",
+          "deal.privateAuctionTerms.floorPrice.amount.nanos");
+
+  private final Class<T> type;
+  private final List<String> paths;
+  private final List<Function<T, Object>> getters;
+
+  private TableColumns(Class<T> type, List<String> paths, List<Function<T, Object>> getters) {
+    this.type = type;
+    this.paths = Collections.unmodifiableList(paths);
+    this.getters = getters;
+  }
+
+  /**
+   * Parses a comma-separated list of columns.
+   *
+   * @param schema The schema of the resources.
+   * @param columns The field paths of the columns, e.g. {@code name,rtbMetrics.bids7Days}.
+   * @throws IllegalArgumentException if the list is empty, or names a field that isn't in the
+   *     schema or the same field twice.
+   */
+  public static <T> TableColumns<T> parse(FieldSchema<T> schema, String columns) {
+    Set<String> paths = new LinkedHashSet<>();
+    List<Function<T, Object>> getters = new ArrayList<>();
+    for (String column : columns.split(",", -1)) {
+      String path = column.trim();
+      if (path.isEmpty()) {
+        throw new IllegalArgumentException("Empty column in columns.");
+      }
+      if (!paths.add(path)) {
+        throw new IllegalArgumentException(
+            String.format("Duplicate field \"%s\" in columns.", path));
+      }
+      getters.add(schema.compileGetter(path));
+    }
+    return new TableColumns<>(schema.getType(), new ArrayList<>(paths), getters);
+  }
+
+  /** Returns the field paths of the columns, in order. */
+  public List<String> getPaths() {
+    return paths;
+  }
+
+  /** Returns whether rows can be written for the given resource, i.e. it has the schema's type. */
+  public boolean accepts(Object resource) {
+    return type.isInstance(resource);
+  }
+
+  /**
+   * Writes the header row, which holds the field paths of the columns.
+   *
+   * @param out The writer of the table.
+   * @param delimiter The character that separates values, i.e. a comma or a tab.
+   */
+  public void writeHeader(Writer out, char delimiter) throws IOException {
+    for (int i = 0; i < paths.size(); i++) {
+      if (i > 0) {
+        out.write(delimiter);
+      }
+      writeValue(paths.get(i), out, delimiter);
+    }
+    out.write('\n');
+  }
+
+  /**
+   * Writes the row of a resource.
+   *
+   * @param resource A resource accepted by {@link #accepts(Object)}.
+   * @param out The writer of the table.
+   * @param delimiter The character that separates values, i.e. a comma or a tab.
+   */
+  public void writeRow(Object resource, Writer out, char delimiter) throws IOException {
+    T typedResource = type.cast(resource);
+    for (int i = 0; i < getters.size(); i++) {
+      if (i > 0) {
+        out.write(delimiter);
+      }
+      Object value = getters.get(i).apply(typedResource);
+      if (value != null) {
+        writeValue(value.toString(), out, delimiter);
+      }
+    }
+    out.write('\n');
+  }
+
+  @Override
+  public String toString() {
+    return String.join(",", paths);
+  }
+
+  /**
+   * Writes a value, quoting it as in RFC 4180 if the delimiter is a comma, or escaping tabs, line
+   * breaks and backslashes with a backslash if it's a tab.
+   */
+  private static void writeValue(String value, Writer out, char delimiter) throws IOException {
+    int special = 0;
+    while (special < value.length() && !isSpecial(value.charAt(special), delimiter)) {
+      special++;
+    }
+    if (special == value.length()) {
+      out.write(value);
+      return;
+    }
+
+    if (delimiter != '\t') {
+      out.write('"');
+      out.write(value.replace("\"", "\"\""));
+      out.write('"');
+      return;
+    }
+
+    out.write(value, 0, special);
+    for (int i = special; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\t') {
+        out.write("\\t");
+      } else if (c == '\n') {
+        out.write("\\n");
+      } else if (c == '\r') {
+        out.write("\\r");
+      } else if (c == '\\') {
+        out.write("\\\\");
+      } else {
+        out.write(c);
+      }
+    }
+  }
+
+  private static boolean isSpecial(char c, char delimiter) {
+    if (c == delimiter || c == '\n' || c == '\r') {
+      return true;
+    }
+    return (delimiter == '\t') ? c == '\\' : c == '"';
+  }
+}
@@ -19,18 +19,37 @@ import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplaceScopes;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.*;
+import com.google.api.services.samples.authorizedbuyers.marketplace.async.AsyncMarketplaceClient;
+import com.google.api.services.samples.authorizedbuyers.marketplace.auth.CachingServiceAccountCredentials;
+import com.google.api.services.samples.authorizedbuyers.marketplace.daemon.CommandExitException;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.AimdConcurrencyLimiter;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.MetricsRequestInitializer;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.JavaNetHttpClientTransport;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.PooledHttpTransportFactory;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.RetryBudget;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.RetryingRequestInitializer;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.ThrottlingRequestInitializer;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.TokenBucketRateLimiter;
+import com.google.api.services.samples.authorizedbuyers.marketplace.metrics.ApiMetrics;
+import com.google.api.services.samples.authorizedbuyers.marketplace.metrics.PrometheusExporter;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.PageSizeController;
 import com.google.auth.http.HttpCredentialsAdapter;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.auth.oauth2.ServiceAccountCredentials;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.GeneralSecurityException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
@@ -45,21 +64,229 @@ public class Utils {
   /** Full path to JSON Key file - include file name */
   private static final java.io.File JSON_FILE = new java.io.File("INSERT_PATH_TO_JSON_FILE");
 
+  /**
+   * Directory in which access tokens are cached between runs, so that short-lived processes can
+   * skip the token exchange. Can be overridden with the {@code
+   * marketplace.auth.tokenCacheDirectory} system property; setting it to an empty value disables
+   * the cache.
+   */
+  private static final String TOKEN_CACHE_DIRECTORY =
+      System.getProperty(
+          "marketplace.auth.tokenCacheDirectory",
+          Paths.get(System.getProperty("user.home"), ".authorized-buyers-marketplace", "tokens")
+              .toString());
+
+  /**
+   * Directory in which samples that sync resources keep their local copies, in a subdirectory for
+   * each account. Can be overridden with the {@code marketplace.store.directory} system property.
+   */
+  private static final String STORE_DIRECTORY =
+      System.getProperty(
+          "marketplace.store.directory",
+          Paths.get(System.getProperty("user.home"), ".authorized-buyers-marketplace", "store")
+              .toString());
+
+  /**
+   * Root URL of the Marketplace API. Can be overridden with the {@code marketplace.rootUrl} system
+   * property, e.g. to send requests to a local {@code StandInServer}.
+   */
+  private static final String ROOT_URL =
+      System.getProperty("marketplace.rootUrl", AuthorizedBuyersMarketplace.DEFAULT_ROOT_URL);
+
+  /**
+   * Whether requests are sent without credentials, which is only useful with a {@code
+   * marketplace.rootUrl} that doesn't require them. Can be enabled with the {@code
+   * marketplace.auth.anonymous} system property.
+   */
+  private static final boolean ANONYMOUS = Boolean.getBoolean("marketplace.auth.anonymous");
+
   /**
    * Global instance of a DateTimeFormatter used to parse LocalDate instances and convert them to
    * String.
    */
   private static final DateTimeFormatter dateFormatter = DateTimeFormat.forPattern("Y-M-d");
 
-  /** Global instance of the JSON factory. */
-  private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+  /**
+   * Global instance of the JSON factory. The JSON engine is selected with the {@code
+   * marketplace.json.factory} system property, which may be {@code gson} (the default) or {@code
+   * jackson2}.
+   */
+  private static final JsonFactory JSON_FACTORY =
+      getJsonFactory(System.getProperty("marketplace.json.factory", "gson"));
 
   /**
-   * Global instance of the maximum page size, which will be the default page size for samples with
-   * pagination.
+   * Global instance of the maximum page size, which will be the page size of the first page for
+   * samples with pagination. Adaptive paging adjusts the page size of later pages.
    */
   private static final Integer MAXIMUM_PAGE_SIZE = 50;
 
+  /**
+   * Largest page size that list methods accept, which bounds the page sizes chosen by adaptive
+   * paging. Can be overridden with the {@code marketplace.paging.maxPageSize} system property.
+   */
+  private static final int PAGING_MAX_PAGE_SIZE =
+      Integer.getInteger("marketplace.paging.maxPageSize", 500);
+
+  /**
+   * Number of milliseconds that a page should take at most when its size is chosen by adaptive
+   * paging. Can be overridden with the {@code marketplace.paging.targetLatencyMillis} system
+   * property.
+   */
+  private static final long PAGING_TARGET_LATENCY_MILLIS =
+      Long.getLong("marketplace.paging.targetLatencyMillis", 1000L);
+
+  /**
+   * Number of bytes that a page should have at most when its size is chosen by adaptive paging.
+   * Can be overridden with the {@code marketplace.paging.maxResponseBytes} system property.
+   */
+  private static final long PAGING_MAX_RESPONSE_BYTES =
+      Long.getLong("marketplace.paging.maxResponseBytes", 4L * 1024 * 1024);
+
+  /**
+   * The HTTP transport used to send requests: {@code pooled} for a connection-pooled Apache HTTP
+   * client, {@code http2} for {@code java.net.http.HttpClient} with HTTP/2 multiplexing, or {@code
+   * net} for {@code HttpURLConnection}. Can be overridden with the {@code
+   * marketplace.http.transport} system property.
+   */
+  private static final String HTTP_TRANSPORT =
+      System.getProperty("marketplace.http.transport", "pooled");
+
+  /**
+   * Maximum number of pooled connections kept open to the Marketplace API. Can be overridden with
+   * the {@code marketplace.http.maxConnectionsPerRoute} system property.
+   */
+  private static final int MAX_CONNECTIONS_PER_ROUTE =
+      Integer.getInteger("marketplace.http.maxConnectionsPerRoute", 20);
+
+  /**
+   * Number of seconds an unused pooled connection is kept open before being evicted. Can be
+   * overridden with the {@code marketplace.http.idleConnectionTimeoutSeconds} system property.
+   */
+  private static final long IDLE_CONNECTION_TIMEOUT_SECONDS =
+      Long.getLong("marketplace.http.idleConnectionTimeoutSeconds", 60L);
+
+  /**
+   * Number of connections to the Marketplace API that are established when the client is first
+   * created. Can be overridden with the {@code marketplace.http.prewarmConnections} system
+   * property.
+   */
+  private static final int PREWARM_CONNECTIONS =
+      Integer.getInteger("marketplace.http.prewarmConnections", 0);
+
+  /**
+   * Maximum number of requests executed concurrently by the asynchronous client. Can be overridden
+   * with the {@code marketplace.async.maxConcurrentRequests} system property.
+   */
+  private static final int MAX_CONCURRENT_ASYNC_REQUESTS =
+      Integer.getInteger("marketplace.async.maxConcurrentRequests", MAX_CONNECTIONS_PER_ROUTE);
+
+  /**
+   * Maximum number of requests queued by the asynchronous client before callers execute requests
+   * themselves. Can be overridden with the {@code marketplace.async.maxQueuedRequests} system
+   * property.
+   */
+  private static final int MAX_QUEUED_ASYNC_REQUESTS =
+      Integer.getInteger("marketplace.async.maxQueuedRequests", 1000);
+
+  /**
+   * Sustained number of requests per second sent for each API method and account, e.g. {@code
+   * buyers.finalizedDeals.list} on {@code buyers/12345}. Can be overridden with the {@code
+   * marketplace.rateLimit.requestsPerSecond} system property; setting it to 0 disables rate
+   * limiting.
+   */
+  private static final double RATE_LIMIT_REQUESTS_PER_SECOND =
+      Double.parseDouble(System.getProperty("marketplace.rateLimit.requestsPerSecond", "10"));
+
+  /**
+   * Number of requests for each API method and account that may be sent at once before the rate
+   * limit applies. Can be overridden with the {@code marketplace.rateLimit.burstSize} system
+   * property.
+   */
+  private static final int RATE_LIMIT_BURST_SIZE =
+      Integer.getInteger("marketplace.rateLimit.burstSize", 10);
+
+  /**
+   * Maximum number of requests in flight across all API methods. The effective limit shrinks by
+   * half whenever the API responds with 429 or 503, and grows back gradually as requests succeed.
+   * Can be overridden with the {@code marketplace.concurrency.maxRequests} system property; setting
+   * it to 0 disables concurrency limiting.
+   */
+  private static final int MAX_CONCURRENT_REQUESTS =
+      Integer.getInteger("marketplace.concurrency.maxRequests", MAX_CONNECTIONS_PER_ROUTE);
+
+  /**
+   * Maximum number of times a request is sent, including the first attempt, when it fails due to a
+   * transient error. Can be overridden with the {@code marketplace.retry.maxAttempts} system
+   * property; setting it to 1 disables retries.
+   */
+  private static final int RETRY_MAX_ATTEMPTS =
+      Integer.getInteger("marketplace.retry.maxAttempts", 5);
+
+  /**
+   * Upper bound of the randomized delay before the first retry, which doubles with each retry. Can
+   * be overridden with the {@code marketplace.retry.initialBackoffMillis} system property.
+   */
+  private static final long RETRY_INITIAL_BACKOFF_MILLIS =
+      Long.getLong("marketplace.retry.initialBackoffMillis", 500L);
+
+  /**
+   * Upper bound of the randomized delay before any retry. Can be overridden with the {@code
+   * marketplace.retry.maxBackoffMillis} system property.
+   */
+  private static final long RETRY_MAX_BACKOFF_MILLIS =
+      Long.getLong("marketplace.retry.maxBackoffMillis", 32000L);
+
+  /**
+   * Number of seconds within which all attempts of a request must complete. Can be overridden with
+   * the {@code marketplace.retry.deadlineSeconds} system property.
+   */
+  private static final long RETRY_DEADLINE_SECONDS =
+      Long.getLong("marketplace.retry.deadlineSeconds", 120L);
+
+  /**
+   * Number of retries allowed for each request sent, which prevents retries from multiplying the
+   * load on the API during an outage. Can be overridden with the {@code
+   * marketplace.retry.budgetRatio} system property.
+   */
+  private static final double RETRY_BUDGET_RATIO =
+      Double.parseDouble(System.getProperty("marketplace.retry.budgetRatio", "0.2"));
+
+  /**
+   * File that the API call metrics are written to in the Prometheus text format when the process
+   * exits. Can be set with the {@code marketplace.metrics.file} system property; by default the
+   * metrics aren't written.
+   */
+  private static final String METRICS_FILE = System.getProperty("marketplace.metrics.file", "");
+
+  /**
+   * Port on the loopback interface at which the API call metrics can be scraped from {@code
+   * /metrics} while the process runs. Can be set with the {@code marketplace.metrics.port} system
+   * property; by default the metrics aren't served.
+   */
+  private static final int METRICS_PORT = Integer.getInteger("marketplace.metrics.port", 0);
+
+  /** Global metrics of the API calls made by all Marketplace API clients. */
+  private static final ApiMetrics API_METRICS = new ApiMetrics();
+
+  /** Page size controllers of the list methods, keyed by method name. */
+  private static final ConcurrentMap<String, PageSizeController> PAGE_SIZE_CONTROLLERS =
+      new ConcurrentHashMap<>();
+
+  /** Whether the API call metrics are being exported. */
+  private static boolean metricsExported;
+
+  /** Whether samples run inside a long-lived process rather than in a JVM of their own. */
+  private static volatile boolean resident;
+
+  /** Global instance of the pooled HTTP transport, shared by all Marketplace API clients. */
+  private static HttpTransport httpTransport;
+
+  /** Global instance of the Marketplace API client, created on first use. */
+  private static AuthorizedBuyersMarketplace marketplaceClient;
+
+  /** Global instance of the asynchronous Marketplace API client, created on first use. */
+  private static AsyncMarketplaceClient asyncMarketplaceClient;
+
   /**
    * Authorizes the application to access the user's protected data.
    *
@@ -75,6 +302,13 @@ public class Utils {
       credentials = ServiceAccountCredentials.fromStream(serviceAccountStream).createScoped(scopes);
     }
 
+    // Only service account tokens are cached; other credentials are used as they are.
+    if (!TOKEN_CACHE_DIRECTORY.isEmpty() && credentials instanceof ServiceAccountCredentials) {
+      credentials =
+          CachingServiceAccountCredentials.create(
+              (ServiceAccountCredentials) credentials, Paths.get(TOKEN_CACHE_DIRECTORY));
+    }
+
     return credentials;
   }
 
@@ -744,6 +978,57 @@ public class Utils {
     return dateFormatter;
   }
 
+  /**
+   * Retrieve the JSON factory used to parse and serialize API requests and responses.
+   *
+   * @return The {@code JsonFactory} instance selected for this process.
+   */
+  public static JsonFactory getJsonFactory() {
+    return JSON_FACTORY;
+  }
+
+  /**
+   * Retrieve the shared instance of the JSON factory for the given JSON engine.
+   *
+   * @param jsonEngine Either {@code gson} or {@code jackson2}.
+   * @throws IllegalArgumentException if the JSON engine is not recognized.
+   * @return The {@code JsonFactory} instance for the given engine.
+   */
+  @SuppressWarnings("deprecation")
+  public static JsonFactory getJsonFactory(String jsonEngine) {
+    switch (jsonEngine) {
+      case "gson":
+        return GsonFactory.getDefaultInstance();
+      case "jackson2":
+        return JacksonFactory.getDefaultInstance();
+      default:
+        throw new IllegalArgumentException(
+            String.format("Unknown JSON engine \"%s\".", jsonEngine));
+    }
+  }
+
+  /**
+   * Ends the running sample with the given status. Standalone samples exit the JVM, while samples
+   * run by the {@code SampleDaemon} throw a {@link CommandExitException} that ends only the
+   * current command.
+   *
+   * @param status The exit status, where 0 indicates success.
+   */
+  public static void exit(int status) {
+    if (resident) {
+      throw new CommandExitException(status);
+    }
+    System.exit(status);
+  }
+
+  /**
+   * Sets whether samples run inside a long-lived process, in which case {@link #exit(int)} doesn't
+   * exit the JVM.
+   */
+  public static void setResident(boolean resident) {
+    Utils.resident = resident;
+  }
+
   /**
    * Retrieve the default maximum page size.
    *
@@ -754,23 +1039,186 @@ public class Utils {
   }
 
   /**
-   * Performs all necessary setup steps for running requests against the Marketplace API.
+   * Returns the directory in which resources synced for the given account are stored.
+   *
+   * @param accountName The name of the buyer or bidder account, e.g. {@code buyers/12345}.
+   */
+  public static Path getStoreDirectory(String accountName) {
+    return Paths.get(STORE_DIRECTORY, accountName.replace('/', '-'));
+  }
+
+  /**
+   * Returns the controller that chooses the page size of a list method whose page size wasn't
+   * given explicitly. It starts at the default maximum page size, and is shared by all scans of
+   * the method in this process.
+   *
+   * @param method The name of the list method, e.g. {@code buyers.finalizedDeals.list}.
+   */
+  public static PageSizeController getPageSizeController(String method) {
+    return PAGE_SIZE_CONTROLLERS.computeIfAbsent(
+        method,
+        key ->
+            new PageSizeController(
+                key,
+                MAXIMUM_PAGE_SIZE,
+                PAGING_MAX_PAGE_SIZE,
+                PAGING_TARGET_LATENCY_MILLIS,
+                PAGING_MAX_RESPONSE_BYTES,
+                API_METRICS));
+  }
+
+  /**
+   * Creates a new HTTP transport of the given type.
+   *
+   * @param transportType One of {@code pooled}, {@code http2} or {@code net}.
+   * @throws IllegalArgumentException if the transport type is not recognized.
+   * @return An initialized {@code HttpTransport} instance.
+   */
+  public static HttpTransport newHttpTransport(String transportType)
+      throws IOException, GeneralSecurityException {
+    switch (transportType) {
+      case "pooled":
+        return new PooledHttpTransportFactory()
+            .setMaxConnectionsPerRoute(MAX_CONNECTIONS_PER_ROUTE)
+            .setIdleConnectionTimeoutSeconds(IDLE_CONNECTION_TIMEOUT_SECONDS)
+            .create();
+      case "http2":
+        return new JavaNetHttpClientTransport();
+      case "net":
+        return GoogleNetHttpTransport.newTrustedTransport();
+      default:
+        throw new IllegalArgumentException(
+            String.format("Unknown HTTP transport \"%s\".", transportType));
+    }
+  }
+
+  /**
+   * Retrieve the HTTP transport shared by all Marketplace API clients in this process, creating it
+   * on first use. The type of transport is selected with the {@code marketplace.http.transport}
+   * system property.
+   *
+   * @return An {@code HttpTransport} instance that is safe to share across threads.
+   */
+  public static synchronized HttpTransport getHttpTransport()
+      throws IOException, GeneralSecurityException {
+    if (httpTransport == null) {
+      httpTransport = newHttpTransport(HTTP_TRANSPORT);
+      PooledHttpTransportFactory.prewarm(httpTransport, ROOT_URL, PREWARM_CONNECTIONS);
+    }
+
+    return httpTransport;
+  }
+
+  /**
+   * Performs all necessary setup steps for running requests against the Marketplace API. The
+   * client is created once and shared by all callers in this process, so repeated calls reuse the
+   * same credentials and pooled connections. Requests are rate limited per API method and account,
+   * and the number of requests in flight adapts to throttling responses from the API. Requests that
+   * fail due to a transient error are retried when it is safe to do so.
    *
    * @return An initialized AuthorizedBuyersMarketplace service object.
    */
-  public static AuthorizedBuyersMarketplace getMarketplaceClient()
+  public static synchronized AuthorizedBuyersMarketplace getMarketplaceClient()
       throws IOException, GeneralSecurityException {
-    GoogleCredentials credentials = authorize();
-    HttpRequestInitializer requestInitializer = new HttpCredentialsAdapter(credentials);
-    HttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+    if (marketplaceClient == null) {
+      exportMetrics();
+      marketplaceClient =
+          newMarketplaceClient(
+              getHttpTransport(), ANONYMOUS ? null : new HttpCredentialsAdapter(authorize()));
+    }
+
+    return marketplaceClient;
+  }
+
+  /**
+   * Creates a Marketplace API client with the throttling and retry behavior of {@link
+   * #getMarketplaceClient()}. Each client has its own rate limits and retry budget, so most
+   * callers should use the shared client instead. API calls made by every client are recorded in
+   * the metrics returned by {@link #getApiMetrics()}.
+   *
+   * @param httpTransport The transport used to send requests.
+   * @param credentials The initializer that adds credentials to requests, or {@code null} to send
+   *     them without credentials.
+   * @return An initialized AuthorizedBuyersMarketplace service object.
+   */
+  public static AuthorizedBuyersMarketplace newMarketplaceClient(
+      HttpTransport httpTransport, HttpRequestInitializer credentials) {
+    // The metrics initializer is innermost, so that it only measures the time spent on the wire.
+    HttpRequestInitializer requestInitializer =
+        new MetricsRequestInitializer(credentials, API_METRICS);
+    requestInitializer =
+        new ThrottlingRequestInitializer(
+            requestInitializer,
+            (RATE_LIMIT_REQUESTS_PER_SECOND > 0)
+                ? new TokenBucketRateLimiter(RATE_LIMIT_REQUESTS_PER_SECOND, RATE_LIMIT_BURST_SIZE)
+                : null,
+            (MAX_CONCURRENT_REQUESTS > 0)
+                ? new AimdConcurrencyLimiter(
+                    MAX_CONCURRENT_REQUESTS, 1, MAX_CONCURRENT_REQUESTS, 0.5)
+                : null);
+    requestInitializer =
+        new RetryingRequestInitializer(
+            requestInitializer,
+            RETRY_MAX_ATTEMPTS,
+            RETRY_INITIAL_BACKOFF_MILLIS,
+            RETRY_MAX_BACKOFF_MILLIS,
+            RETRY_DEADLINE_SECONDS * 1000,
+            new RetryBudget(RETRY_BUDGET_RATIO, 10));
 
     return new AuthorizedBuyersMarketplace.Builder(httpTransport, JSON_FACTORY, requestInitializer)
+        .setRootUrl(ROOT_URL)
         .setApplicationName(APPLICATION_NAME)
         .build();
   }
 
-  /** Prints a {@code AuctionPackage} instance in a human-readable format. */
+  /**
+   * Returns the metrics of the API calls made by all Marketplace API clients, which can be dumped
+   * on demand with {@link ApiMetrics#writePrometheus(java.io.Writer)}.
+   */
+  public static ApiMetrics getApiMetrics() {
+    return API_METRICS;
+  }
+
+  /** Starts exporting the API call metrics as configured, if not already done. */
+  private static synchronized void exportMetrics() throws IOException {
+    if (metricsExported) {
+      return;
+    }
+    metricsExported = true;
+
+    if (!METRICS_FILE.isEmpty()) {
+      PrometheusExporter.writeOnExit(API_METRICS, Paths.get(METRICS_FILE));
+    }
+    if (METRICS_PORT > 0) {
+      PrometheusExporter.serve(API_METRICS, METRICS_PORT);
+    }
+  }
+
+  /**
+   * Retrieve an asynchronous facade over the shared Marketplace API client, creating it on first
+   * use.
+   *
+   * @return An initialized AsyncMarketplaceClient instance.
+   */
+  public static synchronized AsyncMarketplaceClient getAsyncMarketplaceClient()
+      throws IOException, GeneralSecurityException {
+    if (asyncMarketplaceClient == null) {
+      asyncMarketplaceClient =
+          new AsyncMarketplaceClient(
+              getMarketplaceClient(), MAX_CONCURRENT_ASYNC_REQUESTS, MAX_QUEUED_ASYNC_REQUESTS);
+    }
+
+    return asyncMarketplaceClient;
+  }
+
+  /**
+   * Prints a {@code AuctionPackage} instance in a human-readable format, or as a line of JSON if
+   * selected by {@link OutputFormat}.
+   */
   public static void printAuctionPackage(AuctionPackage auctionPackage) {
+    if (OutputFormat.write(auctionPackage)) {
+      return;
+    }
     int indentLevel = 0;
 
     printField("Auction package name", auctionPackage.getName(), indentLevel);
@@ -784,8 +1232,14 @@ public class Utils {
     printStringList("Subscribed clients", auctionPackage.getSubscribedClients(), indentLevel);
   }
 
-  /** Prints a {@code Client} instance in a human-readable format. */
+  /**
+   * Prints a {@code Client} instance in a human-readable format, or as a line of JSON if selected
+   * by {@link OutputFormat}.
+   */
   public static void printClient(Client client) {
+    if (OutputFormat.write(client)) {
+      return;
+    }
     int indentLevel = 0;
 
     printField("Client name", client.getName(), indentLevel);
@@ -798,8 +1252,14 @@ public class Utils {
     printField("Seller visible", client.getSellerVisible(), indentLevel);
   }
 
-  /** Prints a {@code ClientUser} instance in a human-readable format. */
+  /**
+   * Prints a {@code ClientUser} instance in a human-readable format, or as a line of JSON if
+   * selected by {@link OutputFormat}.
+   */
   public static void printClientUser(ClientUser clientUser) {
+    if (OutputFormat.write(clientUser)) {
+      return;
+    }
     int indentLevel = 0;
 
     printField("Client user name", clientUser.getName(), indentLevel);
@@ -809,8 +1269,14 @@ public class Utils {
     printField("Email", clientUser.getEmail(), indentLevel);
   }
 
-  /** Prints a {@code Deal} instance in a human-readable format. */
+  /**
+   * Prints a {@code Deal} instance in a human-readable format, or as a line of JSON if selected by
+   * {@link OutputFormat}.
+   */
   public static void printDeal(Deal deal) {
+    if (OutputFormat.write(deal)) {
+      return;
+    }
     int indentLevel = 0;
 
     printField("Deal name", deal.getName(), indentLevel);
@@ -839,8 +1305,14 @@ public class Utils {
     printField("Private auction terms", deal.getPrivateAuctionTerms(), indentLevel);
   }
 
-  /** Prints a {@code Proposal} instance in a human-readable format. */
+  /**
+   * Prints a {@code Proposal} instance in a human-readable format, or as a line of JSON if selected
+   * by {@link OutputFormat}.
+   */
   public static void printProposal(Proposal proposal) {
+    if (OutputFormat.write(proposal)) {
+      return;
+    }
     int indentLevel = 0;
 
     printField("Proposal name", proposal.getName(), indentLevel);
@@ -866,8 +1338,14 @@ public class Utils {
     printField("Client", proposal.getClient(), indentLevel);
   }
 
-  /** Prints a {@code PublisherProfile} instance in a human-readable format. */
+  /**
+   * Prints a {@code PublisherProfile} instance in a human-readable format, or as a line of JSON if
+   * selected by {@link OutputFormat}.
+   */
   public static void printPublisherProfile(PublisherProfile publisherProfile) {
+    if (OutputFormat.write(publisherProfile)) {
+      return;
+    }
     int indentLevel = 0;
 
     printField("Publisher profile name", publisherProfile.getName(), indentLevel);
@@ -890,8 +1368,14 @@ public class Utils {
     printField("Publisher code", publisherProfile.getPublisherCode(), indentLevel);
   }
 
-  /** Prints a {@code FinalizedDeal} instance in a human-readable format. */
+  /**
+   * Prints a {@code FinalizedDeal} instance in a human-readable format, or as a line of JSON or a
+   * table row if selected by {@link OutputFormat}.
+   */
   public static void printFinalizedDeal(FinalizedDeal finalizedDeal) {
+    if (OutputFormat.write(finalizedDeal)) {
+      return;
+    }
     int indentLevel = 0;
 
     printField("Finalized deal name", finalizedDeal.getName(), indentLevel);
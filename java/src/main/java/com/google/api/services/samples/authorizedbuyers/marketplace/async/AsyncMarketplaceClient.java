@@ -0,0 +1,449 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.async;
+
+import com.google.api.client.googleapis.services.AbstractGoogleClientRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.AcceptProposalRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ActivateClientUserRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.AddCreativeRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.AddNoteRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.AuctionPackage;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.BatchUpdateDealsRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.BatchUpdateDealsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.CancelNegotiationRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ClientUser;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.DeactivateClientUserRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Empty;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListAuctionPackagesResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListClientUsersResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListDealsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListFinalizedDealsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListProposalsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.PauseFinalizedDealRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ResumeFinalizedDealRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.SendRfpRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.SetReadyToServeRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.SubscribeAuctionPackageRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.SubscribeClientsRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.UnsubscribeAuctionPackageRequest;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.UnsubscribeClientsRequest;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous facade over the {@link AuthorizedBuyersMarketplace} client.
+ *
+ * <p>Resources are accessed through the same paths as the synchronous client, e.g. {@code
+ * buyers().proposals().get(name)}, but each method returns a {@link CompletableFuture} and the
+ * request is executed on a bounded executor. This allows many requests to be in flight at once
+ * rather than each waiting on the previous one's network round trip. When the executor's queue is
+ * full, requests are executed on the calling thread, which naturally slows down callers that
+ * submit requests faster than they can be sent.
+ *
+ * <p>Methods of list and patch requests that have optional parameters accept a {@code Consumer}
+ * that is used to configure the request before it is executed, e.g. {@code
+ * list(parent, request -> request.setPageSize(50))}.
+ */
+public class AsyncMarketplaceClient implements AutoCloseable {
+
+  private final AuthorizedBuyersMarketplace marketplaceClient;
+  private final ExecutorService executor;
+
+  /**
+   * Creates an asynchronous facade over the given client that executes at most {@code
+   * maxConcurrentRequests} requests at a time.
+   *
+   * @param marketplaceClient The client used to execute requests.
+   * @param maxConcurrentRequests The maximum number of requests in flight at once.
+   * @param maxQueuedRequests The maximum number of requests waiting for a free executor thread.
+   */
+  public AsyncMarketplaceClient(
+      AuthorizedBuyersMarketplace marketplaceClient,
+      int maxConcurrentRequests,
+      int maxQueuedRequests) {
+    this(
+        marketplaceClient,
+        newBoundedExecutor("marketplace-async", maxConcurrentRequests, maxQueuedRequests));
+  }
+
+  /**
+   * Creates an asynchronous facade over the given client that executes requests on the given
+   * executor. The executor will be shut down when this facade is closed.
+   */
+  public AsyncMarketplaceClient(
+      AuthorizedBuyersMarketplace marketplaceClient, ExecutorService executor) {
+    this.marketplaceClient = marketplaceClient;
+    this.executor = executor;
+  }
+
+  /**
+   * Creates a bounded executor whose daemon threads are named using the given prefix. Tasks
+   * submitted while all threads are busy and the queue is full run on the submitting thread.
+   */
+  public static ExecutorService newBoundedExecutor(
+      String threadNamePrefix, int maxThreads, int maxQueuedTasks) {
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadFactory threadFactory =
+        runnable -> {
+          Thread thread =
+              new Thread(runnable, threadNamePrefix + "-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        };
+
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            maxThreads,
+            maxThreads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(maxQueuedTasks),
+            threadFactory,
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.allowCoreThreadTimeOut(true);
+
+    return executor;
+  }
+
+  /** Returns the synchronous client wrapped by this facade. */
+  public AuthorizedBuyersMarketplace getMarketplaceClient() {
+    return marketplaceClient;
+  }
+
+  /**
+   * Asynchronously executes an already configured request.
+   *
+   * @return A future that completes with the response, or exceptionally with the {@code
+   *     IOException} raised by the request.
+   */
+  public <T> CompletableFuture<T> execute(AbstractGoogleClientRequest<T> request) {
+    return submit(() -> request);
+  }
+
+  /** Builds and executes a request on the executor. */
+  private <T> CompletableFuture<T> submit(RequestSupplier<T> requestSupplier) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return requestSupplier.get().execute();
+          } catch (IOException ex) {
+            throw new CompletionException(ex);
+          }
+        },
+        executor);
+  }
+
+  /** Builds and executes a request after applying the given configuration to it. */
+  private <T, R extends AbstractGoogleClientRequest<T>> CompletableFuture<T> submit(
+      RequestSupplier<T> requestSupplier, Consumer<R> configurer) {
+    return submit(
+        () -> {
+          @SuppressWarnings("unchecked")
+          R request = (R) requestSupplier.get();
+          configurer.accept(request);
+          return request;
+        });
+  }
+
+  /** Shuts down the executor, allowing requests that were already submitted to complete. */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  public Buyers buyers() {
+    return new Buyers();
+  }
+
+  public Bidders bidders() {
+    return new Bidders();
+  }
+
+  /** Builds a request, which may involve I/O when the client initializes the request. */
+  private interface RequestSupplier<T> {
+    AbstractGoogleClientRequest<T> get() throws IOException;
+  }
+
+  /** Asynchronous facade over the {@code buyers} resource. */
+  public class Buyers {
+
+    public Proposals proposals() {
+      return new Proposals();
+    }
+
+    public FinalizedDeals finalizedDeals() {
+      return new FinalizedDeals();
+    }
+
+    public Clients clients() {
+      return new Clients();
+    }
+
+    public AuctionPackages auctionPackages() {
+      return new AuctionPackages();
+    }
+
+    /** Asynchronous facade over the {@code buyers.proposals} resource. */
+    public class Proposals {
+
+      private AuthorizedBuyersMarketplace.Buyers.Proposals resource() {
+        return marketplaceClient.buyers().proposals();
+      }
+
+      public CompletableFuture<Proposal> get(String name) {
+        return submit(() -> resource().get(name));
+      }
+
+      public CompletableFuture<ListProposalsResponse> list(String parent) {
+        return submit(() -> resource().list(parent));
+      }
+
+      public CompletableFuture<ListProposalsResponse> list(
+          String parent, Consumer<AuthorizedBuyersMarketplace.Buyers.Proposals.List> configurer) {
+        return submit(() -> resource().list(parent), configurer);
+      }
+
+      public CompletableFuture<Proposal> patch(
+          String name,
+          Proposal content,
+          Consumer<AuthorizedBuyersMarketplace.Buyers.Proposals.Patch> configurer) {
+        return submit(() -> resource().patch(name, content), configurer);
+      }
+
+      public CompletableFuture<Proposal> accept(String name, AcceptProposalRequest content) {
+        return submit(() -> resource().accept(name, content));
+      }
+
+      public CompletableFuture<Proposal> addNote(String proposal, AddNoteRequest content) {
+        return submit(() -> resource().addNote(proposal, content));
+      }
+
+      public CompletableFuture<Proposal> cancelNegotiation(
+          String proposal, CancelNegotiationRequest content) {
+        return submit(() -> resource().cancelNegotiation(proposal, content));
+      }
+
+      public CompletableFuture<Proposal> sendRfp(String buyer, SendRfpRequest content) {
+        return submit(() -> resource().sendRfp(buyer, content));
+      }
+
+      public Deals deals() {
+        return new Deals();
+      }
+
+      /** Asynchronous facade over the {@code buyers.proposals.deals} resource. */
+      public class Deals {
+
+        private AuthorizedBuyersMarketplace.Buyers.Proposals.Deals resource() {
+          return marketplaceClient.buyers().proposals().deals();
+        }
+
+        public CompletableFuture<Deal> get(String name) {
+          return submit(() -> resource().get(name));
+        }
+
+        public CompletableFuture<ListDealsResponse> list(String parent) {
+          return submit(() -> resource().list(parent));
+        }
+
+        public CompletableFuture<ListDealsResponse> list(
+            String parent,
+            Consumer<AuthorizedBuyersMarketplace.Buyers.Proposals.Deals.List> configurer) {
+          return submit(() -> resource().list(parent), configurer);
+        }
+
+        public CompletableFuture<Deal> patch(
+            String name,
+            Deal content,
+            Consumer<AuthorizedBuyersMarketplace.Buyers.Proposals.Deals.Patch> configurer) {
+          return submit(() -> resource().patch(name, content), configurer);
+        }
+
+        public CompletableFuture<BatchUpdateDealsResponse> batchUpdate(
+            String parent, BatchUpdateDealsRequest content) {
+          return submit(() -> resource().batchUpdate(parent, content));
+        }
+      }
+    }
+
+    /** Asynchronous facade over the {@code buyers.finalizedDeals} resource. */
+    public class FinalizedDeals {
+
+      private AuthorizedBuyersMarketplace.Buyers.FinalizedDeals resource() {
+        return marketplaceClient.buyers().finalizedDeals();
+      }
+
+      public CompletableFuture<FinalizedDeal> get(String name) {
+        return submit(() -> resource().get(name));
+      }
+
+      public CompletableFuture<ListFinalizedDealsResponse> list(String parent) {
+        return submit(() -> resource().list(parent));
+      }
+
+      public CompletableFuture<ListFinalizedDealsResponse> list(
+          String parent,
+          Consumer<AuthorizedBuyersMarketplace.Buyers.FinalizedDeals.List> configurer) {
+        return submit(() -> resource().list(parent), configurer);
+      }
+
+      public CompletableFuture<FinalizedDeal> pause(
+          String name, PauseFinalizedDealRequest content) {
+        return submit(() -> resource().pause(name, content));
+      }
+
+      public CompletableFuture<FinalizedDeal> resume(
+          String name, ResumeFinalizedDealRequest content) {
+        return submit(() -> resource().resume(name, content));
+      }
+
+      public CompletableFuture<FinalizedDeal> setReadyToServe(
+          String deal, SetReadyToServeRequest content) {
+        return submit(() -> resource().setReadyToServe(deal, content));
+      }
+
+      public CompletableFuture<FinalizedDeal> addCreative(
+          String deal, AddCreativeRequest content) {
+        return submit(() -> resource().addCreative(deal, content));
+      }
+    }
+
+    /** Asynchronous facade over the {@code buyers.clients} resource. */
+    public class Clients {
+
+      public Users users() {
+        return new Users();
+      }
+
+      /** Asynchronous facade over the {@code buyers.clients.users} resource. */
+      public class Users {
+
+        private AuthorizedBuyersMarketplace.Buyers.Clients.Users resource() {
+          return marketplaceClient.buyers().clients().users();
+        }
+
+        public CompletableFuture<ClientUser> get(String name) {
+          return submit(() -> resource().get(name));
+        }
+
+        public CompletableFuture<ListClientUsersResponse> list(String parent) {
+          return submit(() -> resource().list(parent));
+        }
+
+        public CompletableFuture<ListClientUsersResponse> list(
+            String parent,
+            Consumer<AuthorizedBuyersMarketplace.Buyers.Clients.Users.List> configurer) {
+          return submit(() -> resource().list(parent), configurer);
+        }
+
+        public CompletableFuture<ClientUser> create(String parent, ClientUser content) {
+          return submit(() -> resource().create(parent, content));
+        }
+
+        public CompletableFuture<ClientUser> activate(
+            String name, ActivateClientUserRequest content) {
+          return submit(() -> resource().activate(name, content));
+        }
+
+        public CompletableFuture<ClientUser> deactivate(
+            String name, DeactivateClientUserRequest content) {
+          return submit(() -> resource().deactivate(name, content));
+        }
+
+        public CompletableFuture<Empty> delete(String name) {
+          return submit(() -> resource().delete(name));
+        }
+      }
+    }
+
+    /** Asynchronous facade over the {@code buyers.auctionPackages} resource. */
+    public class AuctionPackages {
+
+      private AuthorizedBuyersMarketplace.Buyers.AuctionPackages resource() {
+        return marketplaceClient.buyers().auctionPackages();
+      }
+
+      public CompletableFuture<AuctionPackage> get(String name) {
+        return submit(() -> resource().get(name));
+      }
+
+      public CompletableFuture<ListAuctionPackagesResponse> list(String parent) {
+        return submit(() -> resource().list(parent));
+      }
+
+      public CompletableFuture<ListAuctionPackagesResponse> list(
+          String parent,
+          Consumer<AuthorizedBuyersMarketplace.Buyers.AuctionPackages.List> configurer) {
+        return submit(() -> resource().list(parent), configurer);
+      }
+
+      public CompletableFuture<AuctionPackage> subscribe(
+          String name, SubscribeAuctionPackageRequest content) {
+        return submit(() -> resource().subscribe(name, content));
+      }
+
+      public CompletableFuture<AuctionPackage> unsubscribe(
+          String name, UnsubscribeAuctionPackageRequest content) {
+        return submit(() -> resource().unsubscribe(name, content));
+      }
+
+      public CompletableFuture<AuctionPackage> subscribeClients(
+          String auctionPackage, SubscribeClientsRequest content) {
+        return submit(() -> resource().subscribeClients(auctionPackage, content));
+      }
+
+      public CompletableFuture<AuctionPackage> unsubscribeClients(
+          String auctionPackage, UnsubscribeClientsRequest content) {
+        return submit(() -> resource().unsubscribeClients(auctionPackage, content));
+      }
+    }
+  }
+
+  /** Asynchronous facade over the {@code bidders} resource. */
+  public class Bidders {
+
+    public FinalizedDeals finalizedDeals() {
+      return new FinalizedDeals();
+    }
+
+    /** Asynchronous facade over the {@code bidders.finalizedDeals} resource. */
+    public class FinalizedDeals {
+
+      public CompletableFuture<ListFinalizedDealsResponse> list(String parent) {
+        return submit(() -> marketplaceClient.bidders().finalizedDeals().list(parent));
+      }
+
+      public CompletableFuture<ListFinalizedDealsResponse> list(
+          String parent,
+          Consumer<AuthorizedBuyersMarketplace.Bidders.FinalizedDeals.List> configurer) {
+        return submit(() -> marketplaceClient.bidders().finalizedDeals().list(parent), configurer);
+      }
+    }
+  }
+}
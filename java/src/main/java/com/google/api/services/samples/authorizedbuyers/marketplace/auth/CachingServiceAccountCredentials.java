@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.auth;
+
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.auth.oauth2.ServiceAccountCredentials;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Service account credentials that persist access tokens to an on-disk cache and refresh them in
+ * the background before they expire.
+ *
+ * <p>Cached tokens are keyed by the service account's email address and the requested scopes, so
+ * short-lived processes using the same key file can reuse a token obtained by an earlier run rather
+ * than performing a token exchange before their first request. Cache files are replaced atomically,
+ * so concurrent processes never observe a partially written token.
+ */
+public class CachingServiceAccountCredentials extends GoogleCredentials {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final Logger logger =
+      Logger.getLogger(CachingServiceAccountCredentials.class.getName());
+
+  private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+
+  /**
+   * Tokens are refreshed once they are within this many milliseconds of expiring. This is larger
+   * than the margins used by the auth library, so requests never block on a refresh.
+   */
+  private static final long REFRESH_LEAD_TIME_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+  /** Delay before retrying a background refresh that failed. */
+  private static final long REFRESH_RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  private final ServiceAccountCredentials delegate;
+  /** The path of the cache file, stored as a string since {@link Path} isn't serializable. */
+  private final String cacheFile;
+  private transient ScheduledExecutorService refreshExecutor;
+  private transient ScheduledFuture<?> scheduledRefresh;
+
+  private CachingServiceAccountCredentials(
+      ServiceAccountCredentials delegate, Path cacheFile, AccessToken cachedToken) {
+    super(cachedToken);
+    this.delegate = delegate;
+    this.cacheFile = cacheFile.toString();
+  }
+
+  /**
+   * Creates credentials that wrap the given scoped service account credentials with a token cache
+   * stored in {@code cacheDirectory}. If a valid token is already cached, it is used immediately.
+   *
+   * @param delegate Scoped service account credentials used to obtain new access tokens.
+   * @param cacheDirectory The directory in which cached tokens are stored.
+   * @throws IOException if the cache directory can not be created.
+   * @return An initialized {@code CachingServiceAccountCredentials} instance.
+   */
+  public static CachingServiceAccountCredentials create(
+      ServiceAccountCredentials delegate, Path cacheDirectory) throws IOException {
+    Files.createDirectories(cacheDirectory);
+    Path cacheFile = cacheDirectory.resolve(getCacheKey(delegate) + ".json");
+
+    CachingServiceAccountCredentials credentials =
+        new CachingServiceAccountCredentials(delegate, cacheFile, readUsableToken(cacheFile));
+    credentials.scheduleRefresh(credentials.getAccessToken());
+
+    return credentials;
+  }
+
+  /**
+   * Returns a cached token if another process has already refreshed it, otherwise exchanges the
+   * service account's credentials for a new token and writes it to the cache.
+   */
+  @Override
+  public AccessToken refreshAccessToken() throws IOException {
+    Path cacheFile = Paths.get(this.cacheFile);
+    AccessToken token = readUsableToken(cacheFile);
+    AccessToken current = getAccessToken();
+
+    if (token == null
+        || (current != null
+            && !token.getExpirationTime().after(current.getExpirationTime()))) {
+      token = delegate.refreshAccessToken();
+      writeToken(cacheFile, token);
+    }
+
+    scheduleRefresh(token);
+    return token;
+  }
+
+  /** Stops refreshing tokens in the background. */
+  public synchronized void shutdown() {
+    if (refreshExecutor != null) {
+      refreshExecutor.shutdownNow();
+      refreshExecutor = null;
+    }
+  }
+
+  /** Schedules a refresh of the given token shortly before it expires. */
+  private synchronized void scheduleRefresh(AccessToken token) {
+    long delayMillis =
+        (token == null)
+            ? 0
+            : token.getExpirationTime().getTime()
+                - System.currentTimeMillis()
+                - REFRESH_LEAD_TIME_MILLIS;
+    scheduleRefresh(Math.max(0, delayMillis));
+  }
+
+  private synchronized void scheduleRefresh(long delayMillis) {
+    if (refreshExecutor == null) {
+      refreshExecutor =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "marketplace-token-refresh");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    if (scheduledRefresh != null) {
+      scheduledRefresh.cancel(false);
+    }
+
+    scheduledRefresh =
+        refreshExecutor.schedule(
+            () -> {
+              try {
+                refresh();
+              } catch (IOException | RuntimeException ex) {
+                logger.log(Level.WARNING, "Unable to refresh access token in the background.", ex);
+                scheduleRefresh(REFRESH_RETRY_DELAY_MILLIS);
+              }
+            },
+            delayMillis,
+            TimeUnit.MILLISECONDS);
+  }
+
+  /** Builds a file-name-safe cache key from the service account email and requested scopes. */
+  private static String getCacheKey(ServiceAccountCredentials credentials) {
+    List<String> scopes = new ArrayList<>(credentials.getScopes());
+    Collections.sort(scopes);
+
+    StringBuilder keyBuilder = new StringBuilder(credentials.getClientEmail());
+    for (String scope : scopes) {
+      keyBuilder.append('\n').append(scope);
+    }
+
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256")
+              .digest(keyBuilder.toString().getBytes(StandardCharsets.UTF_8));
+      StringBuilder hexBuilder = new StringBuilder();
+      for (byte b : digest) {
+        hexBuilder.append(String.format("%02x", b));
+      }
+      return hexBuilder.toString();
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not supported by this JVM.", ex);
+    }
+  }
+
+  /**
+   * Reads the token stored in the given cache file.
+   *
+   * @return The cached token, or {@code null} if there is no cached token or it is about to expire.
+   */
+  private static AccessToken readUsableToken(Path cacheFile) {
+    GenericJson cached;
+    try (InputStream in = Files.newInputStream(cacheFile)) {
+      cached = JSON_FACTORY.fromInputStream(in, GenericJson.class);
+    } catch (NoSuchFileException ex) {
+      return null;
+    } catch (IOException | IllegalArgumentException ex) {
+      logger.log(Level.WARNING, "Ignoring unreadable token cache file " + cacheFile, ex);
+      return null;
+    }
+
+    Object tokenValue = cached.get("access_token");
+    Object expirationTime = cached.get("expiration_time_millis");
+    if (!(tokenValue instanceof String) || !(expirationTime instanceof BigDecimal)) {
+      return null;
+    }
+
+    long expirationTimeMillis = ((BigDecimal) expirationTime).longValue();
+    if (expirationTimeMillis - System.currentTimeMillis() < REFRESH_LEAD_TIME_MILLIS) {
+      return null;
+    }
+
+    return new AccessToken((String) tokenValue, new Date(expirationTimeMillis));
+  }
+
+  /** Atomically replaces the given cache file with the given token. */
+  private static void writeToken(Path cacheFile, AccessToken token) {
+    GenericJson cached = new GenericJson();
+    cached.put("access_token", token.getTokenValue());
+    cached.put("expiration_time_millis", token.getExpirationTime().getTime());
+
+    Path tempFile = null;
+    try {
+      tempFile = Files.createTempFile(cacheFile.getParent(), "token", ".tmp");
+      try {
+        Files.setPosixFilePermissions(tempFile, PosixFilePermissions.fromString("rw-------"));
+      } catch (UnsupportedOperationException ex) {
+        // The file system doesn't support POSIX permissions; rely on the directory's ACLs.
+      }
+
+      try (OutputStream out = Files.newOutputStream(tempFile)) {
+        out.write(JSON_FACTORY.toByteArray(cached));
+      }
+
+      try {
+        Files.move(
+            tempFile,
+            cacheFile,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException ex) {
+        Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException ex) {
+      // The token is still usable by this process; later runs will just need to refresh it.
+      logger.log(Level.WARNING, "Unable to write token cache file " + cacheFile, ex);
+      if (tempFile != null) {
+        try {
+          Files.deleteIfExists(tempFile);
+        } catch (IOException ignored) {
+          // Nothing else to clean up.
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.batch;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonErrorContainer;
+import com.google.api.client.googleapis.services.json.AbstractGoogleJsonClient;
+import com.google.api.client.googleapis.services.json.AbstractGoogleJsonClientRequest;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestFactory;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Retrieves many resources by name using the HTTP batch endpoint, which packs up to {@link
+ * #MAX_BATCH_SIZE} get requests into a single round trip and returns the result of each one
+ * separately.
+ *
+ * <p>Only the batch request itself goes through the client's request initializer, so each batch is
+ * authorized, throttled, retried and measured as one request. The get requests packed into it are
+ * built without the initializer: the batch runs the interceptors of its parts, and the throttling
+ * initializer's permits would otherwise be acquired for each part without ever being released.
+ */
+public class MultiGet {
+
+  /** The maximum number of requests the batch endpoint accepts in a single batch request. */
+  public static final int MAX_BATCH_SIZE = 1000;
+
+  /** Creates the get request for the resource with the given name. */
+  public interface GetRequestFactory<T> {
+    AbstractGoogleJsonClientRequest<T> create(String name) throws IOException;
+  }
+
+  /** The outcome of retrieving a single resource. */
+  public static class Result<T> {
+    private final String name;
+    private T resource;
+    private GoogleJsonError error;
+
+    Result(String name) {
+      this.name = name;
+    }
+
+    /** Returns the name of the requested resource. */
+    public String getName() {
+      return name;
+    }
+
+    /** Returns the retrieved resource, or {@code null} if the request failed. */
+    public T getResource() {
+      return resource;
+    }
+
+    /** Returns the error returned for the request, or {@code null} if it succeeded. */
+    public GoogleJsonError getError() {
+      return error;
+    }
+
+    /** Returns whether the resource was retrieved. */
+    public boolean isSuccess() {
+      return error == null;
+    }
+  }
+
+  private MultiGet() {}
+
+  /**
+   * Retrieves the resources with the given names.
+   *
+   * @param client The client used to send batch requests. Batch requests are initialized with the
+   *     client's request initializer, so they are authorized, throttled and retried like any other
+   *     request made by the client, while the get requests they contain are not.
+   * @param names The names of the resources to retrieve.
+   * @param requestFactory Creates the get request for each resource.
+   * @param batchSize The maximum number of get requests sent in each batch request.
+   * @return The result for each name, in the order of {@code names}.
+   * @throws IOException if a batch request fails as a whole.
+   */
+  public static <T> List<Result<T>> execute(
+      AbstractGoogleJsonClient client,
+      List<String> names,
+      GetRequestFactory<T> requestFactory,
+      int batchSize)
+      throws IOException {
+    if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException(
+          String.format("The batch size must be between 1 and %d.", MAX_BATCH_SIZE));
+    }
+
+    List<Result<T>> results = new ArrayList<>(names.size());
+    HttpRequestFactory partRequestFactory =
+        client.getRequestFactory().getTransport().createRequestFactory();
+
+    for (int start = 0; start < names.size(); start += batchSize) {
+      BatchRequest batch = client.batch(client.getRequestFactory().getInitializer());
+
+      for (String name : names.subList(start, Math.min(names.size(), start + batchSize))) {
+        Result<T> result = new Result<>(name);
+        results.add(result);
+
+        AbstractGoogleJsonClientRequest<T> request = requestFactory.create(name);
+        HttpRequest part =
+            partRequestFactory.buildRequest(
+                request.getRequestMethod(), request.buildHttpRequestUrl(), null);
+        part.setParser(client.getObjectParser());
+        batch.queue(
+            part,
+            request.getResponseClass(),
+            GoogleJsonErrorContainer.class,
+            new JsonBatchCallback<T>() {
+              @Override
+              public void onSuccess(T resource, HttpHeaders responseHeaders) {
+                result.resource = resource;
+              }
+
+              @Override
+              public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                result.error = error;
+              }
+            });
+      }
+
+      batch.execute();
+    }
+
+    return results;
+  }
+
+  /**
+   * Combines resource IDs given on the command line with those read from a file, removing
+   * duplicates while preserving their order.
+   *
+   * @param ids IDs given on the command line, each of which may contain several comma-separated
+   *     IDs, or {@code null}.
+   * @param idsFile The path to a file containing one ID per line, or {@code null}. Blank lines and
+   *     lines starting with {@code #} are ignored.
+   * @return The unique IDs.
+   * @throws IOException if the file can't be read.
+   */
+  public static List<String> readIds(List<String> ids, String idsFile) throws IOException {
+    Set<String> uniqueIds = new LinkedHashSet<>();
+
+    for (String value : (ids != null) ? ids : Collections.<String>emptyList()) {
+      for (String id : value.split(",")) {
+        if (!id.trim().isEmpty()) {
+          uniqueIds.add(id.trim());
+        }
+      }
+    }
+
+    if (idsFile != null) {
+      for (String line : Files.readAllLines(Paths.get(idsFile), StandardCharsets.UTF_8)) {
+        String id = line.trim();
+        if (!id.isEmpty() && !id.startsWith("#")) {
+          uniqueIds.add(id);
+        }
+      }
+    }
+
+    return new ArrayList<>(uniqueIds);
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.daemon;
+
+/**
+ * Thrown by {@link com.google.api.services.samples.authorizedbuyers.marketplace.Utils#exit(int)}
+ * in place of exiting the JVM while samples are run by the {@link SampleDaemon}, so that a failing
+ * command only ends itself.
+ */
+public class CommandExitException extends RuntimeException {
+
+  private final int status;
+
+  public CommandExitException(int status) {
+    super("Command exited with status " + status + ".");
+    this.status = status;
+  }
+
+  /** Returns the status the command exited with. */
+  public int getStatus() {
+    return status;
+  }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.daemon;
+
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * Runs a sample for each of many buyer or bidder accounts concurrently, e.g. for a nightly sweep
+ * over all seats.
+ *
+ * <p>The sample is run once for each account, with {@code --account_id} set to the account ID and
+ * followed by the given sample arguments. Up to {@code --parallelism} accounts run at a time, in
+ * the order they were given. Each account is a single task, so an account with many pages of
+ * results occupies one worker while the others proceed, and requests are rate limited per API
+ * method and account, so a throttled account doesn't use up the rate available to the others.
+ *
+ * <p>The output of all accounts is merged line by line, prefixing each line with the account ID,
+ * e.g. {@code [12345] Found proposal...}. Threads started by a sample inherit its prefix. Each
+ * account's output ends with a line {@code [12345] # exit <status>}, and the runner exits with
+ * status 1 if the sample failed for any account. Since the {@code ndjson}, {@code csv} and {@code
+ * tsv} output formats apply to the whole process, samples can only be run with the {@code text}
+ * format.
+ */
+public class FanOutRunner {
+
+  public static void execute(Namespace parsedArgs) throws IOException, InterruptedException {
+    Set<Long> accountIds = new LinkedHashSet<>();
+    List<Long> listedAccountIds = parsedArgs.getList("account_ids");
+    if (listedAccountIds != null) {
+      accountIds.addAll(listedAccountIds);
+    }
+    String accountIdsFile = parsedArgs.getString("account_ids_file");
+    if (accountIdsFile != null) {
+      for (String line : Files.readAllLines(Paths.get(accountIdsFile))) {
+        line = line.trim();
+        if (!line.isEmpty() && !line.startsWith("#")) {
+          accountIds.add(Long.parseLong(line));
+        }
+      }
+    }
+    if (accountIds.isEmpty()) {
+      System.out.println("No account IDs were specified.");
+      Utils.exit(1);
+    }
+
+    SampleCommand command = null;
+    try {
+      command = SampleCommand.forName(parsedArgs.getString("sample"));
+    } catch (IllegalArgumentException ex) {
+      System.out.println(ex.getMessage());
+      Utils.exit(1);
+    }
+    List<String> sampleArgs = parsedArgs.getList("sample_args");
+    String output = getOutputArgument(sampleArgs);
+    if (output != null && !OutputFormat.TEXT.equals(output)) {
+      System.out.printf(
+          "Output format \"%s\" isn't supported when running samples for many accounts.%n",
+          output);
+      Utils.exit(1);
+    }
+    int parallelism = Math.min(parsedArgs.getInt("parallelism"), accountIds.size());
+
+    PrintStream stdout = System.out;
+    PrintStream stderr = System.err;
+    RoutingOutputStream routingStream = new RoutingOutputStream(stdout);
+    PrintStream routedOut = new PrintStream(routingStream, true, StandardCharsets.UTF_8);
+    AtomicInteger threadCount = new AtomicInteger();
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            parallelism,
+            runnable -> {
+              Thread thread = new Thread(runnable, "fan-out-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    long startNanos = System.nanoTime();
+    Map<Long, Future<Integer>> statuses = new LinkedHashMap<>();
+    System.setOut(routedOut);
+    System.setErr(routedOut);
+    try {
+      for (Long accountId : accountIds) {
+        List<String> args = new ArrayList<>();
+        args.add("--account_id");
+        args.add(accountId.toString());
+        args.addAll(sampleArgs);
+        SampleCommand sampleCommand = command;
+        statuses.put(
+            accountId,
+            executor.submit(
+                () -> {
+                  TaggingOutputStream taggedStream =
+                      new TaggingOutputStream(stdout, "[" + accountId + "] ");
+                  routingStream.setTarget(taggedStream);
+                  long accountStartNanos = System.nanoTime();
+                  try {
+                    int status = sampleCommand.run(args.toArray(new String[0]));
+                    taggedStream.finishLine();
+                    routedOut.printf(
+                        "# exit %d (%d ms)%n",
+                        status, (System.nanoTime() - accountStartNanos) / 1000000);
+                    return status;
+                  } finally {
+                    OutputFormat.finish();
+                    routingStream.setTarget(null);
+                  }
+                }));
+      }
+
+      List<Long> failedAccountIds = new ArrayList<>();
+      for (Map.Entry<Long, Future<Integer>> entry : statuses.entrySet()) {
+        try {
+          if (entry.getValue().get() != 0) {
+            failedAccountIds.add(entry.getKey());
+          }
+        } catch (ExecutionException ex) {
+          failedAccountIds.add(entry.getKey());
+        }
+      }
+
+      stdout.printf(
+          "Ran %s for %d accounts in %.1f s, %d failed%s%n",
+          command.getName(),
+          accountIds.size(),
+          (System.nanoTime() - startNanos) / 1e9,
+          failedAccountIds.size(),
+          failedAccountIds.isEmpty() ? "." : ": " + failedAccountIds);
+      if (!failedAccountIds.isEmpty()) {
+        Utils.exit(1);
+      }
+    } finally {
+      executor.shutdownNow();
+      System.setOut(stdout);
+      System.setErr(stderr);
+    }
+  }
+
+  /**
+   * Returns the value of the {@code --output} argument in the given sample arguments, including
+   * abbreviations of its name, or {@code null} if it isn't given.
+   */
+  private static String getOutputArgument(List<String> sampleArgs) {
+    String output = null;
+    for (int i = 0; i < sampleArgs.size(); i++) {
+      String arg = sampleArgs.get(i);
+      if (arg.equals("--")) {
+        break;
+      }
+      int separator = arg.indexOf('=');
+      String name = (separator < 0) ? arg : arg.substring(0, separator);
+      if (name.length() < 4 || !"--output".startsWith(name)) {
+        continue;
+      }
+      if (separator >= 0) {
+        output = arg.substring(separator + 1);
+      } else if (i + 1 < sampleArgs.size()) {
+        output = sampleArgs.get(++i);
+      }
+    }
+    return output;
+  }
+
+  /**
+   * Routes output to a target set per thread and inherited by threads it starts, or to a default
+   * stream for threads without a target.
+   */
+  private static class RoutingOutputStream extends OutputStream {
+
+    private final OutputStream defaultStream;
+    private final InheritableThreadLocal<OutputStream> target = new InheritableThreadLocal<>();
+
+    RoutingOutputStream(OutputStream defaultStream) {
+      this.defaultStream = defaultStream;
+    }
+
+    void setTarget(OutputStream stream) {
+      if (stream == null) {
+        target.remove();
+      } else {
+        target.set(stream);
+      }
+    }
+
+    private OutputStream currentStream() {
+      OutputStream stream = target.get();
+      return (stream != null) ? stream : defaultStream;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      currentStream().write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      currentStream().write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      currentStream().flush();
+    }
+  }
+
+  /**
+   * Prefixes each line written with a tag, writing complete lines to the shared stream at once so
+   * that lines of concurrently running samples don't interleave.
+   */
+  private static class TaggingOutputStream extends OutputStream {
+
+    private final PrintStream sharedStream;
+    private final byte[] tag;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    TaggingOutputStream(PrintStream sharedStream, String tag) {
+      this.sharedStream = sharedStream;
+      this.tag = tag.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void write(int b) {
+      if (b == '\n') {
+        writeLine();
+      } else if (b != '\r') {
+        line.write(b);
+      }
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+      for (int i = off; i < off + len; i++) {
+        write(b[i]);
+      }
+    }
+
+    /** Writes the last line if the output didn't end with a line separator. */
+    synchronized void finishLine() {
+      if (line.size() > 0) {
+        writeLine();
+      }
+    }
+
+    private void writeLine() {
+      byte[] taggedLine = new byte[tag.length + line.size() + 1];
+      System.arraycopy(tag, 0, taggedLine, 0, tag.length);
+      System.arraycopy(line.toByteArray(), 0, taggedLine, tag.length, line.size());
+      taggedLine[taggedLine.length - 1] = '\n';
+      line.reset();
+      sharedStream.write(taggedLine, 0, taggedLine.length);
+      sharedStream.flush();
+    }
+  }
+
+  public static void main(String[] args) {
+    ArgumentParser parser =
+        ArgumentParsers.newFor("FanOutRunner")
+            .build()
+            .defaultHelp(true)
+            .description(
+                ("Runs a sample for each of the given buyer or bidder account IDs concurrently. "
+                    + "Arguments following the sample name are passed to the sample, e.g. "
+                    + "FanOutRunner -a 1 2 3 -- buyers.proposals.ListProposals --page_size 50"));
+    parser
+        .addArgument("-a", "--account_ids")
+        .help(
+            "The resource IDs of the buyers or bidders resources to run the sample for. Each is "
+                + "passed to the sample as its --account_id argument.")
+        .type(Long.class)
+        .nargs("*");
+    parser
+        .addArgument("--account_ids_file")
+        .help(
+            "The path to a file containing account IDs to run the sample for, one per line. "
+                + "These are used in addition to IDs specified with --account_ids.");
+    parser
+        .addArgument("-n", "--parallelism")
+        .help("The maximum number of accounts for which the sample runs at once.")
+        .type(Integer.class)
+        .choices(Arguments.range(1, 256))
+        .setDefault(8);
+    parser
+        .addArgument("sample")
+        .help(
+            "The name of the sample relative to the v1 package, e.g. "
+                + "buyers.proposals.ListProposals.");
+    parser.addArgument("sample_args").help("Arguments passed to the sample.").nargs("*");
+
+    Namespace parsedArgs = null;
+    try {
+      parsedArgs = parser.parseArgs(args);
+    } catch (ArgumentParserException ex) {
+      parser.handleError(ex);
+      System.exit(1);
+    }
+
+    // Create the shared client up front, so that invalid credentials fail fast.
+    try {
+      Utils.getMarketplaceClient();
+    } catch (IOException ex) {
+      System.out.printf("Unable to create Marketplace API service:%n%s", ex);
+      System.out.println("Did you specify a valid path to a service account key file?");
+      System.exit(1);
+    } catch (GeneralSecurityException ex) {
+      System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
+      System.exit(1);
+    }
+
+    Utils.setResident(true);
+    try {
+      execute(parsedArgs);
+    } catch (CommandExitException ex) {
+      System.exit(ex.getStatus());
+    } catch (IOException ex) {
+      System.out.printf("Unable to read account IDs:%n%s", ex);
+      System.exit(1);
+    } catch (InterruptedException ex) {
+      System.out.printf("Interrupted while running the sample:%n%s", ex);
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.daemon;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A sample run as a command inside a long-lived process. Running a command invokes the sample's
+ * {@code main} method, which parses the arguments with the sample's own argument parser and calls
+ * its {@code execute} method with the shared client.
+ *
+ * <p>Commands must only be run once {@code Utils.setResident(true)} has been called, so that a
+ * failing sample throws a {@link CommandExitException} rather than exiting the JVM.
+ */
+final class SampleCommand {
+
+  private static final String SAMPLES_PACKAGE =
+      "com.google.api.services.samples.authorizedbuyers.marketplace.v1.";
+
+  private static final ConcurrentMap<String, SampleCommand> COMMANDS = new ConcurrentHashMap<>();
+
+  private final String name;
+  private final Method mainMethod;
+
+  private SampleCommand(String name, Method mainMethod) {
+    this.name = name;
+    this.mainMethod = mainMethod;
+  }
+
+  /**
+   * Returns the command for a sample.
+   *
+   * @param sampleName The name of the sample relative to the {@code v1} package, e.g. {@code
+   *     buyers.proposals.GetProposals}.
+   * @throws IllegalArgumentException if there is no such sample.
+   */
+  static SampleCommand forName(String sampleName) {
+    return COMMANDS.computeIfAbsent(sampleName, SampleCommand::load);
+  }
+
+  private static SampleCommand load(String sampleName) {
+    try {
+      Class<?> sampleClass = Class.forName(SAMPLES_PACKAGE + sampleName.replace('/', '.'));
+      Method mainMethod = sampleClass.getMethod("main", String[].class);
+      if (Modifier.isStatic(mainMethod.getModifiers())) {
+        return new SampleCommand(sampleName, mainMethod);
+      }
+    } catch (ClassNotFoundException | NoSuchMethodException ex) {
+      // Reported below.
+    }
+    throw new IllegalArgumentException(
+        String.format(
+            "Unknown sample \"%s\". Name samples like buyers.proposals.GetProposals.", sampleName));
+  }
+
+  /** Returns the name of the sample. */
+  String getName() {
+    return name;
+  }
+
+  /**
+   * Runs the sample with the given arguments. Its output, including a description of any
+   * unexpected exception, is written to {@code System.out}.
+   *
+   * @return The status the sample exited with, where 0 indicates success.
+   */
+  int run(String[] args) {
+    try {
+      mainMethod.invoke(null, (Object) args);
+      return 0;
+    } catch (InvocationTargetException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof CommandExitException) {
+        return ((CommandExitException) cause).getStatus();
+      }
+      System.out.printf("Command failed:%n%s%n", cause);
+      return 1;
+    } catch (IllegalAccessException ex) {
+      System.out.printf("Unable to run command:%n%s%n", ex);
+      return 1;
+    }
+  }
+}
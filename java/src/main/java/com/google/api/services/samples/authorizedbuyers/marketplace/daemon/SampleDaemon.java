@@ -0,0 +1,295 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.daemon;
+
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import java.io.BufferedReader;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * Runs samples inside a long-lived process, so that automation issuing many commands pays for JVM
+ * startup, class loading, authorization and the TLS handshake only once.
+ *
+ * <p>Each command is a line naming a sample relative to the {@code v1} package, followed by the
+ * sample's usual arguments, e.g. {@code buyers.proposals.AcceptProposals -a 12345 -p MP123 -r 4}.
+ * The sample's {@code main} method parses the arguments with its own argument parser and calls its
+ * {@code execute} method with the shared client from {@link Utils#getMarketplaceClient()}, which
+ * is created when the daemon starts. Errors that would exit a standalone sample only end the
+ * command. The command's output is followed by a line {@code # exit <status>}.
+ *
+ * <p>Commands are read from standard input, or from connections to a port on the loopback
+ * interface if {@code --port} is given. Any local user can connect to that port and send commands
+ * with the daemon's credentials. Commands run one at a time, because the samples write to {@code
+ * System.out}, which is redirected to the connection that sent the command while it runs. Since
+ * standard error is redirected to the same connection, the headings that samples print with
+ * {@code --output ndjson} are interleaved with the JSON lines.
+ *
+ * <p>Besides samples, the following commands are supported:
+ *
+ * <ul>
+ *   <li>{@code metrics}: prints the API call metrics in the Prometheus text format.
+ *   <li>{@code quit}: ends the session, i.e. closes the connection or stops reading standard input.
+ * </ul>
+ */
+public class SampleDaemon {
+
+  private final Object commandLock = new Object();
+
+  /**
+   * Reads commands from the given reader until it is exhausted or a {@code quit} command is read,
+   * writing their output to the given stream.
+   */
+  public void serve(BufferedReader reader, OutputStream outputStream) throws IOException {
+    LineTrackingOutputStream trackingStream = new LineTrackingOutputStream(outputStream);
+    PrintStream out = new PrintStream(trackingStream, false, StandardCharsets.UTF_8);
+    for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      if ("quit".equals(line)) {
+        return;
+      }
+
+      int status;
+      if ("metrics".equals(line)) {
+        out.print(Utils.getApiMetrics().toPrometheusText());
+        status = 0;
+      } else {
+        status = run(line, out);
+      }
+      // Samples don't always end their output with a line separator.
+      out.flush();
+      if (!trackingStream.atLineStart) {
+        out.println();
+      }
+      out.printf("# exit %d%n", status);
+      out.flush();
+    }
+  }
+
+  /**
+   * Runs a single command, writing its output to the given stream.
+   *
+   * @param command The command line, i.e. the name of a sample followed by its arguments.
+   * @param out The stream that the command's standard output and error are written to.
+   * @return The status the command exited with, where 0 indicates success.
+   */
+  public int run(String command, PrintStream out) {
+    List<String> tokens;
+    try {
+      tokens = tokenize(command);
+    } catch (IllegalArgumentException ex) {
+      out.println(ex.getMessage());
+      return 2;
+    }
+
+    SampleCommand sampleCommand;
+    try {
+      sampleCommand = SampleCommand.forName(tokens.get(0));
+    } catch (IllegalArgumentException ex) {
+      out.println(ex.getMessage());
+      return 127;
+    }
+    String[] args = tokens.subList(1, tokens.size()).toArray(new String[0]);
+
+    synchronized (commandLock) {
+      PrintStream stdout = System.out;
+      PrintStream stderr = System.err;
+      System.setOut(out);
+      System.setErr(out);
+      try {
+        return sampleCommand.run(args);
+      } finally {
+        OutputFormat.finish();
+        out.flush();
+        System.setOut(stdout);
+        System.setErr(stderr);
+      }
+    }
+  }
+
+  /**
+   * Splits a command line into arguments at unquoted whitespace. Single and double quotes group
+   * characters into one argument, and a backslash escapes the following character outside of
+   * single quotes.
+   */
+  static List<String> tokenize(String command) {
+    List<String> tokens = new ArrayList<>();
+    StringBuilder token = new StringBuilder();
+    boolean inToken = false;
+    char quote = 0;
+
+    for (int i = 0; i < command.length(); i++) {
+      char c = command.charAt(i);
+      if (c == '\\' && quote != '\'' && i + 1 < command.length()) {
+        token.append(command.charAt(++i));
+        inToken = true;
+      } else if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        } else {
+          token.append(c);
+        }
+      } else if (c == '"' || c == '\'') {
+        quote = c;
+        inToken = true;
+      } else if (Character.isWhitespace(c)) {
+        if (inToken) {
+          tokens.add(token.toString());
+          token.setLength(0);
+          inToken = false;
+        }
+      } else {
+        token.append(c);
+        inToken = true;
+      }
+    }
+
+    if (quote != 0) {
+      throw new IllegalArgumentException("Unterminated quote in command.");
+    }
+    if (inToken) {
+      tokens.add(token.toString());
+    }
+    if (tokens.isEmpty()) {
+      throw new IllegalArgumentException("Empty command.");
+    }
+    return tokens;
+  }
+
+  /** Tracks whether the output written so far ends with a complete line. */
+  private static class LineTrackingOutputStream extends FilterOutputStream {
+
+    boolean atLineStart = true;
+
+    LineTrackingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      atLineStart = (b == '\n');
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      if (len > 0) {
+        atLineStart = (b[off + len - 1] == '\n');
+      }
+    }
+  }
+
+  /** Accepts connections on the given port of the loopback interface until the JVM exits. */
+  private void listen(int port) throws IOException {
+    try (ServerSocket serverSocket =
+        new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+      System.out.printf("Listening for commands on localhost:%d.%n", serverSocket.getLocalPort());
+      while (true) {
+        Socket socket = serverSocket.accept();
+        Thread connectionThread =
+            new Thread(
+                () -> {
+                  try (Socket connection = socket;
+                      BufferedReader reader =
+                          new BufferedReader(
+                              new InputStreamReader(
+                                  connection.getInputStream(), StandardCharsets.UTF_8));
+                      OutputStream out = connection.getOutputStream()) {
+                    serve(reader, out);
+                  } catch (IOException ex) {
+                    System.err.printf("Connection failed:%n%s%n", ex);
+                  }
+                },
+                "sample-daemon-connection");
+        connectionThread.setDaemon(true);
+        connectionThread.start();
+      }
+    }
+  }
+
+  public static void main(String[] args) {
+    ArgumentParser parser =
+        ArgumentParsers.newFor("SampleDaemon")
+            .build()
+            .defaultHelp(true)
+            .description(
+                ("Runs samples in a long-lived process, reading commands from standard input or "
+                    + "from connections to a local port."));
+    parser
+        .addArgument("-p", "--port")
+        .help(
+            "The port on localhost to accept connections on. If not specified, commands are read "
+                + "from standard input.")
+        .type(Integer.class);
+
+    Namespace parsedArgs = null;
+    try {
+      parsedArgs = parser.parseArgs(args);
+    } catch (ArgumentParserException ex) {
+      parser.handleError(ex);
+      System.exit(1);
+    }
+
+    // Create the shared client up front, so that the first command doesn't pay for it.
+    try {
+      Utils.getMarketplaceClient();
+    } catch (IOException ex) {
+      System.out.printf("Unable to create Marketplace API service:%n%s", ex);
+      System.out.println("Did you specify a valid path to a service account key file?");
+      System.exit(1);
+    } catch (GeneralSecurityException ex) {
+      System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
+      System.exit(1);
+    }
+
+    Utils.setResident(true);
+    SampleDaemon daemon = new SampleDaemon();
+    Integer port = parsedArgs.getInt("port");
+    try {
+      if (port != null) {
+        daemon.listen(port);
+      } else {
+        daemon.serve(
+            new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+            System.out);
+      }
+    } catch (IOException ex) {
+      System.out.printf("Sample daemon failed:%n%s", ex);
+      System.exit(1);
+    }
+  }
+}
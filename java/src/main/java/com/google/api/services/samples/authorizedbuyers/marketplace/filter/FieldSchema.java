@@ -0,0 +1,394 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.filter;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Contact;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.DealPausingInfo;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Money;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.PreferredDealTerms;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Price;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.PrivateAuctionTerms;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ProgrammaticGuaranteedTerms;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.RtbMetrics;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Compiles the {@code filter} and {@code orderBy} parameters of list requests into predicates and
+ * comparators over a model class, so that cached or streamed resources can be sliced locally
+ * without listing them from the API again.
+ *
+ * <p>Each instance maps the field paths of one resource type to its typed getters. Expressions are
+ * parsed once with the grammar of {@link ListQuery}, and each literal is converted to the type of
+ * the field it's compared to, so evaluating the result neither walks JSON maps nor converts the
+ * literal again, e.g.
+ *
+ * <pre>{@code
+ * Predicate<FinalizedDeal> filter =
+ *     FieldSchema.FINALIZED_DEAL.compileFilter("deal.dealType = PROGRAMMATIC_GUARANTEED");
+ * OrderBy<FinalizedDeal> orderBy =
+ *     FieldSchema.FINALIZED_DEAL.compileOrderBy("deal.flightStartTime desc");
+ * }</pre>
+ *
+ * <p>Fields that aren't in the schema are rejected when compiling. A comparison matches if any
+ * value of a repeated field matches it, and comparisons other than {@code !=} don't match
+ * resources that lack the field. The same paths select the columns of tabular output, whose
+ * values are read with {@link #compileGetter(String)}.
+ */
+public final class FieldSchema<T> {
+
+  private static final FieldSchema<Money> MONEY =
+      new FieldSchema<>(Money.class)
+          .addString("currencyCode", Money::getCurrencyCode)
+          .addLong("units", Money::getUnits)
+          .addInteger("nanos", Money::getNanos);
+
+  private static final FieldSchema<Price> PRICE =
+      new FieldSchema<>(Price.class)
+          .addString("type", Price::getType)
+          .addNested("amount", Price::getAmount, MONEY);
+
+  public static final FieldSchema<Deal> DEAL =
+      new FieldSchema<>(Deal.class)
+          .addString("name", Deal::getName)
+          .addTimestamp("createTime", Deal::getCreateTime)
+          .addTimestamp("updateTime", Deal::getUpdateTime)
+          .addLong("proposalRevision", Deal::getProposalRevision)
+          .addString("displayName", Deal::getDisplayName)
+          .addString("billedBuyer", Deal::getBilledBuyer)
+          .addString("publisherProfile", Deal::getPublisherProfile)
+          .addString("dealType", Deal::getDealType)
+          .addNested("estimatedGrossSpend", Deal::getEstimatedGrossSpend, MONEY)
+          .addString("description", Deal::getDescription)
+          .addTimestamp("flightStartTime", Deal::getFlightStartTime)
+          .addTimestamp("flightEndTime", Deal::getFlightEndTime)
+          .addString("buyer", Deal::getBuyer)
+          .addString("client", Deal::getClient)
+          .addNested(
+              "programmaticGuaranteedTerms",
+              Deal::getProgrammaticGuaranteedTerms,
+              new FieldSchema<>(ProgrammaticGuaranteedTerms.class)
+                  .addLong("guaranteedLooks", ProgrammaticGuaranteedTerms::getGuaranteedLooks)
+                  .addNested("fixedPrice", ProgrammaticGuaranteedTerms::getFixedPrice, PRICE)
+                  .addLong("minimumDailyLooks", ProgrammaticGuaranteedTerms::getMinimumDailyLooks)
+                  .addString("reservationType", ProgrammaticGuaranteedTerms::getReservationType)
+                  .addLong("impressionCap", ProgrammaticGuaranteedTerms::getImpressionCap)
+                  .addLong(
+                      "percentShareOfVoice", ProgrammaticGuaranteedTerms::getPercentShareOfVoice))
+          .addNested(
+              "preferredDealTerms",
+              Deal::getPreferredDealTerms,
+              new FieldSchema<>(PreferredDealTerms.class)
+                  .addNested("fixedPrice", PreferredDealTerms::getFixedPrice, PRICE))
+          .addNested(
+              "privateAuctionTerms",
+              Deal::getPrivateAuctionTerms,
+              new FieldSchema<>(PrivateAuctionTerms.class)
+                  .addNested("floorPrice", PrivateAuctionTerms::getFloorPrice, PRICE)
+                  .addBoolean("openAuctionAllowed", PrivateAuctionTerms::getOpenAuctionAllowed));
+
+  public static final FieldSchema<FinalizedDeal> FINALIZED_DEAL =
+      new FieldSchema<>(FinalizedDeal.class)
+          .addString("name", FinalizedDeal::getName)
+          .addString("dealServingStatus", FinalizedDeal::getDealServingStatus)
+          .addBoolean("readyToServe", FinalizedDeal::getReadyToServe)
+          .addNested(
+              "dealPausingInfo",
+              FinalizedDeal::getDealPausingInfo,
+              new FieldSchema<>(DealPausingInfo.class)
+                  .addBoolean("pausingConsented", DealPausingInfo::getPausingConsented)
+                  .addString("pauseRole", DealPausingInfo::getPauseRole)
+                  .addString("pauseReason", DealPausingInfo::getPauseReason))
+          .addNested(
+              "rtbMetrics",
+              FinalizedDeal::getRtbMetrics,
+              new FieldSchema<>(RtbMetrics.class)
+                  .addLong("bidRequests7Days", RtbMetrics::getBidRequests7Days)
+                  .addLong("bids7Days", RtbMetrics::getBids7Days)
+                  .addLong("adImpressions7Days", RtbMetrics::getAdImpressions7Days)
+                  .addDouble("bidRate7Days", RtbMetrics::getBidRate7Days)
+                  .addDouble("filteredBidRate7Days", RtbMetrics::getFilteredBidRate7Days)
+                  .addDouble("mustBidRateCurrentMonth", RtbMetrics::getMustBidRateCurrentMonth))
+          .addNested("deal", FinalizedDeal::getDeal, DEAL);
+
+  private static final FieldSchema<Contact> CONTACT =
+      new FieldSchema<>(Contact.class)
+          .addString("email", Contact::getEmail)
+          .addString("displayName", Contact::getDisplayName);
+
+  public static final FieldSchema<Proposal> PROPOSAL =
+      new FieldSchema<>(Proposal.class)
+          .addString("name", Proposal::getName)
+          .addString("displayName", Proposal::getDisplayName)
+          .addTimestamp("updateTime", Proposal::getUpdateTime)
+          .addLong("proposalRevision", Proposal::getProposalRevision)
+          .addString("dealType", Proposal::getDealType)
+          .addString("state", Proposal::getState)
+          .addBoolean("isRenegotiating", Proposal::getIsRenegotiating)
+          .addString("originatorRole", Proposal::getOriginatorRole)
+          .addString("publisherProfile", Proposal::getPublisherProfile)
+          .addString("billedBuyer", Proposal::getBilledBuyer)
+          .addString("lastUpdaterOrCommentorRole", Proposal::getLastUpdaterOrCommentorRole)
+          .addBoolean("pausingConsented", Proposal::getPausingConsented)
+          .addString("buyer", Proposal::getBuyer)
+          .addString("client", Proposal::getClient)
+          .addRepeated("sellerContacts", Proposal::getSellerContacts, CONTACT)
+          .addRepeated("buyerContacts", Proposal::getBuyerContacts, CONTACT);
+
+  private final Class<T> type;
+  private final Map<String, Field<T, ?>> fields = new LinkedHashMap<>();
+
+  private FieldSchema(Class<T> type) {
+    this.type = type;
+  }
+
+  /** Returns the model class of the resources that this schema describes. */
+  public Class<T> getType() {
+    return type;
+  }
+
+  /**
+   * Compiles a filter into a predicate.
+   *
+   * @param filter The value of the {@code filter} parameter, or {@code null} to match everything.
+   * @throws IllegalArgumentException if the filter is malformed, refers to a field that isn't in
+   *     the schema, or compares a field to a value of the wrong type.
+   */
+  public Predicate<T> compileFilter(String filter) {
+    return ListQuery.parseFilter(
+        filter, (path, result, value) -> getField(path, "filter").compile(path, result, value));
+  }
+
+  /**
+   * Compiles an order-by parameter into a comparator.
+   *
+   * @param orderBy The value of the {@code orderBy} parameter, or {@code null} to keep resources
+   *     in their original order.
+   * @throws IllegalArgumentException if the parameter is malformed or refers to a field that isn't
+   *     in the schema.
+   */
+  public OrderBy<T> compileOrderBy(String orderBy) {
+    List<Function<T, ? extends Comparable<?>>> keys = new ArrayList<>();
+    List<Boolean> descending = new ArrayList<>();
+    for (ListQuery.OrderByClause clause : ListQuery.parseOrderByClauses(orderBy)) {
+      keys.add(getField(clause.path, "order by").accessor::first);
+      descending.add(clause.descending);
+    }
+    return new OrderBy<>(keys, descending);
+  }
+
+  /**
+   * Compiles a field path into a function returning the field's value, which is the first value of
+   * a repeated field, or {@code null} if the resource lacks the field. Timestamps are returned as
+   * {@link Instant}s, and other fields with the type of their getter.
+   *
+   * @param path The dot-separated path of the field, e.g. {@code rtbMetrics.bids7Days}.
+   * @throws IllegalArgumentException if the field isn't in the schema.
+   */
+  public Function<T, Object> compileGetter(String path) {
+    Accessor<T, ?> accessor = getField(path, "columns").accessor;
+    return accessor::first;
+  }
+
+  private Field<T, ?> getField(String path, String parameter) {
+    Field<T, ?> field = fields.get(path);
+    if (field == null) {
+      throw new IllegalArgumentException(
+          String.format("Unsupported field \"%s\" in %s.", path, parameter));
+    }
+    return field;
+  }
+
+  private FieldSchema<T> addString(String path, Function<T, String> getter) {
+    return add(path, value(getter), literal -> literal);
+  }
+
+  private FieldSchema<T> addLong(String path, Function<T, Long> getter) {
+    return add(path, value(getter), Long::valueOf);
+  }
+
+  private FieldSchema<T> addInteger(String path, Function<T, Integer> getter) {
+    return add(path, value(getter), Integer::valueOf);
+  }
+
+  private FieldSchema<T> addDouble(String path, Function<T, Double> getter) {
+    return add(path, value(getter), Double::valueOf);
+  }
+
+  private FieldSchema<T> addBoolean(String path, Function<T, Boolean> getter) {
+    return add(
+        path,
+        value(getter),
+        literal -> {
+          if (!literal.matches("(?i)true|false")) {
+            throw new IllegalArgumentException();
+          }
+          return Boolean.valueOf(literal);
+        });
+  }
+
+  /** Adds a field holding an RFC 3339 timestamp, which is compared chronologically. */
+  private FieldSchema<T> addTimestamp(String path, Function<T, String> getter) {
+    return add(path, value(getter.andThen(FieldSchema::parseTimestamp)), Instant::parse);
+  }
+
+  /** Adds the fields of a message field, prefixing their paths with its name. */
+  private <C> FieldSchema<T> addNested(
+      String prefix, Function<T, C> getter, FieldSchema<C> schema) {
+    for (Map.Entry<String, Field<C, ?>> field : schema.fields.entrySet()) {
+      fields.put(prefix + "." + field.getKey(), field.getValue().nested(getter));
+    }
+    return this;
+  }
+
+  /** Adds the fields of a repeated message field, prefixing their paths with its name. */
+  private <C> FieldSchema<T> addRepeated(
+      String prefix, Function<T, List<C>> getter, FieldSchema<C> schema) {
+    for (Map.Entry<String, Field<C, ?>> field : schema.fields.entrySet()) {
+      fields.put(prefix + "." + field.getKey(), field.getValue().repeated(getter));
+    }
+    return this;
+  }
+
+  private <V extends Comparable<? super V>> FieldSchema<T> add(
+      String path, Accessor<T, V> accessor, Function<String, V> parser) {
+    fields.put(path, new Field<>(accessor, parser));
+    return this;
+  }
+
+  /** Parses a timestamp, treating invalid timestamps like missing ones. */
+  private static Instant parseTimestamp(String timestamp) {
+    try {
+      return (timestamp != null) ? Instant.parse(timestamp) : null;
+    } catch (DateTimeParseException ex) {
+      return null;
+    }
+  }
+
+  /** Reads the values of a field of a resource. */
+  private interface Accessor<T, V> {
+
+    /** Returns whether any value of the field passes the test. */
+    boolean anyMatch(T resource, Predicate<? super V> test);
+
+    /** Returns the first value of the field, or {@code null} if it has none. */
+    V first(T resource);
+  }
+
+  private static <T, V> Accessor<T, V> value(Function<T, V> getter) {
+    return new Accessor<T, V>() {
+      @Override
+      public boolean anyMatch(T resource, Predicate<? super V> test) {
+        V value = getter.apply(resource);
+        return value != null && test.test(value);
+      }
+
+      @Override
+      public V first(T resource) {
+        return getter.apply(resource);
+      }
+    };
+  }
+
+  /** A field of a resource and the type its literal values are converted to. */
+  private static final class Field<T, V extends Comparable<? super V>> {
+
+    final Accessor<T, V> accessor;
+    final Function<String, V> parser;
+
+    Field(Accessor<T, V> accessor, Function<String, V> parser) {
+      this.accessor = accessor;
+      this.parser = parser;
+    }
+
+    Predicate<T> compile(String path, IntPredicate result, String literal) {
+      V value;
+      try {
+        value = parser.apply(literal);
+      } catch (RuntimeException ex) {
+        throw new IllegalArgumentException(
+            String.format("Invalid value \"%s\" for field \"%s\" in filter.", literal, path));
+      }
+      Predicate<V> test = fieldValue -> result.test(fieldValue.compareTo(value));
+      return resource -> accessor.anyMatch(resource, test);
+    }
+
+    /** Returns this field of a message field of a resource of type {@code P}. */
+    <P> Field<P, V> nested(Function<P, T> getter) {
+      return new Field<>(
+          new Accessor<P, V>() {
+            @Override
+            public boolean anyMatch(P resource, Predicate<? super V> test) {
+              T message = getter.apply(resource);
+              return message != null && accessor.anyMatch(message, test);
+            }
+
+            @Override
+            public V first(P resource) {
+              T message = getter.apply(resource);
+              return (message != null) ? accessor.first(message) : null;
+            }
+          },
+          parser);
+    }
+
+    /** Returns this field of a repeated message field of a resource of type {@code P}. */
+    <P> Field<P, V> repeated(Function<P, List<T>> getter) {
+      return new Field<>(
+          new Accessor<P, V>() {
+            @Override
+            public boolean anyMatch(P resource, Predicate<? super V> test) {
+              List<T> messages = getter.apply(resource);
+              if (messages != null) {
+                for (T message : messages) {
+                  if (message != null && accessor.anyMatch(message, test)) {
+                    return true;
+                  }
+                }
+              }
+              return false;
+            }
+
+            @Override
+            public V first(P resource) {
+              List<T> messages = getter.apply(resource);
+              if (messages != null) {
+                for (T message : messages) {
+                  V value = (message != null) ? accessor.first(message) : null;
+                  if (value != null) {
+                    return value;
+                  }
+                }
+              }
+              return null;
+            }
+          },
+          parser);
+    }
+  }
+}
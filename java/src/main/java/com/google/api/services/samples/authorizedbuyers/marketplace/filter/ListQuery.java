@@ -0,0 +1,379 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.filter;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates the {@code filter} and {@code orderBy} parameters of list requests against resources
+ * represented as JSON maps, such as the model classes of the client library, supporting the subset
+ * of the <a href="https://google.aip.dev/160">AIP-160</a> filtering syntax accepted by the
+ * Marketplace API.
+ *
+ * <p>Filters consist of comparisons such as {@code deal.dealType = PROGRAMMATIC_GUARANTEED} or
+ * {@code updateTime > "2026-01-01T00:00:00Z"}, combined with {@code AND}, {@code OR}, {@code NOT}
+ * and parentheses. As in AIP-160, {@code OR} binds more tightly than {@code AND}. Order-by clauses
+ * are comma-separated field paths, each optionally followed by {@code desc}.
+ *
+ * <p>This class interprets both against untyped maps. {@link FieldSchema} compiles the same
+ * grammar against the typed getters of a model class instead.
+ */
+public final class ListQuery {
+
+  /** A filter expression evaluated against a resource. */
+  public interface Filter {
+    boolean matches(Map<String, Object> resource);
+  }
+
+  /** Compiles a single comparison of a filter, such as {@code deal.dealType = PREFERRED_DEAL}. */
+  interface ComparisonCompiler<T> {
+    /**
+     * @param path The dotted path of the compared field.
+     * @param result Tests the result of comparing a value of the field to the literal value.
+     * @param value The literal value, without quotes.
+     * @throws IllegalArgumentException if the field or value are invalid.
+     */
+    Predicate<T> compile(String path, IntPredicate result, String value);
+  }
+
+  /** A clause of an order-by parameter. */
+  static final class OrderByClause {
+    final String path;
+    final boolean descending;
+
+    private OrderByClause(String path, boolean descending) {
+      this.path = path;
+      this.descending = descending;
+    }
+  }
+
+  private static final Filter MATCH_ALL = resource -> true;
+
+  private ListQuery() {}
+
+  /**
+   * Parses a filter.
+   *
+   * @param filter The value of the {@code filter} parameter, or {@code null}.
+   * @throws IllegalArgumentException if the filter is malformed.
+   */
+  public static Filter parseFilter(String filter) {
+    if (filter == null || filter.trim().isEmpty()) {
+      return MATCH_ALL;
+    }
+    Predicate<Map<String, Object>> parsed =
+        parseFilter(
+            filter, (path, result, value) -> resource -> anyMatch(resource, path, result, value));
+    return parsed::test;
+  }
+
+  /**
+   * Parses a filter, compiling each of its comparisons with the given compiler.
+   *
+   * @param filter The value of the {@code filter} parameter, or {@code null}.
+   * @throws IllegalArgumentException if the filter is malformed.
+   */
+  static <T> Predicate<T> parseFilter(String filter, ComparisonCompiler<T> compiler) {
+    if (filter == null || filter.trim().isEmpty()) {
+      return resource -> true;
+    }
+    Parser<T> parser = new Parser<>(tokenize(filter), compiler);
+    Predicate<T> parsed = parser.parseExpression();
+    if (parser.position != parser.tokens.size()) {
+      throw new IllegalArgumentException(
+          String.format("Unexpected \"%s\" in filter.", parser.tokens.get(parser.position)));
+    }
+    return parsed;
+  }
+
+  /**
+   * Parses an order-by clause.
+   *
+   * @param orderBy The value of the {@code orderBy} parameter, or {@code null}.
+   * @return A comparator, or {@code null} if the resources should be left in their natural order.
+   * @throws IllegalArgumentException if the clause is malformed.
+   */
+  public static Comparator<Map<String, Object>> parseOrderBy(String orderBy) {
+    Comparator<Map<String, Object>> comparator = null;
+    for (OrderByClause clause : parseOrderByClauses(orderBy)) {
+      String path = clause.path;
+      Comparator<Map<String, Object>> fieldComparator =
+          (a, b) -> compareValues(getFirstValue(a, path), getFirstValue(b, path));
+      if (clause.descending) {
+        fieldComparator = fieldComparator.reversed();
+      }
+      comparator =
+          (comparator == null) ? fieldComparator : comparator.thenComparing(fieldComparator);
+    }
+    return comparator;
+  }
+
+  /**
+   * Splits an order-by parameter into its clauses.
+   *
+   * @param orderBy The value of the {@code orderBy} parameter, or {@code null}.
+   * @throws IllegalArgumentException if the parameter is malformed.
+   */
+  static List<OrderByClause> parseOrderByClauses(String orderBy) {
+    List<OrderByClause> clauses = new ArrayList<>();
+    if (orderBy == null || orderBy.trim().isEmpty()) {
+      return clauses;
+    }
+    for (String clause : orderBy.split(",")) {
+      String[] parts = clause.trim().split("\\s+");
+      if (parts.length > 2 || (parts.length == 2 && !parts[1].matches("(?i)asc|desc"))) {
+        throw new IllegalArgumentException(String.format("Invalid order by \"%s\".", clause));
+      }
+      boolean descending = parts.length == 2 && parts[1].equalsIgnoreCase("desc");
+      clauses.add(new OrderByClause(parts[0], descending));
+    }
+    return clauses;
+  }
+
+  /**
+   * Returns the dotted paths of the fields that an order-by clause sorts by, e.g. {@code
+   * [deal.flightStartTime]} for {@code "deal.flightStartTime desc"}.
+   *
+   * @param orderBy The value of the {@code orderBy} parameter, or {@code null}.
+   */
+  public static List<String> getOrderByPaths(String orderBy) {
+    List<String> paths = new ArrayList<>();
+    if (orderBy != null && !orderBy.trim().isEmpty()) {
+      for (String clause : orderBy.split(",")) {
+        paths.add(clause.trim().split("\\s+")[0]);
+      }
+    }
+    return paths;
+  }
+
+  /** Returns the values at the given dotted path, expanding repeated fields along the way. */
+  public static List<Object> getValues(Map<String, Object> resource, String path) {
+    List<Object> values = new ArrayList<>();
+    collectValues(resource, path.split("\\."), 0, values);
+    return values;
+  }
+
+  private static void collectValues(Object value, String[] path, int index, List<Object> values) {
+    if (value == null) {
+      return;
+    }
+    if (value instanceof List) {
+      for (Object element : (List<?>) value) {
+        collectValues(element, path, index, values);
+      }
+    } else if (index == path.length) {
+      values.add(value);
+    } else if (value instanceof Map) {
+      collectValues(((Map<?, ?>) value).get(path[index]), path, index + 1, values);
+    }
+  }
+
+  private static Object getFirstValue(Map<String, Object> resource, String path) {
+    List<Object> values = getValues(resource, path);
+    return values.isEmpty() ? null : values.get(0);
+  }
+
+  /**
+   * Compares two JSON values, treating numbers numerically, timestamps chronologically and
+   * everything else as strings. Missing values sort first.
+   */
+  public static int compareValues(Object a, Object b) {
+    if (a == null || b == null) {
+      return (a == null) ? ((b == null) ? 0 : -1) : 1;
+    }
+
+    String aString = a.toString();
+    String bString = b.toString();
+    Double aNumber = toNumber(aString);
+    Double bNumber = toNumber(bString);
+    if (aNumber != null && bNumber != null) {
+      return Double.compare(aNumber, bNumber);
+    }
+    Instant aInstant = toInstant(aString);
+    Instant bInstant = toInstant(bString);
+    if (aInstant != null && bInstant != null) {
+      return aInstant.compareTo(bInstant);
+    }
+    return aString.compareTo(bString);
+  }
+
+  private static Double toNumber(String value) {
+    try {
+      return Double.valueOf(value);
+    } catch (NumberFormatException ex) {
+      return null;
+    }
+  }
+
+  private static Instant toInstant(String value) {
+    try {
+      return Instant.parse(value);
+    } catch (DateTimeParseException ex) {
+      return null;
+    }
+  }
+
+  private static List<String> tokenize(String filter) {
+    List<String> tokens = new ArrayList<>();
+    int i = 0;
+
+    while (i < filter.length()) {
+      char c = filter.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '(' || c == ')' || c == ':' || c == '=') {
+        tokens.add(String.valueOf(c));
+        i++;
+      } else if (c == '!' || c == '<' || c == '>') {
+        boolean withEquals = i + 1 < filter.length() && filter.charAt(i + 1) == '=';
+        tokens.add(withEquals ? c + "=" : String.valueOf(c));
+        i += withEquals ? 2 : 1;
+      } else if (c == '"') {
+        StringBuilder literal = new StringBuilder("\"");
+        for (i++; i < filter.length() && filter.charAt(i) != '"'; i++) {
+          if (filter.charAt(i) == '\\' && i + 1 < filter.length()) {
+            i++;
+          }
+          literal.append(filter.charAt(i));
+        }
+        if (i == filter.length()) {
+          throw new IllegalArgumentException("Unterminated string in filter.");
+        }
+        tokens.add(literal.toString());
+        i++;
+      } else {
+        int start = i;
+        while (i < filter.length() && !Character.isWhitespace(filter.charAt(i))
+            && "()=:!<>\"".indexOf(filter.charAt(i)) < 0) {
+          i++;
+        }
+        tokens.add(filter.substring(start, i));
+      }
+    }
+    return tokens;
+  }
+
+  private static class Parser<T> {
+    final List<String> tokens;
+    final ComparisonCompiler<T> compiler;
+    int position;
+
+    Parser(List<String> tokens, ComparisonCompiler<T> compiler) {
+      this.tokens = tokens;
+      this.compiler = compiler;
+    }
+
+    Predicate<T> parseExpression() {
+      Predicate<T> left = parseSequence();
+      while (accept("AND")) {
+        left = left.and(parseSequence());
+      }
+      return left;
+    }
+
+    Predicate<T> parseSequence() {
+      Predicate<T> left = parseFactor();
+      while (accept("OR")) {
+        left = left.or(parseFactor());
+      }
+      return left;
+    }
+
+    Predicate<T> parseFactor() {
+      if (accept("NOT") || accept("-")) {
+        return parseFactor().negate();
+      }
+      if (accept("(")) {
+        Predicate<T> nested = parseExpression();
+        expect(")");
+        return nested;
+      }
+
+      String path = nextOperand();
+      String operator = next();
+      String literal = nextOperand();
+      String value = literal.startsWith("\"") ? literal.substring(1) : literal;
+
+      switch (operator) {
+        case "=":
+        case ":":
+          return compiler.compile(path, c -> c == 0, value);
+        case "!=":
+          return compiler.compile(path, c -> c == 0, value).negate();
+        case "<":
+          return compiler.compile(path, c -> c < 0, value);
+        case "<=":
+          return compiler.compile(path, c -> c <= 0, value);
+        case ">":
+          return compiler.compile(path, c -> c > 0, value);
+        case ">=":
+          return compiler.compile(path, c -> c >= 0, value);
+        default:
+          throw new IllegalArgumentException(
+              String.format("Unsupported operator \"%s\" in filter.", operator));
+      }
+    }
+
+    private boolean accept(String token) {
+      if (position < tokens.size() && tokens.get(position).equals(token)) {
+        position++;
+        return true;
+      }
+      return false;
+    }
+
+    private void expect(String token) {
+      if (!accept(token)) {
+        throw new IllegalArgumentException(String.format("Expected \"%s\" in filter.", token));
+      }
+    }
+
+    private String next() {
+      if (position == tokens.size()) {
+        throw new IllegalArgumentException("Unexpected end of filter.");
+      }
+      return tokens.get(position++);
+    }
+
+    /** Returns the next token, which must be a field path or a value. */
+    private String nextOperand() {
+      String token = next();
+      if (token.matches("[()=:!<>].*|AND|OR|NOT")) {
+        throw new IllegalArgumentException(
+            String.format("Unexpected \"%s\" in filter.", token));
+      }
+      return token;
+    }
+  }
+
+  private static boolean anyMatch(
+      Map<String, Object> resource, String path, IntPredicate result, Object value) {
+    for (Object fieldValue : getValues(resource, path)) {
+      if (result.test(compareValues(fieldValue, value))) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A comparator compiled from an order-by parameter by {@link FieldSchema#compileOrderBy}.
+ *
+ * <p>Resources that compare equal keep their original order, and missing values sort first as
+ * they do on the server. When sorting many resources, {@link #sort} reads each resource's sort
+ * keys once rather than on every comparison, which matters for keys such as timestamps that are
+ * parsed when read.
+ */
+public final class OrderBy<T> implements Comparator<T> {
+
+  private final List<Function<T, ? extends Comparable<?>>> keys;
+  private final boolean[] descending;
+
+  OrderBy(List<Function<T, ? extends Comparable<?>>> keys, List<Boolean> descending) {
+    this.keys = keys;
+    this.descending = new boolean[descending.size()];
+    for (int i = 0; i < this.descending.length; i++) {
+      this.descending[i] = descending.get(i);
+    }
+  }
+
+  /** Returns whether the order-by parameter was empty, so that any order is acceptable. */
+  public boolean isEmpty() {
+    return keys.isEmpty();
+  }
+
+  @Override
+  public int compare(T a, T b) {
+    for (int i = 0; i < keys.size(); i++) {
+      int comparison = compareKeys(i, keys.get(i).apply(a), keys.get(i).apply(b));
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  /** Returns the given resources sorted in this order. */
+  public List<T> sort(Collection<? extends T> resources) {
+    List<T> sorted = new ArrayList<>(resources);
+    if (isEmpty()) {
+      return sorted;
+    }
+
+    // Each row holds the sort keys of a resource followed by the resource itself.
+    List<Object[]> rows = new ArrayList<>(sorted.size());
+    for (T resource : sorted) {
+      Object[] row = new Object[keys.size() + 1];
+      for (int i = 0; i < keys.size(); i++) {
+        row[i] = keys.get(i).apply(resource);
+      }
+      row[keys.size()] = resource;
+      rows.add(row);
+    }
+    rows.sort(
+        (a, b) -> {
+          for (int i = 0; i < keys.size(); i++) {
+            int comparison = compareKeys(i, a[i], b[i]);
+            if (comparison != 0) {
+              return comparison;
+            }
+          }
+          return 0;
+        });
+
+    sorted.clear();
+    for (Object[] row : rows) {
+      @SuppressWarnings("unchecked")
+      T resource = (T) row[keys.size()];
+      sorted.add(resource);
+    }
+    return sorted;
+  }
+
+  /** Compares two values of the given key, which are of the same type as they come from it. */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private int compareKeys(int key, Object a, Object b) {
+    if (descending[key]) {
+      Object swapped = a;
+      a = b;
+      b = swapped;
+    }
+    if (a == null || b == null) {
+      return (a == null) ? ((b == null) ? 0 : -1) : 1;
+    }
+    return ((Comparable) a).compareTo(b);
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.http;
+
+/**
+ * Limits the number of requests in flight with a window that adapts to the server's responses
+ * using additive-increase/multiplicative-decrease (AIMD).
+ *
+ * <p>Each successful response grows the window by roughly one request per window's worth of
+ * responses, while a response indicating that the server is overloaded or that quota was exceeded
+ * shrinks it by a constant factor. Only requests sent after the most recent decrease can shrink
+ * the window again, so that a burst of throttled responses to requests that were already in flight
+ * causes a single decrease.
+ */
+public class AimdConcurrencyLimiter {
+
+  /** The outcome of a request, used to adjust the window. */
+  public enum Outcome {
+    /** The server handled the request, which grows the window. */
+    SUCCESS,
+    /** The server rejected the request due to load or quota, which shrinks the window. */
+    THROTTLED,
+    /** The request failed for an unrelated reason, which leaves the window unchanged. */
+    IGNORED
+  }
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+
+  private double limit;
+  private int inFlight;
+  private long lastDecreaseNanos = System.nanoTime();
+
+  /**
+   * Creates a limiter.
+   *
+   * @param initialLimit The initial number of requests allowed in flight.
+   * @param minLimit The smallest the window may shrink to.
+   * @param maxLimit The largest the window may grow to.
+   * @param backoffRatio The factor applied to the window when a request is throttled, in (0, 1).
+   */
+  public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+    if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+      throw new IllegalArgumentException("Invalid concurrency limiter configuration.");
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoffRatio = backoffRatio;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+  }
+
+  /**
+   * Waits until the number of requests in flight is below the current window, then counts the
+   * caller's request as in flight. Each call must be followed by a call to {@link #release}.
+   *
+   * @return The time at which the request was admitted, to be passed to {@link #release}.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  public synchronized long acquire() throws InterruptedException {
+    while (inFlight >= (int) limit) {
+      wait();
+    }
+    inFlight++;
+    return System.nanoTime();
+  }
+
+  /**
+   * Removes a request from the count of requests in flight and adjusts the window.
+   *
+   * @param acquiredNanos The value returned by {@link #acquire} for the request.
+   * @param outcome The outcome of the request.
+   */
+  public synchronized void release(long acquiredNanos, Outcome outcome) {
+    inFlight--;
+
+    if (outcome == Outcome.SUCCESS) {
+      limit = Math.min(maxLimit, limit + 1 / limit);
+    } else if (outcome == Outcome.THROTTLED && acquiredNanos - lastDecreaseNanos > 0) {
+      limit = Math.max(minLimit, limit * backoffRatio);
+      lastDecreaseNanos = System.nanoTime();
+    }
+
+    notifyAll();
+  }
+
+  /** Returns the current number of requests allowed in flight. */
+  public synchronized int getLimit() {
+    return (int) limit;
+  }
+
+  /** Returns the number of requests currently in flight. */
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.http;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Identifies the Marketplace API method and account targeted by an HTTP request, e.g. {@code
+ * buyers.proposals.deals.list} on {@code buyers/12345}.
+ *
+ * <p>The method is derived from the request's HTTP method and the resource path that follows the
+ * API version, so that components such as rate limiters can key their state without depending on
+ * the request classes of the client library. Requests that the client library sends as {@code
+ * POST} with an {@code X-HTTP-Method-Override} header, such as {@code PATCH} requests on
+ * transports that don't support {@code PATCH}, are classified by the overridden method.
+ */
+public final class ApiMethod {
+
+  /** Account reported for requests whose path doesn't start with a buyer or bidder resource. */
+  public static final String UNKNOWN_ACCOUNT = "-";
+
+  /** Header carrying the HTTP method of a request that is sent as {@code POST}. */
+  private static final String METHOD_OVERRIDE_HEADER = "X-HTTP-Method-Override";
+
+  private final String name;
+  private final String account;
+  private final String httpMethod;
+
+  private ApiMethod(String name, String account, String httpMethod) {
+    this.name = name;
+    this.account = account;
+    this.httpMethod = httpMethod;
+  }
+
+  /** Classifies the given request by its effective HTTP method. */
+  public static ApiMethod of(HttpRequest request) {
+    return of(getEffectiveMethod(request), request.getUrl());
+  }
+
+  /**
+   * Returns the HTTP method that the API applies to the given request, which is the method in its
+   * {@code X-HTTP-Method-Override} header if it has one, or its request method otherwise.
+   */
+  public static String getEffectiveMethod(HttpRequest request) {
+    String override = request.getHeaders().getFirstHeaderStringValue(METHOD_OVERRIDE_HEADER);
+    return (override != null && !override.isEmpty())
+        ? override.toUpperCase(Locale.ROOT)
+        : request.getRequestMethod();
+  }
+
+  /**
+   * Classifies a request with the given HTTP method and URL.
+   *
+   * <p>Paths ending with a collection map to {@code list} or {@code create}, and paths ending with
+   * a resource ID map to {@code get}, {@code patch} or {@code delete}. Custom methods such as
+   * {@code proposals:sendRfp} are named after the custom verb.
+   */
+  public static ApiMethod of(String httpMethod, GenericUrl url) {
+    List<String> segments = new ArrayList<>();
+    for (String segment : url.getPathParts()) {
+      if (!segment.isEmpty()) {
+        segments.add(segment);
+      }
+    }
+    // Skip the API version, e.g. "v1".
+    if (!segments.isEmpty() && segments.get(0).matches("v\\d+\\w*")) {
+      segments.remove(0);
+    }
+    if (segments.isEmpty()) {
+      return new ApiMethod(httpMethod.toLowerCase(), UNKNOWN_ACCOUNT, httpMethod);
+    }
+
+    String customVerb = null;
+    String lastSegment = segments.get(segments.size() - 1);
+    int verbIndex = lastSegment.indexOf(':');
+    if (verbIndex >= 0) {
+      customVerb = lastSegment.substring(verbIndex + 1);
+      segments.set(segments.size() - 1, lastSegment.substring(0, verbIndex));
+    }
+
+    StringBuilder name = new StringBuilder();
+    for (int i = 0; i < segments.size(); i += 2) {
+      if (name.length() > 0) {
+        name.append('.');
+      }
+      name.append(segments.get(i));
+    }
+
+    boolean endsWithCollection = segments.size() % 2 == 1;
+    name.append('.');
+    if (customVerb != null) {
+      name.append(customVerb);
+    } else if (endsWithCollection) {
+      name.append("GET".equals(httpMethod) ? "list" : "create");
+    } else {
+      name.append(httpMethod.toLowerCase());
+    }
+
+    String account =
+        (segments.size() >= 2
+                && ("buyers".equals(segments.get(0)) || "bidders".equals(segments.get(0))))
+            ? segments.get(0) + "/" + segments.get(1)
+            : UNKNOWN_ACCOUNT;
+
+    return new ApiMethod(name.toString(), account, httpMethod);
+  }
+
+  /** Returns the name of the API method, e.g. {@code buyers.finalizedDeals.list}. */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the name of the buyer or bidder account the request is made on behalf of, e.g. {@code
+   * buyers/12345}, or {@link #UNKNOWN_ACCOUNT}.
+   */
+  public String getAccount() {
+    return account;
+  }
+
+  /** Returns the effective HTTP method of the request, e.g. {@code PATCH} for an overridden one. */
+  public String getHttpMethod() {
+    return httpMethod;
+  }
+
+  @Override
+  public String toString() {
+    return name + " (" + account + ")";
+  }
+}
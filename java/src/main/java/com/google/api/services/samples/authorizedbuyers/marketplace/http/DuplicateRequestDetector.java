@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.http;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpContent;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.json.JsonHttpContent;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.util.GenericData;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Determines whether an attempt of a non-idempotent create request whose outcome is unknown, such
+ * as one that timed out, created a resource before the request is retried.
+ *
+ * <p>Only methods whose created resources can be recognized are supported:
+ *
+ * <ul>
+ *   <li>{@code buyers.proposals.sendRfp} creates a proposal with the RFP's display name, which is
+ *       found by listing recently updated proposals with that display name.
+ *   <li>{@code buyers.clients.create} creates a client whose display name must be unique, which is
+ *       found by listing the buyer's clients.
+ * </ul>
+ */
+class DuplicateRequestDetector {
+
+  private static final String SEND_RFP = "buyers.proposals.sendRfp";
+  private static final String CREATE_CLIENT = "buyers.clients.create";
+
+  /** Allowance for the difference between the local clock and the API's. */
+  private static final long CLOCK_SKEW_MILLIS = 5 * 60 * 1000;
+
+  /** Maximum number of pages read while looking for a created resource. */
+  private static final int MAX_PAGES = 20;
+
+  private DuplicateRequestDetector() {}
+
+  /** Returns whether resources created by the given method can be detected. */
+  static boolean supports(ApiMethod method) {
+    return SEND_RFP.equals(method.getName()) || CREATE_CLIENT.equals(method.getName());
+  }
+
+  /**
+   * Looks for a resource created by an earlier attempt of the given request.
+   *
+   * @param request The request about to be retried.
+   * @param method The method of the request, for which {@link #supports} returns true.
+   * @param firstAttemptMillis The time at which the first attempt was sent.
+   * @return The name of the created resource, or {@code null} if none was found.
+   * @throws IOException if the lookup fails, in which case the request shouldn't be retried.
+   */
+  static String findCreatedResource(HttpRequest request, ApiMethod method, long firstAttemptMillis)
+      throws IOException {
+    GenericData body = getBody(request.getContent());
+    Object displayName = (body != null) ? body.get("displayName") : null;
+    if (displayName == null) {
+      throw new IOException("Unable to determine the display name of the created resource.");
+    }
+
+    String collectionUrl = request.getUrl().clone().build();
+    int queryIndex = collectionUrl.indexOf('?');
+    if (queryIndex >= 0) {
+      collectionUrl = collectionUrl.substring(0, queryIndex);
+    }
+
+    if (SEND_RFP.equals(method.getName())) {
+      GenericUrl url = new GenericUrl(collectionUrl.substring(0, collectionUrl.lastIndexOf(':')));
+      url.set("filter", String.format("displayName = \"%s\"", escape(displayName.toString())));
+      return find(
+          request,
+          url,
+          "proposals",
+          proposal ->
+              displayName.equals(proposal.get("displayName"))
+                  && isUpdatedAfter(proposal, firstAttemptMillis - CLOCK_SKEW_MILLIS));
+    }
+
+    Object partnerClientId = body.get("partnerClientId");
+    return find(
+        request,
+        new GenericUrl(collectionUrl),
+        "clients",
+        client ->
+            displayName.equals(client.get("displayName"))
+                && Objects.equals(partnerClientId, client.get("partnerClientId")));
+  }
+
+  private interface Matcher {
+    boolean matches(Map<String, Object> resource);
+  }
+
+  /** Lists the resources in the given collection, returning the name of the first match. */
+  private static String find(
+      HttpRequest originalRequest, GenericUrl url, String collectionField, Matcher matcher)
+      throws IOException {
+    String pageToken = null;
+
+    for (int page = 0; page < MAX_PAGES; page++) {
+      url.set("pageToken", pageToken);
+      HttpRequest lookup =
+          originalRequest.getTransport().createRequestFactory().buildGetRequest(url);
+      lookup.getHeaders().setAuthorization(originalRequest.getHeaders().getAuthorization());
+      lookup.getHeaders().setUserAgent(originalRequest.getHeaders().getUserAgent());
+      lookup.setParser(originalRequest.getParser());
+      lookup.setConnectTimeout(originalRequest.getConnectTimeout());
+      lookup.setReadTimeout(originalRequest.getReadTimeout());
+
+      HttpResponse response = lookup.execute();
+      GenericJson json;
+      try {
+        json = response.parseAs(GenericJson.class);
+      } finally {
+        response.disconnect();
+      }
+
+      Object resources = json.get(collectionField);
+      if (resources instanceof List) {
+        for (Object resource : (List<?>) resources) {
+          @SuppressWarnings("unchecked")
+          Map<String, Object> fields = (Map<String, Object>) resource;
+          if (matcher.matches(fields)) {
+            return (String) fields.get("name");
+          }
+        }
+      }
+
+      pageToken = (String) json.get("nextPageToken");
+      if (pageToken == null || pageToken.isEmpty()) {
+        return null;
+      }
+    }
+
+    throw new IOException("Too many resources to determine whether the request was applied.");
+  }
+
+  private static GenericData getBody(HttpContent content) {
+    if (content instanceof JsonHttpContent) {
+      Object data = ((JsonHttpContent) content).getData();
+      if (data instanceof GenericData) {
+        return (GenericData) data;
+      }
+    }
+    return null;
+  }
+
+  private static boolean isUpdatedAfter(Map<String, Object> resource, long timeMillis) {
+    Object updateTime = resource.get("updateTime");
+    if (updateTime == null) {
+      return false;
+    }
+    try {
+      return Instant.parse(updateTime.toString()).toEpochMilli() >= timeMillis;
+    } catch (DateTimeParseException ex) {
+      return false;
+    }
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of retrying a request that isn't idempotent when an earlier attempt whose outcome
+ * was unknown turns out to have created the resource.
+ */
+public class DuplicateRequestException extends IOException {
+
+  private final String existingResourceName;
+
+  public DuplicateRequestException(ApiMethod method, String existingResourceName) {
+    super(
+        String.format(
+            "An earlier attempt of %s failed, but created \"%s\". The request was not retried.",
+            method, existingResourceName));
+    this.existingResourceName = existingResourceName;
+  }
+
+  /** Returns the name of the resource created by the earlier attempt. */
+  public String getExistingResourceName() {
+    return existingResourceName;
+  }
+}
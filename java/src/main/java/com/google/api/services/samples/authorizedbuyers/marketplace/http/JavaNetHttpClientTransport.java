@@ -0,0 +1,259 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.http;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An {@link HttpTransport} backed by {@link java.net.http.HttpClient}.
+ *
+ * <p>The client negotiates HTTP/2 where the server supports it, which allows concurrent requests
+ * to be multiplexed over a small number of connections instead of each request occupying a
+ * connection of its own as it would with {@code HttpURLConnection}. Servers that only support
+ * HTTP/1.1 are still supported.
+ */
+public class JavaNetHttpClientTransport extends HttpTransport {
+
+  /**
+   * Headers that are managed by {@code HttpClient} itself and may not be set on a request, except
+   * for those allowed by the {@code jdk.httpclient.allowRestrictedHeaders} system property.
+   */
+  private static final Set<String> RESTRICTED_HEADERS = getRestrictedHeaders();
+
+  /**
+   * Headers that are set from the request's content rather than copied, so that they aren't sent
+   * twice.
+   */
+  private static final Set<String> CONTENT_HEADERS =
+      new HashSet<>(Arrays.asList("content-encoding", "content-type"));
+
+  private final HttpClient httpClient;
+
+  /** Creates a transport that prefers HTTP/2 and uses the default system SSL context. */
+  public JavaNetHttpClientTransport() {
+    this(
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(20))
+            .build());
+  }
+
+  /** Creates a transport that sends requests using the given {@code HttpClient}. */
+  public JavaNetHttpClientTransport(HttpClient httpClient) {
+    this.httpClient = httpClient;
+  }
+
+  /** Returns the headers rejected by {@code HttpClient}, in lower case. */
+  private static Set<String> getRestrictedHeaders() {
+    Set<String> restrictedHeaders =
+        new HashSet<>(
+            Arrays.asList(
+                "connection",
+                "content-length",
+                "date",
+                "expect",
+                "from",
+                "host",
+                "upgrade",
+                "via",
+                "warning"));
+    String allowedHeaders = System.getProperty("jdk.httpclient.allowRestrictedHeaders");
+    if (allowedHeaders != null) {
+      for (String allowedHeader : allowedHeaders.split(",")) {
+        restrictedHeaders.remove(allowedHeader.trim().toLowerCase(Locale.ROOT));
+      }
+    }
+    return restrictedHeaders;
+  }
+
+  @Override
+  public boolean supportsMethod(String method) {
+    return true;
+  }
+
+  @Override
+  protected LowLevelHttpRequest buildRequest(String method, String url) {
+    return new JavaNetHttpClientRequest(method, url);
+  }
+
+  private class JavaNetHttpClientRequest extends LowLevelHttpRequest {
+
+    private final String method;
+    private final String url;
+    private final List<String[]> headers = new ArrayList<>();
+    private Duration timeout;
+
+    JavaNetHttpClientRequest(String method, String url) {
+      this.method = method;
+      this.url = url;
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+      headers.add(new String[] {name, value});
+    }
+
+    @Override
+    public void setTimeout(int connectTimeout, int readTimeout) {
+      // HttpClient has a single timeout covering the wait for the response headers, and the
+      // connect timeout is configured on the client itself.
+      timeout = (readTimeout > 0) ? Duration.ofMillis(readTimeout) : null;
+    }
+
+    @Override
+    public LowLevelHttpResponse execute() throws IOException {
+      HttpRequest.Builder requestBuilder =
+          HttpRequest.newBuilder(URI.create(url)).method(method, getBodyPublisher());
+
+      for (String[] header : headers) {
+        String name = header[0].toLowerCase(Locale.ROOT);
+        if (!RESTRICTED_HEADERS.contains(name) && !CONTENT_HEADERS.contains(name)) {
+          requestBuilder.header(header[0], header[1]);
+        }
+      }
+      if (getContentType() != null) {
+        requestBuilder.header("Content-Type", getContentType());
+      }
+      if (getContentEncoding() != null) {
+        requestBuilder.header("Content-Encoding", getContentEncoding());
+      }
+      if (timeout != null) {
+        requestBuilder.timeout(timeout);
+      }
+
+      try {
+        return new JavaNetHttpClientResponse(
+            httpClient.send(requestBuilder.build(), BodyHandlers.ofInputStream()));
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        InterruptedIOException interruptedException =
+            new InterruptedIOException("Interrupted while waiting for a response.");
+        interruptedException.initCause(ex);
+        throw interruptedException;
+      }
+    }
+
+    private BodyPublisher getBodyPublisher() throws IOException {
+      if (getStreamingContent() == null) {
+        return BodyPublishers.noBody();
+      }
+
+      ByteArrayOutputStream content = new ByteArrayOutputStream();
+      getStreamingContent().writeTo(content);
+      return BodyPublishers.ofByteArray(content.toByteArray());
+    }
+  }
+
+  private static class JavaNetHttpClientResponse extends LowLevelHttpResponse {
+
+    private final HttpResponse<InputStream> response;
+    private final List<String> headerNames = new ArrayList<>();
+    private final List<String> headerValues = new ArrayList<>();
+
+    JavaNetHttpClientResponse(HttpResponse<InputStream> response) {
+      this.response = response;
+
+      for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+        // Skip HTTP/2 pseudo-headers such as ":status".
+        if (header.getKey().startsWith(":")) {
+          continue;
+        }
+        for (String value : header.getValue()) {
+          headerNames.add(header.getKey());
+          headerValues.add(value);
+        }
+      }
+    }
+
+    @Override
+    public InputStream getContent() {
+      return response.body();
+    }
+
+    @Override
+    public String getContentEncoding() {
+      return response.headers().firstValue("Content-Encoding").orElse(null);
+    }
+
+    @Override
+    public long getContentLength() {
+      return response.headers().firstValueAsLong("Content-Length").orElse(-1L);
+    }
+
+    @Override
+    public String getContentType() {
+      return response.headers().firstValue("Content-Type").orElse(null);
+    }
+
+    @Override
+    public String getStatusLine() {
+      String version = (response.version() == HttpClient.Version.HTTP_2) ? "HTTP/2" : "HTTP/1.1";
+      return version + " " + response.statusCode();
+    }
+
+    @Override
+    public int getStatusCode() {
+      return response.statusCode();
+    }
+
+    @Override
+    public String getReasonPhrase() {
+      return null;
+    }
+
+    @Override
+    public int getHeaderCount() {
+      return headerNames.size();
+    }
+
+    @Override
+    public String getHeaderName(int index) {
+      return headerNames.get(index);
+    }
+
+    @Override
+    public String getHeaderValue(int index) {
+      return headerValues.get(index);
+    }
+
+    @Override
+    public void disconnect() throws IOException {
+      response.body().close();
+    }
+  }
+}
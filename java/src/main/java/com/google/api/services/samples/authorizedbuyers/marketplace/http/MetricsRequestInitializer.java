@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.http;
+
+import com.google.api.client.http.HttpContent;
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpIOExceptionHandler;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseInterceptor;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+import com.google.api.services.samples.authorizedbuyers.marketplace.metrics.ApiMetrics;
+import java.io.IOException;
+
+/**
+ * An {@link HttpRequestInitializer} that records the latency, sizes and status code of every
+ * attempt to send a request in {@link ApiMetrics}, keyed by the {@link ApiMethod} of the request.
+ *
+ * <p>Install it closest to the credentials, i.e. wrapped by any throttling or retrying
+ * initializers. Its interceptor then runs after those of the wrapping initializers, and its
+ * handlers before theirs, so the recorded latency covers only the HTTP exchange and excludes time
+ * spent waiting for a rate limiter or backing off before a retry.
+ *
+ * <p>Request sizes are those of the uncompressed request body. Response sizes are taken from the
+ * {@code Content-Length} header, so they count the bytes transferred, and responses without the
+ * header aren't included in the size distribution.
+ */
+public class MetricsRequestInitializer implements HttpRequestInitializer {
+
+  private final HttpRequestInitializer delegate;
+  private final ApiMetrics metrics;
+
+  /**
+   * Creates an initializer.
+   *
+   * @param delegate The initializer to wrap, such as one that adds credentials, or {@code null}.
+   * @param metrics The metrics to record attempts in.
+   */
+  public MetricsRequestInitializer(HttpRequestInitializer delegate, ApiMetrics metrics) {
+    this.delegate = delegate;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void initialize(HttpRequest request) throws IOException {
+    if (delegate != null) {
+      delegate.initialize(request);
+    }
+
+    MeasuredRequest measuredRequest = new MeasuredRequest(request);
+    request.setInterceptor(measuredRequest);
+    request.setUnsuccessfulResponseHandler(measuredRequest);
+    request.setIOExceptionHandler(measuredRequest);
+    request.setResponseInterceptor(measuredRequest);
+  }
+
+  /**
+   * Tracks the attempts of a single request. Like {@link ThrottlingRequestInitializer}, an attempt
+   * is completed by whichever of the handlers or the response interceptor is called first.
+   */
+  private class MeasuredRequest
+      implements HttpExecuteInterceptor,
+          HttpUnsuccessfulResponseHandler,
+          HttpIOExceptionHandler,
+          HttpResponseInterceptor {
+
+    private final HttpExecuteInterceptor executeInterceptor;
+    private final HttpUnsuccessfulResponseHandler unsuccessfulResponseHandler;
+    private final HttpIOExceptionHandler ioExceptionHandler;
+    private final HttpResponseInterceptor responseInterceptor;
+
+    private ApiMethod method;
+    private boolean inProgress;
+    private long startNanos;
+    private long requestBytes;
+
+    MeasuredRequest(HttpRequest request) {
+      executeInterceptor = request.getInterceptor();
+      unsuccessfulResponseHandler = request.getUnsuccessfulResponseHandler();
+      ioExceptionHandler = request.getIOExceptionHandler();
+      responseInterceptor = request.getResponseInterceptor();
+    }
+
+    @Override
+    public void intercept(HttpRequest request) throws IOException {
+      if (executeInterceptor != null) {
+        executeInterceptor.intercept(request);
+      }
+
+      if (method == null) {
+        method = ApiMethod.of(request);
+        HttpContent content = request.getContent();
+        requestBytes = (content != null) ? content.getLength() : -1;
+      }
+      inProgress = true;
+      startNanos = System.nanoTime();
+    }
+
+    @Override
+    public boolean handleResponse(HttpRequest request, HttpResponse response, boolean supportsRetry)
+        throws IOException {
+      complete(response);
+
+      return unsuccessfulResponseHandler != null
+          && unsuccessfulResponseHandler.handleResponse(request, response, supportsRetry);
+    }
+
+    @Override
+    public boolean handleIOException(HttpRequest request, boolean supportsRetry)
+        throws IOException {
+      complete(null);
+
+      return ioExceptionHandler != null
+          && ioExceptionHandler.handleIOException(request, supportsRetry);
+    }
+
+    @Override
+    public void interceptResponse(HttpResponse response) throws IOException {
+      complete(response);
+
+      if (responseInterceptor != null) {
+        responseInterceptor.interceptResponse(response);
+      }
+    }
+
+    /** Records the attempt in progress, if any, given its response or {@code null}. */
+    private void complete(HttpResponse response) {
+      if (!inProgress) {
+        return;
+      }
+      inProgress = false;
+
+      long latencyNanos = System.nanoTime() - startNanos;
+      Long contentLength = (response != null) ? response.getHeaders().getContentLength() : null;
+      metrics.record(
+          method.getName(),
+          method.getAccount(),
+          (response != null) ? Integer.toString(response.getStatusCode()) : ApiMetrics.IO_ERROR,
+          latencyNanos,
+          requestBytes,
+          (contentLength != null) ? contentLength : -1);
+    }
+  }
+}
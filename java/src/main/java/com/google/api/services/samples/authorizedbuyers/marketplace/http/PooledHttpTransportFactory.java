@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.http;
+
+import com.google.api.client.googleapis.GoogleUtils;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import com.google.api.client.util.SslUtils;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+/**
+ * Creates {@link HttpTransport} instances backed by a connection-pooled, keep-alive Apache HTTP
+ * client, allowing requests made through a shared Marketplace API client to reuse established TLS
+ * connections rather than performing a new handshake for each request.
+ */
+public class PooledHttpTransportFactory {
+
+  private int maxConnectionsPerRoute = 20;
+  private int maxConnectionsTotal = 200;
+  private long idleConnectionTimeoutSeconds = 60;
+  private int validateAfterInactivityMillis = 2000;
+
+  /** Sets the maximum number of pooled connections kept open to a single host and port. */
+  public PooledHttpTransportFactory setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+    this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    return this;
+  }
+
+  /** Sets the maximum number of pooled connections kept open across all routes. */
+  public PooledHttpTransportFactory setMaxConnectionsTotal(int maxConnectionsTotal) {
+    this.maxConnectionsTotal = maxConnectionsTotal;
+    return this;
+  }
+
+  /**
+   * Sets the number of seconds a pooled connection may remain idle before it is evicted. This is
+   * also used as the keep-alive duration for responses that don't specify one.
+   */
+  public PooledHttpTransportFactory setIdleConnectionTimeoutSeconds(
+      long idleConnectionTimeoutSeconds) {
+    this.idleConnectionTimeoutSeconds = idleConnectionTimeoutSeconds;
+    return this;
+  }
+
+  /**
+   * Sets the period of inactivity in milliseconds after which a pooled connection is re-validated
+   * before being leased to a request.
+   */
+  public PooledHttpTransportFactory setValidateAfterInactivityMillis(
+      int validateAfterInactivityMillis) {
+    this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+    return this;
+  }
+
+  /**
+   * Creates a new pooled {@code HttpTransport} that trusts the certificates distributed with the
+   * Google API client library.
+   *
+   * @throws GeneralSecurityException if the SSL context can not be initialized.
+   * @throws IOException if the trust store can not be loaded.
+   * @return An initialized {@code HttpTransport} instance that is safe to share across threads.
+   */
+  public HttpTransport create() throws GeneralSecurityException, IOException {
+    SSLContext sslContext = SslUtils.getTlsSslContext();
+    SslUtils.initSslContext(
+        sslContext, GoogleUtils.getCertificateTrustStore(), SslUtils.getPkixTrustManagerFactory());
+
+    Registry<ConnectionSocketFactory> socketFactoryRegistry =
+        RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            .register("https", new SSLConnectionSocketFactory(sslContext))
+            .build();
+
+    PoolingHttpClientConnectionManager connectionManager =
+        new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+    connectionManager.setMaxTotal(maxConnectionsTotal);
+    connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+    connectionManager.setValidateAfterInactivity(validateAfterInactivityMillis);
+
+    long keepAliveMillis = TimeUnit.SECONDS.toMillis(idleConnectionTimeoutSeconds);
+    HttpClientBuilder httpClientBuilder =
+        ApacheHttpTransport.newDefaultHttpClientBuilder()
+            .setConnectionManager(connectionManager)
+            .setKeepAliveStrategy(
+                (response, context) -> {
+                  // Respect the server's Keep-Alive header if present, otherwise keep the
+                  // connection around until it would be evicted as idle.
+                  long serverKeepAlive =
+                      DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(
+                          response, context);
+                  return serverKeepAlive > 0 ? serverKeepAlive : keepAliveMillis;
+                })
+            .evictExpiredConnections()
+            .evictIdleConnections(idleConnectionTimeoutSeconds, TimeUnit.SECONDS);
+
+    return new ApacheHttpTransport(httpClientBuilder.build());
+  }
+
+  /**
+   * Opens up to {@code connections} concurrent connections to the given URL so that they are
+   * already established and pooled by the time the first API requests are made. Failures are
+   * ignored, since warming the pool is only an optimization.
+   *
+   * @param httpTransport The pooled transport whose connections should be pre-warmed.
+   * @param url The URL used to establish connections, e.g. the root URL of the API.
+   * @param connections The number of connections to establish.
+   */
+  public static void prewarm(HttpTransport httpTransport, String url, int connections) {
+    if (connections <= 0) {
+      return;
+    }
+
+    HttpRequestFactory requestFactory = httpTransport.createRequestFactory();
+    GenericUrl genericUrl = new GenericUrl(url);
+    ExecutorService executor = Executors.newFixedThreadPool(connections);
+
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < connections; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  requestFactory
+                      .buildHeadRequest(genericUrl)
+                      .setThrowExceptionOnExecuteError(false)
+                      .execute()
+                      .ignore();
+                  return null;
+                }));
+      }
+
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException ex) {
+          // Pre-warming is best effort; the connection will be established on first use instead.
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
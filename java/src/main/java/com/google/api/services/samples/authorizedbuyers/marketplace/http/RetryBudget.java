@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.http;
+
+/**
+ * Limits retries to a fraction of the requests sent, so that retries can't multiply the load on
+ * the API during an outage.
+ *
+ * <p>Every request deposits {@code retryRatio} tokens and every retry withdraws one. The balance
+ * is capped at {@code maxTokens}, which also allows a handful of retries before many requests have
+ * been sent.
+ */
+public class RetryBudget {
+
+  private final double retryRatio;
+  private final double maxTokens;
+  private double tokens;
+
+  /**
+   * Creates a retry budget.
+   *
+   * @param retryRatio The number of retries allowed per request sent, e.g. 0.2 for one retry for
+   *     every five requests.
+   * @param maxTokens The maximum number of retries that may be saved up.
+   */
+  public RetryBudget(double retryRatio, int maxTokens) {
+    if (retryRatio < 0 || maxTokens < 0) {
+      throw new IllegalArgumentException(
+          "The retry ratio and maximum tokens must not be negative.");
+    }
+    this.retryRatio = retryRatio;
+    this.maxTokens = maxTokens;
+    this.tokens = maxTokens;
+  }
+
+  /** Records that a request is being sent. */
+  public synchronized void recordRequest() {
+    tokens = Math.min(maxTokens, tokens + retryRatio);
+  }
+
+  /**
+   * Withdraws a token for a retry if one is available.
+   *
+   * @return Whether the retry may be attempted.
+   */
+  public synchronized boolean tryAcquire() {
+    if (tokens < 1) {
+      return false;
+    }
+    tokens -= 1;
+    return true;
+  }
+}
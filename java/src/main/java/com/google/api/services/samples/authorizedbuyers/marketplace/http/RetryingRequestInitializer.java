@@ -0,0 +1,332 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.http;
+
+import com.google.api.client.http.HttpContent;
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpIOExceptionHandler;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+import com.google.api.client.http.json.JsonHttpContent;
+import com.google.api.client.util.GenericData;
+import com.google.api.client.util.Sleeper;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An {@link HttpRequestInitializer} that retries requests which failed due to a transient error,
+ * waiting an exponentially increasing, randomly jittered delay between attempts.
+ *
+ * <p>Whether a request is retried depends on whether sending it twice is safe:
+ *
+ * <ul>
+ *   <li>Get and list requests, and mutations guarded by a {@code proposalRevision}, are retried
+ *       after any transient error. A guarded mutation that was already applied can't be applied
+ *       again, because the server rejects the stale revision.
+ *   <li>{@code buyers.proposals.sendRfp} and {@code buyers.clients.create} are retried once it is
+ *       confirmed that an earlier attempt didn't create the resource. Otherwise a {@link
+ *       DuplicateRequestException} is thrown.
+ *   <li>Other requests are only retried when the server rejected them without processing them,
+ *       i.e. with status 429 (Too Many Requests).
+ * </ul>
+ *
+ * <p>Each request must complete within a deadline that covers all of its attempts. The time
+ * remaining is propagated to each attempt as its read timeout and through the {@code
+ * X-Server-Timeout} header, and a retry is skipped if its delay would exceed the deadline. Retries
+ * across all requests are also limited by a shared {@link RetryBudget}.
+ */
+public class RetryingRequestInitializer implements HttpRequestInitializer {
+
+  private enum Safety {
+    IDEMPOTENT,
+    DEDUPLICATED,
+    UNSAFE
+  }
+
+  private final HttpRequestInitializer delegate;
+  private final int maxAttempts;
+  private final long initialBackoffMillis;
+  private final long maxBackoffMillis;
+  private final long deadlineMillis;
+  private final RetryBudget retryBudget;
+  private final Sleeper sleeper;
+
+  /**
+   * Creates an initializer.
+   *
+   * @param delegate The initializer to wrap, such as one that adds credentials, or {@code null}.
+   * @param maxAttempts The maximum number of times a request is sent, including the first attempt.
+   * @param initialBackoffMillis The upper bound of the delay before the first retry.
+   * @param maxBackoffMillis The upper bound of the delay before any retry.
+   * @param deadlineMillis The time within which all attempts of a request must complete.
+   * @param retryBudget The budget shared by all requests.
+   */
+  public RetryingRequestInitializer(
+      HttpRequestInitializer delegate,
+      int maxAttempts,
+      long initialBackoffMillis,
+      long maxBackoffMillis,
+      long deadlineMillis,
+      RetryBudget retryBudget) {
+    this(
+        delegate,
+        maxAttempts,
+        initialBackoffMillis,
+        maxBackoffMillis,
+        deadlineMillis,
+        retryBudget,
+        Sleeper.DEFAULT);
+  }
+
+  RetryingRequestInitializer(
+      HttpRequestInitializer delegate,
+      int maxAttempts,
+      long initialBackoffMillis,
+      long maxBackoffMillis,
+      long deadlineMillis,
+      RetryBudget retryBudget,
+      Sleeper sleeper) {
+    if (maxAttempts < 1 || initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+      throw new IllegalArgumentException("Invalid retry configuration.");
+    }
+    this.delegate = delegate;
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffMillis = initialBackoffMillis;
+    this.maxBackoffMillis = maxBackoffMillis;
+    this.deadlineMillis = deadlineMillis;
+    this.retryBudget = retryBudget;
+    this.sleeper = sleeper;
+  }
+
+  @Override
+  public void initialize(HttpRequest request) throws IOException {
+    if (delegate != null) {
+      delegate.initialize(request);
+    }
+
+    RetriedRequest retriedRequest = new RetriedRequest(request);
+    request.setNumberOfRetries(maxAttempts - 1);
+    request.setInterceptor(retriedRequest);
+    request.setUnsuccessfulResponseHandler(retriedRequest);
+    request.setIOExceptionHandler(retriedRequest);
+  }
+
+  /** Returns whether the given status indicates an error that may succeed when retried. */
+  private static boolean isTransientStatus(int statusCode) {
+    return statusCode == 429
+        || statusCode == 500
+        || statusCode == 502
+        || statusCode == 503
+        || statusCode == 504;
+  }
+
+  /**
+   * Classifies a request by its effective HTTP method, so that requests sent as POST with a method
+   * override are treated the same on every transport.
+   */
+  private static Safety classify(HttpRequest request, ApiMethod method) {
+    if ("GET".equals(method.getHttpMethod())) {
+      return Safety.IDEMPOTENT;
+    }
+    if (DuplicateRequestDetector.supports(method)) {
+      return Safety.DEDUPLICATED;
+    }
+    if (isRevisionGuarded(request.getContent())) {
+      return Safety.IDEMPOTENT;
+    }
+    return Safety.UNSAFE;
+  }
+
+  /**
+   * Returns whether the request body sets a {@code proposalRevision}, either directly as in
+   * proposals.patch and deals.patch, or for every deal of a deals.batchUpdate request.
+   */
+  private static boolean isRevisionGuarded(HttpContent content) {
+    if (!(content instanceof JsonHttpContent)) {
+      return false;
+    }
+    Object data = ((JsonHttpContent) content).getData();
+    if (!(data instanceof GenericData)) {
+      return false;
+    }
+
+    GenericData body = (GenericData) data;
+    if (body.get("proposalRevision") != null) {
+      return true;
+    }
+    Object requests = body.get("requests");
+    if (!(requests instanceof List) || ((List<?>) requests).isEmpty()) {
+      return false;
+    }
+    for (Object updateRequest : (List<?>) requests) {
+      Object deal =
+          (updateRequest instanceof GenericData) ? ((GenericData) updateRequest).get("deal") : null;
+      if (!(deal instanceof GenericData) || ((GenericData) deal).get("proposalRevision") == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the delay requested by a {@code Retry-After} header in milliseconds, or 0. */
+  private static long getRetryAfterMillis(HttpResponse response) {
+    Object retryAfter = response.getHeaders().get("retry-after");
+    if (retryAfter instanceof List && !((List<?>) retryAfter).isEmpty()) {
+      retryAfter = ((List<?>) retryAfter).get(0);
+    }
+    if (retryAfter == null) {
+      return 0;
+    }
+    try {
+      return Math.max(0, Long.parseLong(retryAfter.toString().trim()) * 1000);
+    } catch (NumberFormatException ex) {
+      return 0;
+    }
+  }
+
+  /** Tracks the attempts of a single request. */
+  private class RetriedRequest
+      implements HttpExecuteInterceptor, HttpUnsuccessfulResponseHandler, HttpIOExceptionHandler {
+
+    private final HttpExecuteInterceptor executeInterceptor;
+    private final HttpUnsuccessfulResponseHandler unsuccessfulResponseHandler;
+    private final HttpIOExceptionHandler ioExceptionHandler;
+    private final int readTimeoutMillis;
+    private final long startMillis = System.currentTimeMillis();
+    private final long deadline = startMillis + deadlineMillis;
+    private int retries;
+
+    RetriedRequest(HttpRequest request) {
+      executeInterceptor = request.getInterceptor();
+      unsuccessfulResponseHandler = request.getUnsuccessfulResponseHandler();
+      ioExceptionHandler = request.getIOExceptionHandler();
+      readTimeoutMillis = request.getReadTimeout();
+      retryBudget.recordRequest();
+    }
+
+    @Override
+    public void intercept(HttpRequest request) throws IOException {
+      if (System.currentTimeMillis() >= deadline) {
+        throw new SocketTimeoutException(
+            String.format(
+                "Deadline of %d ms exceeded for %s.", deadlineMillis, ApiMethod.of(request)));
+      }
+
+      if (executeInterceptor != null) {
+        executeInterceptor.intercept(request);
+      }
+
+      // The deadline is applied after the wrapped interceptor, which may have waited for a rate
+      // limiter or refreshed an access token.
+      long remainingMillis = Math.max(1, deadline - System.currentTimeMillis());
+      request.setReadTimeout(
+          (int)
+              ((readTimeoutMillis > 0)
+                  ? Math.min(readTimeoutMillis, remainingMillis)
+                  : Math.min(Integer.MAX_VALUE, remainingMillis)));
+      request.getHeaders().set("X-Server-Timeout", String.format("%.3f", remainingMillis / 1e3));
+    }
+
+    @Override
+    public boolean handleResponse(HttpRequest request, HttpResponse response, boolean supportsRetry)
+        throws IOException {
+      if (unsuccessfulResponseHandler != null
+          && unsuccessfulResponseHandler.handleResponse(request, response, supportsRetry)) {
+        return true;
+      }
+
+      int statusCode = response.getStatusCode();
+      return supportsRetry
+          && isTransientStatus(statusCode)
+          && retry(request, statusCode == 429, getRetryAfterMillis(response));
+    }
+
+    @Override
+    public boolean handleIOException(HttpRequest request, boolean supportsRetry)
+        throws IOException {
+      if (ioExceptionHandler != null
+          && ioExceptionHandler.handleIOException(request, supportsRetry)) {
+        return true;
+      }
+
+      return supportsRetry && retry(request, false, 0);
+    }
+
+    /**
+     * Decides whether to retry the request and waits before the next attempt.
+     *
+     * @param request The request that failed.
+     * @param rejected Whether the server is known not to have processed the request.
+     * @param minDelayMillis The minimum delay requested by the server.
+     * @return Whether the request should be retried.
+     */
+    private boolean retry(HttpRequest request, boolean rejected, long minDelayMillis)
+        throws IOException {
+      ApiMethod method = ApiMethod.of(request);
+      switch (classify(request, method)) {
+        case IDEMPOTENT:
+          break;
+        case DEDUPLICATED:
+          if (!rejected) {
+            String createdResource;
+            try {
+              createdResource =
+                  DuplicateRequestDetector.findCreatedResource(request, method, startMillis);
+            } catch (IOException ex) {
+              // The outcome of the earlier attempt is unknown, so don't risk a duplicate.
+              return false;
+            }
+            if (createdResource != null) {
+              throw new DuplicateRequestException(method, createdResource);
+            }
+          }
+          break;
+        case UNSAFE:
+          if (!rejected) {
+            return false;
+          }
+          break;
+      }
+
+      long backoffCeiling =
+          Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(retries, 30));
+      long delayMillis =
+          Math.max(minDelayMillis, ThreadLocalRandom.current().nextLong(backoffCeiling + 1));
+      if (System.currentTimeMillis() + delayMillis >= deadline || !retryBudget.tryAcquire()) {
+        return false;
+      }
+
+      try {
+        sleeper.sleep(delayMillis);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        InterruptedIOException interruptedException =
+            new InterruptedIOException("Interrupted while waiting to retry request.");
+        interruptedException.initCause(ex);
+        throw interruptedException;
+      }
+
+      retries++;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.http;
+
+import com.google.api.client.http.HttpExecuteInterceptor;
+import com.google.api.client.http.HttpIOExceptionHandler;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseInterceptor;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.AimdConcurrencyLimiter.Outcome;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * An {@link HttpRequestInitializer} that throttles every request sent by a client before handing
+ * it to the wrapped initializer's interceptors and handlers.
+ *
+ * <p>Each attempt to send a request first takes a token from the rate limiter bucket for its API
+ * method and account, then waits for room in the shared concurrency window. The window is released
+ * when the attempt completes: responses with status 429 (Too Many Requests) or 503 (Service
+ * Unavailable) shrink it, and other responses grow it.
+ */
+public class ThrottlingRequestInitializer implements HttpRequestInitializer {
+
+  private final HttpRequestInitializer delegate;
+  private final TokenBucketRateLimiter rateLimiter;
+  private final AimdConcurrencyLimiter concurrencyLimiter;
+
+  /**
+   * Creates an initializer.
+   *
+   * @param delegate The initializer to wrap, such as one that adds credentials, or {@code null}.
+   * @param rateLimiter The rate limiter applied per API method and account, or {@code null} to
+   *     disable rate limiting.
+   * @param concurrencyLimiter The limiter for the number of requests in flight, or {@code null} to
+   *     disable concurrency limiting.
+   */
+  public ThrottlingRequestInitializer(
+      HttpRequestInitializer delegate,
+      TokenBucketRateLimiter rateLimiter,
+      AimdConcurrencyLimiter concurrencyLimiter) {
+    this.delegate = delegate;
+    this.rateLimiter = rateLimiter;
+    this.concurrencyLimiter = concurrencyLimiter;
+  }
+
+  @Override
+  public void initialize(HttpRequest request) throws IOException {
+    if (delegate != null) {
+      delegate.initialize(request);
+    }
+
+    ThrottledRequest throttledRequest = new ThrottledRequest(request);
+    request.setInterceptor(throttledRequest);
+    request.setUnsuccessfulResponseHandler(throttledRequest);
+    request.setIOExceptionHandler(throttledRequest);
+    request.setResponseInterceptor(throttledRequest);
+  }
+
+  /**
+   * Tracks the attempts of a single request. {@code HttpRequest} calls the execute interceptor
+   * before each attempt, then exactly one of the unsuccessful response handler (for a non-2xx
+   * response) or the IO exception handler (for a failed attempt), and finally the response
+   * interceptor once the request has completed, so the concurrency window held by an attempt is
+   * released by whichever of these is called first.
+   */
+  private class ThrottledRequest
+      implements HttpExecuteInterceptor,
+          HttpUnsuccessfulResponseHandler,
+          HttpIOExceptionHandler,
+          HttpResponseInterceptor {
+
+    private final HttpExecuteInterceptor executeInterceptor;
+    private final HttpUnsuccessfulResponseHandler unsuccessfulResponseHandler;
+    private final HttpIOExceptionHandler ioExceptionHandler;
+    private final HttpResponseInterceptor responseInterceptor;
+
+    private boolean holdsPermit;
+    private long acquiredNanos;
+
+    ThrottledRequest(HttpRequest request) {
+      executeInterceptor = request.getInterceptor();
+      unsuccessfulResponseHandler = request.getUnsuccessfulResponseHandler();
+      ioExceptionHandler = request.getIOExceptionHandler();
+      responseInterceptor = request.getResponseInterceptor();
+    }
+
+    @Override
+    public void intercept(HttpRequest request) throws IOException {
+      releasePermit(Outcome.IGNORED);
+
+      try {
+        if (rateLimiter != null) {
+          ApiMethod method = ApiMethod.of(request);
+          rateLimiter.acquire(method.getName() + " " + method.getAccount());
+        }
+        if (concurrencyLimiter != null) {
+          acquiredNanos = concurrencyLimiter.acquire();
+          holdsPermit = true;
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        InterruptedIOException interruptedException =
+            new InterruptedIOException("Interrupted while waiting to send request.");
+        interruptedException.initCause(ex);
+        throw interruptedException;
+      }
+
+      if (executeInterceptor != null) {
+        try {
+          executeInterceptor.intercept(request);
+        } catch (IOException | RuntimeException ex) {
+          releasePermit(Outcome.IGNORED);
+          throw ex;
+        }
+      }
+    }
+
+    @Override
+    public boolean handleResponse(HttpRequest request, HttpResponse response, boolean supportsRetry)
+        throws IOException {
+      int statusCode = response.getStatusCode();
+      releasePermit(
+          (statusCode == 429 || statusCode == 503)
+              ? Outcome.THROTTLED
+              : (statusCode < 500) ? Outcome.SUCCESS : Outcome.IGNORED);
+
+      return unsuccessfulResponseHandler != null
+          && unsuccessfulResponseHandler.handleResponse(request, response, supportsRetry);
+    }
+
+    @Override
+    public boolean handleIOException(HttpRequest request, boolean supportsRetry)
+        throws IOException {
+      releasePermit(Outcome.IGNORED);
+
+      return ioExceptionHandler != null
+          && ioExceptionHandler.handleIOException(request, supportsRetry);
+    }
+
+    @Override
+    public void interceptResponse(HttpResponse response) throws IOException {
+      releasePermit(Outcome.SUCCESS);
+
+      if (responseInterceptor != null) {
+        responseInterceptor.interceptResponse(response);
+      }
+    }
+
+    private void releasePermit(Outcome outcome) {
+      if (holdsPermit) {
+        holdsPermit = false;
+        concurrencyLimiter.release(acquiredNanos, outcome);
+      }
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.http;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate of requests with a separate token bucket for each key, such as an API method and
+ * account pair.
+ *
+ * <p>Each bucket refills at {@code permitsPerSecond} and holds at most {@code burstSize} tokens, so
+ * that short bursts are sent immediately while the sustained rate stays below the configured
+ * limit. Callers that find a bucket empty reserve a future token and wait for it, which keeps
+ * waiting callers in arrival order.
+ */
+public class TokenBucketRateLimiter {
+
+  private final double permitsPerSecond;
+  private final double burstSize;
+  private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a rate limiter.
+   *
+   * @param permitsPerSecond The sustained number of requests allowed per second for each key.
+   * @param burstSize The maximum number of requests that may be sent at once for each key.
+   */
+  public TokenBucketRateLimiter(double permitsPerSecond, int burstSize) {
+    if (permitsPerSecond <= 0 || burstSize < 1) {
+      throw new IllegalArgumentException("The rate and burst size must be positive.");
+    }
+    this.permitsPerSecond = permitsPerSecond;
+    this.burstSize = burstSize;
+  }
+
+  /**
+   * Takes a token from the bucket for the given key, waiting until one is available.
+   *
+   * @return The number of nanoseconds spent waiting.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  public long acquire(String key) throws InterruptedException {
+    long waitNanos = buckets.computeIfAbsent(key, k -> new Bucket()).reserve();
+    if (waitNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+    return waitNanos;
+  }
+
+  private class Bucket {
+    private double tokens = burstSize;
+    private long lastRefillNanos = System.nanoTime();
+
+    /** Takes a token, possibly in advance, and returns how long to wait before it is available. */
+    synchronized long reserve() {
+      long now = System.nanoTime();
+      tokens = Math.min(burstSize, tokens + (now - lastRefillNanos) / 1e9 * permitsPerSecond);
+      lastRefillNanos = now;
+
+      tokens -= 1;
+      return (tokens >= 0) ? 0 : (long) (-tokens / permitsPerSecond * 1e9);
+    }
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Collects the latency, request and response sizes, and response status codes of API calls,
+ * separately for each API method and account.
+ *
+ * <p>Each attempt to send a request is recorded on its own, so a call that was retried contributes
+ * one latency sample per attempt. The page sizes chosen by adaptive paging are recorded along with
+ * them. A snapshot of the metrics can be written in the Prometheus text exposition format with
+ * {@link #writePrometheus(Writer)}.
+ */
+public class ApiMetrics {
+
+  /** Status code label recorded for attempts that failed without a response. */
+  public static final String IO_ERROR = "io_error";
+
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+  private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, PageSizeMetrics> pageSizes = new ConcurrentHashMap<>();
+
+  /**
+   * Records an attempt to send a request.
+   *
+   * @param method The name of the API method, e.g. {@code buyers.finalizedDeals.list}.
+   * @param account The buyer or bidder account the request was made on behalf of.
+   * @param statusCode The HTTP status code of the response, or {@link #IO_ERROR}.
+   * @param latencyNanos The time from sending the request until the response was received.
+   * @param requestBytes The size of the request body, or -1 if unknown or there was none.
+   * @param responseBytes The size of the response body, or -1 if unknown.
+   */
+  public void record(
+      String method,
+      String account,
+      String statusCode,
+      long latencyNanos,
+      long requestBytes,
+      long responseBytes) {
+    MethodMetrics metrics =
+        methods.computeIfAbsent(
+            method + " " + account, key -> new MethodMetrics(method, account));
+    metrics.latencyMicros.record(latencyNanos / 1000);
+    if (requestBytes >= 0) {
+      metrics.requestBytes.record(requestBytes);
+    }
+    if (responseBytes >= 0) {
+      metrics.responseBytes.record(responseBytes);
+    }
+    metrics.statusCodes.computeIfAbsent(statusCode, key -> new LongAdder()).increment();
+  }
+
+  /**
+   * Records a page size chosen for a list method.
+   *
+   * @param method The name of the API method, e.g. {@code buyers.finalizedDeals.list}.
+   * @param pageSize The page size requested for the following pages.
+   * @param reason The limit that determined the page size, or {@code null} for the initial page
+   *     size, which isn't counted as a decision.
+   */
+  public void recordPageSize(String method, int pageSize, String reason) {
+    PageSizeMetrics metrics = pageSizes.computeIfAbsent(method, PageSizeMetrics::new);
+    metrics.pageSize = pageSize;
+    if (reason != null) {
+      metrics.decisions.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+  }
+
+  /** Writes the current metrics in the Prometheus text exposition format. */
+  public void writePrometheus(Writer writer) throws IOException {
+    List<MethodMetrics> snapshot = new ArrayList<>(methods.values());
+    snapshot.sort(
+        Comparator.comparing((MethodMetrics metrics) -> metrics.method)
+            .thenComparing(metrics -> metrics.account));
+
+    writer.write("# HELP marketplace_api_responses_total Attempts by response status code.\n");
+    writer.write("# TYPE marketplace_api_responses_total counter\n");
+    for (MethodMetrics metrics : snapshot) {
+      for (Map.Entry<String, LongAdder> entry : new TreeMap<>(metrics.statusCodes).entrySet()) {
+        writer.write(
+            String.format(
+                "marketplace_api_responses_total{%s,code=\"%s\"} %d\n",
+                metrics.labels,
+                escape(entry.getKey()),
+                entry.getValue().sum()));
+      }
+    }
+
+    writeSummary(
+        writer,
+        "marketplace_api_request_duration_seconds",
+        "Time from sending a request until its response was received.",
+        snapshot,
+        metrics -> metrics.latencyMicros,
+        1e-6);
+    writeSummary(
+        writer,
+        "marketplace_api_request_size_bytes",
+        "Size of request bodies.",
+        snapshot,
+        metrics -> metrics.requestBytes,
+        1);
+    writeSummary(
+        writer,
+        "marketplace_api_response_size_bytes",
+        "Size of response bodies as reported by their Content-Length.",
+        snapshot,
+        metrics -> metrics.responseBytes,
+        1);
+    writePageSizes(writer);
+    writer.flush();
+  }
+
+  /** Returns the current metrics in the Prometheus text exposition format. */
+  public String toPrometheusText() {
+    StringWriter writer = new StringWriter();
+    try {
+      writePrometheus(writer);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return writer.toString();
+  }
+
+  private static void writeSummary(
+      Writer writer,
+      String name,
+      String help,
+      List<MethodMetrics> snapshot,
+      Function<MethodMetrics, Histogram> selector,
+      double scale)
+      throws IOException {
+    writer.write(String.format("# HELP %s %s\n# TYPE %s summary\n", name, help, name));
+    for (MethodMetrics metrics : snapshot) {
+      Histogram histogram = selector.apply(metrics);
+      long count = histogram.getCount();
+      if (count == 0) {
+        continue;
+      }
+      for (double quantile : QUANTILES) {
+        writer.write(
+            String.format(
+                "%s{%s,quantile=\"%s\"} %s\n",
+                name,
+                metrics.labels,
+                quantile,
+                histogram.getValueAtQuantile(quantile) * scale));
+      }
+      writer.write(
+          String.format("%s_sum{%s} %s\n", name, metrics.labels, histogram.getSum() * scale));
+      writer.write(String.format("%s_count{%s} %d\n", name, metrics.labels, count));
+    }
+  }
+
+  private void writePageSizes(Writer writer) throws IOException {
+    if (pageSizes.isEmpty()) {
+      return;
+    }
+    List<PageSizeMetrics> snapshot = new ArrayList<>(new TreeMap<>(pageSizes).values());
+
+    writer.write("# HELP marketplace_api_page_size Page size requested by adaptive paging.\n");
+    writer.write("# TYPE marketplace_api_page_size gauge\n");
+    for (PageSizeMetrics metrics : snapshot) {
+      writer.write(
+          String.format("marketplace_api_page_size{%s} %d\n", metrics.labels, metrics.pageSize));
+    }
+
+    writer.write(
+        "# HELP marketplace_api_page_size_decisions_total Page size decisions by the limit that "
+            + "determined them.\n");
+    writer.write("# TYPE marketplace_api_page_size_decisions_total counter\n");
+    for (PageSizeMetrics metrics : snapshot) {
+      for (Map.Entry<String, LongAdder> entry : new TreeMap<>(metrics.decisions).entrySet()) {
+        writer.write(
+            String.format(
+                "marketplace_api_page_size_decisions_total{%s,reason=\"%s\"} %d\n",
+                metrics.labels,
+                escape(entry.getKey()),
+                entry.getValue().sum()));
+      }
+    }
+  }
+
+  /** Escapes a label value as required by the Prometheus text format. */
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  /** The metrics of a single API method and account. */
+  private static class MethodMetrics {
+
+    final String method;
+    final String account;
+    final String labels;
+    final Histogram latencyMicros = new Histogram();
+    final Histogram requestBytes = new Histogram();
+    final Histogram responseBytes = new Histogram();
+    final ConcurrentMap<String, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+    MethodMetrics(String method, String account) {
+      this.method = method;
+      this.account = account;
+      labels = String.format("method=\"%s\",account=\"%s\"", escape(method), escape(account));
+    }
+  }
+
+  /** The page sizes chosen for a single list method. */
+  private static class PageSizeMetrics {
+
+    final String labels;
+    final ConcurrentMap<String, LongAdder> decisions = new ConcurrentHashMap<>();
+    volatile int pageSize;
+
+    PageSizeMetrics(String method) {
+      labels = String.format("method=\"%s\"", escape(method));
+    }
+  }
+}
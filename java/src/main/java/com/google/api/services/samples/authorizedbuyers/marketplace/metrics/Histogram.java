@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe histogram of non-negative values with bounded relative error, in the style of
+ * HdrHistogram.
+ *
+ * <p>Values below 64 are counted exactly. Larger values fall into log-linear buckets: each power of
+ * two is split into 32 equally sized buckets, so a reported quantile is at most about 3% higher
+ * than the recorded value it stands for. Recording a value is lock-free and doesn't allocate.
+ */
+public final class Histogram {
+
+  /** Bits of precision kept for each value. */
+  private static final int SUB_BUCKET_BITS = 6;
+
+  private static final int SUB_BUCKET_HALF_COUNT = 1 << (SUB_BUCKET_BITS - 1);
+
+  /** Values above this are recorded as this value. */
+  public static final long HIGHEST_TRACKABLE_VALUE = (1L << 36) - 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(indexOf(HIGHEST_TRACKABLE_VALUE) + 1);
+  private final LongAdder totalCount = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /** Records a value, clamping negative values to 0 and large values to the trackable range. */
+  public void record(long value) {
+    long clampedValue = Math.max(0, Math.min(value, HIGHEST_TRACKABLE_VALUE));
+    counts.incrementAndGet(indexOf(clampedValue));
+    totalCount.increment();
+    sum.add(clampedValue);
+    max.accumulateAndGet(clampedValue, Math::max);
+  }
+
+  /** Returns the number of recorded values. */
+  public long getCount() {
+    return totalCount.sum();
+  }
+
+  /** Returns the sum of the recorded values. */
+  public long getSum() {
+    return sum.sum();
+  }
+
+  /** Returns the largest recorded value, or 0 if no value was recorded. */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Returns the value at the given quantile, i.e. the highest value equivalent to the recorded
+   * value below which the given fraction of the values falls.
+   *
+   * @param quantile The quantile, between 0 and 1.
+   * @return The value at the quantile, or 0 if no value was recorded.
+   */
+  public long getValueAtQuantile(double quantile) {
+    // Counts are read without a lock, so they may include values recorded after totalCount was.
+    long total = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      total += counts.get(i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(Math.min(1, Math.max(0, quantile)) * total));
+    long seen = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return Math.min(highestEquivalentValue(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /** Returns the index of the bucket that counts the given value. */
+  private static int indexOf(long value) {
+    if (value < (1L << SUB_BUCKET_BITS)) {
+      return (int) value;
+    }
+    int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+    return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+  }
+
+  /** Returns the highest value counted by the bucket with the given index. */
+  private static long highestEquivalentValue(int index) {
+    if (index < (1 << SUB_BUCKET_BITS)) {
+      return index;
+    }
+    int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+    long subBucket = index - shift * SUB_BUCKET_HALF_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** Exposes {@link ApiMetrics} in the Prometheus text exposition format. */
+public final class PrometheusExporter {
+
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private PrometheusExporter() {}
+
+  /**
+   * Writes the metrics to the given file, replacing it atomically so that a scraper never reads a
+   * partially written snapshot.
+   */
+  public static void write(ApiMetrics metrics, Path file) throws IOException {
+    Path absoluteFile = file.toAbsolutePath();
+    Path temporaryFile =
+        Files.createTempFile(
+            absoluteFile.getParent(), absoluteFile.getFileName().toString(), ".tmp");
+    try {
+      try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+        metrics.writePrometheus(writer);
+      }
+      Files.move(
+          temporaryFile,
+          absoluteFile,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+  }
+
+  /** Registers a shutdown hook that writes the metrics to the given file when the JVM exits. */
+  public static void writeOnExit(ApiMetrics metrics, Path file) {
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> {
+                  try {
+                    write(metrics, file);
+                  } catch (IOException ex) {
+                    System.err.printf("Unable to write metrics to %s:%n%s%n", file, ex);
+                  }
+                },
+                "metrics-exporter"));
+  }
+
+  /**
+   * Starts a server on the loopback interface that returns the current metrics for every {@code GET
+   * /metrics} request, so that they can be scraped while a long-running sample is in progress.
+   *
+   * @param metrics The metrics to expose.
+   * @param port The port to listen on, or 0 to pick a free port.
+   * @return The started server, which runs on daemon threads and doesn't keep the JVM alive. It's
+   *     stopped when the JVM shuts down.
+   */
+  public static HttpServer serve(ApiMetrics metrics, int port) throws IOException {
+    HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    server.createContext(
+        "/metrics",
+        exchange -> {
+          try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+              exchange.sendResponseHeaders(405, -1);
+              return;
+            }
+            byte[] body = metrics.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+              responseBody.write(body);
+            }
+          } finally {
+            exchange.close();
+          }
+        });
+    ExecutorService executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "metrics-server");
+              thread.setDaemon(true);
+              return thread;
+            });
+    server.setExecutor(executor);
+
+    // The server's dispatcher thread inherits whether it's a daemon from the thread that starts
+    // it, and would otherwise keep the JVM alive after a sample returns from main.
+    RuntimeException[] startFailure = new RuntimeException[1];
+    Thread starter =
+        new Thread(
+            () -> {
+              try {
+                server.start();
+              } catch (RuntimeException ex) {
+                startFailure[0] = ex;
+              }
+            },
+            "metrics-server-starter");
+    starter.setDaemon(true);
+    starter.start();
+    try {
+      starter.join();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      server.stop(0);
+      executor.shutdownNow();
+      throw new IOException("Interrupted while starting the metrics server.", ex);
+    }
+    if (startFailure[0] != null) {
+      executor.shutdownNow();
+      throw startFailure[0];
+    }
+
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> {
+                  server.stop(0);
+                  executor.shutdownNow();
+                },
+                "metrics-server-stopper"));
+    return server;
+  }
+}
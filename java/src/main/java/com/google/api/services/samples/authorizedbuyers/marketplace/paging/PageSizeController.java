@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.paging;
+
+import com.google.api.services.samples.authorizedbuyers.marketplace.metrics.ApiMetrics;
+
+/**
+ * Chooses the page size of a list method from the round-trip time and size of the pages received
+ * so far, so that scans take as few requests as possible without pages becoming slow or large.
+ *
+ * <p>Every request has a fixed cost, such as the round trip and authorization, plus a cost for
+ * each resource it returns, which this controller estimates with a least-squares fit of recent
+ * pages' latency against their number of resources. Larger pages spread the fixed cost over more
+ * resources, but a page that takes too long risks timeouts and is costly to retry, and a large
+ * response must be held in memory. The page size therefore grows, at most doubling with each page,
+ * until the predicted latency reaches the target latency, the expected response size reaches the
+ * maximum response size, or the page size reaches the server's limit. It shrinks as soon as a page
+ * exceeds either target. Each decision is recorded in {@link ApiMetrics}, labeled with the limit
+ * that determined it.
+ *
+ * <p>A controller may be shared by concurrent scans of the same method.
+ */
+public class PageSizeController {
+
+  /** Reason recorded when the page size was limited by how fast it may grow. */
+  public static final String GROWTH = "growth";
+
+  /** Reason recorded when the page size was limited by the target latency. */
+  public static final String LATENCY = "latency";
+
+  /** Reason recorded when the page size was limited by the maximum response size. */
+  public static final String RESPONSE_SIZE = "response_size";
+
+  /** Reason recorded when the page size was limited by the server's maximum page size. */
+  public static final String MAX_PAGE_SIZE = "max_page_size";
+
+  /** Weight of earlier pages relative to the next one, so that the fit follows changes. */
+  private static final double DECAY = 0.8;
+
+  private final String method;
+  private final int maxPageSize;
+  private final long targetLatencyNanos;
+  private final long maxResponseBytes;
+  private final ApiMetrics metrics;
+
+  private int pageSize;
+
+  // Weighted sums for the least-squares fit of latency against the number of resources.
+  private double weight;
+  private double sumItems;
+  private double sumLatency;
+  private double sumItemsSquared;
+  private double sumItemsLatency;
+
+  /** Exponentially weighted average of the response bytes per resource, or 0 if unknown. */
+  private double bytesPerItem;
+
+  /**
+   * Creates a controller.
+   *
+   * @param method The name of the list method, e.g. {@code buyers.finalizedDeals.list}.
+   * @param initialPageSize The page size of the first page.
+   * @param maxPageSize The largest page size that the server accepts.
+   * @param targetLatencyMillis The latency that pages should not exceed.
+   * @param maxResponseBytes The response size that pages should not exceed.
+   * @param metrics Records the page size decisions.
+   */
+  public PageSizeController(
+      String method,
+      int initialPageSize,
+      int maxPageSize,
+      long targetLatencyMillis,
+      long maxResponseBytes,
+      ApiMetrics metrics) {
+    if (initialPageSize < 1 || maxPageSize < 1) {
+      throw new IllegalArgumentException("Page sizes must be positive.");
+    }
+    this.method = method;
+    this.maxPageSize = maxPageSize;
+    this.targetLatencyNanos = targetLatencyMillis * 1_000_000;
+    this.maxResponseBytes = maxResponseBytes;
+    this.metrics = metrics;
+    pageSize = Math.min(initialPageSize, maxPageSize);
+    metrics.recordPageSize(method, pageSize, null);
+  }
+
+  /** Returns the page size to request for the next page. */
+  public synchronized int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Records a page that was received, and adjusts the page size for the following pages.
+   *
+   * @param requestedPageSize The page size that was requested.
+   * @param itemCount The number of resources in the page.
+   * @param latencyNanos The time from sending the request until the page was parsed.
+   * @param responseBytes The size of the response, or -1 if unknown.
+   */
+  public synchronized void record(
+      int requestedPageSize, int itemCount, long latencyNanos, long responseBytes) {
+    // Short pages such as the last one don't tell how long a full page would take.
+    if (itemCount == 0 || itemCount < requestedPageSize / 2) {
+      return;
+    }
+
+    weight = weight * DECAY + 1;
+    sumItems = sumItems * DECAY + itemCount;
+    sumLatency = sumLatency * DECAY + latencyNanos;
+    sumItemsSquared = sumItemsSquared * DECAY + (double) itemCount * itemCount;
+    sumItemsLatency = sumItemsLatency * DECAY + (double) itemCount * latencyNanos;
+    if (responseBytes >= 0) {
+      double pageBytesPerItem = (double) responseBytes / itemCount;
+      bytesPerItem =
+          (bytesPerItem == 0)
+              ? pageBytesPerItem
+              : DECAY * bytesPerItem + (1 - DECAY) * pageBytesPerItem;
+    }
+
+    int growthLimit = Math.max(pageSize * 2, 2);
+    int latencyLimit = getLatencyLimit(itemCount, latencyNanos);
+    int responseSizeLimit =
+        (bytesPerItem > 0) ? (int) Math.min(Integer.MAX_VALUE, maxResponseBytes / bytesPerItem) : 0;
+
+    int nextPageSize = growthLimit;
+    String reason = GROWTH;
+    if (latencyLimit < nextPageSize) {
+      nextPageSize = latencyLimit;
+      reason = LATENCY;
+    }
+    if (responseSizeLimit > 0 && responseSizeLimit < nextPageSize) {
+      nextPageSize = responseSizeLimit;
+      reason = RESPONSE_SIZE;
+    }
+    if (maxPageSize <= nextPageSize) {
+      nextPageSize = maxPageSize;
+      reason = MAX_PAGE_SIZE;
+    }
+
+    pageSize = Math.max(nextPageSize, 1);
+    metrics.recordPageSize(method, pageSize, reason);
+  }
+
+  /** Returns the largest page size that is predicted to meet the target latency. */
+  private int getLatencyLimit(int itemCount, long latencyNanos) {
+    double variance = weight * sumItemsSquared - sumItems * sumItems;
+    // The fit needs pages of different sizes to tell the fixed cost from the cost per resource.
+    if (variance >= weight * weight) {
+      double nanosPerItem = (weight * sumItemsLatency - sumItems * sumLatency) / variance;
+      if (nanosPerItem > 0) {
+        double fixedNanos = Math.max(0, (sumLatency - nanosPerItem * sumItems) / weight);
+        if (fixedNanos >= targetLatencyNanos) {
+          // Smaller pages can't meet the target, and would only take more requests.
+          return pageSize;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (targetLatencyNanos - fixedNanos) / nanosPerItem);
+      }
+    }
+
+    // Otherwise, conservatively attribute the whole latency to the resources.
+    return (int)
+        Math.min(Integer.MAX_VALUE, (double) itemCount * targetLatencyNanos / latencyNanos);
+  }
+}
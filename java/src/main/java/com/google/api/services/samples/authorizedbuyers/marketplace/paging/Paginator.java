@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.paging;
+
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.PrefetchingPageReader.PageRequestFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily iterates over the resources returned by a list method, across all of its pages.
+ *
+ * <p>Pages are only requested as the resources are consumed, reading at most {@link
+ * #setPagesAhead(int) a bounded number of pages} ahead, so callers can filter or aggregate the
+ * resources without holding every page in memory. Closing an iterator or stream stops requesting
+ * further pages, e.g. after {@link Stream#limit(long)} or {@link Stream#findFirst()} found what
+ * was needed, and may be done from another thread to cancel the iteration.
+ *
+ * <pre>{@code
+ * try (Stream<Proposal> proposals = Paginators.proposals(client, "buyers/12345", null).stream()) {
+ *   long count = proposals.filter(proposal -> proposal.getIsRenegotiating()).count();
+ * }
+ * }</pre>
+ *
+ * <p>Errors while requesting a page are thrown as {@link UncheckedIOException} when the iteration
+ * reaches that page. Use {@link Paginators} to create paginators for the list methods of the
+ * Marketplace API.
+ *
+ * @param <P> The type of the list response.
+ * @param <T> The type of the listed resources.
+ */
+public class Paginator<P, T> implements Iterable<T> {
+
+  private final PageRequestFactory<P> requestFactory;
+  private final Function<P, String> nextPageToken;
+  private final Function<P, List<T>> resources;
+  private int pagesAhead = 1;
+
+  /**
+   * Creates a paginator.
+   *
+   * @param requestFactory Creates the request for a page.
+   * @param nextPageToken Returns the token of the page following the given one.
+   * @param resources Returns the resources of a page, or {@code null} if it has none.
+   */
+  public Paginator(
+      PageRequestFactory<P> requestFactory,
+      Function<P, String> nextPageToken,
+      Function<P, List<T>> resources) {
+    this.requestFactory = requestFactory;
+    this.nextPageToken = nextPageToken;
+    this.resources = resources;
+  }
+
+  /**
+   * Sets the maximum number of pages requested ahead of the page being consumed, 1 by default. Set
+   * to 0 to request each page only when its first resource is needed.
+   */
+  public Paginator<P, T> setPagesAhead(int pagesAhead) {
+    if (pagesAhead < 0) {
+      throw new IllegalArgumentException("pagesAhead must not be negative.");
+    }
+    this.pagesAhead = pagesAhead;
+    return this;
+  }
+
+  /**
+   * Returns an iterator over the resources, which starts requesting pages. Close it if it isn't
+   * consumed to the end, so that no further pages are requested.
+   */
+  @Override
+  public ResourceIterator<T> iterator() {
+    return new ResourceIterator<>(
+        new PrefetchingPageReader<>(requestFactory, nextPageToken, pagesAhead), resources);
+  }
+
+  /**
+   * Returns a sequential stream of the resources. Pages are requested once a terminal operation
+   * starts, and closing the stream stops requesting further pages.
+   */
+  public Stream<T> stream() {
+    DeferredIterator deferredIterator = new DeferredIterator();
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                deferredIterator, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(deferredIterator::close);
+  }
+
+  /** Starts iterating on first use, so that creating a stream doesn't request pages. */
+  private class DeferredIterator implements Iterator<T>, AutoCloseable {
+
+    private ResourceIterator<T> delegate;
+    private boolean closed;
+
+    private synchronized Iterator<T> delegate() {
+      if (closed) {
+        return Collections.emptyIterator();
+      }
+      if (delegate == null) {
+        delegate = iterator();
+      }
+      return delegate;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return delegate().hasNext();
+    }
+
+    @Override
+    public T next() {
+      return delegate().next();
+    }
+
+    @Override
+    public synchronized void close() {
+      closed = true;
+      if (delegate != null) {
+        delegate.close();
+      }
+    }
+  }
+
+  /**
+   * An iterator over the resources of all pages, which must be closed if it isn't consumed to the
+   * end.
+   *
+   * @param <T> The type of the listed resources.
+   */
+  public static class ResourceIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final PrefetchingPageReader<?> pages;
+    private final PageResources<T> pageResources;
+    private Iterator<T> current = Collections.emptyIterator();
+    private volatile boolean closed;
+
+    private <P> ResourceIterator(PrefetchingPageReader<P> pages, Function<P, List<T>> resources) {
+      this.pages = pages;
+      pageResources =
+          () -> {
+            P page = pages.next();
+            if (page == null) {
+              return null;
+            }
+            List<T> pageList = resources.apply(page);
+            return (pageList != null) ? pageList : Collections.emptyList();
+          };
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (closed) {
+        return false;
+      }
+      while (!current.hasNext()) {
+        List<T> nextResources;
+        try {
+          nextResources = pageResources.next();
+        } catch (IOException ex) {
+          close();
+          throw new UncheckedIOException(ex);
+        }
+        if (nextResources == null) {
+          return false;
+        }
+        current = nextResources.iterator();
+      }
+      return true;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return current.next();
+    }
+
+    /** Stops requesting pages. May be called from any thread to cancel the iteration. */
+    @Override
+    public void close() {
+      closed = true;
+      pages.close();
+    }
+
+    /** Reads the resources of the next page, returning {@code null} after the last page. */
+    private interface PageResources<T> {
+      List<T> next() throws IOException;
+    }
+  }
+}
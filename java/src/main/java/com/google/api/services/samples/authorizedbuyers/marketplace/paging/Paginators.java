@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.paging;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.AuctionPackage;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Client;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ClientUser;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListAuctionPackagesResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListClientUsersResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListClientsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListDealsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListFinalizedDealsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListProposalsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListPublisherProfilesResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.PublisherProfile;
+import java.util.function.Consumer;
+
+/** Creates {@link Paginator} instances for the list methods of the Marketplace API. */
+public final class Paginators {
+
+  private Paginators() {}
+
+  /**
+   * Returns a paginator over the finalized deals of a buyer.
+   *
+   * @param client The client used to send requests.
+   * @param parent The name of the parent resource, e.g. {@code buyers/12345}.
+   * @param configurer Sets optional parameters of each request such as the filter and page size,
+   *     or {@code null}.
+   */
+  public static Paginator<ListFinalizedDealsResponse, FinalizedDeal> finalizedDeals(
+      AuthorizedBuyersMarketplace client,
+      String parent,
+      Consumer<AuthorizedBuyersMarketplace.Buyers.FinalizedDeals.List> configurer) {
+    return new Paginator<>(
+        pageToken -> {
+          AuthorizedBuyersMarketplace.Buyers.FinalizedDeals.List request =
+              client.buyers().finalizedDeals().list(parent);
+          if (configurer != null) {
+            configurer.accept(request);
+          }
+          return request.setPageToken(pageToken);
+        },
+        ListFinalizedDealsResponse::getNextPageToken,
+        ListFinalizedDealsResponse::getFinalizedDeals);
+  }
+
+  /**
+   * Returns a paginator over the finalized deals of a bidder, including those of its buyers.
+   *
+   * @param client The client used to send requests.
+   * @param parent The name of the parent resource, e.g. {@code bidders/12345}.
+   * @param configurer Sets optional parameters of each request such as the filter and page size,
+   *     or {@code null}.
+   */
+  public static Paginator<ListFinalizedDealsResponse, FinalizedDeal> bidderFinalizedDeals(
+      AuthorizedBuyersMarketplace client,
+      String parent,
+      Consumer<AuthorizedBuyersMarketplace.Bidders.FinalizedDeals.List> configurer) {
+    return new Paginator<>(
+        pageToken -> {
+          AuthorizedBuyersMarketplace.Bidders.FinalizedDeals.List request =
+              client.bidders().finalizedDeals().list(parent);
+          if (configurer != null) {
+            configurer.accept(request);
+          }
+          return request.setPageToken(pageToken);
+        },
+        ListFinalizedDealsResponse::getNextPageToken,
+        ListFinalizedDealsResponse::getFinalizedDeals);
+  }
+
+  /**
+   * Returns a paginator over the proposals of a buyer.
+   *
+   * @param client The client used to send requests.
+   * @param parent The name of the parent resource, e.g. {@code buyers/12345}.
+   * @param configurer Sets optional parameters of each request such as the filter and page size,
+   *     or {@code null}.
+   */
+  public static Paginator<ListProposalsResponse, Proposal> proposals(
+      AuthorizedBuyersMarketplace client,
+      String parent,
+      Consumer<AuthorizedBuyersMarketplace.Buyers.Proposals.List> configurer) {
+    return new Paginator<>(
+        pageToken -> {
+          AuthorizedBuyersMarketplace.Buyers.Proposals.List request =
+              client.buyers().proposals().list(parent);
+          if (configurer != null) {
+            configurer.accept(request);
+          }
+          return request.setPageToken(pageToken);
+        },
+        ListProposalsResponse::getNextPageToken,
+        ListProposalsResponse::getProposals);
+  }
+
+  /**
+   * Returns a paginator over the deals of a proposal.
+   *
+   * @param client The client used to send requests.
+   * @param parent The name of the parent resource, e.g. {@code buyers/12345/proposals/MP123}.
+   * @param configurer Sets optional parameters of each request such as the filter and page size,
+   *     or {@code null}.
+   */
+  public static Paginator<ListDealsResponse, Deal> deals(
+      AuthorizedBuyersMarketplace client,
+      String parent,
+      Consumer<AuthorizedBuyersMarketplace.Buyers.Proposals.Deals.List> configurer) {
+    return new Paginator<>(
+        pageToken -> {
+          AuthorizedBuyersMarketplace.Buyers.Proposals.Deals.List request =
+              client.buyers().proposals().deals().list(parent);
+          if (configurer != null) {
+            configurer.accept(request);
+          }
+          return request.setPageToken(pageToken);
+        },
+        ListDealsResponse::getNextPageToken,
+        ListDealsResponse::getDeals);
+  }
+
+  /**
+   * Returns a paginator over the clients of a buyer.
+   *
+   * @param client The client used to send requests.
+   * @param parent The name of the parent resource, e.g. {@code buyers/12345}.
+   * @param configurer Sets optional parameters of each request such as the filter and page size,
+   *     or {@code null}.
+   */
+  public static Paginator<ListClientsResponse, Client> clients(
+      AuthorizedBuyersMarketplace client,
+      String parent,
+      Consumer<AuthorizedBuyersMarketplace.Buyers.Clients.List> configurer) {
+    return new Paginator<>(
+        pageToken -> {
+          AuthorizedBuyersMarketplace.Buyers.Clients.List request =
+              client.buyers().clients().list(parent);
+          if (configurer != null) {
+            configurer.accept(request);
+          }
+          return request.setPageToken(pageToken);
+        },
+        ListClientsResponse::getNextPageToken,
+        ListClientsResponse::getClients);
+  }
+
+  /**
+   * Returns a paginator over the client users of a client.
+   *
+   * @param client The client used to send requests.
+   * @param parent The name of the parent resource, e.g. {@code buyers/12345/clients/678}.
+   * @param configurer Sets optional parameters of each request such as the filter and page size,
+   *     or {@code null}.
+   */
+  public static Paginator<ListClientUsersResponse, ClientUser> clientUsers(
+      AuthorizedBuyersMarketplace client,
+      String parent,
+      Consumer<AuthorizedBuyersMarketplace.Buyers.Clients.Users.List> configurer) {
+    return new Paginator<>(
+        pageToken -> {
+          AuthorizedBuyersMarketplace.Buyers.Clients.Users.List request =
+              client.buyers().clients().users().list(parent);
+          if (configurer != null) {
+            configurer.accept(request);
+          }
+          return request.setPageToken(pageToken);
+        },
+        ListClientUsersResponse::getNextPageToken,
+        ListClientUsersResponse::getClientUsers);
+  }
+
+  /**
+   * Returns a paginator over the auction packages of a buyer.
+   *
+   * @param client The client used to send requests.
+   * @param parent The name of the parent resource, e.g. {@code buyers/12345}.
+   * @param configurer Sets optional parameters of each request such as the filter and page size,
+   *     or {@code null}.
+   */
+  public static Paginator<ListAuctionPackagesResponse, AuctionPackage> auctionPackages(
+      AuthorizedBuyersMarketplace client,
+      String parent,
+      Consumer<AuthorizedBuyersMarketplace.Buyers.AuctionPackages.List> configurer) {
+    return new Paginator<>(
+        pageToken -> {
+          AuthorizedBuyersMarketplace.Buyers.AuctionPackages.List request =
+              client.buyers().auctionPackages().list(parent);
+          if (configurer != null) {
+            configurer.accept(request);
+          }
+          return request.setPageToken(pageToken);
+        },
+        ListAuctionPackagesResponse::getNextPageToken,
+        ListAuctionPackagesResponse::getAuctionPackages);
+  }
+
+  /**
+   * Returns a paginator over the publisher profiles of a buyer.
+   *
+   * @param client The client used to send requests.
+   * @param parent The name of the parent resource, e.g. {@code buyers/12345}.
+   * @param configurer Sets optional parameters of each request such as the filter and page size,
+   *     or {@code null}.
+   */
+  public static Paginator<ListPublisherProfilesResponse, PublisherProfile> publisherProfiles(
+      AuthorizedBuyersMarketplace client,
+      String parent,
+      Consumer<AuthorizedBuyersMarketplace.Buyers.PublisherProfiles.List> configurer) {
+    return new Paginator<>(
+        pageToken -> {
+          AuthorizedBuyersMarketplace.Buyers.PublisherProfiles.List request =
+              client.buyers().publisherProfiles().list(parent);
+          if (configurer != null) {
+            configurer.accept(request);
+          }
+          return request.setPageToken(pageToken);
+        },
+        ListPublisherProfilesResponse::getNextPageToken,
+        ListPublisherProfilesResponse::getPublisherProfiles);
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.paging;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds the filters that split the results of a list method into disjoint partitions for a
+ * {@link PartitionedScan}, e.g. one partition per deal type.
+ */
+public final class PartitionFilters {
+
+  private PartitionFilters() {}
+
+  /**
+   * Returns a filter for each of the given values of a field, matching the resources that have
+   * that value, followed by a filter matching the resources that have none of them, so that every
+   * resource is listed by exactly one partition.
+   *
+   * @param filter The filter that all partitions are restricted to, or {@code null} for none.
+   * @param path The dot-separated path of the field, e.g. {@code deal.dealType}.
+   * @param values The values of the field, as literals of the filter syntax, e.g. {@code
+   *     "\"buyers/12345\""}.
+   * @throws IllegalArgumentException if no values are given.
+   */
+  public static List<String> byValues(String filter, String path, Collection<String> values) {
+    if (values.isEmpty()) {
+      throw new IllegalArgumentException("At least one value is required.");
+    }
+    List<String> partitionFilters = new ArrayList<>();
+    List<String> exclusions = new ArrayList<>();
+    for (String value : values) {
+      partitionFilters.add(combine(filter, String.format("%s = %s", path, value)));
+      exclusions.add(String.format("%s != %s", path, value));
+    }
+    partitionFilters.add(combine(filter, String.join(" AND ", exclusions)));
+    return partitionFilters;
+  }
+
+  /** Returns the conjunction of a filter, which may be empty, and a partition's filter. */
+  private static String combine(String filter, String partitionFilter) {
+    if (filter == null || filter.trim().isEmpty()) {
+      return partitionFilter;
+    }
+    return String.format("(%s) AND (%s)", filter, partitionFilter);
+  }
+}
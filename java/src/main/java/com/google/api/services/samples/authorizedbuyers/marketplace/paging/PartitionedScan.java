@@ -0,0 +1,294 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.paging;
+
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.Paginator.ResourceIterator;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Scans a collection that was split into partitions, such as the results of disjoint filters on
+ * the same list method, by paging through the partitions concurrently.
+ *
+ * <p>Resources are passed to the caller's action on the calling thread, and resources with a key
+ * that was already seen are skipped, so that a resource listed by more than one partition, or
+ * listed twice as the collection changes during the scan, is only handled once. By default
+ * resources are handled in the order they arrive, with up to {@link #setParallelism(int)}
+ * partitions being paged through at once. If {@link #setOrder(Comparator)} is set, each partition
+ * must be listed in that order, and the partitions are merged so that resources are handled in a
+ * single global order. Merging reads from all partitions at once.
+ *
+ * @param <T> The type of the listed resources.
+ */
+public class PartitionedScan<T> {
+
+  /** Maximum number of resources read by partitions before the caller handles them. */
+  private static final int QUEUE_CAPACITY = 1000;
+
+  /** Queued by a partition once all of its resources were queued. */
+  private static final Object END = new Object();
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  private final List<Paginator<?, T>> partitions;
+  private final Function<? super T, ?> key;
+  private final Set<Object> seenKeys = new HashSet<>();
+  private int parallelism = 4;
+  private Comparator<? super T> order;
+  private Runnable beforeWait;
+  private long resourceCount;
+  private long duplicateCount;
+
+  /**
+   * Creates a scan.
+   *
+   * @param partitions The paginators of the partitions, which are iterated once.
+   * @param key Returns the key identifying a resource, such as its name.
+   */
+  public PartitionedScan(List<Paginator<?, T>> partitions, Function<? super T, ?> key) {
+    this.partitions = new ArrayList<>(partitions);
+    this.key = key;
+  }
+
+  /** Sets the maximum number of partitions paged through at once when unordered, 4 by default. */
+  public PartitionedScan<T> setParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive.");
+    }
+    this.parallelism = parallelism;
+    return this;
+  }
+
+  /**
+   * Sets the order in which every partition lists its resources, and in which resources are
+   * handled, or {@code null} to handle resources in the order they arrive.
+   */
+  public PartitionedScan<T> setOrder(Comparator<? super T> order) {
+    this.order = order;
+    return this;
+  }
+
+  /**
+   * Sets an action run on the calling thread whenever it's about to wait for partitions to read
+   * more resources when unordered, such as writing out the resources handled so far, or {@code
+   * null} for none.
+   */
+  public PartitionedScan<T> setBeforeWait(Runnable beforeWait) {
+    this.beforeWait = beforeWait;
+    return this;
+  }
+
+  /** Returns the number of resources handled so far. */
+  public long getResourceCount() {
+    return resourceCount;
+  }
+
+  /** Returns the number of resources skipped so far because their key was already seen. */
+  public long getDuplicateCount() {
+    return duplicateCount;
+  }
+
+  /**
+   * Pages through all partitions, passing each distinct resource to the given action. If a
+   * partition fails, or the action throws, requests for the remaining pages are cancelled.
+   *
+   * @throws IOException if a page couldn't be retrieved.
+   */
+  public void forEach(Consumer<? super T> action) throws IOException {
+    if (order == null) {
+      forEachUnordered(action);
+    } else {
+      forEachOrdered(action);
+    }
+  }
+
+  /** Handles resources in the order they arrive from partitions paged through concurrently. */
+  private void forEachUnordered(Consumer<? super T> action) throws IOException {
+    if (partitions.isEmpty()) {
+      return;
+    }
+
+    BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    List<ResourceIterator<T>> openIterators = new ArrayList<>();
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(parallelism, partitions.size()),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "partitioned-scan-" + THREAD_COUNT.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+
+    for (Paginator<?, T> partition : partitions) {
+      executor.execute(
+          () -> {
+            ResourceIterator<T> resources;
+            synchronized (openIterators) {
+              if (executor.isShutdown()) {
+                return;
+              }
+              resources = partition.iterator();
+              openIterators.add(resources);
+            }
+            try {
+              try {
+                while (resources.hasNext()) {
+                  queue.put(resources.next());
+                }
+                queue.put(END);
+              } catch (RuntimeException ex) {
+                queue.put(new Failure(ex));
+              }
+            } catch (InterruptedException ex) {
+              Thread.currentThread().interrupt();
+            } finally {
+              resources.close();
+            }
+          });
+    }
+
+    try {
+      int remainingPartitions = partitions.size();
+      while (remainingPartitions > 0) {
+        if (beforeWait != null && queue.isEmpty()) {
+          beforeWait.run();
+        }
+        Object item = queue.take();
+        if (item == END) {
+          remainingPartitions--;
+        } else if (item instanceof Failure) {
+          throw ((Failure) item).rethrow();
+        } else {
+          @SuppressWarnings("unchecked")
+          T resource = (T) item;
+          handle(resource, action);
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while scanning partitions.");
+    } finally {
+      synchronized (openIterators) {
+        executor.shutdownNow();
+        openIterators.forEach(ResourceIterator::close);
+      }
+    }
+  }
+
+  /** Merges the partitions, handling resources in the order of {@link #order}. */
+  private void forEachOrdered(Consumer<? super T> action) throws IOException {
+    // Ties are broken by partition, so that the merge is deterministic.
+    PriorityQueue<Head<T>> heads =
+        new PriorityQueue<>(
+            Comparator.<Head<T>, T>comparing(head -> head.resource, order)
+                .thenComparingInt(head -> head.partition));
+    List<ResourceIterator<T>> iterators = new ArrayList<>();
+    try {
+      // Opening every partition first lets them all read their first pages concurrently.
+      for (Paginator<?, T> partition : partitions) {
+        iterators.add(partition.iterator());
+      }
+      for (int i = 0; i < iterators.size(); i++) {
+        Head<T> head = new Head<>(i, iterators.get(i));
+        if (head.advance()) {
+          heads.add(head);
+        }
+      }
+
+      while (!heads.isEmpty()) {
+        Head<T> head = heads.poll();
+        handle(head.resource, action);
+        if (head.advance()) {
+          heads.add(head);
+        }
+      }
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    } finally {
+      iterators.forEach(ResourceIterator::close);
+    }
+  }
+
+  /** Passes a resource to the action unless its key was already seen. */
+  private void handle(T resource, Consumer<? super T> action) {
+    if (!seenKeys.add(key.apply(resource))) {
+      duplicateCount++;
+      return;
+    }
+    resourceCount++;
+    action.accept(resource);
+  }
+
+  /** The next resource of a partition being merged. */
+  private static class Head<T> {
+
+    private final int partition;
+    private final ResourceIterator<T> iterator;
+    private T resource;
+
+    private Head(int partition, ResourceIterator<T> iterator) {
+      this.partition = partition;
+      this.iterator = iterator;
+    }
+
+    /** Moves to the partition's next resource, returning {@code false} if there is none. */
+    private boolean advance() {
+      if (!iterator.hasNext()) {
+        return false;
+      }
+      resource = iterator.next();
+      return true;
+    }
+  }
+
+  /** Queued in place of a resource when a partition fails. */
+  private static class Failure {
+
+    private final RuntimeException exception;
+
+    private Failure(RuntimeException exception) {
+      this.exception = exception;
+    }
+
+    /**
+     * Returns the I/O error that failed the partition, or throws the exception on the calling
+     * thread if it was another error.
+     */
+    private IOException rethrow() {
+      if (exception instanceof UncheckedIOException) {
+        return ((UncheckedIOException) exception).getCause();
+      }
+      throw exception;
+    }
+  }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.paging;
+
+import com.google.api.client.googleapis.services.AbstractGoogleClientRequest;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.ApiMethod;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Reads the pages of a list method, requesting pages while the caller is still processing earlier
+ * ones.
+ *
+ * <p>Pages are requested one after another on a background thread, each as soon as the token of
+ * the page before it is known, until the given number of pages is read ahead of the page being
+ * processed. Waiting for the network and decoding and rendering a page then overlap instead of
+ * adding up, while the number of pages held in memory stays bounded. With no pages read ahead,
+ * each page is requested on the caller's thread when it is needed.
+ *
+ * <p>Requests that don't set a page size are sent with one chosen by the method's {@link
+ * PageSizeController}, which adapts it to the latency and size of the pages received.
+ *
+ * <pre>{@code
+ * try (PrefetchingPageReader<ListProposalsResponse> pages =
+ *     new PrefetchingPageReader<>(
+ *         pageToken -> client.buyers().proposals().list(parent).setPageToken(pageToken),
+ *         ListProposalsResponse::getNextPageToken)) {
+ *   for (ListProposalsResponse page = pages.next(); page != null; page = pages.next()) {
+ *     ...
+ *   }
+ * }
+ * }</pre>
+ *
+ * @param <P> The type of the list response.
+ */
+public class PrefetchingPageReader<P> implements AutoCloseable {
+
+  /** Creates the request for a page. */
+  public interface PageRequestFactory<P> {
+
+    /**
+     * Creates the request for the page with the given token.
+     *
+     * @param pageToken The token of the page, or {@code null} for the first page.
+     */
+    AbstractGoogleClientRequest<P> newRequest(String pageToken) throws IOException;
+  }
+
+  /** Queued in place of a page once all pages were read, the reader was closed or it failed. */
+  private static final Object END = new Object();
+
+  /** Name of the query parameter of list requests that sets the page size. */
+  private static final String PAGE_SIZE = "pageSize";
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  /** Executes page requests of all readers on daemon threads, which are reused between readers. */
+  private static final ExecutorService EXECUTOR =
+      Executors.newCachedThreadPool(
+          runnable -> {
+            Thread thread = new Thread(runnable, "page-prefetch-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final PageRequestFactory<P> requestFactory;
+  private final Function<P, String> nextPageToken;
+  private final String firstPageToken;
+
+  /** Pages read ahead, followed by {@link #END} or the exception that ended reading. */
+  private final BlockingQueue<Object> pages = new LinkedBlockingQueue<>();
+
+  /** Permits to request a page, which are returned as pages are taken by the caller. */
+  private final Semaphore pagePermits;
+
+  private final Future<?> producer;
+  private volatile boolean closed;
+  private boolean exhausted;
+  private String synchronousPageToken;
+
+  /**
+   * Creates a reader that reads one page ahead of the page being processed.
+   *
+   * @param requestFactory Creates the request for a page.
+   * @param nextPageToken Returns the token of the page following the given one.
+   */
+  public PrefetchingPageReader(
+      PageRequestFactory<P> requestFactory, Function<P, String> nextPageToken) {
+    this(requestFactory, nextPageToken, 1);
+  }
+
+  /**
+   * Creates a reader and starts requesting pages.
+   *
+   * @param requestFactory Creates the request for a page.
+   * @param nextPageToken Returns the token of the page following the given one.
+   * @param pagesAhead The maximum number of pages requested ahead of the page being processed, or
+   *     0 to request each page only when it is needed.
+   */
+  public PrefetchingPageReader(
+      PageRequestFactory<P> requestFactory, Function<P, String> nextPageToken, int pagesAhead) {
+    this(requestFactory, nextPageToken, pagesAhead, null);
+  }
+
+  /**
+   * Creates a reader that starts with the page of the given token, e.g. to resume an interrupted
+   * scan, and starts requesting pages.
+   *
+   * @param requestFactory Creates the request for a page.
+   * @param nextPageToken Returns the token of the page following the given one.
+   * @param pagesAhead The maximum number of pages requested ahead of the page being processed, or
+   *     0 to request each page only when it is needed.
+   * @param firstPageToken The token of the first page to read, or {@code null} for the first page
+   *     of the list.
+   */
+  public PrefetchingPageReader(
+      PageRequestFactory<P> requestFactory,
+      Function<P, String> nextPageToken,
+      int pagesAhead,
+      String firstPageToken) {
+    if (pagesAhead < 0) {
+      throw new IllegalArgumentException("pagesAhead must not be negative.");
+    }
+    this.requestFactory = requestFactory;
+    this.nextPageToken = nextPageToken;
+    this.firstPageToken = firstPageToken;
+    synchronousPageToken = firstPageToken;
+    pagePermits = new Semaphore(pagesAhead);
+    producer = (pagesAhead > 0) ? EXECUTOR.submit(this::readPages) : null;
+  }
+
+  /**
+   * Returns the next page, waiting for it to arrive, and allows the request for another page to be
+   * sent ahead of it.
+   *
+   * @return The next page, or {@code null} if all pages have been read or the reader was closed.
+   * @throws IOException if the request for the page failed.
+   */
+  public P next() throws IOException {
+    if (exhausted || closed) {
+      return null;
+    }
+    if (producer == null) {
+      return nextSynchronously();
+    }
+
+    Object page;
+    try {
+      page = pages.take();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      InterruptedIOException interruptedException =
+          new InterruptedIOException("Interrupted while waiting for page.");
+      interruptedException.initCause(ex);
+      throw interruptedException;
+    }
+
+    if (page == END) {
+      exhausted = true;
+      return null;
+    }
+    if (page instanceof Throwable) {
+      exhausted = true;
+      if (page instanceof IOException) {
+        throw (IOException) page;
+      }
+      if (page instanceof RuntimeException) {
+        throw (RuntimeException) page;
+      }
+      throw new IOException("Page request failed.", (Throwable) page);
+    }
+
+    pagePermits.release();
+    @SuppressWarnings("unchecked")
+    P typedPage = (P) page;
+    return typedPage;
+  }
+
+  /**
+   * Stops reading pages. A page request already in flight is abandoned, and {@link #next()} returns
+   * {@code null} from now on. May be called from any thread.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (producer != null) {
+      producer.cancel(true);
+      // Wakes a caller waiting in next().
+      pages.add(END);
+    }
+  }
+
+  private P nextSynchronously() throws IOException {
+    P page = requestPage(synchronousPageToken);
+    synchronousPageToken = nextPageToken.apply(page);
+    exhausted = (synchronousPageToken == null || synchronousPageToken.isEmpty());
+    return page;
+  }
+
+  /** Requests pages one after another, as long as permits are available. */
+  private void readPages() {
+    try {
+      String pageToken = firstPageToken;
+      do {
+        pagePermits.acquire();
+        if (closed) {
+          return;
+        }
+        P page = requestPage(pageToken);
+        pages.add(page);
+        pageToken = nextPageToken.apply(page);
+      } while (pageToken != null && !pageToken.isEmpty() && !closed);
+      pages.add(END);
+    } catch (InterruptedException ex) {
+      // Closed while waiting for a permit.
+    } catch (IOException | RuntimeException ex) {
+      pages.add(ex);
+    }
+  }
+
+  /**
+   * Requests the page with the given token. If the request doesn't set a page size, the page size
+   * is chosen by the method's {@link PageSizeController}, which learns from the page's latency and
+   * size.
+   */
+  private P requestPage(String pageToken) throws IOException {
+    AbstractGoogleClientRequest<P> request = requestFactory.newRequest(pageToken);
+    if (request.get(PAGE_SIZE) != null) {
+      return request.execute();
+    }
+
+    ApiMethod method = ApiMethod.of(request.getRequestMethod(), request.buildHttpRequestUrl());
+    PageSizeController pageSizeController = Utils.getPageSizeController(method.getName());
+    int pageSize = pageSizeController.getPageSize();
+    request.set(PAGE_SIZE, pageSize);
+
+    long start = System.nanoTime();
+    HttpResponse response = request.executeUnparsed();
+    Long contentLength = response.getHeaders().getContentLength();
+    P page = response.parseAs(request.getResponseClass());
+    pageSizeController.record(
+        pageSize,
+        countResources(page),
+        System.nanoTime() - start,
+        (contentLength != null) ? contentLength : -1);
+    return page;
+  }
+
+  /** Returns the number of resources in a page, which is the size of its only repeated field. */
+  private static int countResources(Object page) {
+    if (page instanceof Map) {
+      for (Object value : ((Map<?, ?>) page).values()) {
+        if (value instanceof List) {
+          return ((List<?>) value).size();
+        }
+      }
+    }
+    return 0;
+  }
+}
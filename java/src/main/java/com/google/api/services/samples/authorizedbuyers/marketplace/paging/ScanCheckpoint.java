@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.paging;
+
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.util.Key;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * The progress of a scan through the pages of a list method, which is saved to a file after each
+ * page so that a scan that was interrupted can resume where it stopped.
+ *
+ * <p>The checkpoint records the page token of the first page that hasn't been processed yet,
+ * together with the parent, filter and order of the scan, since a page token is only valid for
+ * the query that returned it. Each save writes a temporary file, forces it to disk and moves it
+ * over the checkpoint file, so a crash leaves either the previous or the new checkpoint behind.
+ *
+ * <pre>{@code
+ * ScanCheckpoint checkpoint = ScanCheckpoint.open(file, resume, parent, filter, orderBy);
+ * try (PrefetchingPageReader<ListProposalsResponse> pages =
+ *     new PrefetchingPageReader<>(factory, nextPageToken, 1, checkpoint.getPageToken())) {
+ *   for (ListProposalsResponse page = pages.next(); page != null; page = pages.next()) {
+ *     ...
+ *     checkpoint.completePage(page.getNextPageToken(), page.getProposals().size());
+ *   }
+ * }
+ * }</pre>
+ */
+public class ScanCheckpoint extends GenericJson {
+
+  @Key private String parent;
+  @Key private String filter;
+  @Key private String orderBy;
+  @Key private String pageToken;
+  @Key private Long itemCount;
+  @Key private Long pageCount;
+  @Key private Boolean complete;
+
+  private Path file;
+
+  /**
+   * Adds the {@code --checkpoint_file} and {@code --resume} arguments to the given parser.
+   *
+   * @param parser The parser of a sample that lists resources.
+   */
+  public static void addArguments(ArgumentParser parser) {
+    parser
+        .addArgument("--checkpoint_file")
+        .help(
+            "A file that the progress of the scan is saved to after each page, so that it can "
+                + "be resumed with --resume if it is interrupted.");
+    parser
+        .addArgument("--resume")
+        .help(
+            "Resumes the scan saved in --checkpoint_file after its last processed page, instead "
+                + "of starting over. The scan must use the same filter and order.")
+        .action(Arguments.storeTrue());
+  }
+
+  /**
+   * Starts or resumes a scan as given by the {@code --checkpoint_file} and {@code --resume}
+   * arguments.
+   *
+   * @param parsedArgs The parsed arguments of a sample, including those added by {@link
+   *     #addArguments(ArgumentParser)}.
+   * @param parent The parent resource of the scan, e.g. {@code buyers/12345}.
+   * @param filter The filter of the scan, or {@code null}.
+   * @param orderBy The order of the scan, or {@code null}.
+   * @throws IOException if the checkpoint couldn't be read, or belongs to a different scan.
+   */
+  public static ScanCheckpoint open(
+      Namespace parsedArgs, String parent, String filter, String orderBy) throws IOException {
+    String file = parsedArgs.getString("checkpoint_file");
+    boolean resume = parsedArgs.getBoolean("resume");
+    if (resume && file == null) {
+      throw new IOException("--resume requires a --checkpoint_file to resume from.");
+    }
+    return open((file != null) ? Paths.get(file) : null, resume, parent, filter, orderBy);
+  }
+
+  /**
+   * Starts or resumes a scan.
+   *
+   * @param file The checkpoint file, or {@code null} to not save checkpoints.
+   * @param resume Whether to resume from the checkpoint in the file, rather than start over.
+   * @param parent The parent resource of the scan, e.g. {@code buyers/12345}.
+   * @param filter The filter of the scan, or {@code null}.
+   * @param orderBy The order of the scan, or {@code null}.
+   * @throws IOException if the checkpoint couldn't be read, or belongs to a different scan.
+   */
+  public static ScanCheckpoint open(
+      Path file, boolean resume, String parent, String filter, String orderBy)
+      throws IOException {
+    ScanCheckpoint checkpoint;
+    if (resume && file != null && Files.exists(file)) {
+      try (InputStream in = Files.newInputStream(file)) {
+        checkpoint =
+            Utils.getJsonFactory()
+                .fromInputStream(in, StandardCharsets.UTF_8, ScanCheckpoint.class);
+      }
+      if (!Objects.equals(parent, checkpoint.parent)
+          || !Objects.equals(filter, checkpoint.filter)
+          || !Objects.equals(orderBy, checkpoint.orderBy)) {
+        throw new IOException(
+            String.format(
+                "Checkpoint %s belongs to a scan of %s with filter \"%s\" and order \"%s\".",
+                file, checkpoint.parent, checkpoint.filter, checkpoint.orderBy));
+      }
+    } else {
+      checkpoint = new ScanCheckpoint();
+      checkpoint.parent = parent;
+      checkpoint.filter = filter;
+      checkpoint.orderBy = orderBy;
+      checkpoint.itemCount = 0L;
+      checkpoint.pageCount = 0L;
+      checkpoint.complete = false;
+    }
+    checkpoint.file = file;
+    return checkpoint;
+  }
+
+  /** Returns the token of the first page to read, or {@code null} to start with the first page. */
+  public String getPageToken() {
+    return pageToken;
+  }
+
+  /** Returns the number of resources in the pages processed so far. */
+  public long getItemCount() {
+    return (itemCount != null) ? itemCount : 0;
+  }
+
+  /** Returns the number of pages processed so far. */
+  public long getPageCount() {
+    return (pageCount != null) ? pageCount : 0;
+  }
+
+  /** Returns whether all pages have been processed. */
+  public boolean isComplete() {
+    return Boolean.TRUE.equals(complete);
+  }
+
+  /**
+   * Records that a page was processed, and saves the checkpoint. Callers must have written out the
+   * page's resources, e.g. with {@code OutputFormat.flush()}, so that a resumed scan doesn't skip
+   * resources that were never written.
+   *
+   * @param nextPageToken The token of the page following it, or {@code null} if it was the last.
+   * @param pageItemCount The number of resources in the page.
+   * @throws IOException if the checkpoint couldn't be saved.
+   */
+  public void completePage(String nextPageToken, int pageItemCount) throws IOException {
+    pageToken = (nextPageToken == null || nextPageToken.isEmpty()) ? null : nextPageToken;
+    itemCount = getItemCount() + pageItemCount;
+    pageCount = getPageCount() + 1;
+    complete = (pageToken == null);
+    save();
+  }
+
+  /** Atomically replaces the checkpoint file with the current checkpoint. */
+  private void save() throws IOException {
+    if (file == null) {
+      return;
+    }
+    Path absoluteFile = file.toAbsolutePath();
+    Path temporaryFile =
+        Files.createTempFile(
+            absoluteFile.getParent(), absoluteFile.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+        OutputStream out = Channels.newOutputStream(channel);
+        out.write(Utils.getJsonFactory().toPrettyString(this).getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        channel.force(true);
+      }
+      Files.move(
+          temporaryFile,
+          absoluteFile,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.standin;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the {@code fields} system parameter to a response, keeping only the selected fields.
+ *
+ * <p>Supports the partial response syntax used by Google APIs: comma-separated field names,
+ * sub-selections in parentheses such as {@code deals(name,dealType)}, and paths such as {@code
+ * deal/targeting}.
+ */
+class FieldSelector {
+
+  /** Selected child fields, where a {@code null} value selects the whole field. */
+  private final Map<String, FieldSelector> children = new LinkedHashMap<>();
+
+  private FieldSelector() {}
+
+  /**
+   * Parses a field mask.
+   *
+   * @param fields The value of the {@code fields} parameter, or {@code null} to select everything.
+   * @return The parsed selector, or {@code null} if every field is selected.
+   * @throws IllegalArgumentException if the mask is malformed.
+   */
+  static FieldSelector parse(String fields) {
+    if (fields == null || fields.trim().isEmpty()) {
+      return null;
+    }
+    FieldSelector selector = new FieldSelector();
+    int end = selector.parseList(fields.replace(" ", ""), 0);
+    if (end != fields.replace(" ", "").length()) {
+      throw new IllegalArgumentException(String.format("Invalid field mask \"%s\".", fields));
+    }
+    return selector;
+  }
+
+  /** Parses comma-separated selections starting at the given index, returning the end index. */
+  private int parseList(String fields, int index) {
+    while (true) {
+      int start = index;
+      while (index < fields.length() && ",()".indexOf(fields.charAt(index)) < 0) {
+        index++;
+      }
+      if (index == start) {
+        throw new IllegalArgumentException(String.format("Invalid field mask \"%s\".", fields));
+      }
+
+      // Paths such as "deal/targeting" select a nested field.
+      FieldSelector parent = this;
+      String[] path = fields.substring(start, index).split("/");
+      for (int i = 0; i < path.length - 1; i++) {
+        parent = parent.child(path[i]);
+      }
+      String name = path[path.length - 1];
+
+      if (index < fields.length() && fields.charAt(index) == '(') {
+        FieldSelector child = parent.child(name);
+        index = child.parseList(fields, index + 1);
+        if (index >= fields.length() || fields.charAt(index) != ')') {
+          throw new IllegalArgumentException(String.format("Invalid field mask \"%s\".", fields));
+        }
+        index++;
+      } else {
+        parent.children.put(name, null);
+      }
+
+      if (index < fields.length() && fields.charAt(index) == ',') {
+        index++;
+      } else {
+        return index;
+      }
+    }
+  }
+
+  /**
+   * Returns the selector of the given child field, to which nested selections are added. If the
+   * whole field is already selected, nested selections are redundant and go to a detached selector.
+   */
+  private FieldSelector child(String name) {
+    if (children.containsKey(name) && children.get(name) == null) {
+      return new FieldSelector();
+    }
+    return children.computeIfAbsent(name, k -> new FieldSelector());
+  }
+
+  /** Returns a copy of the given JSON value containing only the selected fields. */
+  Object apply(Object value) {
+    if (value instanceof List) {
+      List<Object> selected = new ArrayList<>();
+      for (Object element : (List<?>) value) {
+        selected.add(apply(element));
+      }
+      return selected;
+    }
+    if (!(value instanceof Map)) {
+      return value;
+    }
+
+    Map<String, Object> selected = new LinkedHashMap<>();
+    Map<?, ?> map = (Map<?, ?>) value;
+    for (Map.Entry<String, FieldSelector> child : children.entrySet()) {
+      Object fieldValue = map.get(child.getKey());
+      if (fieldValue != null) {
+        selected.put(
+            child.getKey(),
+            (child.getValue() == null) ? fieldValue : child.getValue().apply(fieldValue));
+      }
+    }
+    return selected;
+  }
+}
@@ -0,0 +1,792 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.standin;
+
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.services.samples.authorizedbuyers.marketplace.filter.ListQuery;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory implementation of the Marketplace API v1 resources used by the samples, populated
+ * with synthetic data from {@link SyntheticResources}.
+ *
+ * <p>Each collection, such as {@code buyers/12345/proposals}, is generated the first time it is
+ * accessed and then kept in memory, so changes made through patch requests and custom methods
+ * are visible to later requests. A bidder's finalized deals are those of the bidder's own buyer
+ * account and of its {@value #CHILD_BUYERS_PER_BIDDER} child seats, {@code buyers/<bidder>01} and
+ * so on.
+ *
+ * <p>List requests support {@code pageSize}, {@code pageToken}, {@code filter} and {@code
+ * orderBy}. Guarded mutations of proposals and deals are rejected with {@code FAILED_PRECONDITION}
+ * if their {@code proposalRevision} is stale, as they are by the API.
+ */
+public class StandInBackend {
+
+  /** An error response, rendered in the JSON error format used by Google APIs. */
+  static class ApiException extends Exception {
+    private final int statusCode;
+    private final String status;
+
+    ApiException(int statusCode, String status, String message) {
+      super(message);
+      this.statusCode = statusCode;
+      this.status = status;
+    }
+
+    int getStatusCode() {
+      return statusCode;
+    }
+
+    GenericJson toJson() {
+      GenericJson error = new GenericJson();
+      error.set("code", statusCode);
+      error.set("message", getMessage());
+      error.set("status", status);
+      return new GenericJson().set("error", error);
+    }
+  }
+
+  /** Number of child seats whose finalized deals are listed with those of each bidder. */
+  static final int CHILD_BUYERS_PER_BIDDER = 2;
+
+  private static final int DEFAULT_PAGE_SIZE = 100;
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final int MAX_CACHED_QUERIES = 64;
+
+  private static final Pattern BUYER_COLLECTION =
+      Pattern.compile(
+          "buyers/(\\d+)/(proposals|finalizedDeals|clients|auctionPackages|publisherProfiles)");
+  private static final Pattern DEAL_COLLECTION =
+      Pattern.compile("(buyers/\\d+/proposals)/MP(\\d+)/deals");
+  private static final Pattern USER_COLLECTION =
+      Pattern.compile("(buyers/\\d+/clients)/(\\d+)/users");
+  private static final Pattern BIDDER_COLLECTION = Pattern.compile("bidders/(\\d+)/finalizedDeals");
+
+  private final JsonFactory jsonFactory;
+  private final int collectionSize;
+  private final Map<String, ResourceCollection> collections = new ConcurrentHashMap<>();
+  private final Map<String, QueryResult> queryCache = new ConcurrentHashMap<>();
+  private final AtomicLong modificationCount = new AtomicLong();
+  private final AtomicLong nextCreatedId = new AtomicLong(90_000_000);
+
+  /**
+   * Creates a backend.
+   *
+   * @param jsonFactory The factory used to convert generated resources to JSON.
+   * @param collectionSize The number of resources generated for top-level collections, such as a
+   *     buyer's proposals or finalized deals.
+   */
+  public StandInBackend(JsonFactory jsonFactory, int collectionSize) {
+    if (collectionSize < 1) {
+      throw new IllegalArgumentException("The collection size must be positive.");
+    }
+    this.jsonFactory = jsonFactory;
+    this.collectionSize = collectionSize;
+  }
+
+  /**
+   * Handles a request.
+   *
+   * @param httpMethod The HTTP method of the request.
+   * @param path The path of the request following {@code /v1/}, e.g. {@code
+   *     buyers/12345/proposals/MP123:accept}.
+   * @param parameters The query parameters of the request.
+   * @param body The JSON body of the request, or {@code null}.
+   * @return The JSON body of the response.
+   * @throws ApiException if the request fails.
+   */
+  Map<String, Object> handle(
+      String httpMethod, String path, Map<String, String> parameters, Map<String, Object> body)
+      throws ApiException {
+    String verb = null;
+    int verbIndex = path.indexOf(':');
+    if (verbIndex >= 0) {
+      verb = path.substring(verbIndex + 1);
+      path = path.substring(0, verbIndex);
+    }
+    body = (body != null) ? body : Collections.emptyMap();
+
+    boolean isCollection = path.split("/").length % 2 == 1;
+    String collectionPath = isCollection ? path : path.substring(0, path.lastIndexOf('/'));
+    String method = httpMethod + (isCollection ? " collection" : " resource");
+
+    if (BIDDER_COLLECTION.matcher(collectionPath).matches()) {
+      if (!isCollection || verb != null || !httpMethod.equals("GET")) {
+        throw methodNotFound(httpMethod, path, verb);
+      }
+      return list(collectionPath, getBidderFinalizedDeals(collectionPath), parameters);
+    }
+
+    ResourceCollection collection = getCollection(collectionPath);
+    if (verb != null) {
+      return isCollection
+          ? handleCollectionVerb(collection, verb, body)
+          : handleResourceVerb(collection, path, verb, body);
+    }
+
+    switch (method) {
+      case "GET collection":
+        return list(collectionPath, collection.snapshot(), parameters);
+      case "POST collection":
+        return create(collection, body);
+      case "GET resource":
+        return collection.get(path);
+      case "PATCH resource":
+        return patch(collection, path, body, parameters.get("updateMask"));
+      case "DELETE resource":
+        if (!collection.kind.equals("users")) {
+          throw methodNotFound(httpMethod, path, verb);
+        }
+        collection.remove(path);
+        modificationCount.incrementAndGet();
+        return new GenericJson();
+      default:
+        throw methodNotFound(httpMethod, path, verb);
+    }
+  }
+
+  /** Returns the collection with the given path, generating it on first access. */
+  private ResourceCollection getCollection(String path) throws ApiException {
+    ResourceCollection collection = collections.get(path);
+    if (collection != null) {
+      return collection;
+    }
+
+    // Child collections can only be generated once their parent is known to exist.
+    String parent = path.substring(0, path.lastIndexOf('/'));
+    Map<String, Object> parentResource = null;
+    Matcher dealMatcher = DEAL_COLLECTION.matcher(path);
+    Matcher userMatcher = USER_COLLECTION.matcher(path);
+    if (dealMatcher.matches()) {
+      parentResource = getCollection(dealMatcher.group(1)).get(parent);
+    } else if (userMatcher.matches()) {
+      parentResource = getCollection(userMatcher.group(1)).get(parent);
+    } else if (!BUYER_COLLECTION.matcher(path).matches()) {
+      throw new ApiException(404, "NOT_FOUND", String.format("Unknown collection \"%s\".", path));
+    }
+
+    Map<String, Object> finalParentResource = parentResource;
+    return collections.computeIfAbsent(path, p -> generateCollection(p, finalParentResource));
+  }
+
+  private ResourceCollection generateCollection(String path, Map<String, Object> parentResource) {
+    ResourceCollection collection = new ResourceCollection(path);
+    String kind = collection.kind;
+    String parent = path.substring(0, path.lastIndexOf('/'));
+
+    switch (kind) {
+      case "proposals":
+        for (long id = 1; id <= collectionSize; id++) {
+          collection.put(toMap(SyntheticResources.newProposal(parent, id)));
+        }
+        break;
+      case "finalizedDeals":
+        for (long id = 1; id <= collectionSize; id++) {
+          collection.put(toMap(SyntheticResources.newFinalizedDeal(parent, id)));
+        }
+        break;
+      case "clients":
+        for (long id = 1; id <= collectionSize; id++) {
+          collection.put(toMap(SyntheticResources.newClient(parent, id)));
+        }
+        break;
+      case "auctionPackages":
+        for (long id = 1; id <= collectionSize; id++) {
+          collection.put(toMap(SyntheticResources.newAuctionPackage(parent, id)));
+        }
+        break;
+      case "publisherProfiles":
+        for (long id = 0; id < collectionSize; id++) {
+          collection.put(toMap(SyntheticResources.newPublisherProfile(parent, 100_000 + id)));
+        }
+        break;
+      case "deals":
+        {
+          // Deals share the revision of their proposal.
+          Object proposalRevision = parentResource.get("proposalRevision");
+          long proposalId = Long.parseLong(parent.substring(parent.lastIndexOf("/MP") + 3));
+          for (long i = 1; i <= 1 + proposalId % 3; i++) {
+            Map<String, Object> deal =
+                toMap(SyntheticResources.newDeal(parent, proposalId * 10 + i));
+            deal.put("proposalRevision", proposalRevision);
+            collection.put(deal);
+          }
+          break;
+        }
+      case "users":
+        {
+          long clientId = Long.parseLong(parent.substring(parent.lastIndexOf('/') + 1));
+          for (long i = 1; i <= 1 + clientId % 5; i++) {
+            collection.put(toMap(SyntheticResources.newClientUser(parent, clientId * 100 + i)));
+          }
+          break;
+        }
+      default:
+        throw new IllegalStateException("Unexpected collection " + path);
+    }
+    return collection;
+  }
+
+  /** Returns the finalized deals of the bidder's buyer account and its child seats. */
+  private List<Map<String, Object>> getBidderFinalizedDeals(String path) throws ApiException {
+    Matcher matcher = BIDDER_COLLECTION.matcher(path);
+    matcher.matches();
+    String bidderId = matcher.group(1);
+
+    List<Map<String, Object>> finalizedDeals = new ArrayList<>();
+    finalizedDeals.addAll(getCollection("buyers/" + bidderId + "/finalizedDeals").snapshot());
+    for (int i = 1; i <= CHILD_BUYERS_PER_BIDDER; i++) {
+      String buyerName = String.format("buyers/%s%02d", bidderId, i);
+      finalizedDeals.addAll(getCollection(buyerName + "/finalizedDeals").snapshot());
+    }
+    return finalizedDeals;
+  }
+
+  private Map<String, Object> list(
+      String path, List<Map<String, Object>> resources, Map<String, String> parameters)
+      throws ApiException {
+    int pageSize = parseInt(parameters.get("pageSize"), DEFAULT_PAGE_SIZE, "page size");
+    if (pageSize < 0) {
+      throw invalidArgument("The page size must not be negative.");
+    }
+    pageSize = (pageSize == 0) ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+    int offset = parseInt(parameters.get("pageToken"), 0, "page token");
+
+    List<Map<String, Object>> matches =
+        query(path, resources, parameters.get("filter"), parameters.get("orderBy"));
+    if (offset < 0) {
+      throw invalidArgument("Invalid page token.");
+    }
+    offset = Math.min(offset, matches.size());
+
+    GenericJson response = new GenericJson();
+    List<Map<String, Object>> page =
+        matches.subList(offset, Math.min(matches.size(), offset + pageSize));
+    if (!page.isEmpty()) {
+      response.set(path.substring(path.lastIndexOf('/') + 1), new ArrayList<>(page));
+    }
+    if (offset + pageSize < matches.size()) {
+      response.set("nextPageToken", Integer.toString(offset + pageSize));
+    }
+    return response;
+  }
+
+  /**
+   * Filters and sorts the resources of a collection. The result is cached until the next
+   * modification, so that paging through a filtered or sorted collection doesn't re-evaluate the
+   * query for every page.
+   */
+  private List<Map<String, Object>> query(
+      String path, List<Map<String, Object>> resources, String filter, String orderBy)
+      throws ApiException {
+    if (filter == null && orderBy == null) {
+      return resources;
+    }
+
+    String key = path + '\n' + filter + '\n' + orderBy;
+    long currentModificationCount = modificationCount.get();
+    QueryResult cached = queryCache.get(key);
+    if (cached != null && cached.modificationCount == currentModificationCount) {
+      return cached.resources;
+    }
+
+    List<Map<String, Object>> matches = new ArrayList<>();
+    try {
+      ListQuery.Filter parsedFilter = ListQuery.parseFilter(filter);
+      for (Map<String, Object> resource : resources) {
+        if (parsedFilter.matches(resource)) {
+          matches.add(resource);
+        }
+      }
+      Comparator<Map<String, Object>> comparator = ListQuery.parseOrderBy(orderBy);
+      if (comparator != null) {
+        matches.sort(comparator);
+      }
+    } catch (IllegalArgumentException ex) {
+      throw invalidArgument(ex.getMessage());
+    }
+
+    if (queryCache.size() >= MAX_CACHED_QUERIES) {
+      queryCache.clear();
+    }
+    queryCache.put(key, new QueryResult(currentModificationCount, matches));
+    return matches;
+  }
+
+  private Map<String, Object> create(ResourceCollection collection, Map<String, Object> body)
+      throws ApiException {
+    Map<String, Object> resource = deepCopy(body);
+
+    synchronized (collection) {
+      switch (collection.kind) {
+        case "clients":
+          if (body.get("displayName") == null || body.get("role") == null) {
+            throw invalidArgument("A client requires a display name and a role.");
+          }
+          for (Map<String, Object> client : collection.snapshot()) {
+            if (body.get("displayName").equals(client.get("displayName"))) {
+              throw new ApiException(
+                  409, "ALREADY_EXISTS", "A client with this display name already exists.");
+            }
+          }
+          resource.put("state", "ACTIVE");
+          break;
+        case "users":
+          if (body.get("email") == null) {
+            throw invalidArgument("A client user requires an email address.");
+          }
+          resource.put("state", "INVITED");
+          break;
+        default:
+          throw methodNotFound("POST", collection.path, null);
+      }
+
+      resource.put(
+          "name", String.format("%s/%d", collection.path, nextCreatedId.incrementAndGet()));
+      collection.put(resource);
+      modificationCount.incrementAndGet();
+      return resource;
+    }
+  }
+
+  private Map<String, Object> patch(
+      ResourceCollection collection, String name, Map<String, Object> body, String updateMask)
+      throws ApiException {
+    switch (collection.kind) {
+      case "proposals":
+        synchronized (collection) {
+          Map<String, Object> proposal = deepCopy(collection.get(name));
+          checkRevision(proposal, body);
+          applyUpdate(proposal, body, updateMask);
+          return bumpRevision(collection, proposal);
+        }
+      case "deals":
+        return updateDeals(collection, Collections.singletonList(body), updateMask).get(0);
+      case "clients":
+        synchronized (collection) {
+          Map<String, Object> client = deepCopy(collection.get(name));
+          applyUpdate(client, body, updateMask);
+          collection.put(client);
+          modificationCount.incrementAndGet();
+          return client;
+        }
+      default:
+        throw methodNotFound("PATCH", name, null);
+    }
+  }
+
+  private Map<String, Object> handleCollectionVerb(
+      ResourceCollection collection, String verb, Map<String, Object> body) throws ApiException {
+    String method = collection.kind + ":" + verb;
+
+    if (method.equals("proposals:sendRfp")) {
+      if (body.get("displayName") == null || body.get("publisherProfile") == null) {
+        throw invalidArgument("An RFP requires a display name and a publisher profile.");
+      }
+      String buyerName = collection.path.substring(0, collection.path.lastIndexOf('/'));
+      Map<String, Object> proposal = new LinkedHashMap<>();
+      proposal.put(
+          "name",
+          String.format("%s/proposals/MP%d", buyerName, nextCreatedId.incrementAndGet()));
+      proposal.put("displayName", body.get("displayName"));
+      proposal.put("updateTime", Instant.now().toString());
+      proposal.put("proposalRevision", "1");
+      proposal.put(
+          "dealType",
+          (body.get("programmaticGuaranteedTerms") != null)
+              ? "PROGRAMMATIC_GUARANTEED"
+              : "PREFERRED_DEAL");
+      proposal.put("state", "SELLER_REVIEW_REQUESTED");
+      proposal.put("isRenegotiating", false);
+      proposal.put("originatorRole", "BUYER");
+      proposal.put("publisherProfile", body.get("publisherProfile"));
+      proposal.put("buyer", buyerName);
+      proposal.put("client", body.get("client"));
+      proposal.put("buyerContacts", body.get("buyerContacts"));
+      proposal.put("lastUpdaterOrCommentorRole", "BUYER");
+      proposal.values().removeIf(value -> value == null);
+      collection.put(proposal);
+      modificationCount.incrementAndGet();
+      return proposal;
+    }
+
+    if (method.equals("deals:batchUpdate")) {
+      List<Map<String, Object>> deals = new ArrayList<>();
+      List<String> updateMasks = new ArrayList<>();
+      for (Object request : getList(body, "requests")) {
+        Object deal = (request instanceof Map) ? ((Map<?, ?>) request).get("deal") : null;
+        if (!(deal instanceof Map)) {
+          throw invalidArgument("Each request must include a deal.");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> dealFields = (Map<String, Object>) deal;
+        deals.add(dealFields);
+        Object updateMask = ((Map<?, ?>) request).get("updateMask");
+        updateMasks.add((updateMask != null) ? updateMask.toString() : null);
+      }
+      GenericJson response = new GenericJson();
+      response.set("deals", updateDeals(collection, deals, updateMasks));
+      return response;
+    }
+
+    throw methodNotFound("POST", collection.path, verb);
+  }
+
+  private Map<String, Object> handleResourceVerb(
+      ResourceCollection collection, String name, String verb, Map<String, Object> body)
+      throws ApiException {
+    String method = collection.kind + ":" + verb;
+
+    synchronized (collection) {
+      Map<String, Object> resource = deepCopy(collection.get(name));
+      String now = Instant.now().toString();
+
+      switch (method) {
+        case "proposals:accept":
+          checkRevision(resource, body);
+          if (!"BUYER_ACCEPTANCE_REQUESTED".equals(resource.get("state"))) {
+            throw failedPrecondition("The proposal is not awaiting acceptance by the buyer.");
+          }
+          resource.put("state", "FINALIZED");
+          resource.put("isRenegotiating", false);
+          return bumpRevision(collection, resource);
+        case "proposals:addNote":
+          {
+            Object note = body.get("note");
+            if (!(note instanceof Map) || ((Map<?, ?>) note).get("note") == null) {
+              throw invalidArgument("A note is required.");
+            }
+            Map<String, Object> addedNote = new LinkedHashMap<>();
+            addedNote.put("createTime", now);
+            addedNote.put("creatorRole", "BUYER");
+            addedNote.put("note", ((Map<?, ?>) note).get("note"));
+            List<Object> notes = new ArrayList<>(getList(resource, "notes"));
+            notes.add(addedNote);
+            resource.put("notes", notes);
+            return bumpRevision(collection, resource);
+          }
+        case "proposals:cancelNegotiation":
+          if (Boolean.TRUE.equals(resource.get("isRenegotiating"))) {
+            resource.put("isRenegotiating", false);
+          } else if (!"FINALIZED".equals(resource.get("state"))) {
+            resource.put("state", "TERMINATED");
+          } else {
+            throw failedPrecondition("The proposal is not being negotiated.");
+          }
+          return bumpRevision(collection, resource);
+        case "finalizedDeals:pause":
+          {
+            Map<String, Object> pausingInfo = new LinkedHashMap<>();
+            pausingInfo.put("pausingConsented", true);
+            pausingInfo.put("pauseRole", "BUYER");
+            if (body.get("reason") != null) {
+              pausingInfo.put("pauseReason", body.get("reason"));
+            }
+            resource.put("dealServingStatus", "PAUSED_BY_BUYER");
+            resource.put("dealPausingInfo", pausingInfo);
+            break;
+          }
+        case "finalizedDeals:resume":
+          if (!"PAUSED_BY_BUYER".equals(resource.get("dealServingStatus"))) {
+            throw failedPrecondition("Only deals paused by the buyer can be resumed.");
+          }
+          resource.put("dealServingStatus", "ACTIVE");
+          resource.remove("dealPausingInfo");
+          break;
+        case "finalizedDeals:addCreative":
+          if (body.get("creative") == null) {
+            throw invalidArgument("A creative is required.");
+          }
+          break;
+        case "finalizedDeals:setReadyToServe":
+          resource.put("readyToServe", true);
+          break;
+        case "clients:activate":
+        case "users:activate":
+          resource.put("state", "ACTIVE");
+          break;
+        case "clients:deactivate":
+        case "users:deactivate":
+          resource.put("state", "INACTIVE");
+          break;
+        case "auctionPackages:subscribe":
+        case "auctionPackages:unsubscribe":
+          resource.put("updateTime", now);
+          break;
+        case "auctionPackages:subscribeClients":
+        case "auctionPackages:unsubscribeClients":
+          {
+            List<Object> subscribedClients =
+                new ArrayList<>(getList(resource, "subscribedClients"));
+            for (Object client : getList(body, "clients")) {
+              subscribedClients.remove(client);
+              if (verb.equals("subscribeClients")) {
+                subscribedClients.add(client);
+              }
+            }
+            resource.put("subscribedClients", subscribedClients);
+            resource.put("updateTime", now);
+            break;
+          }
+        default:
+          throw methodNotFound("POST", name, verb);
+      }
+
+      collection.put(resource);
+      modificationCount.incrementAndGet();
+      return resource;
+    }
+  }
+
+  private List<Map<String, Object>> updateDeals(
+      ResourceCollection collection, List<Map<String, Object>> updates, String updateMask)
+      throws ApiException {
+    return updateDeals(collection, updates, Collections.nCopies(updates.size(), updateMask));
+  }
+
+  /**
+   * Applies updates to deals of the same proposal atomically, checking and then bumping the
+   * revision of the proposal.
+   */
+  private List<Map<String, Object>> updateDeals(
+      ResourceCollection collection, List<Map<String, Object>> updates, List<String> updateMasks)
+      throws ApiException {
+    String proposalName = collection.path.substring(0, collection.path.lastIndexOf('/'));
+    ResourceCollection proposals =
+        getCollection(proposalName.substring(0, proposalName.lastIndexOf('/')));
+
+    synchronized (proposals) {
+      synchronized (collection) {
+        Map<String, Object> proposal = deepCopy(proposals.get(proposalName));
+        List<Map<String, Object>> deals = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+          Map<String, Object> update = updates.get(i);
+          checkRevision(proposal, update);
+          Object name = update.get("name");
+          if (name == null) {
+            throw invalidArgument("Each deal must include its name.");
+          }
+          Map<String, Object> deal = deepCopy(collection.get(name.toString()));
+          applyUpdate(deal, update, updateMasks.get(i));
+          deals.add(deal);
+        }
+
+        bumpRevision(proposals, proposal);
+        for (Map<String, Object> deal : deals) {
+          deal.put("proposalRevision", proposal.get("proposalRevision"));
+          deal.put("updateTime", proposal.get("updateTime"));
+          collection.put(deal);
+        }
+        return deals;
+      }
+    }
+  }
+
+  /** Rejects the update if it specifies a revision other than the proposal's current one. */
+  private static void checkRevision(Map<String, Object> proposal, Map<String, Object> update)
+      throws ApiException {
+    Object expected = update.get("proposalRevision");
+    if (expected != null
+        && !expected.toString().equals(String.valueOf(proposal.get("proposalRevision")))) {
+      throw failedPrecondition(
+          String.format(
+              "Proposal revision %s is stale; the current revision is %s.",
+              expected, proposal.get("proposalRevision")));
+    }
+  }
+
+  /** Stores a modified proposal with an incremented revision and the current update time. */
+  private Map<String, Object> bumpRevision(
+      ResourceCollection proposals, Map<String, Object> proposal) {
+    long revision = Long.parseLong(String.valueOf(proposal.get("proposalRevision")));
+    proposal.put("proposalRevision", Long.toString(revision + 1));
+    proposal.put("updateTime", Instant.now().toString());
+    proposals.put(proposal);
+    modificationCount.incrementAndGet();
+    return proposal;
+  }
+
+  /**
+   * Copies the fields selected by the update mask from the update to the resource, or all fields
+   * of the update if there is no mask. Fields selected by the mask but absent from the update are
+   * cleared.
+   */
+  private static void applyUpdate(
+      Map<String, Object> resource, Map<String, Object> update, String updateMask)
+      throws ApiException {
+    if (updateMask == null || updateMask.isEmpty()) {
+      for (Map.Entry<String, Object> field : update.entrySet()) {
+        if (!field.getKey().equals("name")) {
+          resource.put(field.getKey(), deepCopy(field.getValue()));
+        }
+      }
+      return;
+    }
+
+    for (String path : updateMask.split(",")) {
+      String[] fieldNames = path.trim().split("\\.");
+      if (fieldNames[0].equals("name") || fieldNames[0].equals("proposalRevision")) {
+        throw invalidArgument(String.format("Field \"%s\" can't be updated.", path));
+      }
+
+      Object value = update;
+      for (String fieldName : fieldNames) {
+        value = (value instanceof Map) ? ((Map<?, ?>) value).get(fieldName) : null;
+      }
+
+      Map<String, Object> target = resource;
+      for (int i = 0; i < fieldNames.length - 1; i++) {
+        Object child = target.get(fieldNames[i]);
+        if (!(child instanceof Map)) {
+          child = new LinkedHashMap<String, Object>();
+          target.put(fieldNames[i], child);
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> childMap = (Map<String, Object>) child;
+        target = childMap;
+      }
+      if (value == null) {
+        target.remove(fieldNames[fieldNames.length - 1]);
+      } else {
+        target.put(fieldNames[fieldNames.length - 1], deepCopy(value));
+      }
+    }
+  }
+
+  /** Converts a generated resource to the JSON map returned by the API. */
+  private Map<String, Object> toMap(GenericJson resource) {
+    try {
+      return jsonFactory.fromString(jsonFactory.toString(resource), GenericJson.class);
+    } catch (IOException ex) {
+      throw new IllegalStateException("Unable to convert synthetic resource to JSON.", ex);
+    }
+  }
+
+  /**
+   * Copies a JSON value. Stored resources are never modified in place, so that responses can be
+   * serialized without holding a lock.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> T deepCopy(T value) {
+    if (value instanceof Map) {
+      Map<String, Object> copy = new LinkedHashMap<>();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        copy.put(entry.getKey().toString(), deepCopy(entry.getValue()));
+      }
+      return (T) copy;
+    }
+    if (value instanceof List) {
+      List<Object> copy = new ArrayList<>();
+      for (Object element : (List<?>) value) {
+        copy.add(deepCopy(element));
+      }
+      return (T) copy;
+    }
+    return value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> List<T> getList(Map<String, Object> map, String field) {
+    Object value = map.get(field);
+    return (value instanceof List) ? (List<T>) value : Collections.<T>emptyList();
+  }
+
+  private static int parseInt(String value, int defaultValue, String description)
+      throws ApiException {
+    if (value == null || value.isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException ex) {
+      throw invalidArgument(String.format("Invalid %s \"%s\".", description, value));
+    }
+  }
+
+  private static ApiException invalidArgument(String message) {
+    return new ApiException(400, "INVALID_ARGUMENT", message);
+  }
+
+  private static ApiException failedPrecondition(String message) {
+    return new ApiException(400, "FAILED_PRECONDITION", message);
+  }
+
+  private static ApiException methodNotFound(String httpMethod, String path, String verb) {
+    return new ApiException(
+        404,
+        "NOT_FOUND",
+        String.format(
+            "Method %s %s%s is not supported.",
+            httpMethod, path, (verb != null) ? ":" + verb : ""));
+  }
+
+  /** The resources of a collection in their natural order, keyed by name. */
+  private static class ResourceCollection {
+    final String path;
+    final String kind;
+    private final Map<String, Map<String, Object>> resources = new LinkedHashMap<>();
+
+    ResourceCollection(String path) {
+      this.path = path;
+      this.kind = path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    synchronized Map<String, Object> get(String name) throws ApiException {
+      Map<String, Object> resource = resources.get(name);
+      if (resource == null) {
+        throw new ApiException(404, "NOT_FOUND", String.format("%s not found.", name));
+      }
+      return resource;
+    }
+
+    synchronized void put(Map<String, Object> resource) {
+      resources.put(resource.get("name").toString(), resource);
+    }
+
+    synchronized void remove(String name) throws ApiException {
+      if (resources.remove(name) == null) {
+        throw new ApiException(404, "NOT_FOUND", String.format("%s not found.", name));
+      }
+    }
+
+    synchronized List<Map<String, Object>> snapshot() {
+      return new ArrayList<>(resources.values());
+    }
+  }
+
+  private static class QueryResult {
+    final long modificationCount;
+    final List<Map<String, Object>> resources;
+
+    QueryResult(long modificationCount, List<Map<String, Object>> resources) {
+      this.modificationCount = modificationCount;
+      this.resources = resources;
+    }
+  }
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.standin;
+
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * An HTTP server that stands in for the Marketplace API, so that the samples can be load tested
+ * without sending requests to production. Requests are served by a {@link StandInBackend}, and the
+ * server can inject latency, slow outliers and error responses to exercise the client's throttling
+ * and retry behavior.
+ *
+ * <p>Point the samples at a running server by setting the {@code marketplace.rootUrl} system
+ * property to the URL printed at startup and {@code marketplace.auth.anonymous} to {@code true}.
+ * The server also implements the {@code /batch} endpoint used by the BatchGet samples.
+ */
+public class StandInServer {
+
+  private final JsonFactory jsonFactory;
+  private final StandInBackend backend;
+  private int port;
+  private long latencyMillis;
+  private long latencyJitterMillis;
+  private double slowRequestRate;
+  private long slowRequestLatencyMillis = 1000;
+  private double errorRate;
+  private double throttleRate;
+  private HttpServer server;
+
+  /**
+   * Creates a server.
+   *
+   * @param jsonFactory The factory used to parse requests and serialize responses.
+   * @param collectionSize The number of resources generated for top-level collections.
+   */
+  public StandInServer(JsonFactory jsonFactory, int collectionSize) {
+    this.jsonFactory = jsonFactory;
+    this.backend = new StandInBackend(jsonFactory, collectionSize);
+  }
+
+  /** Sets the port to listen on, or 0 (the default) to pick an unused port. */
+  public StandInServer setPort(int port) {
+    this.port = port;
+    return this;
+  }
+
+  /** Sets the latency added to every request. */
+  public StandInServer setLatencyMillis(long latencyMillis) {
+    this.latencyMillis = latencyMillis;
+    return this;
+  }
+
+  /** Sets the upper bound of a random latency added to every request. */
+  public StandInServer setLatencyJitterMillis(long latencyJitterMillis) {
+    this.latencyJitterMillis = latencyJitterMillis;
+    return this;
+  }
+
+  /** Sets the fraction of requests that are delayed by the slow request latency. */
+  public StandInServer setSlowRequestRate(double slowRequestRate) {
+    this.slowRequestRate = slowRequestRate;
+    return this;
+  }
+
+  /** Sets the latency added to slow requests, which shapes the tail of the latency distribution. */
+  public StandInServer setSlowRequestLatencyMillis(long slowRequestLatencyMillis) {
+    this.slowRequestLatencyMillis = slowRequestLatencyMillis;
+    return this;
+  }
+
+  /** Sets the fraction of requests that fail with status 503 (Service Unavailable). */
+  public StandInServer setErrorRate(double errorRate) {
+    this.errorRate = errorRate;
+    return this;
+  }
+
+  /** Sets the fraction of requests that fail with status 429 (Too Many Requests). */
+  public StandInServer setThrottleRate(double throttleRate) {
+    this.throttleRate = throttleRate;
+    return this;
+  }
+
+  /** Starts the server on the loopback interface. */
+  public synchronized void start() throws IOException {
+    if (server != null) {
+      throw new IllegalStateException("The server has already been started.");
+    }
+
+    ExecutorService executor =
+        Executors.newCachedThreadPool(
+            runnable -> {
+              Thread thread = new Thread(runnable, "stand-in-server");
+              thread.setDaemon(true);
+              return thread;
+            });
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    server.createContext("/", this::handle);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  /** Returns the root URL of the running server, to be used in place of the API's root URL. */
+  public synchronized String getRootUrl() {
+    if (server == null) {
+      throw new IllegalStateException("The server hasn't been started.");
+    }
+    return String.format("http://localhost:%d/", server.getAddress().getPort());
+  }
+
+  /** Stops the server, aborting requests in progress. */
+  public synchronized void stop() {
+    if (server != null) {
+      server.stop(0);
+      ((ExecutorService) server.getExecutor()).shutdownNow();
+      server = null;
+    }
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      injectLatency();
+
+      String method = exchange.getRequestHeaders().getFirst("X-HTTP-Method-Override");
+      method = (method != null) ? method : exchange.getRequestMethod();
+      byte[] body = readBody(exchange);
+      URI uri = exchange.getRequestURI();
+
+      Response response =
+          uri.getRawPath().equals("/batch")
+              ? handleBatch(exchange.getRequestHeaders().getFirst("Content-Type"), body)
+              : dispatch(method, uri, body);
+
+      exchange.getResponseHeaders().set("Content-Type", response.contentType);
+      exchange.sendResponseHeaders(response.statusCode, response.body.length);
+      try (OutputStream responseBody = exchange.getResponseBody()) {
+        responseBody.write(response.body);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /** Handles a single API request, which may be one part of a batch request. */
+  private Response dispatch(String method, URI uri, byte[] body) {
+    try {
+      double fault = ThreadLocalRandom.current().nextDouble();
+      if (fault < throttleRate) {
+        throw new StandInBackend.ApiException(
+            429, "RESOURCE_EXHAUSTED", "Injected throttling error from the stand-in server.");
+      }
+      if (fault < throttleRate + errorRate) {
+        throw new StandInBackend.ApiException(
+            503, "UNAVAILABLE", "Injected error from the stand-in server.");
+      }
+
+      String path = uri.getRawPath();
+      if (!path.startsWith("/v1/")) {
+        throw new StandInBackend.ApiException(
+            404, "NOT_FOUND", String.format("Unknown path \"%s\".", path));
+      }
+      Map<String, String> parameters = parseQuery(uri.getRawQuery());
+      FieldSelector fieldSelector = FieldSelector.parse(parameters.get("fields"));
+      GenericJson requestBody =
+          (body.length == 0)
+              ? null
+              : jsonFactory
+                  .createJsonParser(new ByteArrayInputStream(body), StandardCharsets.UTF_8)
+                  .parse(GenericJson.class);
+
+      Object result =
+          backend.handle(
+              method, URLDecoder.decode(path.substring(4), "UTF-8"), parameters, requestBody);
+      if (fieldSelector != null) {
+        result = fieldSelector.apply(result);
+      }
+      return Response.json(200, jsonFactory.toByteArray(result));
+    } catch (StandInBackend.ApiException ex) {
+      return error(ex);
+    } catch (IllegalArgumentException | IOException ex) {
+      return error(new StandInBackend.ApiException(400, "INVALID_ARGUMENT", ex.getMessage()));
+    }
+  }
+
+  /**
+   * Handles a {@code multipart/mixed} batch request by dispatching each part separately, as the
+   * batch endpoint of Google APIs does.
+   */
+  private Response handleBatch(String contentType, byte[] body) throws IOException {
+    String boundary = getBoundary(contentType);
+    if (boundary == null) {
+      return error(
+          new StandInBackend.ApiException(
+              400, "INVALID_ARGUMENT", "A batch request must be multipart/mixed."));
+    }
+
+    // ISO-8859-1 maps every byte to a character, so part bodies can be converted back losslessly.
+    String content = new String(body, StandardCharsets.ISO_8859_1);
+    String responseBoundary = "batch_" + UUID.randomUUID();
+    StringBuilder responseContent = new StringBuilder();
+
+    String[] parts = content.split("--" + Pattern.quote(boundary));
+    for (int i = 1; i < parts.length && !parts[i].startsWith("--"); i++) {
+      String[] partSections = parts[i].trim().split("\r\n\r\n", 3);
+      if (partSections.length < 2) {
+        continue;
+      }
+      String contentId = getHeader(partSections[0], "Content-ID");
+      String requestLine = partSections[1].split("\r\n", 2)[0];
+      byte[] partBody =
+          (partSections.length == 3)
+              ? partSections[2].trim().getBytes(StandardCharsets.ISO_8859_1)
+              : new byte[0];
+
+      String[] requestLineParts = requestLine.split(" ");
+      Response partResponse =
+          dispatch(requestLineParts[0], URI.create(requestLineParts[1]), partBody);
+
+      responseContent
+          .append("--")
+          .append(responseBoundary)
+          .append("\r\nContent-Type: application/http\r\n");
+      if (contentId != null) {
+        responseContent
+            .append("Content-ID: <response-")
+            .append(contentId.replaceAll("[<>]", ""))
+            .append(">\r\n");
+      }
+      responseContent
+          .append("\r\nHTTP/1.1 ")
+          .append(partResponse.statusCode)
+          .append(partResponse.statusCode == 200 ? " OK" : " Error")
+          .append("\r\nContent-Type: ")
+          .append(partResponse.contentType)
+          .append("\r\nContent-Length: ")
+          .append(partResponse.body.length)
+          .append("\r\n\r\n")
+          .append(new String(partResponse.body, StandardCharsets.ISO_8859_1))
+          .append("\r\n");
+    }
+    responseContent.append("--").append(responseBoundary).append("--\r\n");
+
+    return new Response(
+        200,
+        "multipart/mixed; boundary=" + responseBoundary,
+        responseContent.toString().getBytes(StandardCharsets.ISO_8859_1));
+  }
+
+  private Response error(StandInBackend.ApiException ex) {
+    try {
+      return Response.json(ex.getStatusCode(), jsonFactory.toByteArray(ex.toJson()));
+    } catch (IOException ioException) {
+      throw new IllegalStateException("Unable to serialize error response.", ioException);
+    }
+  }
+
+  private void injectLatency() throws InterruptedIOException {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long delayMillis = latencyMillis;
+    if (latencyJitterMillis > 0) {
+      delayMillis += random.nextLong(latencyJitterMillis + 1);
+    }
+    if (random.nextDouble() < slowRequestRate) {
+      delayMillis += slowRequestLatencyMillis;
+    }
+    if (delayMillis <= 0) {
+      return;
+    }
+
+    try {
+      Thread.sleep(delayMillis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while injecting latency.");
+    }
+  }
+
+  private static byte[] readBody(HttpExchange exchange) throws IOException {
+    InputStream body = exchange.getRequestBody();
+    if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+      body = new GZIPInputStream(body);
+    }
+    try (InputStream in = body) {
+      return in.readAllBytes();
+    }
+  }
+
+  private static Map<String, String> parseQuery(String rawQuery) throws IOException {
+    Map<String, String> parameters = new LinkedHashMap<>();
+    if (rawQuery == null || rawQuery.isEmpty()) {
+      return parameters;
+    }
+    for (String parameter : rawQuery.split("&")) {
+      int separator = parameter.indexOf('=');
+      String name = (separator >= 0) ? parameter.substring(0, separator) : parameter;
+      String value = (separator >= 0) ? parameter.substring(separator + 1) : "";
+      parameters.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+    }
+    return parameters;
+  }
+
+  private static String getBoundary(String contentType) {
+    if (contentType == null || !contentType.toLowerCase().startsWith("multipart/mixed")) {
+      return null;
+    }
+    for (String parameter : contentType.split(";")) {
+      String trimmed = parameter.trim();
+      if (trimmed.toLowerCase().startsWith("boundary=")) {
+        return trimmed.substring("boundary=".length()).replace("\"", "");
+      }
+    }
+    return null;
+  }
+
+  private static String getHeader(String headers, String name) {
+    for (String header : headers.split("\r\n")) {
+      int separator = header.indexOf(':');
+      if (separator > 0 && header.substring(0, separator).trim().equalsIgnoreCase(name)) {
+        return header.substring(separator + 1).trim();
+      }
+    }
+    return null;
+  }
+
+  private static class Response {
+    final int statusCode;
+    final String contentType;
+    final byte[] body;
+
+    Response(int statusCode, String contentType, byte[] body) {
+      this.statusCode = statusCode;
+      this.contentType = contentType;
+      this.body = body;
+    }
+
+    static Response json(int statusCode, byte[] body) {
+      return new Response(statusCode, "application/json; charset=UTF-8", body);
+    }
+  }
+
+  public static void main(String[] args) {
+    ArgumentParser parser =
+        ArgumentParsers.newFor("StandInServer")
+            .build()
+            .defaultHelp(true)
+            .description(
+                ("Runs a local stand-in for the Marketplace API that serves synthetic data, so "
+                    + "that the samples can be load tested offline."));
+    parser
+        .addArgument("-p", "--port")
+        .help("The port to listen on.")
+        .type(Integer.class)
+        .setDefault(8080);
+    parser
+        .addArgument("-n", "--collection_size")
+        .help("The number of resources generated for each top-level collection.")
+        .type(Integer.class)
+        .setDefault(500);
+    parser
+        .addArgument("--latency_millis")
+        .help("The latency added to every request.")
+        .type(Long.class)
+        .setDefault(0L);
+    parser
+        .addArgument("--latency_jitter_millis")
+        .help("The upper bound of a random latency added to every request.")
+        .type(Long.class)
+        .setDefault(0L);
+    parser
+        .addArgument("--slow_request_rate")
+        .help("The fraction of requests delayed by the slow request latency.")
+        .type(Double.class)
+        .setDefault(0.0);
+    parser
+        .addArgument("--slow_request_latency_millis")
+        .help("The latency added to slow requests.")
+        .type(Long.class)
+        .setDefault(1000L);
+    parser
+        .addArgument("--error_rate")
+        .help("The fraction of requests that fail with status 503.")
+        .type(Double.class)
+        .setDefault(0.0);
+    parser
+        .addArgument("--throttle_rate")
+        .help("The fraction of requests that fail with status 429.")
+        .type(Double.class)
+        .setDefault(0.0);
+
+    Namespace parsedArgs = null;
+    try {
+      parsedArgs = parser.parseArgs(args);
+    } catch (ArgumentParserException ex) {
+      parser.handleError(ex);
+      System.exit(1);
+    }
+
+    StandInServer server =
+        new StandInServer(Utils.getJsonFactory(), parsedArgs.getInt("collection_size"))
+            .setPort(parsedArgs.getInt("port"))
+            .setLatencyMillis(parsedArgs.getLong("latency_millis"))
+            .setLatencyJitterMillis(parsedArgs.getLong("latency_jitter_millis"))
+            .setSlowRequestRate(parsedArgs.getDouble("slow_request_rate"))
+            .setSlowRequestLatencyMillis(parsedArgs.getLong("slow_request_latency_millis"))
+            .setErrorRate(parsedArgs.getDouble("error_rate"))
+            .setThrottleRate(parsedArgs.getDouble("throttle_rate"));
+
+    try {
+      server.start();
+    } catch (IOException ex) {
+      System.out.printf("Unable to start stand-in server:%n%s", ex);
+      System.exit(1);
+    }
+
+    System.out.printf("Stand-in server listening at %s%n", server.getRootUrl());
+    System.out.printf(
+        "Run samples with -Dmarketplace.rootUrl=%s -Dmarketplace.auth.anonymous=true%n",
+        server.getRootUrl());
+    try {
+      Thread.currentThread().join();
+    } catch (InterruptedException ex) {
+      server.stop();
+    }
+  }
+}
@@ -0,0 +1,481 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.standin;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.AdSize;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.AuctionPackage;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Client;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ClientUser;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Contact;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.CreativeRequirements;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.CriteriaTargeting;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.DeliveryControl;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.FrequencyCap;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.InventorySizeTargeting;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListDealsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListFinalizedDealsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListProposalsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.MarketplaceTargeting;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Money;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Note;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.PreferredDealTerms;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Price;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.PrivateAuctionTerms;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.PrivateData;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.PublisherProfile;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.PublisherProfileMobileApplication;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ProgrammaticGuaranteedTerms;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.RtbMetrics;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.TimeZone;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates realistic, deterministic Marketplace API resources for benchmarks and for the local
+ * stand-in server. Resources generated from the same ID always have the same content.
+ */
+public class SyntheticResources {
+
+  static final String[] DEAL_TYPES = {
+    "PROGRAMMATIC_GUARANTEED", "PREFERRED_DEAL", "PRIVATE_AUCTION"
+  };
+
+  static final String[] DEAL_SERVING_STATUSES = {
+    "ACTIVE", "ENDED", "PAUSED_BY_BUYER", "PAUSED_BY_SELLER"
+  };
+
+  static final String[] PROPOSAL_STATES = {
+    "BUYER_ACCEPTANCE_REQUESTED", "SELLER_REVIEW_REQUESTED", "FINALIZED", "TERMINATED"
+  };
+
+  static final String[] CLIENT_ROLES = {
+    "CLIENT_DEAL_VIEWER", "CLIENT_DEAL_NEGOTIATOR", "CLIENT_DEAL_APPROVER"
+  };
+
+  private static final String[] TIME_ZONES = {
+    "America/New_York", "America/Los_Angeles", "Europe/London", "Asia/Tokyo"
+  };
+
+  /** All generated timestamps are relative to this instant, so output is reproducible. */
+  private static final Instant EPOCH = Instant.parse("2026-01-01T00:00:00Z");
+
+  /**
+   * Generates a finalized deal.
+   *
+   * @param buyerName The name of the buyer that owns the deal, e.g. {@code buyers/12345}.
+   * @param dealId The ID of the deal, which also seeds its content.
+   * @return A populated {@code FinalizedDeal} instance.
+   */
+  public static FinalizedDeal newFinalizedDeal(String buyerName, long dealId) {
+    Random random = newRandom(dealId);
+    FinalizedDeal finalizedDeal = new FinalizedDeal();
+
+    finalizedDeal.setName(String.format("%s/finalizedDeals/%d", buyerName, dealId));
+    finalizedDeal.setDealServingStatus(
+        DEAL_SERVING_STATUSES[random.nextInt(DEAL_SERVING_STATUSES.length)]);
+    finalizedDeal.setReadyToServe(random.nextBoolean());
+
+    long bidRequests = random.nextInt(10_000_000);
+    long bids = (long) (bidRequests * random.nextDouble());
+    RtbMetrics rtbMetrics = new RtbMetrics();
+    rtbMetrics.setBidRequests7Days(bidRequests);
+    rtbMetrics.setBids7Days(bids);
+    rtbMetrics.setAdImpressions7Days((long) (bids * random.nextDouble()));
+    rtbMetrics.setBidRate7Days(bidRequests == 0 ? 0.0 : (double) bids / bidRequests);
+    rtbMetrics.setFilteredBidRate7Days(random.nextDouble() * 0.1);
+    rtbMetrics.setMustBidRateCurrentMonth(random.nextDouble());
+    finalizedDeal.setRtbMetrics(rtbMetrics);
+
+    String proposalName = String.format("%s/proposals/MP%d", buyerName, 10_000_000 + dealId);
+    finalizedDeal.setDeal(newDeal(proposalName, dealId, random));
+
+    return finalizedDeal;
+  }
+
+  /**
+   * Generates a page of finalized deals with consecutive IDs.
+   *
+   * @param buyerName The name of the buyer that owns the deals.
+   * @param firstDealId The ID of the first deal on the page.
+   * @param pageSize The number of deals on the page.
+   * @return A populated {@code ListFinalizedDealsResponse} instance.
+   */
+  public static ListFinalizedDealsResponse newListFinalizedDealsResponse(
+      String buyerName, long firstDealId, int pageSize) {
+    List<FinalizedDeal> finalizedDeals = new ArrayList<>(pageSize);
+    for (int i = 0; i < pageSize; i++) {
+      finalizedDeals.add(newFinalizedDeal(buyerName, firstDealId + i));
+    }
+
+    ListFinalizedDealsResponse response = new ListFinalizedDealsResponse();
+    response.setFinalizedDeals(finalizedDeals);
+    response.setNextPageToken(Long.toString(firstDealId + pageSize));
+    return response;
+  }
+
+  /**
+   * Generates a proposal.
+   *
+   * @param buyerName The name of the buyer that owns the proposal, e.g. {@code buyers/12345}.
+   * @param proposalId The numeric part of the proposal's ID, which also seeds its content.
+   * @return A populated {@code Proposal} instance.
+   */
+  public static Proposal newProposal(String buyerName, long proposalId) {
+    Random random = newRandom(proposalId);
+    Proposal proposal = new Proposal();
+    String dealType = DEAL_TYPES[random.nextInt(DEAL_TYPES.length)];
+    Instant updateTime = EPOCH.minus(random.nextInt(365 * 86_400), ChronoUnit.SECONDS);
+
+    proposal.setName(String.format("%s/proposals/MP%d", buyerName, proposalId));
+    proposal.setDisplayName(String.format("Synthetic proposal %d", proposalId));
+    proposal.setUpdateTime(updateTime.toString());
+    proposal.setProposalRevision((long) (1 + random.nextInt(20)));
+    proposal.setDealType(dealType);
+    proposal.setState(PROPOSAL_STATES[random.nextInt(PROPOSAL_STATES.length)]);
+    proposal.setIsRenegotiating(random.nextInt(10) == 0);
+    proposal.setOriginatorRole(random.nextBoolean() ? "BUYER" : "SELLER");
+    proposal.setPublisherProfile(
+        String.format("%s/publisherProfiles/PP%d", buyerName, 100_000 + random.nextInt(500)));
+    proposal.setBuyer(buyerName);
+    proposal.setBilledBuyer(buyerName);
+    proposal.setLastUpdaterOrCommentorRole(random.nextBoolean() ? "BUYER" : "SELLER");
+    proposal.setTermsAndConditions("Synthetic terms and conditions for offline testing.");
+    proposal.setPausingConsented(random.nextBoolean());
+
+    PrivateData buyerPrivateData = new PrivateData();
+    buyerPrivateData.setReferenceId(String.format("REF-%d", proposalId));
+    proposal.setBuyerPrivateData(buyerPrivateData);
+
+    List<Contact> sellerContacts = new ArrayList<>();
+    List<Contact> buyerContacts = new ArrayList<>();
+    for (int i = 0, count = 1 + random.nextInt(3); i < count; i++) {
+      sellerContacts.add(newContact("seller", proposalId, i));
+      buyerContacts.add(newContact("buyer", proposalId, i));
+    }
+    proposal.setSellerContacts(sellerContacts);
+    proposal.setBuyerContacts(buyerContacts);
+
+    List<Note> notes = new ArrayList<>();
+    for (int i = 0, count = random.nextInt(4); i < count; i++) {
+      Note note = new Note();
+      note.setCreateTime(updateTime.minus(count - i, ChronoUnit.HOURS).toString());
+      note.setCreatorRole(i % 2 == 0 ? "BUYER" : "SELLER");
+      note.setNote(String.format("Synthetic negotiation note %d for proposal %d.", i, proposalId));
+      notes.add(note);
+    }
+    proposal.setNotes(notes);
+
+    return proposal;
+  }
+
+  /**
+   * Generates a page of proposals with consecutive IDs.
+   *
+   * @param buyerName The name of the buyer that owns the proposals.
+   * @param firstProposalId The numeric ID of the first proposal on the page.
+   * @param pageSize The number of proposals on the page.
+   * @return A populated {@code ListProposalsResponse} instance.
+   */
+  public static ListProposalsResponse newListProposalsResponse(
+      String buyerName, long firstProposalId, int pageSize) {
+    List<Proposal> proposals = new ArrayList<>(pageSize);
+    for (int i = 0; i < pageSize; i++) {
+      proposals.add(newProposal(buyerName, firstProposalId + i));
+    }
+
+    ListProposalsResponse response = new ListProposalsResponse();
+    response.setProposals(proposals);
+    response.setNextPageToken(Long.toString(firstProposalId + pageSize));
+    return response;
+  }
+
+  /**
+   * Generates a page of deals with consecutive IDs.
+   *
+   * @param proposalName The name of the proposal that the deals belong to.
+   * @param firstDealId The ID of the first deal on the page.
+   * @param pageSize The number of deals on the page.
+   * @return A populated {@code ListDealsResponse} instance.
+   */
+  public static ListDealsResponse newListDealsResponse(
+      String proposalName, long firstDealId, int pageSize) {
+    List<Deal> deals = new ArrayList<>(pageSize);
+    for (int i = 0; i < pageSize; i++) {
+      deals.add(newDeal(proposalName, firstDealId + i));
+    }
+
+    ListDealsResponse response = new ListDealsResponse();
+    response.setDeals(deals);
+    response.setNextPageToken(Long.toString(firstDealId + pageSize));
+    return response;
+  }
+
+  /**
+   * Generates a client.
+   *
+   * @param buyerName The name of the buyer that owns the client, e.g. {@code buyers/12345}.
+   * @param clientId The ID of the client, which also seeds its content.
+   * @return A populated {@code Client} instance.
+   */
+  public static Client newClient(String buyerName, long clientId) {
+    Random random = newRandom(clientId);
+    Client client = new Client();
+
+    client.setName(String.format("%s/clients/%d", buyerName, clientId));
+    client.setDisplayName(String.format("Synthetic client %d", clientId));
+    client.setRole(CLIENT_ROLES[random.nextInt(CLIENT_ROLES.length)]);
+    client.setState(random.nextInt(5) == 0 ? "INACTIVE" : "ACTIVE");
+    client.setSellerVisible(random.nextBoolean());
+    if (random.nextBoolean()) {
+      client.setPartnerClientId(String.format("partner-%d", clientId));
+    }
+
+    return client;
+  }
+
+  /**
+   * Generates a client user.
+   *
+   * @param clientName The name of the client that the user belongs to.
+   * @param userId The ID of the user, which also seeds its content.
+   * @return A populated {@code ClientUser} instance.
+   */
+  public static ClientUser newClientUser(String clientName, long userId) {
+    Random random = newRandom(userId);
+    ClientUser clientUser = new ClientUser();
+
+    clientUser.setName(String.format("%s/users/%d", clientName, userId));
+    clientUser.setEmail(String.format("user-%d@example.com", userId));
+    clientUser.setState(random.nextInt(4) == 0 ? "INVITED" : "ACTIVE");
+
+    return clientUser;
+  }
+
+  /**
+   * Generates an auction package.
+   *
+   * @param buyerName The name of the buyer that the auction package is visible to.
+   * @param auctionPackageId The ID of the auction package, which also seeds its content.
+   * @return A populated {@code AuctionPackage} instance.
+   */
+  public static AuctionPackage newAuctionPackage(String buyerName, long auctionPackageId) {
+    Random random = newRandom(auctionPackageId);
+    AuctionPackage auctionPackage = new AuctionPackage();
+    Instant createTime = EPOCH.minus(random.nextInt(365), ChronoUnit.DAYS);
+
+    auctionPackage.setName(String.format("%s/auctionPackages/%d", buyerName, auctionPackageId));
+    auctionPackage.setCreator(String.format("buyers/%d", 100 + random.nextInt(900)));
+    auctionPackage.setDisplayName(String.format("Synthetic auction package %d", auctionPackageId));
+    auctionPackage.setDescription("Synthetic auction package generated for offline testing.");
+    auctionPackage.setCreateTime(createTime.toString());
+    auctionPackage.setUpdateTime(
+        createTime.plus(random.nextInt(86_400), ChronoUnit.SECONDS).toString());
+
+    List<String> subscribedClients = new ArrayList<>();
+    for (int i = 0, count = random.nextInt(3); i < count; i++) {
+      subscribedClients.add(String.format("%s/clients/%d", buyerName, 1 + random.nextInt(100)));
+    }
+    auctionPackage.setSubscribedClients(subscribedClients);
+
+    return auctionPackage;
+  }
+
+  /**
+   * Generates a publisher profile.
+   *
+   * @param buyerName The name of the buyer that the publisher profile is visible to.
+   * @param publisherProfileId The numeric part of the profile's ID, which also seeds its content.
+   * @return A populated {@code PublisherProfile} instance.
+   */
+  public static PublisherProfile newPublisherProfile(String buyerName, long publisherProfileId) {
+    Random random = newRandom(publisherProfileId);
+    PublisherProfile publisherProfile = new PublisherProfile();
+    String domain = String.format("publisher%d.example.com", publisherProfileId);
+
+    publisherProfile.setName(
+        String.format("%s/publisherProfiles/PP%d", buyerName, publisherProfileId));
+    publisherProfile.setDisplayName(String.format("Synthetic publisher %d", publisherProfileId));
+    publisherProfile.setPublisherCode(String.format("pub-%d", publisherProfileId));
+    publisherProfile.setDomains(Arrays.asList(domain, "www." + domain));
+    publisherProfile.setLogoUrl(String.format("https://%s/logo.png", domain));
+    publisherProfile.setMediaKitUrl(String.format("https://%s/media-kit", domain));
+    publisherProfile.setSamplePageUrl(String.format("https://%s/sample", domain));
+    publisherProfile.setDirectDealsContact(String.format("direct-deals@%s", domain));
+    publisherProfile.setProgrammaticDealsContact(String.format("programmatic@%s", domain));
+    publisherProfile.setOverview("Synthetic publisher generated for offline testing.");
+    publisherProfile.setPitchStatement("Premium synthetic inventory.");
+    publisherProfile.setAudienceDescription("Synthetic audience.");
+    publisherProfile.setTopHeadlines(Arrays.asList("Synthetic headline 1", "Synthetic headline 2"));
+    publisherProfile.setIsParent(random.nextInt(10) == 0);
+
+    List<PublisherProfileMobileApplication> mobileApps = new ArrayList<>();
+    for (int i = 0, count = random.nextInt(3); i < count; i++) {
+      PublisherProfileMobileApplication mobileApp = new PublisherProfileMobileApplication();
+      mobileApp.setName(String.format("Synthetic app %d", i));
+      mobileApp.setAppStore(random.nextBoolean() ? "GOOGLE_PLAY" : "APPLE_ITUNES");
+      mobileApp.setExternalAppId(
+          String.format("com.example.publisher%d.app%d", publisherProfileId, i));
+      mobileApps.add(mobileApp);
+    }
+    publisherProfile.setMobileApps(mobileApps);
+
+    return publisherProfile;
+  }
+
+  /** Generates a contact for the given side of a proposal. */
+  private static Contact newContact(String side, long proposalId, int index) {
+    Contact contact = new Contact();
+    contact.setEmail(String.format("%s-%d-%d@example.com", side, proposalId, index));
+    contact.setDisplayName(String.format("Synthetic %s contact %d", side, index));
+    return contact;
+  }
+
+  /**
+   * Generates a deal belonging to a proposal.
+   *
+   * @param proposalName The name of the proposal that the deal belongs to.
+   * @param dealId The ID of the deal, which also seeds its content.
+   * @return A populated {@code Deal} instance.
+   */
+  public static Deal newDeal(String proposalName, long dealId) {
+    return newDeal(proposalName, dealId, newRandom(dealId));
+  }
+
+  /** Generates a deal belonging to the given proposal, using the given source of randomness. */
+  static Deal newDeal(String proposalName, long dealId, Random random) {
+    Deal deal = new Deal();
+    String buyerName = proposalName.substring(0, proposalName.indexOf("/proposals/"));
+    String dealType = DEAL_TYPES[random.nextInt(DEAL_TYPES.length)];
+    Instant createTime = EPOCH.minus(random.nextInt(365), ChronoUnit.DAYS);
+    Instant flightStartTime = createTime.plus(random.nextInt(30), ChronoUnit.DAYS);
+
+    deal.setName(String.format("%s/deals/%d", proposalName, dealId));
+    deal.setCreateTime(createTime.toString());
+    deal.setUpdateTime(createTime.plus(random.nextInt(86_400), ChronoUnit.SECONDS).toString());
+    deal.setProposalRevision((long) (1 + random.nextInt(20)));
+    deal.setDisplayName(String.format("Synthetic %s deal %d", dealType.toLowerCase(), dealId));
+    deal.setBuyer(buyerName);
+    deal.setBilledBuyer(buyerName);
+    deal.setPublisherProfile(
+        String.format("%s/publisherProfiles/PP%d", buyerName, 100_000 + random.nextInt(500)));
+    deal.setDealType(dealType);
+    deal.setDescription("Synthetic deal generated for offline testing of the Marketplace samples.");
+    deal.setFlightStartTime(flightStartTime.toString());
+    deal.setFlightEndTime(
+        flightStartTime.plus(30 + random.nextInt(180), ChronoUnit.DAYS).toString());
+    deal.setEstimatedGrossSpend(newMoney(random, 100_000));
+
+    TimeZone sellerTimeZone = new TimeZone();
+    sellerTimeZone.setId(TIME_ZONES[random.nextInt(TIME_ZONES.length)]);
+    deal.setSellerTimeZone(sellerTimeZone);
+
+    deal.setTargeting(newTargeting(random));
+
+    CreativeRequirements creativeRequirements = new CreativeRequirements();
+    creativeRequirements.setCreativePreApprovalPolicy("SELLER_PRE_APPROVAL_NOT_REQUIRED");
+    creativeRequirements.setCreativeSafeFrameCompatibility("COMPATIBLE");
+    creativeRequirements.setProgrammaticCreativeSource("ADVERTISER");
+    deal.setCreativeRequirements(creativeRequirements);
+
+    FrequencyCap frequencyCap = new FrequencyCap();
+    frequencyCap.setMaxImpressions((long) (1 + random.nextInt(10)));
+    frequencyCap.setTimeUnitsCount(1);
+    frequencyCap.setTimeUnitType("DAY");
+    List<FrequencyCap> frequencyCaps = new ArrayList<>();
+    frequencyCaps.add(frequencyCap);
+    DeliveryControl deliveryControl = new DeliveryControl();
+    deliveryControl.setDeliveryRateType("EVENLY");
+    deliveryControl.setFrequencyCap(frequencyCaps);
+    deal.setDeliveryControl(deliveryControl);
+
+    Price price = new Price();
+    price.setType("CPM");
+    price.setAmount(newMoney(random, 20));
+    switch (dealType) {
+      case "PROGRAMMATIC_GUARANTEED":
+        ProgrammaticGuaranteedTerms programmaticGuaranteedTerms =
+            new ProgrammaticGuaranteedTerms();
+        programmaticGuaranteedTerms.setFixedPrice(price);
+        programmaticGuaranteedTerms.setGuaranteedLooks((long) random.nextInt(1_000_000));
+        programmaticGuaranteedTerms.setReservationType("STANDARD");
+        deal.setProgrammaticGuaranteedTerms(programmaticGuaranteedTerms);
+        break;
+      case "PREFERRED_DEAL":
+        PreferredDealTerms preferredDealTerms = new PreferredDealTerms();
+        preferredDealTerms.setFixedPrice(price);
+        deal.setPreferredDealTerms(preferredDealTerms);
+        break;
+      default:
+        PrivateAuctionTerms privateAuctionTerms = new PrivateAuctionTerms();
+        privateAuctionTerms.setFloorPrice(price);
+        privateAuctionTerms.setOpenAuctionAllowed(random.nextBoolean());
+        deal.setPrivateAuctionTerms(privateAuctionTerms);
+    }
+
+    return deal;
+  }
+
+  /** Generates targeting with a realistic number of criteria and inventory sizes. */
+  private static MarketplaceTargeting newTargeting(Random random) {
+    List<Long> geoCriteriaIds = new ArrayList<>();
+    for (int i = 0, count = 1 + random.nextInt(20); i < count; i++) {
+      geoCriteriaIds.add(2_000_000L + random.nextInt(900_000));
+    }
+    CriteriaTargeting geoTargeting = new CriteriaTargeting();
+    geoTargeting.setTargetedCriteriaIds(geoCriteriaIds);
+
+    List<AdSize> adSizes = new ArrayList<>();
+    for (int i = 0, count = 1 + random.nextInt(4); i < count; i++) {
+      AdSize adSize = new AdSize();
+      adSize.setWidth((long) (100 * (1 + random.nextInt(8))));
+      adSize.setHeight((long) (50 * (1 + random.nextInt(12))));
+      adSize.setType("PIXEL");
+      adSizes.add(adSize);
+    }
+    InventorySizeTargeting inventorySizeTargeting = new InventorySizeTargeting();
+    inventorySizeTargeting.setTargetedInventorySizes(adSizes);
+
+    MarketplaceTargeting targeting = new MarketplaceTargeting();
+    targeting.setGeoTargeting(geoTargeting);
+    targeting.setInventorySizeTargeting(inventorySizeTargeting);
+    return targeting;
+  }
+
+  /**
+   * Returns a source of randomness seeded by the given ID. The ID is scrambled first, because
+   * {@code Random} instances seeded with nearby values return nearly identical first values.
+   */
+  private static Random newRandom(long id) {
+    return new Random(id * 0x9E3779B97F4A7C15L);
+  }
+
+  /** Generates a USD amount of at most {@code maxUnits} units. */
+  private static Money newMoney(Random random, int maxUnits) {
+    Money money = new Money();
+    money.setCurrencyCode("USD");
+    money.setUnits((long) random.nextInt(maxUnits));
+    money.setNanos(random.nextInt(100) * 10_000_000);
+    return money;
+  }
+}
@@ -0,0 +1,835 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.store;
+
+import com.google.api.client.json.GenericJson;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.DealPausingInfo;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Money;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.RtbMetrics;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A compact binary snapshot of a list of finalized deals, which is read through a memory-mapped
+ * buffer so that opening it takes constant time and almost no heap, however many deals it holds.
+ *
+ * <p>Frequently read fields are stored in fixed-width records, with strings replaced by indexes
+ * into a pool that holds repeated strings, such as deal types, once. Record {@code i} starts at a
+ * computed offset, and a field is only decoded when it's read, e.g.
+ *
+ * <pre>{@code
+ * try (DealSnapshot snapshot = DealSnapshot.open(file)) {
+ *   for (int i = 0; i < snapshot.size(); i++) {
+ *     String dealType = snapshot.get(i).getString("deal.dealType");
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>The remaining fields, such as the deal's targeting and terms, are stored as JSON and only
+ * parsed by {@link Entry#toFinalizedDeal}. Lists of deals are stored as finalized deals that only
+ * have their {@code deal} field set.
+ *
+ * <p>All numbers are big-endian, and offsets are absolute unless stated otherwise. The file starts
+ * with a 32-byte header:
+ *
+ * <pre>
+ *  0  int    magic, "ABDS"
+ *  4  short  version, currently 1
+ *  6  short  column count
+ *  8  int    record count
+ * 12  int    record size
+ * 16  int    offset of the records
+ * 20  int    string count
+ * 24  int    offset of the string pool
+ * 28  int    offset of the JSON section
+ * </pre>
+ *
+ * <p>The header is followed by the column table, which has a type byte, a short name length and
+ * the UTF-8 name for each column. Each record holds a 64-bit presence mask with a bit per column,
+ * the values of the columns in table order, and the offset and length of its JSON relative to the
+ * JSON section. Strings take 4 bytes, longs and doubles 8, and booleans 1. The string pool holds
+ * {@code count + 1} int offsets relative to the end of that table, followed by the UTF-8 bytes of
+ * the strings.
+ *
+ * <p>Readers look columns up by name and ignore columns they don't know, so columns can be added
+ * without changing the version. The version changes when the layout does, and readers reject
+ * versions newer than their own.
+ */
+public final class DealSnapshot implements Closeable {
+
+  private static final int MAGIC = 0x41424453;
+  private static final short VERSION = 1;
+  private static final int HEADER_SIZE = 32;
+  private static final int JSON_REFERENCE_SIZE = 8;
+
+  private enum Type {
+    STRING(4),
+    LONG(8),
+    DOUBLE(8),
+    BOOLEAN(1);
+
+    final int width;
+
+    Type(int width) {
+      this.width = width;
+    }
+  }
+
+  private static final List<Column> COLUMNS =
+      Arrays.asList(
+          column("name", Type.STRING, FinalizedDeal::getName, FinalizedDeal::setName),
+          column(
+              "dealServingStatus",
+              Type.STRING,
+              FinalizedDeal::getDealServingStatus,
+              FinalizedDeal::setDealServingStatus),
+          column(
+              "readyToServe",
+              Type.BOOLEAN,
+              FinalizedDeal::getReadyToServe,
+              FinalizedDeal::setReadyToServe),
+          pausingColumn(
+              "pausingConsented",
+              Type.BOOLEAN,
+              DealPausingInfo::getPausingConsented,
+              DealPausingInfo::setPausingConsented),
+          pausingColumn(
+              "pauseRole",
+              Type.STRING,
+              DealPausingInfo::getPauseRole,
+              DealPausingInfo::setPauseRole),
+          pausingColumn(
+              "pauseReason",
+              Type.STRING,
+              DealPausingInfo::getPauseReason,
+              DealPausingInfo::setPauseReason),
+          metricsColumn(
+              "bidRequests7Days",
+              Type.LONG,
+              RtbMetrics::getBidRequests7Days,
+              RtbMetrics::setBidRequests7Days),
+          metricsColumn("bids7Days", Type.LONG, RtbMetrics::getBids7Days, RtbMetrics::setBids7Days),
+          metricsColumn(
+              "adImpressions7Days",
+              Type.LONG,
+              RtbMetrics::getAdImpressions7Days,
+              RtbMetrics::setAdImpressions7Days),
+          metricsColumn(
+              "bidRate7Days",
+              Type.DOUBLE,
+              RtbMetrics::getBidRate7Days,
+              RtbMetrics::setBidRate7Days),
+          metricsColumn(
+              "filteredBidRate7Days",
+              Type.DOUBLE,
+              RtbMetrics::getFilteredBidRate7Days,
+              RtbMetrics::setFilteredBidRate7Days),
+          metricsColumn(
+              "mustBidRateCurrentMonth",
+              Type.DOUBLE,
+              RtbMetrics::getMustBidRateCurrentMonth,
+              RtbMetrics::setMustBidRateCurrentMonth),
+          dealColumn("name", Type.STRING, Deal::getName, Deal::setName),
+          dealColumn("createTime", Type.STRING, Deal::getCreateTime, Deal::setCreateTime),
+          dealColumn("updateTime", Type.STRING, Deal::getUpdateTime, Deal::setUpdateTime),
+          dealColumn(
+              "proposalRevision", Type.LONG, Deal::getProposalRevision, Deal::setProposalRevision),
+          dealColumn("displayName", Type.STRING, Deal::getDisplayName, Deal::setDisplayName),
+          dealColumn("billedBuyer", Type.STRING, Deal::getBilledBuyer, Deal::setBilledBuyer),
+          dealColumn(
+              "publisherProfile",
+              Type.STRING,
+              Deal::getPublisherProfile,
+              Deal::setPublisherProfile),
+          dealColumn("dealType", Type.STRING, Deal::getDealType, Deal::setDealType),
+          spendColumn("currencyCode", Type.STRING, Money::getCurrencyCode, Money::setCurrencyCode),
+          spendColumn("units", Type.LONG, Money::getUnits, Money::setUnits),
+          spendColumn(
+              "nanos",
+              Type.LONG,
+              money -> (money.getNanos() != null) ? money.getNanos().longValue() : null,
+              (money, nanos) -> money.setNanos(((Long) nanos).intValue())),
+          dealColumn("description", Type.STRING, Deal::getDescription, Deal::setDescription),
+          dealColumn(
+              "flightStartTime", Type.STRING, Deal::getFlightStartTime, Deal::setFlightStartTime),
+          dealColumn("flightEndTime", Type.STRING, Deal::getFlightEndTime, Deal::setFlightEndTime),
+          dealColumn("buyer", Type.STRING, Deal::getBuyer, Deal::setBuyer),
+          dealColumn("client", Type.STRING, Deal::getClient, Deal::setClient));
+
+  private static final Map<String, Column> COLUMNS_BY_PATH = new HashMap<>();
+
+  static {
+    // Records have a presence bit per column.
+    if (COLUMNS.size() > 64) {
+      throw new AssertionError("Too many snapshot columns.");
+    }
+    for (Column column : COLUMNS) {
+      COLUMNS_BY_PATH.put(column.path, column);
+    }
+  }
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int recordCount;
+  private final int recordSize;
+  private final int recordsOffset;
+  private final int stringCount;
+  private final int stringsOffset;
+  private final int jsonOffset;
+  private final Column[] fileColumns;
+  private final Map<String, Integer> columnIndexes = new HashMap<>();
+  private final int[] valueOffsets;
+  private final int jsonReferenceOffset;
+
+  private DealSnapshot(FileChannel channel) throws IOException {
+    this.channel = channel;
+    long fileSize = channel.size();
+    if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+      throw new IOException("Not a finalized deal snapshot.");
+    }
+    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+    if (buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a finalized deal snapshot.");
+    }
+    if (buffer.getShort(4) > VERSION) {
+      throw new IOException(
+          String.format("Unsupported finalized deal snapshot version %d.", buffer.getShort(4)));
+    }
+    int columnCount = buffer.getShort(6);
+    recordCount = buffer.getInt(8);
+    recordSize = buffer.getInt(12);
+    recordsOffset = buffer.getInt(16);
+    stringCount = buffer.getInt(20);
+    stringsOffset = buffer.getInt(24);
+    jsonOffset = buffer.getInt(28);
+
+    // Reads the column table, and computes where each column's value is within a record.
+    fileColumns = new Column[columnCount];
+    valueOffsets = new int[columnCount];
+    ByteBuffer table = buffer.duplicate();
+    table.position(HEADER_SIZE);
+    int valueOffset = 8;
+    for (int i = 0; i < columnCount; i++) {
+      int typeIndex = table.get();
+      if (typeIndex < 0 || typeIndex >= Type.values().length) {
+        throw new IOException("Corrupt finalized deal snapshot.");
+      }
+      Type type = Type.values()[typeIndex];
+      byte[] name = new byte[table.getShort()];
+      table.get(name);
+      String path = new String(name, StandardCharsets.UTF_8);
+      Column column = COLUMNS_BY_PATH.get(path);
+      if (column != null && column.type == type) {
+        fileColumns[i] = column;
+        columnIndexes.put(path, i);
+      }
+      valueOffsets[i] = valueOffset;
+      valueOffset += type.width;
+    }
+    jsonReferenceOffset = valueOffset;
+
+    if (valueOffset + JSON_REFERENCE_SIZE != recordSize
+        || (long) recordsOffset + (long) recordCount * recordSize > fileSize) {
+      throw new IOException("Corrupt finalized deal snapshot.");
+    }
+  }
+
+  /**
+   * Opens a snapshot written by {@link Writer}.
+   *
+   * @throws IOException if the file can't be read, isn't a snapshot, or has a newer version.
+   */
+  public static DealSnapshot open(Path file) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      return new DealSnapshot(channel);
+    } catch (IOException | RuntimeException ex) {
+      channel.close();
+      throw ex;
+    }
+  }
+
+  /**
+   * Returns a writer that creates a snapshot at the given path when it's finished.
+   *
+   * @param file The path of the snapshot, which is replaced if it exists.
+   * @throws IOException if the writer's temporary files couldn't be created.
+   */
+  public static Writer newWriter(Path file) throws IOException {
+    return new Writer(file);
+  }
+
+  /** Returns the number of finalized deals in the snapshot. */
+  public int size() {
+    return recordCount;
+  }
+
+  /**
+   * Returns a view of the finalized deal at the given index, which decodes fields when they're
+   * read.
+   *
+   * @throws IndexOutOfBoundsException if the index is negative or not less than {@link #size()}.
+   */
+  public Entry get(int index) {
+    if (index < 0 || index >= recordCount) {
+      throw new IndexOutOfBoundsException(
+          String.format("Index %d is out of range for %d finalized deals.", index, recordCount));
+    }
+    return new Entry(recordsOffset + index * recordSize);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private String readString(int index) {
+    if (index < 0 || index >= stringCount) {
+      throw new IllegalStateException("Corrupt finalized deal snapshot.");
+    }
+    int dataOffset = stringsOffset + 4 * (stringCount + 1);
+    int start = buffer.getInt(stringsOffset + 4 * index);
+    int end = buffer.getInt(stringsOffset + 4 * (index + 1));
+    return new String(readBytes(dataOffset + start, end - start), StandardCharsets.UTF_8);
+  }
+
+  private byte[] readBytes(int offset, int length) {
+    byte[] bytes = new byte[length];
+    ByteBuffer view = buffer.duplicate();
+    view.position(offset);
+    view.get(bytes);
+    return bytes;
+  }
+
+  /** A finalized deal in the snapshot, whose fields are decoded when they're read. */
+  public final class Entry {
+
+    private final int offset;
+
+    private Entry(int offset) {
+      this.offset = offset;
+    }
+
+    /**
+     * Returns the value of a string field, e.g. {@code deal.dealType}, or {@code null} if it's
+     * unset.
+     *
+     * @throws IllegalArgumentException if the field isn't a string field stored in snapshots.
+     */
+    public String getString(String path) {
+      return (String) getValue(path, Type.STRING);
+    }
+
+    /**
+     * Returns the value of an integer field, e.g. {@code rtbMetrics.bids7Days}, or {@code null}
+     * if it's unset.
+     *
+     * @throws IllegalArgumentException if the field isn't an integer field stored in snapshots.
+     */
+    public Long getLong(String path) {
+      return (Long) getValue(path, Type.LONG);
+    }
+
+    /**
+     * Returns the value of a floating-point field, e.g. {@code rtbMetrics.bidRate7Days}, or
+     * {@code null} if it's unset.
+     *
+     * @throws IllegalArgumentException if the field isn't a floating-point field stored in
+     *     snapshots.
+     */
+    public Double getDouble(String path) {
+      return (Double) getValue(path, Type.DOUBLE);
+    }
+
+    /**
+     * Returns the value of a boolean field, e.g. {@code readyToServe}, or {@code null} if it's
+     * unset.
+     *
+     * @throws IllegalArgumentException if the field isn't a boolean field stored in snapshots.
+     */
+    public Boolean getBoolean(String path) {
+      return (Boolean) getValue(path, Type.BOOLEAN);
+    }
+
+    /** Decodes the whole finalized deal, including the fields that are stored as JSON. */
+    public FinalizedDeal toFinalizedDeal() throws IOException {
+      int jsonStart = buffer.getInt(offset + jsonReferenceOffset);
+      int jsonLength = buffer.getInt(offset + jsonReferenceOffset + 4);
+      FinalizedDeal finalizedDeal =
+          (jsonLength > 0)
+              ? Utils.getJsonFactory()
+                  .fromString(
+                      new String(
+                          readBytes(jsonOffset + jsonStart, jsonLength), StandardCharsets.UTF_8),
+                      FinalizedDeal.class)
+              : new FinalizedDeal();
+      for (int i = 0; i < fileColumns.length; i++) {
+        if (fileColumns[i] != null && isPresent(i)) {
+          fileColumns[i].setter.accept(finalizedDeal, readValue(i));
+        }
+      }
+      return finalizedDeal;
+    }
+
+    private Object getValue(String path, Type type) {
+      Column column = COLUMNS_BY_PATH.get(path);
+      if (column == null || column.type != type) {
+        throw new IllegalArgumentException(
+            String.format("Snapshots don't store \"%s\" as a %s field.", path, type));
+      }
+      // Snapshots written before a column was added don't have it.
+      Integer index = columnIndexes.get(path);
+      return (index != null && isPresent(index)) ? readValue(index) : null;
+    }
+
+    private boolean isPresent(int column) {
+      return (buffer.getLong(offset) & (1L << column)) != 0;
+    }
+
+    private Object readValue(int column) {
+      int valueOffset = offset + valueOffsets[column];
+      switch (fileColumns[column].type) {
+        case STRING:
+          return readString(buffer.getInt(valueOffset));
+        case LONG:
+          return buffer.getLong(valueOffset);
+        case DOUBLE:
+          return buffer.getDouble(valueOffset);
+        case BOOLEAN:
+          return buffer.get(valueOffset) != 0;
+        default:
+          throw new AssertionError();
+      }
+    }
+  }
+
+  /**
+   * Writes a snapshot. Deals are encoded as they're added and written to temporary files next to
+   * the snapshot, so the writer's memory doesn't grow with the number of deals. Writers that are
+   * closed without being finished delete their temporary files.
+   */
+  public static final class Writer implements Closeable {
+
+    /** Maximum number of distinct strings looked up when deduplicating the string pool. */
+    private static final int STRING_CACHE_SIZE = 64 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final long recordsOffset;
+    private final byte[] columnTable;
+    private final int recordSize;
+    private final List<Path> temporaryFiles = new ArrayList<>();
+    private final Path temporaryFile;
+    private final Path stringOffsetsFile;
+    private final Path stringsFile;
+    private final Path jsonFile;
+    private FileChannel channel;
+    private DataOutputStream recordsOut;
+    private DataOutputStream stringOffsetsOut;
+    private OutputStream stringsOut;
+    private OutputStream jsonOut;
+    private long stringsSize;
+    private long jsonSize;
+    private int stringCount;
+    private int recordCount;
+
+    /** Recently interned strings, so that frequent values such as deal types are stored once. */
+    private final Map<String, Integer> stringIndexes =
+        new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > STRING_CACHE_SIZE;
+          }
+        };
+
+    private Writer(Path file) throws IOException {
+      this.file = file;
+      ByteArrayOutputStream columnTableBytes = new ByteArrayOutputStream();
+      DataOutputStream columnTableOut = new DataOutputStream(columnTableBytes);
+      int recordSize = 8 + JSON_REFERENCE_SIZE;
+      for (Column column : COLUMNS) {
+        byte[] name = column.path.getBytes(StandardCharsets.UTF_8);
+        columnTableOut.writeByte(column.type.ordinal());
+        columnTableOut.writeShort(name.length);
+        columnTableOut.write(name);
+        recordSize += column.type.width;
+      }
+      columnTable = columnTableBytes.toByteArray();
+      this.recordSize = recordSize;
+      recordsOffset = HEADER_SIZE + columnTable.length;
+
+      Path directory = file.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      boolean opened = false;
+      try {
+        temporaryFile = createTemporaryFile(directory, ".tmp");
+        stringOffsetsFile = createTemporaryFile(directory, ".offsets.tmp");
+        stringsFile = createTemporaryFile(directory, ".strings.tmp");
+        jsonFile = createTemporaryFile(directory, ".json.tmp");
+
+        // Records are written in place; the sections that follow them are appended by finish().
+        channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE);
+        channel.position(recordsOffset);
+        recordsOut =
+            new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        stringOffsetsOut =
+            new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(stringOffsetsFile), BUFFER_SIZE));
+        stringsOut = new BufferedOutputStream(Files.newOutputStream(stringsFile), BUFFER_SIZE);
+        jsonOut = new BufferedOutputStream(Files.newOutputStream(jsonFile), BUFFER_SIZE);
+        opened = true;
+      } finally {
+        if (!opened) {
+          close();
+        }
+      }
+    }
+
+    /**
+     * Adds a finalized deal to the snapshot.
+     *
+     * @throws UncheckedIOException if the deal couldn't be written to a temporary file.
+     */
+    public Writer add(FinalizedDeal finalizedDeal) {
+      try {
+        encode(finalizedDeal);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+      recordCount++;
+      return this;
+    }
+
+    /** Adds a deal to the snapshot, for snapshots of the deals of proposals. */
+    public Writer add(Deal deal) {
+      return add(new FinalizedDeal().setDeal(deal));
+    }
+
+    /** Returns the number of finalized deals added so far. */
+    public int size() {
+      return recordCount;
+    }
+
+    private void encode(FinalizedDeal finalizedDeal) throws IOException {
+      long presence = 0;
+      for (int i = 0; i < COLUMNS.size(); i++) {
+        if (COLUMNS.get(i).getter.apply(finalizedDeal) != null) {
+          presence |= 1L << i;
+        }
+      }
+      recordsOut.writeLong(presence);
+
+      for (Column column : COLUMNS) {
+        Object value = column.getter.apply(finalizedDeal);
+        switch (column.type) {
+          case STRING:
+            recordsOut.writeInt((value != null) ? intern((String) value) : -1);
+            break;
+          case LONG:
+            recordsOut.writeLong((value != null) ? (Long) value : 0);
+            break;
+          case DOUBLE:
+            recordsOut.writeDouble((value != null) ? (Double) value : 0);
+            break;
+          case BOOLEAN:
+            recordsOut.writeByte((value != null && (Boolean) value) ? 1 : 0);
+            break;
+          default:
+            throw new AssertionError();
+        }
+      }
+
+      byte[] remainder = encodeRemainder(finalizedDeal);
+      if (jsonSize + remainder.length > Integer.MAX_VALUE) {
+        throw new IOException("The finalized deal snapshot would exceed 2 GiB.");
+      }
+      recordsOut.writeInt((int) jsonSize);
+      recordsOut.writeInt(remainder.length);
+      jsonOut.write(remainder);
+      jsonSize += remainder.length;
+    }
+
+    /**
+     * Writes the snapshot to its file. The file is replaced atomically, so readers see either the
+     * previous snapshot or the complete new one. The writer's temporary files are deleted whether
+     * or not this succeeds.
+     *
+     * @throws IOException if the snapshot couldn't be written, or would exceed 2 GiB.
+     */
+    public void finish() throws IOException {
+      try {
+        stringOffsetsOut.writeInt((int) stringsSize);
+        recordsOut.flush();
+        stringOffsetsOut.close();
+        stringsOut.close();
+        jsonOut.close();
+
+        long stringsOffset = recordsOffset + (long) recordCount * recordSize;
+        long jsonOffset = stringsOffset + 4L * (stringCount + 1) + stringsSize;
+        if (jsonOffset + jsonSize > Integer.MAX_VALUE) {
+          throw new IOException("The finalized deal snapshot would exceed 2 GiB.");
+        }
+
+        // Appends the remaining sections after the records, which end at the channel's position.
+        OutputStream out = Channels.newOutputStream(channel);
+        Files.copy(stringOffsetsFile, out);
+        Files.copy(stringsFile, out);
+        Files.copy(jsonFile, out);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + columnTable.length);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short) COLUMNS.size());
+        header.putInt(recordCount);
+        header.putInt(recordSize);
+        header.putInt((int) recordsOffset);
+        header.putInt(stringCount);
+        header.putInt((int) stringsOffset);
+        header.putInt((int) jsonOffset);
+        header.put(columnTable);
+        header.flip();
+        while (header.hasRemaining()) {
+          channel.write(header, header.position());
+        }
+        channel.force(true);
+        channel.close();
+
+        Files.move(
+            temporaryFile,
+            file,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        close();
+      }
+    }
+
+    /** Discards the snapshot unless it was finished, deleting the writer's temporary files. */
+    @Override
+    public void close() throws IOException {
+      IOException failure = null;
+      for (Closeable stream :
+          new Closeable[] {recordsOut, channel, stringOffsetsOut, stringsOut, jsonOut}) {
+        try {
+          if (stream != null) {
+            stream.close();
+          }
+        } catch (IOException ex) {
+          failure = (failure == null) ? ex : failure;
+        }
+      }
+      for (Path path : temporaryFiles) {
+        try {
+          Files.deleteIfExists(path);
+        } catch (IOException ex) {
+          failure = (failure == null) ? ex : failure;
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+
+    private Path createTemporaryFile(Path directory, String suffix) throws IOException {
+      Path path = Files.createTempFile(directory, file.getFileName().toString(), suffix);
+      temporaryFiles.add(path);
+      return path;
+    }
+
+    private int intern(String value) throws IOException {
+      Integer index = stringIndexes.get(value);
+      if (index == null) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        index = stringCount++;
+        stringIndexes.put(value, index);
+        stringOffsetsOut.writeInt((int) stringsSize);
+        stringsOut.write(bytes);
+        stringsSize += bytes.length;
+      }
+      return index;
+    }
+
+    /** Encodes the fields that aren't stored in columns as JSON, or returns nothing if none. */
+    private static byte[] encodeRemainder(FinalizedDeal finalizedDeal) throws IOException {
+      FinalizedDeal remainder = finalizedDeal.clone();
+      remainder
+          .setName(null)
+          .setDealServingStatus(null)
+          .setReadyToServe(null)
+          .setDealPausingInfo(null)
+          .setRtbMetrics(null);
+      Deal deal = remainder.getDeal();
+      if (deal != null) {
+        deal.setName(null)
+            .setCreateTime(null)
+            .setUpdateTime(null)
+            .setProposalRevision(null)
+            .setDisplayName(null)
+            .setBilledBuyer(null)
+            .setPublisherProfile(null)
+            .setDealType(null)
+            .setEstimatedGrossSpend(null)
+            .setDescription(null)
+            .setFlightStartTime(null)
+            .setFlightEndTime(null)
+            .setBuyer(null)
+            .setClient(null);
+        remainder.setDeal(isEmpty(deal) ? null : deal);
+      }
+      return isEmpty(remainder) ? new byte[0] : Utils.getJsonFactory().toByteArray(remainder);
+    }
+
+    private static boolean isEmpty(GenericJson message) {
+      for (Object value : message.values()) {
+        if (value != null) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /** A field of finalized deals that's stored in the fixed-width records. */
+  private static final class Column {
+
+    final String path;
+    final Type type;
+    final Function<FinalizedDeal, Object> getter;
+    final BiConsumer<FinalizedDeal, Object> setter;
+
+    Column(
+        String path,
+        Type type,
+        Function<FinalizedDeal, Object> getter,
+        BiConsumer<FinalizedDeal, Object> setter) {
+      this.path = path;
+      this.type = type;
+      this.getter = getter;
+      this.setter = setter;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> Column column(
+      String path,
+      Type type,
+      Function<FinalizedDeal, V> getter,
+      BiConsumer<FinalizedDeal, V> setter) {
+    return new Column(
+        path,
+        type,
+        getter::apply,
+        (finalizedDeal, value) -> setter.accept(finalizedDeal, (V) value));
+  }
+
+  private static <V> Column pausingColumn(
+      String field,
+      Type type,
+      Function<DealPausingInfo, V> getter,
+      BiConsumer<DealPausingInfo, V> setter) {
+    return column(
+        "dealPausingInfo." + field,
+        type,
+        finalizedDeal ->
+            (finalizedDeal.getDealPausingInfo() != null)
+                ? getter.apply(finalizedDeal.getDealPausingInfo())
+                : null,
+        (finalizedDeal, value) -> {
+          if (finalizedDeal.getDealPausingInfo() == null) {
+            finalizedDeal.setDealPausingInfo(new DealPausingInfo());
+          }
+          setter.accept(finalizedDeal.getDealPausingInfo(), value);
+        });
+  }
+
+  private static <V> Column metricsColumn(
+      String field, Type type, Function<RtbMetrics, V> getter, BiConsumer<RtbMetrics, V> setter) {
+    return column(
+        "rtbMetrics." + field,
+        type,
+        finalizedDeal ->
+            (finalizedDeal.getRtbMetrics() != null)
+                ? getter.apply(finalizedDeal.getRtbMetrics())
+                : null,
+        (finalizedDeal, value) -> {
+          if (finalizedDeal.getRtbMetrics() == null) {
+            finalizedDeal.setRtbMetrics(new RtbMetrics());
+          }
+          setter.accept(finalizedDeal.getRtbMetrics(), value);
+        });
+  }
+
+  private static <V> Column dealColumn(
+      String field, Type type, Function<Deal, V> getter, BiConsumer<Deal, V> setter) {
+    return column(
+        "deal." + field,
+        type,
+        finalizedDeal ->
+            (finalizedDeal.getDeal() != null) ? getter.apply(finalizedDeal.getDeal()) : null,
+        (finalizedDeal, value) -> {
+          if (finalizedDeal.getDeal() == null) {
+            finalizedDeal.setDeal(new Deal());
+          }
+          setter.accept(finalizedDeal.getDeal(), value);
+        });
+  }
+
+  private static <V> Column spendColumn(
+      String field, Type type, Function<Money, V> getter, BiConsumer<Money, V> setter) {
+    return dealColumn(
+        "estimatedGrossSpend." + field,
+        type,
+        deal ->
+            (deal.getEstimatedGrossSpend() != null)
+                ? getter.apply(deal.getEstimatedGrossSpend())
+                : null,
+        (deal, value) -> {
+          if (deal.getEstimatedGrossSpend() == null) {
+            deal.setEstimatedGrossSpend(new Money());
+          }
+          setter.accept(deal.getEstimatedGrossSpend(), value);
+        });
+  }
+}
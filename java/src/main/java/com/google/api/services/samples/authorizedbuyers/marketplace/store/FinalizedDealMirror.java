@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.store;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
+import com.google.api.services.samples.authorizedbuyers.marketplace.filter.FieldSchema;
+import com.google.api.services.samples.authorizedbuyers.marketplace.filter.OrderBy;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A local mirror of the finalized deals of an account, indexed for the lookups that would
+ * otherwise each list every finalized deal from the API.
+ *
+ * <p>Deals are held in a {@link ResourceStore} keyed by name, with secondary indexes on their
+ * serving status, publisher profile, deal type, and flight start and end times. The mirror is
+ * kept up to date by the {@link IncrementalSync} returned by {@link #newSync}, and lookups are
+ * answered from memory, e.g.
+ *
+ * <pre>{@code
+ * try (FinalizedDealMirror mirror = FinalizedDealMirror.open(directory)) {
+ *   List<FinalizedDeal> pausedDeals =
+ *       mirror.query().setServingStatus("PAUSED_BY_BUYER").setDealType("PREFERRED_DEAL").list();
+ * }
+ * }</pre>
+ */
+public class FinalizedDealMirror implements Closeable {
+
+  private final Path directory;
+  private final ResourceStore<FinalizedDeal> store;
+  private final SecondaryIndex<FinalizedDeal, String> servingStatusIndex =
+      new SecondaryIndex<>(FinalizedDeal::getName, FinalizedDeal::getDealServingStatus);
+  private final SecondaryIndex<FinalizedDeal, String> publisherProfileIndex =
+      new SecondaryIndex<>(FinalizedDeal::getName, dealField(Deal::getPublisherProfile));
+  private final SecondaryIndex<FinalizedDeal, String> dealTypeIndex =
+      new SecondaryIndex<>(FinalizedDeal::getName, dealField(Deal::getDealType));
+  private final SecondaryIndex<FinalizedDeal, Instant> flightStartIndex =
+      new SecondaryIndex<>(FinalizedDeal::getName, dealTime(Deal::getFlightStartTime));
+  private final SecondaryIndex<FinalizedDeal, Instant> flightEndIndex =
+      new SecondaryIndex<>(FinalizedDeal::getName, dealTime(Deal::getFlightEndTime));
+
+  private FinalizedDealMirror(Path directory, ResourceStore<FinalizedDeal> store) {
+    this.directory = directory;
+    this.store = store;
+    store.addListener(servingStatusIndex);
+    store.addListener(publisherProfileIndex);
+    store.addListener(dealTypeIndex);
+    store.addListener(flightStartIndex);
+    store.addListener(flightEndIndex);
+  }
+
+  /**
+   * Opens the mirror kept in the given directory, creating it if it doesn't exist yet.
+   *
+   * @param directory The directory of the account, e.g. from {@code Utils.getStoreDirectory}.
+   * @throws IOException if the mirror couldn't be read.
+   */
+  public static FinalizedDealMirror open(Path directory) throws IOException {
+    return new FinalizedDealMirror(
+        directory,
+        ResourceStore.open(
+            directory.resolve("finalizedDeals.ndjson"),
+            FinalizedDeal.class,
+            FinalizedDeal::getName));
+  }
+
+  /**
+   * Returns a sync that upserts the finalized deals changed since the previous sync into the
+   * mirror, updating its indexes.
+   *
+   * @param scans Creates the paginators that list finalized deals with a given filter.
+   */
+  public IncrementalSync<FinalizedDeal> newSync(IncrementalSync.ScanFactory<FinalizedDeal> scans) {
+    return new IncrementalSync<>(
+        store,
+        directory.resolve("finalizedDeals-sync.json"),
+        "deal.updateTime",
+        dealField(Deal::getUpdateTime),
+        scans);
+  }
+
+  /** Returns the finalized deal with the given name, or {@code null} if it isn't mirrored. */
+  public FinalizedDeal get(String name) {
+    return store.get(name);
+  }
+
+  /** Returns the number of mirrored finalized deals. */
+  public int size() {
+    return store.size();
+  }
+
+  /** Returns a query that matches every mirrored finalized deal until it's narrowed down. */
+  public Query query() {
+    return new Query();
+  }
+
+  @Override
+  public void close() throws IOException {
+    store.close();
+  }
+
+  private static <K> Function<FinalizedDeal, K> dealField(Function<Deal, K> field) {
+    return finalizedDeal ->
+        (finalizedDeal.getDeal() != null) ? field.apply(finalizedDeal.getDeal()) : null;
+  }
+
+  /** Returns a function that parses a timestamp field of the deal, returning null if invalid. */
+  private static Function<FinalizedDeal, Instant> dealTime(Function<Deal, String> field) {
+    Function<FinalizedDeal, String> value = dealField(field);
+    return finalizedDeal -> {
+      String timestamp = value.apply(finalizedDeal);
+      try {
+        return (timestamp != null) ? Instant.parse(timestamp) : null;
+      } catch (DateTimeParseException ex) {
+        return null;
+      }
+    };
+  }
+
+  /** Finds mirrored finalized deals that match all of the given criteria using the indexes. */
+  public class Query {
+
+    private final List<Set<String>> candidates = new ArrayList<>();
+    private Predicate<FinalizedDeal> filter = finalizedDeal -> true;
+    private OrderBy<FinalizedDeal> orderBy = FieldSchema.FINALIZED_DEAL.compileOrderBy(null);
+
+    private Query() {}
+
+    /** Matches the finalized deal with the given name. */
+    public Query setName(String name) {
+      candidates.add(
+          (store.get(name) != null) ? Collections.singleton(name) : Collections.emptySet());
+      return this;
+    }
+
+    /** Matches finalized deals with the given serving status, e.g. {@code ACTIVE}. */
+    public Query setServingStatus(String servingStatus) {
+      candidates.add(servingStatusIndex.get(servingStatus));
+      return this;
+    }
+
+    /** Matches deals of a publisher profile, e.g. {@code buyers/1/publisherProfiles/2}. */
+    public Query setPublisherProfile(String publisherProfile) {
+      candidates.add(publisherProfileIndex.get(publisherProfile));
+      return this;
+    }
+
+    /** Matches deals of the given type, e.g. {@code PROGRAMMATIC_GUARANTEED}. */
+    public Query setDealType(String dealType) {
+      candidates.add(dealTypeIndex.get(dealType));
+      return this;
+    }
+
+    /**
+     * Matches deals whose flight starts before the end of the given window and ends at or after
+     * its start. Deals without flight times don't match.
+     *
+     * @param from The start of the window, or {@code null} for no start.
+     * @param to The end of the window, or {@code null} for no end.
+     */
+    public Query setFlightWindow(Instant from, Instant to) {
+      candidates.add(flightStartIndex.getRange(null, to));
+      candidates.add(flightEndIndex.getRange(from, null));
+      return this;
+    }
+
+    /**
+     * Matches finalized deals that pass a filter in the syntax of the {@code filter} parameter of
+     * {@code finalizedDeals.list}. The filter is evaluated against the deals that match the other
+     * criteria.
+     *
+     * @throws IllegalArgumentException if the filter is invalid.
+     */
+    public Query setFilter(String filter) {
+      this.filter = FieldSchema.FINALIZED_DEAL.compileFilter(filter);
+      return this;
+    }
+
+    /**
+     * Sorts the matching finalized deals as specified in the syntax of the {@code orderBy}
+     * parameter of {@code finalizedDeals.list}, e.g. {@code deal.flightStartTime desc}.
+     *
+     * @throws IllegalArgumentException if the order is invalid.
+     */
+    public Query setOrderBy(String orderBy) {
+      this.orderBy = FieldSchema.FINALIZED_DEAL.compileOrderBy(orderBy);
+      return this;
+    }
+
+    /** Returns the matching finalized deals. */
+    public List<FinalizedDeal> list() {
+      Set<String> names;
+      if (candidates.isEmpty()) {
+        names = new LinkedHashSet<>();
+        for (FinalizedDeal finalizedDeal : store.getAll()) {
+          names.add(finalizedDeal.getName());
+        }
+      } else {
+        // Intersecting from the smallest set keeps the intersection cheap.
+        List<Set<String>> sets = new ArrayList<>(candidates);
+        sets.sort(Comparator.comparingInt(Set::size));
+        names = new LinkedHashSet<>(sets.get(0));
+        for (Set<String> set : sets.subList(1, sets.size())) {
+          names.retainAll(set);
+        }
+      }
+
+      List<FinalizedDeal> finalizedDeals = new ArrayList<>(names.size());
+      for (String name : names) {
+        FinalizedDeal finalizedDeal = store.get(name);
+        if (filter.test(finalizedDeal)) {
+          finalizedDeals.add(finalizedDeal);
+        }
+      }
+      return orderBy.sort(finalizedDeals);
+    }
+  }
+}
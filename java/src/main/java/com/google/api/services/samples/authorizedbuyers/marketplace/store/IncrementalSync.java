@@ -0,0 +1,282 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.store;
+
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.util.Key;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.Paginator;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.Paginator.ResourceIterator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keeps a {@link ResourceStore} up to date by listing only the resources that changed since the
+ * previous sync, rather than every resource.
+ *
+ * <p>Each sync records a watermark next to the store: the latest update time of the resources it
+ * listed. The next sync filters on resources updated after the watermark, so that polling costs a
+ * request or two while nothing changes. The watermark is taken from the update times assigned by
+ * the API rather than from the local clock, so the local clock's skew doesn't matter. The API may
+ * still make a change visible after changes with a later update time, so each sync also lists the
+ * resources updated within an overlap window before the watermark; these are usually already
+ * stored, and are counted as unchanged. The first sync, or a sync with a different filter, lists
+ * every resource.
+ *
+ * <p>Deleted resources aren't detected, since they are no longer listed, and neither are changes
+ * that don't touch the update time, such as a finalized deal that stopped serving when its flight
+ * ended. {@link #setFullSyncInterval(Duration)} periodically lists every resource to pick them up.
+ *
+ * @param <T> The type of the synced resources.
+ */
+public class IncrementalSync<T extends GenericJson> {
+
+  /** Creates the paginator of a list request with the given filter. */
+  public interface ScanFactory<T> {
+
+    /**
+     * Returns a paginator over the resources that match the given filter.
+     *
+     * @param filter The value of the {@code filter} parameter, or {@code null}.
+     */
+    Paginator<?, T> newScan(String filter);
+  }
+
+  private final ResourceStore<T> store;
+  private final Path stateFile;
+  private final String updateTimeField;
+  private final Function<? super T, String> updateTime;
+  private final ScanFactory<T> scans;
+  private String filter;
+  private Duration overlap = Duration.ofMinutes(5);
+  private boolean fullSync;
+  private Duration fullSyncInterval;
+
+  private boolean lastSyncFull;
+  private long listedCount;
+  private long insertedCount;
+  private long updatedCount;
+  private Instant watermark;
+
+  /**
+   * Creates a sync.
+   *
+   * @param store The store that listed resources are upserted into.
+   * @param stateFile The file that the watermark is saved to.
+   * @param updateTimeField The field path of the update time in filters, e.g. {@code updateTime}.
+   * @param updateTime Returns the update time of a resource.
+   * @param scans Creates the paginators that list resources.
+   */
+  public IncrementalSync(
+      ResourceStore<T> store,
+      Path stateFile,
+      String updateTimeField,
+      Function<? super T, String> updateTime,
+      ScanFactory<T> scans) {
+    this.store = store;
+    this.stateFile = stateFile.toAbsolutePath();
+    this.updateTimeField = updateTimeField;
+    this.updateTime = updateTime;
+    this.scans = scans;
+  }
+
+  /** Sets a filter that limits which resources are synced, or {@code null} to sync all. */
+  public IncrementalSync<T> setFilter(String filter) {
+    this.filter = (filter == null || filter.trim().isEmpty()) ? null : filter;
+    return this;
+  }
+
+  /** Sets how far before the watermark each sync starts listing, 5 minutes by default. */
+  public IncrementalSync<T> setOverlap(Duration overlap) {
+    if (overlap.isNegative()) {
+      throw new IllegalArgumentException("overlap must not be negative.");
+    }
+    this.overlap = overlap;
+    return this;
+  }
+
+  /** Sets whether to list every resource, ignoring the watermark. */
+  public IncrementalSync<T> setFullSync(boolean fullSync) {
+    this.fullSync = fullSync;
+    return this;
+  }
+
+  /**
+   * Sets the time after which a sync lists every resource again, or {@code null} to only do so
+   * when asked to with {@link #setFullSync(boolean)}.
+   */
+  public IncrementalSync<T> setFullSyncInterval(Duration fullSyncInterval) {
+    this.fullSyncInterval = fullSyncInterval;
+    return this;
+  }
+
+  /** Returns whether the last sync listed every resource. */
+  public boolean isLastSyncFull() {
+    return lastSyncFull;
+  }
+
+  /** Returns the number of resources listed by the last sync. */
+  public long getListedCount() {
+    return listedCount;
+  }
+
+  /** Returns the number of resources that the last sync added to the store. */
+  public long getInsertedCount() {
+    return insertedCount;
+  }
+
+  /** Returns the number of stored resources that the last sync replaced with a newer version. */
+  public long getUpdatedCount() {
+    return updatedCount;
+  }
+
+  /** Returns the watermark after the last sync, or {@code null} if no resource was synced yet. */
+  public Instant getWatermark() {
+    return watermark;
+  }
+
+  /**
+   * Lists the resources that changed since the previous sync, and upserts them into the store.
+   * The store is flushed before the new watermark is saved, so that an interrupted sync is
+   * repeated rather than skipped.
+   *
+   * @param onChange Called with each resource that was inserted or updated.
+   * @throws IOException if the resources couldn't be listed, or the store or watermark written.
+   */
+  public void run(Consumer<? super T> onChange) throws IOException {
+    SyncState state = loadState();
+    Instant now = Instant.now();
+    lastSyncFull =
+        fullSync
+            || state == null
+            || state.watermark == null
+            || !Objects.equals(filter, state.filter)
+            || isFullSyncDue(state, now);
+    watermark = lastSyncFull ? null : Instant.parse(state.watermark);
+    listedCount = 0;
+    insertedCount = 0;
+    updatedCount = 0;
+
+    String scanFilter = filter;
+    if (!lastSyncFull) {
+      String changedFilter =
+          String.format("%s > \"%s\"", updateTimeField, watermark.minus(overlap));
+      scanFilter =
+          (filter == null) ? changedFilter : String.format("(%s) AND %s", filter, changedFilter);
+    }
+
+    try (ResourceIterator<T> resources = scans.newScan(scanFilter).iterator()) {
+      while (resources.hasNext()) {
+        T resource = resources.next();
+        listedCount++;
+        switch (store.upsert(resource)) {
+          case INSERTED:
+            insertedCount++;
+            onChange.accept(resource);
+            break;
+          case UPDATED:
+            updatedCount++;
+            onChange.accept(resource);
+            break;
+          default:
+            break;
+        }
+
+        Instant resourceUpdateTime = parseInstant(updateTime.apply(resource));
+        if (resourceUpdateTime != null
+            && (watermark == null || resourceUpdateTime.isAfter(watermark))) {
+          watermark = resourceUpdateTime;
+        }
+      }
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+
+    store.flush();
+    if (watermark != null) {
+      SyncState newState = new SyncState();
+      newState.filter = filter;
+      newState.watermark = watermark.toString();
+      newState.lastFullSyncTime = lastSyncFull ? now.toString() : state.lastFullSyncTime;
+      saveState(newState);
+    }
+  }
+
+  /** Returns whether the full sync interval has passed since the last full sync. */
+  private boolean isFullSyncDue(SyncState state, Instant now) {
+    if (fullSyncInterval == null) {
+      return false;
+    }
+    return state.lastFullSyncTime == null
+        || !now.isBefore(Instant.parse(state.lastFullSyncTime).plus(fullSyncInterval));
+  }
+
+  private static Instant parseInstant(String value) {
+    try {
+      return (value != null) ? Instant.parse(value) : null;
+    } catch (DateTimeParseException ex) {
+      return null;
+    }
+  }
+
+  private SyncState loadState() throws IOException {
+    if (!Files.exists(stateFile)) {
+      return null;
+    }
+    try (InputStream in = Files.newInputStream(stateFile)) {
+      return Utils.getJsonFactory().fromInputStream(in, StandardCharsets.UTF_8, SyncState.class);
+    }
+  }
+
+  /** Atomically replaces the state file. */
+  private void saveState(SyncState state) throws IOException {
+    Path temporaryFile =
+        Files.createTempFile(stateFile.getParent(), stateFile.getFileName().toString(), ".tmp");
+    try {
+      Files.write(
+          temporaryFile,
+          Utils.getJsonFactory().toPrettyString(state).getBytes(StandardCharsets.UTF_8));
+      Files.move(
+          temporaryFile,
+          stateFile,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+  }
+
+  /** The watermark of a store, its filter, and when all resources were last listed. */
+  public static class SyncState extends GenericJson {
+
+    @Key private String filter;
+    @Key private String watermark;
+    @Key private String lastFullSyncTime;
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.store;
+
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A local store of API resources such as proposals, which persists them to a file so that they
+ * don't need to be listed again from the API.
+ *
+ * <p>Resources are keyed by their name and held in memory. Each change is appended to the file as
+ * a line of JSON, which is forced to disk by {@link #flush()}, and the file is replayed when the
+ * store is opened, so that the last version of each resource wins. A line that was cut short by a
+ * crash is ignored. Once the file holds more outdated versions than current ones, {@link #flush()}
+ * atomically rewrites it with only the current versions.
+ *
+ * @param <T> The type of the stored resources.
+ */
+public class ResourceStore<T extends GenericJson> implements Closeable {
+
+  /** The outcome of {@link #upsert(GenericJson)}. */
+  public enum Change {
+    INSERTED,
+    UPDATED,
+    UNCHANGED
+  }
+
+  /** Notified of each resource that is stored, e.g. to maintain an index. */
+  public interface Listener<T> {
+
+    /**
+     * Called after a resource was stored.
+     *
+     * @param previous The version of the resource it replaced, or {@code null}.
+     * @param resource The stored resource.
+     */
+    void onUpsert(T previous, T resource);
+  }
+
+  private final Path file;
+  private final Class<T> type;
+  private final Function<? super T, String> key;
+  private final JsonFactory jsonFactory = Utils.getJsonFactory();
+  private final Map<String, T> resources = new LinkedHashMap<>();
+  private final List<Listener<? super T>> listeners = new ArrayList<>();
+  private FileChannel channel;
+  private Writer writer;
+  private long lineCount;
+
+  private ResourceStore(Path file, Class<T> type, Function<? super T, String> key) {
+    this.file = file.toAbsolutePath();
+    this.type = type;
+    this.key = key;
+  }
+
+  /**
+   * Opens a store, creating its file if it doesn't exist yet.
+   *
+   * @param file The file that the resources are persisted to.
+   * @param type The class of the stored resources.
+   * @param key Returns the name of a resource, which identifies it in the store.
+   * @throws IOException if the file couldn't be read.
+   */
+  public static <T extends GenericJson> ResourceStore<T> open(
+      Path file, Class<T> type, Function<? super T, String> key) throws IOException {
+    ResourceStore<T> store = new ResourceStore<>(file, type, key);
+    store.load();
+    return store;
+  }
+
+  /** Returns the resource with the given name, or {@code null} if it isn't stored. */
+  public synchronized T get(String name) {
+    return resources.get(name);
+  }
+
+  /** Returns a snapshot of all stored resources, in the order they were first stored. */
+  public synchronized Collection<T> getAll() {
+    return Collections.unmodifiableCollection(new ArrayList<>(resources.values()));
+  }
+
+  /** Returns the number of stored resources. */
+  public synchronized int size() {
+    return resources.size();
+  }
+
+  /**
+   * Stores a resource, replacing any stored resource with the same name. The change is persisted
+   * by the next {@link #flush()}.
+   *
+   * @return Whether the resource was inserted, replaced a different version, or was already stored.
+   * @throws IOException if the change couldn't be written.
+   */
+  public synchronized Change upsert(T resource) throws IOException {
+    String name = key.apply(resource);
+    T previous = resources.get(name);
+    if (resource.equals(previous)) {
+      return Change.UNCHANGED;
+    }
+
+    writer.write(jsonFactory.toString(resource));
+    writer.write('\n');
+    lineCount++;
+    resources.put(name, resource);
+    for (Listener<? super T> listener : listeners) {
+      listener.onUpsert(previous, resource);
+    }
+    return (previous == null) ? Change.INSERTED : Change.UPDATED;
+  }
+
+  /**
+   * Adds a listener that is notified of each resource stored from now on. It is first notified of
+   * each resource that is already stored, as if it was inserted.
+   */
+  public synchronized void addListener(Listener<? super T> listener) {
+    for (T resource : resources.values()) {
+      listener.onUpsert(null, resource);
+    }
+    listeners.add(listener);
+  }
+
+  /**
+   * Forces the changes written so far to disk, and compacts the file if most of it is outdated.
+   *
+   * @throws IOException if the file couldn't be written.
+   */
+  public synchronized void flush() throws IOException {
+    writer.flush();
+    channel.force(false);
+    if (lineCount > 2L * resources.size() + 100) {
+      compact();
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (channel != null) {
+      flush();
+      writer.close();
+      channel = null;
+    }
+  }
+
+  /** Replays the file, and opens it for appending. */
+  private void load() throws IOException {
+    if (Files.exists(file)) {
+      try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+          if (line.isEmpty()) {
+            continue;
+          }
+          T resource;
+          try {
+            resource = jsonFactory.fromString(line, type);
+          } catch (IllegalArgumentException | IOException ex) {
+            // The last line may have been cut short by a crash; its change wasn't flushed.
+            continue;
+          }
+          lineCount++;
+          resources.put(key.apply(resource), resource);
+        }
+      }
+    }
+    openForAppend();
+  }
+
+  /** Atomically replaces the file with one holding only the current version of each resource. */
+  private void compact() throws IOException {
+    writer.close();
+    Path temporaryFile =
+        Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel compactedChannel =
+              FileChannel.open(temporaryFile, StandardOpenOption.WRITE);
+          Writer compactedWriter =
+              Channels.newWriter(compactedChannel, StandardCharsets.UTF_8.newEncoder(), -1)) {
+        for (T resource : resources.values()) {
+          compactedWriter.write(jsonFactory.toString(resource));
+          compactedWriter.write('\n');
+        }
+        compactedWriter.flush();
+        compactedChannel.force(true);
+      }
+      Files.move(
+          temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+      openForAppend();
+    }
+    lineCount = resources.size();
+  }
+
+  private void openForAppend() throws IOException {
+    Files.createDirectories(file.getParent());
+    channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long size = channel.size();
+    channel.position(size);
+    writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1);
+
+    // Ends a line that was cut short by a crash, so that it isn't joined with the next change.
+    if (size > 0) {
+      ByteBuffer lastByte = ByteBuffer.allocate(1);
+      channel.read(lastByte, size - 1);
+      if (lastByte.get(0) != '\n') {
+        writer.write('\n');
+      }
+    }
+  }
+}
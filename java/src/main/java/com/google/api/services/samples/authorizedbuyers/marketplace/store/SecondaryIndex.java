@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.store;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Indexes the resources of a {@link ResourceStore} by the value of one of their fields, so that
+ * the resources with a given value, or with a value in a given range, can be found without
+ * scanning the store.
+ *
+ * <p>The index maps each value to the names of the resources that have it. Resources without a
+ * value aren't indexed.
+ *
+ * @param <T> The type of the indexed resources.
+ * @param <K> The type of the indexed values.
+ */
+public class SecondaryIndex<T, K extends Comparable<? super K>>
+    implements ResourceStore.Listener<T> {
+
+  private final Function<? super T, String> name;
+  private final Function<? super T, K> value;
+  private final NavigableMap<K, Set<String>> names = new TreeMap<>();
+
+  /**
+   * Creates an index. Add it to a store with {@link ResourceStore#addListener}.
+   *
+   * @param name Returns the name of a resource.
+   * @param value Returns the indexed value of a resource, or {@code null} if it has none.
+   */
+  public SecondaryIndex(Function<? super T, String> name, Function<? super T, K> value) {
+    this.name = name;
+    this.value = value;
+  }
+
+  @Override
+  public synchronized void onUpsert(T previous, T resource) {
+    K previousValue = (previous != null) ? value.apply(previous) : null;
+    K newValue = value.apply(resource);
+    if (previous != null && Objects.equals(previousValue, newValue)) {
+      return;
+    }
+
+    String resourceName = name.apply(resource);
+    if (previousValue != null) {
+      Set<String> previousNames = names.get(previousValue);
+      previousNames.remove(resourceName);
+      if (previousNames.isEmpty()) {
+        names.remove(previousValue);
+      }
+    }
+    if (newValue != null) {
+      names.computeIfAbsent(newValue, key -> new LinkedHashSet<>()).add(resourceName);
+    }
+  }
+
+  /** Returns the names of the resources with the given value. */
+  public synchronized Set<String> get(K key) {
+    Set<String> keyNames = names.get(key);
+    return (keyNames != null) ? new LinkedHashSet<>(keyNames) : Collections.emptySet();
+  }
+
+  /**
+   * Returns the names of the resources with a value in the given range, ordered by value.
+   *
+   * @param from The lower bound of the range, or {@code null} for no lower bound.
+   * @param to The upper bound of the range, exclusive, or {@code null} for no upper bound.
+   */
+  public synchronized Set<String> getRange(K from, K to) {
+    NavigableMap<K, Set<String>> range = names;
+    if (from != null) {
+      range = range.tailMap(from, true);
+    }
+    if (to != null) {
+      range = range.headMap(to, false);
+    }
+    Set<String> rangeNames = new LinkedHashSet<>();
+    for (Map.Entry<K, Set<String>> entry : range.entrySet()) {
+      rangeNames.addAll(entry.getValue());
+    }
+    return rangeNames;
+  }
+}
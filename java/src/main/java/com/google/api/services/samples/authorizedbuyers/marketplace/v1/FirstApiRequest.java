@@ -20,10 +20,10 @@ import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
-import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplaceScopes;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.Client;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
 import com.google.auth.http.HttpCredentialsAdapter;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.auth.oauth2.ServiceAccountCredentials;
@@ -54,8 +54,9 @@ public class FirstApiRequest {
   // Global instance of the HTTP transport.
   private static HttpTransport httpTransport;
 
-  // Global instance of the JSON factory.
-  private static final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+  // Global instance of the JSON factory. Set the "marketplace.json.factory" system property to
+  // "jackson2" to use the Jackson streaming parser instead of Gson.
+  private static final JsonFactory jsonFactory = Utils.getJsonFactory();
 
   public static void main(String[] args) throws Exception {
     // Create credentials using the JSON key file.
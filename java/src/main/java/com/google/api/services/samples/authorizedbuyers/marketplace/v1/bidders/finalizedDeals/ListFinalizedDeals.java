@@ -19,11 +19,30 @@ package com.google.api.services.samples.authorizedbuyers.marketplace.v1.bidders.
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListFinalizedDealsResponse;
+import com.google.api.services.samples.authorizedbuyers.marketplace.FieldMasks;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
+import com.google.api.services.samples.authorizedbuyers.marketplace.TableColumns;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.filter.FieldSchema;
+import com.google.api.services.samples.authorizedbuyers.marketplace.filter.ListQuery;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.Paginator;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.Paginators;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.PartitionFilters;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.PartitionedScan;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.PrefetchingPageReader;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.ScanCheckpoint;
+import com.google.api.services.samples.authorizedbuyers.marketplace.store.DealSnapshot;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
 import net.sourceforge.argparse4j.inf.Namespace;
@@ -34,43 +53,240 @@ import net.sourceforge.argparse4j.inf.Namespace;
  */
 public class ListFinalizedDeals {
 
+  /** The deal types that finalized deals can be partitioned by. */
+  private static final List<String> DEAL_TYPES =
+      Arrays.asList("PROGRAMMATIC_GUARANTEED", "PREFERRED_DEAL", "PRIVATE_AUCTION");
+
+  /** The filter used if {@code --filter} isn't given and the finalized deals aren't partitioned. */
+  private static final String DEFAULT_FILTER = "deal.dealType = PROGRAMMATIC_GUARANTEED";
+
   public static void execute(AuthorizedBuyersMarketplace marketplaceClient, Namespace parsedArgs) {
+    if (!"none".equals(parsedArgs.getString("partition_by"))) {
+      executePartitioned(marketplaceClient, parsedArgs);
+      return;
+    }
+
     Long accountId = parsedArgs.getLong("account_id");
     Integer pageSize = parsedArgs.getInt("page_size");
     String parentBidderName = String.format("bidders/%d", accountId);
-    String pageToken = null;
+    String filter =
+        (parsedArgs.getString("filter") != null) ? parsedArgs.getString("filter") : DEFAULT_FILTER;
+    // Tabular output needs the fields of its columns, even if they aren't in --fields.
+    String fields =
+        FieldMasks.FINALIZED_DEAL.forList(
+            parsedArgs.getString("fields"), OutputFormat.getColumnPaths());
+
+    ScanCheckpoint checkpoint = null;
+    try {
+      checkpoint =
+          ScanCheckpoint.open(
+              parsedArgs, parentBidderName, filter, parsedArgs.getString("order_by"));
+    } catch (IOException ex) {
+      System.out.printf("Unable to open the checkpoint:%n%s", ex);
+      Utils.exit(1);
+    }
+    if (checkpoint.isComplete()) {
+      System.out.printf(
+          "The checkpointed scan already listed all %d finalized deals.%n",
+          checkpoint.getItemCount());
+      return;
+    }
+
+    DealSnapshot.Writer snapshot = newSnapshotWriter(parsedArgs);
 
     System.out.printf("Found finalized deals for bidder account ID '%d':%n", accountId);
+    if (checkpoint.getPageCount() > 0) {
+      System.out.printf(
+          "Resuming after %d pages with %d finalized deals.%n",
+          checkpoint.getPageCount(), checkpoint.getItemCount());
+    }
 
-    do {
-      List<FinalizedDeal> finalizedDeals = null;
-
-      try {
-        ListFinalizedDealsResponse response =
-            marketplaceClient
-                .bidders()
-                .finalizedDeals()
-                .list(parentBidderName)
-                .setFilter(parsedArgs.getString("filter"))
-                .setOrderBy(parsedArgs.getString("order_by"))
-                .setPageSize(pageSize)
-                .setPageToken(pageToken)
-                .execute();
-
-        finalizedDeals = response.getFinalizedDeals();
-        pageToken = response.getNextPageToken();
-      } catch (IOException ex) {
-        System.out.printf("Marketplace API returned error response:%n%s", ex);
-        System.exit(1);
-      }
-      if (finalizedDeals == null) {
-        System.out.println("No finalized deals found.");
-      } else {
-        for (FinalizedDeal finalizedDeal : finalizedDeals) {
-          Utils.printFinalizedDeal(finalizedDeal);
+    try (PrefetchingPageReader<ListFinalizedDealsResponse> pages =
+        new PrefetchingPageReader<>(
+            pageToken ->
+                marketplaceClient
+                    .bidders()
+                    .finalizedDeals()
+                    .list(parentBidderName)
+                    .setFilter(filter)
+                    .setOrderBy(parsedArgs.getString("order_by"))
+                    .setPageSize(pageSize)
+                    .setPageToken(pageToken)
+                    .setFields(fields),
+            ListFinalizedDealsResponse::getNextPageToken,
+            1,
+            checkpoint.getPageToken())) {
+      for (ListFinalizedDealsResponse page = pages.next(); page != null; page = pages.next()) {
+        List<FinalizedDeal> finalizedDeals = page.getFinalizedDeals();
+        if (finalizedDeals == null) {
+          System.out.println("No finalized deals found.");
+        } else {
+          for (FinalizedDeal finalizedDeal : finalizedDeals) {
+            Utils.printFinalizedDeal(finalizedDeal);
+            if (snapshot != null) {
+              snapshot.add(finalizedDeal);
+            }
+          }
+        }
+        // The page must be written out before the checkpoint records it as listed.
+        OutputFormat.flush();
+        try {
+          checkpoint.completePage(
+              page.getNextPageToken(), (finalizedDeals == null) ? 0 : finalizedDeals.size());
+        } catch (IOException ex) {
+            discardSnapshot(snapshot);
+          System.out.printf("Unable to save the checkpoint:%n%s", ex);
+          Utils.exit(1);
+          return;
         }
       }
-    } while (pageToken != null);
+    } catch (IOException ex) {
+      discardSnapshot(snapshot);
+      System.out.printf("Marketplace API returned error response:%n%s", ex);
+      Utils.exit(1);
+    } catch (UncheckedIOException ex) {
+      discardSnapshot(snapshot);
+      System.out.printf("Unable to write the snapshot:%n%s", ex.getCause());
+      Utils.exit(1);
+    }
+
+    finishSnapshot(snapshot, parsedArgs);
+  }
+
+  /**
+   * Lists the finalized deals by splitting them into disjoint partitions using additional filters,
+   * which are paged through concurrently.
+   */
+  private static void executePartitioned(
+      AuthorizedBuyersMarketplace marketplaceClient, Namespace parsedArgs) {
+    Long accountId = parsedArgs.getLong("account_id");
+    Integer pageSize = parsedArgs.getInt("page_size");
+    String orderBy = parsedArgs.getString("order_by");
+    boolean mergeOrder = parsedArgs.getBoolean("merge_order");
+    String parentBidderName = String.format("bidders/%d", accountId);
+
+    // Merging needs the fields that deals are sorted by, and tabular output the fields of its
+    // columns, even if they aren't in --fields.
+    Set<String> requiredPaths = new LinkedHashSet<>(OutputFormat.getColumnPaths());
+    if (mergeOrder) {
+      requiredPaths.addAll(ListQuery.getOrderByPaths(orderBy));
+    }
+    String fields =
+        FieldMasks.FINALIZED_DEAL.forList(parsedArgs.getString("fields"), requiredPaths);
+
+    List<Paginator<?, FinalizedDeal>> partitions = new ArrayList<>();
+    for (String filter : getPartitionFilters(parsedArgs)) {
+      partitions.add(
+          Paginators.bidderFinalizedDeals(
+              marketplaceClient,
+              parentBidderName,
+              request ->
+                  request
+                      .setFilter(filter)
+                      .setOrderBy(orderBy)
+                      .setPageSize(pageSize)
+                      .setFields(fields)));
+    }
+
+    PartitionedScan<FinalizedDeal> scan =
+        new PartitionedScan<>(partitions, FinalizedDeal::getName)
+            .setParallelism(parsedArgs.getInt("parallelism"))
+            .setBeforeWait(OutputFormat::flush);
+    if (mergeOrder) {
+      scan.setOrder(FieldSchema.FINALIZED_DEAL.compileOrderBy(orderBy));
+    }
+
+    DealSnapshot.Writer snapshot = newSnapshotWriter(parsedArgs);
+
+    System.out.printf("Found finalized deals for bidder account ID '%d':%n", accountId);
+
+    try {
+      scan.forEach(
+          finalizedDeal -> {
+            Utils.printFinalizedDeal(finalizedDeal);
+            if (snapshot != null) {
+              snapshot.add(finalizedDeal);
+            }
+          });
+    } catch (IOException ex) {
+      discardSnapshot(snapshot);
+      System.out.printf("Marketplace API returned error response:%n%s", ex);
+      Utils.exit(1);
+    } catch (UncheckedIOException ex) {
+      discardSnapshot(snapshot);
+      System.out.printf("Unable to write the snapshot:%n%s", ex.getCause());
+      Utils.exit(1);
+    }
+
+    if (scan.getResourceCount() == 0) {
+      System.out.println("No finalized deals found.");
+    }
+    System.out.printf(
+        "Scanned %d partitions: %d finalized deals, %d duplicates skipped.%n",
+        partitions.size(), scan.getResourceCount(), scan.getDuplicateCount());
+
+    finishSnapshot(snapshot, parsedArgs);
+  }
+
+  /** Returns a writer for the snapshot requested by {@code --snapshot_file}, or null if none. */
+  private static DealSnapshot.Writer newSnapshotWriter(Namespace parsedArgs) {
+    String snapshotFile = parsedArgs.getString("snapshot_file");
+    if (snapshotFile == null) {
+      return null;
+    }
+    try {
+      return DealSnapshot.newWriter(Paths.get(snapshotFile));
+    } catch (IOException ex) {
+      System.out.printf("Unable to create the snapshot:%n%s", ex);
+      Utils.exit(1);
+      return null;
+    }
+  }
+
+  /** Deletes the temporary files of a snapshot that won't be finished. */
+  private static void discardSnapshot(DealSnapshot.Writer snapshot) {
+    if (snapshot == null) {
+      return;
+    }
+    try {
+      snapshot.close();
+    } catch (IOException ex) {
+      System.out.printf("Unable to delete the snapshot's temporary files:%n%s%n", ex);
+    }
+  }
+
+  private static void finishSnapshot(DealSnapshot.Writer snapshot, Namespace parsedArgs) {
+    if (snapshot == null) {
+      return;
+    }
+    try {
+      snapshot.finish();
+    } catch (IOException ex) {
+      System.out.printf("Unable to write the snapshot:%n%s", ex);
+      Utils.exit(1);
+    }
+    System.out.printf(
+        "Wrote %d finalized deals to snapshot '%s'.%n",
+        snapshot.size(), parsedArgs.getString("snapshot_file"));
+  }
+
+  /**
+   * Returns the filters of the partitions selected by the {@code --partition_by} argument, each
+   * restricted to the {@code --filter} argument. Deals that match none of the partitioned values,
+   * such as those billed to other buyers, form the last partition, so that every deal is listed by
+   * exactly one partition.
+   */
+  private static List<String> getPartitionFilters(Namespace parsedArgs) {
+    String filter = parsedArgs.getString("filter");
+    if (!"buyer".equals(parsedArgs.getString("partition_by"))) {
+      return PartitionFilters.byValues(filter, "deal.dealType", DEAL_TYPES);
+    }
+
+    List<String> buyers = new ArrayList<>();
+    for (Long buyerId : new LinkedHashSet<Long>(parsedArgs.getList("buyer_ids"))) {
+      buyers.add(String.format("\"buyers/%d\"", buyerId));
+    }
+    return PartitionFilters.byValues(filter, "deal.billedBuyer", buyers);
   }
 
   public static void main(String[] args) {
@@ -91,8 +307,8 @@ public class ListFinalizedDeals {
         .addArgument("-f", "--filter")
         .help(
             "Query string to filter finalized deals. By default, this example will filter by "
-                + "deal type to retrieve programmatic guaranteed deals to demonstrate usage.")
-        .setDefault("deal.dealType = PROGRAMMATIC_GUARANTEED");
+                + "deal type to retrieve programmatic guaranteed deals to demonstrate usage, "
+                + "unless --partition_by is given, in which case all finalized deals are listed.");
     parser
         .addArgument("-o", "--order_by")
         .help(
@@ -105,28 +321,95 @@ public class ListFinalizedDeals {
         .addArgument("-p", "--page_size")
         .help(
             "The number of rows to return per page. The server may return fewer rows than "
-                + "specified.")
-        .setDefault(Utils.getMaximumPageSize())
+                + "specified. By default, the page size is adjusted to the latency and size of "
+                + "the pages received.")
         .type(Integer.class);
 
+    parser
+        .addArgument("--partition_by")
+        .help(
+            "Splits the finalized deals into disjoint partitions that are listed concurrently, "
+                + "either by deal type, or by the billed buyers given with --buyer_ids. Deals that "
+                + "belong to none of the deal types or buyers are listed by an additional "
+                + "partition.")
+        .choices("none", "dealType", "buyer")
+        .setDefault("none");
+    parser
+        .addArgument("--buyer_ids")
+        .help(
+            "The resource IDs of the billed buyers whose finalized deals form a partition each.")
+        .type(Long.class)
+        .nargs("*");
+    parser
+        .addArgument("--parallelism")
+        .help("The maximum number of partitions listed at once.")
+        .type(Integer.class)
+        .setDefault(4);
+    parser
+        .addArgument("--merge_order")
+        .help(
+            "Prints the finalized deals of all partitions in the order given by --order_by, "
+                + "rather than in the order they are received.")
+        .action(Arguments.storeTrue());
+    parser
+        .addArgument("--snapshot_file")
+        .help(
+            "Writes the listed finalized deals to a binary snapshot at this path, which can be "
+                + "read back without parsing JSON, e.g. by SummarizeFinalizedDealSnapshot.");
+
+    ScanCheckpoint.addArguments(parser);
+    FieldMasks.FINALIZED_DEAL.addArgument(parser);
+    OutputFormat.addArgument(
+        parser, FieldSchema.FINALIZED_DEAL, TableColumns.FINALIZED_DEAL_COLUMNS);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
+      if (parsedArgs.getBoolean("merge_order")
+          && ListQuery.getOrderByPaths(parsedArgs.getString("order_by")).isEmpty()) {
+        throw new ArgumentParserException("argument --merge_order requires --order_by", parser);
+      }
+      if (parsedArgs.getBoolean("merge_order")) {
+        try {
+          FieldSchema.FINALIZED_DEAL.compileOrderBy(parsedArgs.getString("order_by"));
+        } catch (IllegalArgumentException ex) {
+          throw new ArgumentParserException(ex.getMessage(), parser);
+        }
+      }
+      if ("buyer".equals(parsedArgs.getString("partition_by"))
+          && (parsedArgs.getList("buyer_ids") == null
+              || parsedArgs.getList("buyer_ids").isEmpty())) {
+        throw new ArgumentParserException("argument --partition_by requires --buyer_ids", parser);
+      }
+      if (!"none".equals(parsedArgs.getString("partition_by"))
+          && parsedArgs.getString("checkpoint_file") != null) {
+        throw new ArgumentParserException(
+            "argument --checkpoint_file can't be used with --partition_by", parser);
+      }
+      if (parsedArgs.getBoolean("resume") && parsedArgs.getString("snapshot_file") != null) {
+        throw new ArgumentParserException(
+            "argument --snapshot_file can't be used with --resume", parser);
+      }
+      if (parsedArgs.getInt("parallelism") < 1) {
+        throw new ArgumentParserException("argument --parallelism must be positive", parser);
+      }
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.v1.bidders.finalizedDeals;
+
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.store.DealSnapshot;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * This sample illustrates how to analyze a snapshot of finalized deals written by
+ * ListFinalizedDeals with {@code --snapshot_file}. Only the fields that are summarized are decoded,
+ * so no requests are sent and the deals are never loaded into memory as a whole.
+ */
+public class SummarizeFinalizedDealSnapshot {
+
+  public static void execute(Namespace parsedArgs) {
+    String snapshotFile = parsedArgs.getString("snapshot_file");
+    Integer printCount = parsedArgs.getInt("print");
+
+    long start = System.nanoTime();
+    try (DealSnapshot snapshot = DealSnapshot.open(Paths.get(snapshotFile))) {
+      long openMicros = (System.nanoTime() - start) / 1000;
+
+      Map<String, Integer> countsByDealType = new TreeMap<>();
+      Map<String, Integer> countsByServingStatus = new TreeMap<>();
+      long bidRequests = 0;
+      long bids = 0;
+      for (int i = 0; i < snapshot.size(); i++) {
+        DealSnapshot.Entry entry = snapshot.get(i);
+        countsByDealType.merge(String.valueOf(entry.getString("deal.dealType")), 1, Integer::sum);
+        countsByServingStatus.merge(
+            String.valueOf(entry.getString("dealServingStatus")), 1, Integer::sum);
+        Long dealBidRequests = entry.getLong("rtbMetrics.bidRequests7Days");
+        Long dealBids = entry.getLong("rtbMetrics.bids7Days");
+        bidRequests += (dealBidRequests != null) ? dealBidRequests : 0;
+        bids += (dealBids != null) ? dealBids : 0;
+      }
+      long summaryMicros = (System.nanoTime() - start) / 1000 - openMicros;
+
+      System.out.printf(
+          "Opened snapshot '%s' with %d finalized deals in %d microseconds.%n",
+          snapshotFile, snapshot.size(), openMicros);
+      System.out.printf("Finalized deals by deal type: %s%n", countsByDealType);
+      System.out.printf("Finalized deals by serving status: %s%n", countsByServingStatus);
+      System.out.printf("Bid requests in the last 7 days: %d%n", bidRequests);
+      System.out.printf("Bids in the last 7 days: %d%n", bids);
+      System.out.printf("Summarized in %d microseconds.%n", summaryMicros);
+
+      for (int i = 0; i < Math.min(printCount, snapshot.size()); i++) {
+        Utils.printFinalizedDeal(snapshot.get(i).toFinalizedDeal());
+      }
+    } catch (IOException ex) {
+      System.out.printf("Unable to read the snapshot:%n%s", ex);
+      Utils.exit(1);
+    }
+  }
+
+  public static void main(String[] args) {
+    ArgumentParser parser =
+        ArgumentParsers.newFor("SummarizeFinalizedDealSnapshot")
+            .build()
+            .defaultHelp(true)
+            .description(
+                ("Summarizes a snapshot of finalized deals written by ListFinalizedDeals with "
+                    + "--snapshot_file."));
+    parser
+        .addArgument("-s", "--snapshot_file")
+        .help("The path of the snapshot to summarize.")
+        .required(true);
+    parser
+        .addArgument("--print")
+        .help("The number of finalized deals from the start of the snapshot to print in full.")
+        .type(Integer.class)
+        .setDefault(0);
+
+    OutputFormat.addArgument(parser);
+
+    Namespace parsedArgs = null;
+    try {
+      parsedArgs = parser.parseArgs(args);
+    } catch (ArgumentParserException ex) {
+      parser.handleError(ex);
+      Utils.exit(1);
+    }
+
+    OutputFormat.select(parsedArgs);
+
+    execute(parsedArgs);
+  }
+}
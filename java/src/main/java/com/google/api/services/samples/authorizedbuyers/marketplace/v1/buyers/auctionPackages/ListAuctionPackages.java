@@ -19,7 +19,10 @@ package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.a
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.AuctionPackage;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListAuctionPackagesResponse;
+import com.google.api.services.samples.authorizedbuyers.marketplace.FieldMasks;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.PrefetchingPageReader;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.List;
@@ -35,37 +38,36 @@ public class ListAuctionPackages {
     Long accountId = parsedArgs.getLong("account_id");
     Integer pageSize = parsedArgs.getInt("page_size");
     String parentBuyerName = String.format("buyers/%s", accountId);
-    String pageToken = null;
 
     System.out.printf("Found auction packages for buyer Account ID '%d':%n", accountId);
 
-    do {
-      List<AuctionPackage> auctionPackages = null;
-
-      try {
-        ListAuctionPackagesResponse response =
-            marketplaceClient
-                .buyers()
-                .auctionPackages()
-                .list(parentBuyerName)
-                .setPageSize(pageSize)
-                .setPageToken(pageToken)
-                .execute();
-
-        auctionPackages = response.getAuctionPackages();
-        pageToken = response.getNextPageToken();
-      } catch (IOException ex) {
-        System.out.printf("Marketplace API returned error response:%n%s", ex);
-        System.exit(1);
-      }
-      if (auctionPackages == null) {
-        System.out.println("No auction packages found.");
-      } else {
-        for (AuctionPackage auctionPackage : auctionPackages) {
-          Utils.printAuctionPackage(auctionPackage);
+    try (PrefetchingPageReader<ListAuctionPackagesResponse> pages =
+        new PrefetchingPageReader<>(
+            pageToken ->
+                marketplaceClient
+                    .buyers()
+                    .auctionPackages()
+                    .list(parentBuyerName)
+                    .setPageSize(pageSize)
+                    .setPageToken(pageToken)
+                    .setFields(FieldMasks.AUCTION_PACKAGE.forList(parsedArgs.getString("fields"))),
+            ListAuctionPackagesResponse::getNextPageToken)) {
+      for (ListAuctionPackagesResponse page = pages.next(); page != null; page = pages.next()) {
+        List<AuctionPackage> auctionPackages = page.getAuctionPackages();
+        if (auctionPackages == null) {
+          System.out.println("No auction packages found.");
+        } else {
+          for (AuctionPackage auctionPackage : auctionPackages) {
+            Utils.printAuctionPackage(auctionPackage);
+          }
         }
+        // Writes out the page while the next one is being requested.
+        OutputFormat.flush();
       }
-    } while (pageToken != null);
+    } catch (IOException ex) {
+      System.out.printf("Marketplace API returned error response:%n%s", ex);
+      Utils.exit(1);
+    }
   }
 
   public static void main(String[] args) {
@@ -86,28 +88,33 @@ public class ListAuctionPackages {
         .addArgument("-p", "--page_size")
         .help(
             "The number of rows to return per page. The server may return fewer rows than "
-                + "specified.")
-        .setDefault(Utils.getMaximumPageSize())
+                + "specified. By default, the page size is adjusted to the latency and size of "
+                + "the pages received.")
         .type(Integer.class);
 
+    FieldMasks.AUCTION_PACKAGE.addArgument(parser);
+    OutputFormat.addArgument(parser);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
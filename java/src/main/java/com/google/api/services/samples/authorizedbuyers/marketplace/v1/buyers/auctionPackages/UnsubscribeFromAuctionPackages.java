@@ -19,6 +19,7 @@ package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.a
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.AuctionPackage;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.UnsubscribeAuctionPackageRequest;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
@@ -51,7 +52,7 @@ public class UnsubscribeFromAuctionPackages {
               .execute();
     } catch (IOException ex) {
       System.out.printf("Marketplace API returned error response:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     System.out.printf(
@@ -83,24 +84,28 @@ public class UnsubscribeFromAuctionPackages {
         .required(true)
         .type(Long.class);
 
+    OutputFormat.addArgument(parser);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
@@ -18,6 +18,8 @@ package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.c
 
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.Client;
+import com.google.api.services.samples.authorizedbuyers.marketplace.FieldMasks;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
@@ -39,10 +41,16 @@ public class GetClients {
     Client client = null;
 
     try {
-      client = marketplaceClient.buyers().clients().get(name).execute();
+      client =
+          marketplaceClient
+              .buyers()
+              .clients()
+              .get(name)
+              .setFields(FieldMasks.CLIENT.forGet(parsedArgs.getString("fields")))
+              .execute();
     } catch (IOException ex) {
       System.out.printf("Marketplace API returned error response:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     System.out.printf(
@@ -73,24 +81,29 @@ public class GetClients {
         .required(true)
         .type(Long.class);
 
+    FieldMasks.CLIENT.addArgument(parser);
+    OutputFormat.addArgument(parser);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
@@ -19,7 +19,10 @@ package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.c
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.Client;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListClientsResponse;
+import com.google.api.services.samples.authorizedbuyers.marketplace.FieldMasks;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.PrefetchingPageReader;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.List;
@@ -35,38 +38,37 @@ public class ListClients {
     Long accountId = parsedArgs.getLong("account_id");
     Integer pageSize = parsedArgs.getInt("page_size");
     String parentBuyerName = String.format("buyers/%d", accountId);
-    String pageToken = null;
 
     System.out.printf("Found Clients for buyer Account ID '%d':%n", accountId);
 
-    do {
-      List<Client> clients = null;
-
-      try {
-        ListClientsResponse response =
-            marketplaceClient
-                .buyers()
-                .clients()
-                .list(parentBuyerName)
-                .setFilter(parsedArgs.getString("filter"))
-                .setPageSize(pageSize)
-                .setPageToken(pageToken)
-                .execute();
-
-        clients = response.getClients();
-        pageToken = response.getNextPageToken();
-      } catch (IOException ex) {
-        System.out.printf("Marketplace API returned error response:%n%s", ex);
-        System.exit(1);
-      }
-      if (clients == null) {
-        System.out.println("No clients found.");
-      } else {
-        for (Client client : clients) {
-          Utils.printClient(client);
+    try (PrefetchingPageReader<ListClientsResponse> pages =
+        new PrefetchingPageReader<>(
+            pageToken ->
+                marketplaceClient
+                    .buyers()
+                    .clients()
+                    .list(parentBuyerName)
+                    .setFilter(parsedArgs.getString("filter"))
+                    .setPageSize(pageSize)
+                    .setPageToken(pageToken)
+                    .setFields(FieldMasks.CLIENT.forList(parsedArgs.getString("fields"))),
+            ListClientsResponse::getNextPageToken)) {
+      for (ListClientsResponse page = pages.next(); page != null; page = pages.next()) {
+        List<Client> clients = page.getClients();
+        if (clients == null) {
+          System.out.println("No clients found.");
+        } else {
+          for (Client client : clients) {
+            Utils.printClient(client);
+          }
         }
+        // Writes out the page while the next one is being requested.
+        OutputFormat.flush();
       }
-    } while (pageToken != null);
+    } catch (IOException ex) {
+      System.out.printf("Marketplace API returned error response:%n%s", ex);
+      Utils.exit(1);
+    }
   }
 
   public static void main(String[] args) {
@@ -92,28 +94,33 @@ public class ListClients {
         .addArgument("-p", "--page_size")
         .help(
             "The number of rows to return per page. The server may return fewer rows than "
-                + "specified.")
-        .setDefault(Utils.getMaximumPageSize())
+                + "specified. By default, the page size is adjusted to the latency and size of "
+                + "the pages received.")
         .type(Integer.class);
 
+    FieldMasks.CLIENT.addArgument(parser);
+    OutputFormat.addArgument(parser);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
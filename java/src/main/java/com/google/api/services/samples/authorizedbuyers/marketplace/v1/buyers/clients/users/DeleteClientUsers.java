@@ -40,7 +40,7 @@ public class DeleteClientUsers {
       marketplaceClient.buyers().clients().users().delete(name).execute();
     } catch (IOException ex) {
       System.out.printf("Marketplace API returned error response:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     System.out.printf("Deleted client user with name \"%s\":%n", name);
@@ -82,7 +82,7 @@ public class DeleteClientUsers {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     AuthorizedBuyersMarketplace client = null;
@@ -91,10 +91,10 @@ public class DeleteClientUsers {
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
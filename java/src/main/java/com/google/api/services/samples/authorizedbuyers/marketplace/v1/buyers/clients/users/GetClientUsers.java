@@ -18,6 +18,8 @@ package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.c
 
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.ClientUser;
+import com.google.api.services.samples.authorizedbuyers.marketplace.FieldMasks;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
@@ -38,10 +40,17 @@ public class GetClientUsers {
     ClientUser clientUser = null;
 
     try {
-      clientUser = marketplaceClient.buyers().clients().users().get(name).execute();
+      clientUser =
+          marketplaceClient
+              .buyers()
+              .clients()
+              .users()
+              .get(name)
+              .setFields(FieldMasks.CLIENT_USER.forGet(parsedArgs.getString("fields")))
+              .execute();
     } catch (IOException ex) {
       System.out.printf("Marketplace API returned error response:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     System.out.printf("Found client user with name \"%s\":%n", name);
@@ -79,24 +88,29 @@ public class GetClientUsers {
         .required(true)
         .type(Long.class);
 
+    FieldMasks.CLIENT_USER.addArgument(parser);
+    OutputFormat.addArgument(parser);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
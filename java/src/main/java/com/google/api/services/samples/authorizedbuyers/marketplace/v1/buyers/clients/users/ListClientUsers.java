@@ -19,7 +19,10 @@ package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.c
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.ClientUser;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListClientUsersResponse;
+import com.google.api.services.samples.authorizedbuyers.marketplace.FieldMasks;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.PrefetchingPageReader;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.List;
@@ -36,38 +39,37 @@ public class ListClientUsers {
     Long clientId = parsedArgs.getLong("client_id");
     Integer pageSize = parsedArgs.getInt("page_size");
     String parentClientName = String.format("buyers/%d/clients/%d", accountId, clientId);
-    String pageToken = null;
 
     System.out.printf("Found client users for client with name \"%s\":%n", parentClientName);
 
-    do {
-      List<ClientUser> clientUsers = null;
-
-      try {
-        ListClientUsersResponse response =
-            marketplaceClient
-                .buyers()
-                .clients()
-                .users()
-                .list(parentClientName)
-                .setPageSize(pageSize)
-                .setPageToken(pageToken)
-                .execute();
-
-        clientUsers = response.getClientUsers();
-        pageToken = response.getNextPageToken();
-      } catch (IOException ex) {
-        System.out.printf("Marketplace API returned error response:%n%s", ex);
-        System.exit(1);
-      }
-      if (clientUsers == null) {
-        System.out.println("No client users found.");
-      } else {
-        for (ClientUser clientUser : clientUsers) {
-          Utils.printClientUser(clientUser);
+    try (PrefetchingPageReader<ListClientUsersResponse> pages =
+        new PrefetchingPageReader<>(
+            pageToken ->
+                marketplaceClient
+                    .buyers()
+                    .clients()
+                    .users()
+                    .list(parentClientName)
+                    .setPageSize(pageSize)
+                    .setPageToken(pageToken)
+                    .setFields(FieldMasks.CLIENT_USER.forList(parsedArgs.getString("fields"))),
+            ListClientUsersResponse::getNextPageToken)) {
+      for (ListClientUsersResponse page = pages.next(); page != null; page = pages.next()) {
+        List<ClientUser> clientUsers = page.getClientUsers();
+        if (clientUsers == null) {
+          System.out.println("No client users found.");
+        } else {
+          for (ClientUser clientUser : clientUsers) {
+            Utils.printClientUser(clientUser);
+          }
         }
+        // Writes out the page while the next one is being requested.
+        OutputFormat.flush();
       }
-    } while (pageToken != null);
+    } catch (IOException ex) {
+      System.out.printf("Marketplace API returned error response:%n%s", ex);
+      Utils.exit(1);
+    }
   }
 
   public static void main(String[] args) {
@@ -96,28 +98,33 @@ public class ListClientUsers {
         .addArgument("-p", "--page_size")
         .help(
             "The number of rows to return per page. The server may return fewer rows than "
-                + "specified.")
-        .setDefault(Utils.getMaximumPageSize())
+                + "specified. By default, the page size is adjusted to the latency and size of "
+                + "the pages received.")
         .type(Integer.class);
 
+    FieldMasks.CLIENT_USER.addArgument(parser);
+    OutputFormat.addArgument(parser);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
@@ -18,6 +18,8 @@ package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.f
 
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
+import com.google.api.services.samples.authorizedbuyers.marketplace.FieldMasks;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
@@ -42,10 +44,16 @@ public class GetFinalizedDeals {
     FinalizedDeal finalizedDeal = null;
 
     try {
-      finalizedDeal = marketplaceClient.buyers().finalizedDeals().get(name).execute();
+      finalizedDeal =
+          marketplaceClient
+              .buyers()
+              .finalizedDeals()
+              .get(name)
+              .setFields(FieldMasks.FINALIZED_DEAL.forGet(parsedArgs.getString("fields")))
+              .execute();
     } catch (IOException ex) {
       System.out.printf("Marketplace API returned error response:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     System.out.printf(
@@ -76,24 +84,29 @@ public class GetFinalizedDeals {
         .required(true)
         .type(Long.class);
 
+    FieldMasks.FINALIZED_DEAL.addArgument(parser);
+    OutputFormat.addArgument(parser);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
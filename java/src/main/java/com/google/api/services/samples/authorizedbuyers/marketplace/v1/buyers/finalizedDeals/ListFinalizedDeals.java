@@ -19,7 +19,13 @@ package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.f
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListFinalizedDealsResponse;
+import com.google.api.services.samples.authorizedbuyers.marketplace.FieldMasks;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
+import com.google.api.services.samples.authorizedbuyers.marketplace.TableColumns;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.filter.FieldSchema;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.PrefetchingPageReader;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.ScanCheckpoint;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.List;
@@ -35,39 +41,76 @@ public class ListFinalizedDeals {
     Long accountId = parsedArgs.getLong("account_id");
     Integer pageSize = parsedArgs.getInt("page_size");
     String parentBuyerName = String.format("buyers/%d", accountId);
-    String pageToken = null;
+    // Tabular output needs the fields of its columns, even if they aren't in --fields.
+    String fields =
+        FieldMasks.FINALIZED_DEAL.forList(
+            parsedArgs.getString("fields"), OutputFormat.getColumnPaths());
 
-    System.out.printf("Found finalized deals for buyer account ID '%d':%n", accountId);
-
-    do {
-      List<FinalizedDeal> finalizedDeals = null;
+    ScanCheckpoint checkpoint = null;
+    try {
+      checkpoint =
+          ScanCheckpoint.open(
+              parsedArgs,
+              parentBuyerName,
+              parsedArgs.getString("filter"),
+              parsedArgs.getString("order_by"));
+    } catch (IOException ex) {
+      System.out.printf("Unable to open the checkpoint:%n%s", ex);
+      Utils.exit(1);
+    }
+    if (checkpoint.isComplete()) {
+      System.out.printf(
+          "The checkpointed scan already listed all %d finalized deals.%n",
+          checkpoint.getItemCount());
+      return;
+    }
 
-      try {
-        ListFinalizedDealsResponse response =
-            marketplaceClient
-                .buyers()
-                .finalizedDeals()
-                .list(parentBuyerName)
-                .setFilter(parsedArgs.getString("filter"))
-                .setOrderBy(parsedArgs.getString("order_by"))
-                .setPageSize(pageSize)
-                .setPageToken(pageToken)
-                .execute();
+    System.out.printf("Found finalized deals for buyer account ID '%d':%n", accountId);
+    if (checkpoint.getPageCount() > 0) {
+      System.out.printf(
+          "Resuming after %d pages with %d finalized deals.%n",
+          checkpoint.getPageCount(), checkpoint.getItemCount());
+    }
 
-        finalizedDeals = response.getFinalizedDeals();
-        pageToken = response.getNextPageToken();
-      } catch (IOException ex) {
-        System.out.printf("Marketplace API returned error response:%n%s", ex);
-        System.exit(1);
-      }
-      if (finalizedDeals == null) {
-        System.out.println("No finalized deals found.");
-      } else {
-        for (FinalizedDeal finalizedDeal : finalizedDeals) {
-          Utils.printFinalizedDeal(finalizedDeal);
+    try (PrefetchingPageReader<ListFinalizedDealsResponse> pages =
+        new PrefetchingPageReader<>(
+            pageToken ->
+                marketplaceClient
+                    .buyers()
+                    .finalizedDeals()
+                    .list(parentBuyerName)
+                    .setFilter(parsedArgs.getString("filter"))
+                    .setOrderBy(parsedArgs.getString("order_by"))
+                    .setPageSize(pageSize)
+                    .setPageToken(pageToken)
+                    .setFields(fields),
+            ListFinalizedDealsResponse::getNextPageToken,
+            1,
+            checkpoint.getPageToken())) {
+      for (ListFinalizedDealsResponse page = pages.next(); page != null; page = pages.next()) {
+        List<FinalizedDeal> finalizedDeals = page.getFinalizedDeals();
+        if (finalizedDeals == null) {
+          System.out.println("No finalized deals found.");
+        } else {
+          for (FinalizedDeal finalizedDeal : finalizedDeals) {
+            Utils.printFinalizedDeal(finalizedDeal);
+          }
+        }
+        // The page must be written out before the checkpoint records it as listed.
+        OutputFormat.flush();
+        try {
+          checkpoint.completePage(
+              page.getNextPageToken(), (finalizedDeals == null) ? 0 : finalizedDeals.size());
+        } catch (IOException ex) {
+          System.out.printf("Unable to save the checkpoint:%n%s", ex);
+          Utils.exit(1);
+          return;
         }
       }
-    } while (pageToken != null);
+    } catch (IOException ex) {
+      System.out.printf("Marketplace API returned error response:%n%s", ex);
+      Utils.exit(1);
+    }
   }
 
   public static void main(String[] args) {
@@ -102,28 +145,35 @@ public class ListFinalizedDeals {
         .addArgument("-p", "--page_size")
         .help(
             "The number of rows to return per page. The server may return fewer rows than "
-                + "specified.")
-        .setDefault(Utils.getMaximumPageSize())
+                + "specified. By default, the page size is adjusted to the latency and size of "
+                + "the pages received.")
         .type(Integer.class);
 
+    ScanCheckpoint.addArguments(parser);
+    FieldMasks.FINALIZED_DEAL.addArgument(parser);
+    OutputFormat.addArgument(
+        parser, FieldSchema.FINALIZED_DEAL, TableColumns.FINALIZED_DEAL_COLUMNS);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.finalizedDeals;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.filter.FieldSchema;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.Paginators;
+import com.google.api.services.samples.authorizedbuyers.marketplace.store.FinalizedDealMirror;
+import com.google.api.services.samples.authorizedbuyers.marketplace.store.IncrementalSync;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * This sample illustrates how to keep a local mirror of a buyer's finalized deals up to date, and
+ * how to look up finalized deals in it without listing them from the API.
+ */
+public class MirrorFinalizedDeals {
+
+  public static void execute(AuthorizedBuyersMarketplace marketplaceClient, Namespace parsedArgs) {
+    Long accountId = parsedArgs.getLong("account_id");
+    Integer pageSize = parsedArgs.getInt("page_size");
+    String parentBuyerName = String.format("buyers/%d", accountId);
+
+    try (FinalizedDealMirror mirror =
+        FinalizedDealMirror.open(Utils.getStoreDirectory(parentBuyerName))) {
+      if (!parsedArgs.getBoolean("offline")) {
+        IncrementalSync<FinalizedDeal> sync =
+            mirror
+                .newSync(
+                    filter ->
+                        Paginators.finalizedDeals(
+                            marketplaceClient,
+                            parentBuyerName,
+                            request -> request.setFilter(filter).setPageSize(pageSize)))
+                .setOverlap(Duration.ofSeconds(parsedArgs.getLong("overlap_seconds")))
+                .setFullSyncInterval(Duration.ofHours(parsedArgs.getLong("full_sync_hours")))
+                .setFullSync(parsedArgs.getBoolean("full"));
+        sync.run(finalizedDeal -> {});
+        System.out.printf(
+            "%s sync listed %d finalized deals: %d new, %d updated.%n",
+            sync.isLastSyncFull() ? "Full" : "Incremental",
+            sync.getListedCount(),
+            sync.getInsertedCount(),
+            sync.getUpdatedCount());
+      }
+
+      FinalizedDealMirror.Query query = mirror.query();
+      if (parsedArgs.getString("deal_id") != null) {
+        query.setName(
+            String.format(
+                "%s/finalizedDeals/%s", parentBuyerName, parsedArgs.getString("deal_id")));
+      }
+      if (parsedArgs.getString("serving_status") != null) {
+        query.setServingStatus(parsedArgs.getString("serving_status"));
+      }
+      if (parsedArgs.getString("publisher_profile") != null) {
+        query.setPublisherProfile(parsedArgs.getString("publisher_profile"));
+      }
+      if (parsedArgs.getString("deal_type") != null) {
+        query.setDealType(parsedArgs.getString("deal_type"));
+      }
+      query.setFilter(parsedArgs.getString("filter"));
+      query.setOrderBy(parsedArgs.getString("order_by"));
+      String flightFrom = parsedArgs.getString("flight_from");
+      String flightTo = parsedArgs.getString("flight_to");
+      if (flightFrom != null || flightTo != null) {
+        query.setFlightWindow(
+            (flightFrom != null) ? Instant.parse(flightFrom) : null,
+            (flightTo != null) ? Instant.parse(flightTo) : null);
+      }
+
+      long start = System.nanoTime();
+      List<FinalizedDeal> finalizedDeals = query.list();
+      long lookupMicros = (System.nanoTime() - start) / 1000;
+
+      System.out.printf("Found mirrored finalized deals for buyer account ID '%d':%n", accountId);
+      if (finalizedDeals.isEmpty()) {
+        System.out.println("No finalized deals found.");
+      }
+      for (FinalizedDeal finalizedDeal : finalizedDeals) {
+        Utils.printFinalizedDeal(finalizedDeal);
+      }
+      System.out.printf(
+          "Matched %d of %d mirrored finalized deals in %d microseconds.%n",
+          finalizedDeals.size(), mirror.size(), lookupMicros);
+    } catch (IOException ex) {
+      System.out.printf("Marketplace API returned error response:%n%s", ex);
+      Utils.exit(1);
+    }
+  }
+
+  public static void main(String[] args) {
+    ArgumentParser parser =
+        ArgumentParsers.newFor("MirrorFinalizedDeals")
+            .build()
+            .defaultHelp(true)
+            .description(
+                ("Syncs a local mirror of the finalized deals of the given buyer account, and "
+                    + "prints the mirrored finalized deals that match the given criteria."));
+    parser
+        .addArgument("-a", "--account_id")
+        .help(
+            "The resource ID of the buyers resource under which the finalized deals are being "
+                + "mirrored. This will be used to construct the parent used as a path parameter "
+                + "for the finalizedDeals.list request.")
+        .required(true)
+        .type(Long.class);
+    parser
+        .addArgument("-d", "--deal_id")
+        .help("Prints only the finalized deal with the given resource ID.");
+    parser
+        .addArgument("--serving_status")
+        .help("Prints only finalized deals with the given serving status, e.g. ACTIVE.");
+    parser
+        .addArgument("--publisher_profile")
+        .help(
+            "Prints only finalized deals with the given publisher profile, e.g. "
+                + "buyers/12345/publisherProfiles/PP12345.");
+    parser
+        .addArgument("--deal_type")
+        .help("Prints only finalized deals of the given deal type, e.g. PREFERRED_DEAL.");
+    parser
+        .addArgument("--flight_from")
+        .help(
+            "Prints only finalized deals whose flight ends at or after this time, e.g. "
+                + "2026-01-01T00:00:00Z.");
+    parser
+        .addArgument("--flight_to")
+        .help("Prints only finalized deals whose flight starts before this time.");
+    parser
+        .addArgument("-f", "--filter")
+        .help(
+            "Prints only finalized deals that match this filter, which uses the syntax of the "
+                + "filter parameter of finalizedDeals.list, e.g. \"deal.dealType = "
+                + "PROGRAMMATIC_GUARANTEED\". The filter is evaluated locally.");
+    parser
+        .addArgument("-o", "--order_by")
+        .help(
+            "Sorts the printed finalized deals as specified, using the syntax of the orderBy "
+                + "parameter of finalizedDeals.list, e.g. \"deal.flightStartTime desc\".");
+    parser
+        .addArgument("--offline")
+        .help("Looks up finalized deals without syncing the mirror first.")
+        .action(Arguments.storeTrue());
+    parser
+        .addArgument("--full")
+        .help("Lists all finalized deals, rather than only those updated since the last sync.")
+        .action(Arguments.storeTrue());
+    parser
+        .addArgument("--full_sync_hours")
+        .help(
+            "The number of hours after which all finalized deals are listed again, which picks "
+                + "up changes that don't update the deal, such as a changed serving status.")
+        .type(Long.class)
+        .setDefault(24L);
+    parser
+        .addArgument("--overlap_seconds")
+        .help(
+            "The number of seconds before the latest update time seen by the previous sync "
+                + "from which finalized deals are listed again, so that updates that became "
+                + "visible late aren't missed.")
+        .type(Long.class)
+        .setDefault(300L);
+    parser
+        .addArgument("-p", "--page_size")
+        .help(
+            "The number of rows to return per page. The server may return fewer rows than "
+                + "specified. By default, the page size is adjusted to the latency and size of "
+                + "the pages received.")
+        .type(Integer.class);
+
+    OutputFormat.addArgument(parser);
+
+    Namespace parsedArgs = null;
+    try {
+      parsedArgs = parser.parseArgs(args);
+      for (String argument : new String[] {"flight_from", "flight_to"}) {
+        String value = parsedArgs.getString(argument);
+        try {
+          if (value != null) {
+            Instant.parse(value);
+          }
+        } catch (DateTimeParseException ex) {
+          throw new ArgumentParserException(
+              String.format("argument --%s: \"%s\" is not an RFC 3339 timestamp", argument, value),
+              parser);
+        }
+      }
+      try {
+        FieldSchema.FINALIZED_DEAL.compileFilter(parsedArgs.getString("filter"));
+        FieldSchema.FINALIZED_DEAL.compileOrderBy(parsedArgs.getString("order_by"));
+      } catch (IllegalArgumentException ex) {
+        throw new ArgumentParserException(ex.getMessage(), parser);
+      }
+    } catch (ArgumentParserException ex) {
+      parser.handleError(ex);
+      Utils.exit(1);
+    }
+
+    OutputFormat.select(parsedArgs);
+
+    AuthorizedBuyersMarketplace client = null;
+    try {
+      client = Utils.getMarketplaceClient();
+    } catch (IOException ex) {
+      System.out.printf("Unable to create Marketplace API service:%n%s", ex);
+      System.out.println("Did you specify a valid path to a service account key file?");
+      Utils.exit(1);
+    } catch (GeneralSecurityException ex) {
+      System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
+      Utils.exit(1);
+    }
+
+    execute(client, parsedArgs);
+  }
+}
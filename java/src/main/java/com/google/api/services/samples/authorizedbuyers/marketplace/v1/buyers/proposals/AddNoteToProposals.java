@@ -20,6 +20,7 @@ import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMa
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.AddNoteRequest;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.Note;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
@@ -49,7 +50,7 @@ public class AddNoteToProposals {
           marketplaceClient.buyers().proposals().addNote(proposalName, addNoteRequest).execute();
     } catch (IOException ex) {
       System.out.printf("Marketplace API returned error response:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     System.out.printf("Adding note to proposal with name \"%s\":%n", proposalName);
@@ -84,24 +85,28 @@ public class AddNoteToProposals {
         .type(String.class)
         .setDefault("Created note from Java sample.");
 
+    OutputFormat.addArgument(parser);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
@@ -19,7 +19,11 @@ package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.p
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListProposalsResponse;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
+import com.google.api.services.samples.authorizedbuyers.marketplace.FieldMasks;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.PrefetchingPageReader;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.ScanCheckpoint;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.List;
@@ -35,38 +39,66 @@ public class ListProposals {
     Long accountId = parsedArgs.getLong("account_id");
     Integer pageSize = parsedArgs.getInt("page_size");
     String parentBuyerName = String.format("buyers/%d", accountId);
-    String pageToken = null;
 
-    System.out.printf("Found proposals for buyer account ID '%d':%n", accountId);
-
-    do {
-      List<Proposal> proposals = null;
+    ScanCheckpoint checkpoint = null;
+    try {
+      checkpoint =
+          ScanCheckpoint.open(parsedArgs, parentBuyerName, parsedArgs.getString("filter"), null);
+    } catch (IOException ex) {
+      System.out.printf("Unable to open the checkpoint:%n%s", ex);
+      Utils.exit(1);
+    }
+    if (checkpoint.isComplete()) {
+      System.out.printf(
+          "The checkpointed scan already listed all %d proposals.%n", checkpoint.getItemCount());
+      return;
+    }
 
-      try {
-        ListProposalsResponse response =
-            marketplaceClient
-                .buyers()
-                .proposals()
-                .list(parentBuyerName)
-                .setFilter(parsedArgs.getString("filter"))
-                .setPageSize(pageSize)
-                .setPageToken(pageToken)
-                .execute();
+    System.out.printf("Found proposals for buyer account ID '%d':%n", accountId);
+    if (checkpoint.getPageCount() > 0) {
+      System.out.printf(
+          "Resuming after %d pages with %d proposals.%n",
+          checkpoint.getPageCount(), checkpoint.getItemCount());
+    }
 
-        proposals = response.getProposals();
-        pageToken = response.getNextPageToken();
-      } catch (IOException ex) {
-        System.out.printf("Marketplace API returned error response:%n%s", ex);
-        System.exit(1);
-      }
-      if (proposals == null) {
-        System.out.println("No proposals found.");
-      } else {
-        for (Proposal proposal : proposals) {
-          Utils.printProposal(proposal);
+    try (PrefetchingPageReader<ListProposalsResponse> pages =
+        new PrefetchingPageReader<>(
+            pageToken ->
+                marketplaceClient
+                    .buyers()
+                    .proposals()
+                    .list(parentBuyerName)
+                    .setFilter(parsedArgs.getString("filter"))
+                    .setPageSize(pageSize)
+                    .setPageToken(pageToken)
+                    .setFields(FieldMasks.PROPOSAL.forList(parsedArgs.getString("fields"))),
+            ListProposalsResponse::getNextPageToken,
+            1,
+            checkpoint.getPageToken())) {
+      for (ListProposalsResponse page = pages.next(); page != null; page = pages.next()) {
+        List<Proposal> proposals = page.getProposals();
+        if (proposals == null) {
+          System.out.println("No proposals found.");
+        } else {
+          for (Proposal proposal : proposals) {
+            Utils.printProposal(proposal);
+          }
+        }
+        // The page must be written out before the checkpoint records it as listed.
+        OutputFormat.flush();
+        try {
+          checkpoint.completePage(
+              page.getNextPageToken(), (proposals == null) ? 0 : proposals.size());
+        } catch (IOException ex) {
+          System.out.printf("Unable to save the checkpoint:%n%s", ex);
+          Utils.exit(1);
+          return;
         }
       }
-    } while (pageToken != null);
+    } catch (IOException ex) {
+      System.out.printf("Marketplace API returned error response:%n%s", ex);
+      Utils.exit(1);
+    }
   }
 
   public static void main(String[] args) {
@@ -94,28 +126,34 @@ public class ListProposals {
         .addArgument("-p", "--page_size")
         .help(
             "The number of rows to return per page. The server may return fewer rows than "
-                + "specified.")
-        .setDefault(Utils.getMaximumPageSize())
+                + "specified. By default, the page size is adjusted to the latency and size of "
+                + "the pages received.")
         .type(Integer.class);
 
+    ScanCheckpoint.addArguments(parser);
+    FieldMasks.PROPOSAL.addArgument(parser);
+    OutputFormat.addArgument(parser);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
@@ -26,6 +26,7 @@ import com.google.api.services.authorizedbuyersmarketplace.v1.model.PreferredDea
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.Price;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.SendRfpRequest;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
@@ -109,7 +110,7 @@ public class SendRfpForPreferredDealProposals {
       proposal = marketplaceClient.buyers().proposals().sendRfp(parent, rfp).execute();
     } catch (IOException ex) {
       System.out.printf("Marketplace API returned error response:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     System.out.printf("Sending preferred deal RFP for buyer Account ID '%d':%n", accountId);
@@ -155,24 +156,28 @@ public class SendRfpForPreferredDealProposals {
         .type(String.class)
         .setDefault(String.format("Test PD Proposal %s", UUID.randomUUID()));
 
+    OutputFormat.addArgument(parser);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.proposals;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.Paginators;
+import com.google.api.services.samples.authorizedbuyers.marketplace.store.IncrementalSync;
+import com.google.api.services.samples.authorizedbuyers.marketplace.store.ResourceStore;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * This sample illustrates how to keep a local copy of a buyer's proposals up to date by listing
+ * only the proposals that were updated since the previous run.
+ */
+public class SyncProposals {
+
+  public static void execute(AuthorizedBuyersMarketplace marketplaceClient, Namespace parsedArgs) {
+    Long accountId = parsedArgs.getLong("account_id");
+    Integer pageSize = parsedArgs.getInt("page_size");
+    String parentBuyerName = String.format("buyers/%d", accountId);
+    Path storeDirectory = Utils.getStoreDirectory(parentBuyerName);
+
+    try (ResourceStore<Proposal> store =
+        ResourceStore.open(
+            storeDirectory.resolve("proposals.ndjson"), Proposal.class, Proposal::getName)) {
+      IncrementalSync<Proposal> sync =
+          new IncrementalSync<>(
+                  store,
+                  storeDirectory.resolve("proposals-sync.json"),
+                  "updateTime",
+                  Proposal::getUpdateTime,
+                  filter ->
+                      Paginators.proposals(
+                          marketplaceClient,
+                          parentBuyerName,
+                          request -> request.setFilter(filter).setPageSize(pageSize)))
+              .setFilter(parsedArgs.getString("filter"))
+              .setOverlap(Duration.ofSeconds(parsedArgs.getLong("overlap_seconds")))
+              .setFullSync(parsedArgs.getBoolean("full"));
+
+      System.out.printf("Changed proposals for buyer account ID '%d':%n", accountId);
+      sync.run(Utils::printProposal);
+
+      System.out.printf(
+          "%s sync listed %d proposals: %d new, %d updated. %d proposals are stored in %s, "
+              + "updated until %s.%n",
+          sync.isLastSyncFull() ? "Full" : "Incremental",
+          sync.getListedCount(),
+          sync.getInsertedCount(),
+          sync.getUpdatedCount(),
+          store.size(),
+          storeDirectory,
+          sync.getWatermark());
+    } catch (IOException ex) {
+      System.out.printf("Marketplace API returned error response:%n%s", ex);
+      Utils.exit(1);
+    }
+  }
+
+  public static void main(String[] args) {
+    ArgumentParser parser =
+        ArgumentParsers.newFor("SyncProposals")
+            .build()
+            .defaultHelp(true)
+            .description(
+                ("Upserts the proposals of the given buyer account that changed since the "
+                    + "previous run into a local store, and prints them."));
+    parser
+        .addArgument("-a", "--account_id")
+        .help(
+            "The resource ID of the buyers resource under which the proposals are being "
+                + "synced. This will be used to construct the parent used as a path parameter "
+                + "for the proposals.list request.")
+        .required(true)
+        .type(Long.class);
+    parser
+        .addArgument("-f", "--filter")
+        .help(
+            "Query string to filter the synced proposals. Changing the filter syncs all "
+                + "proposals again. By default, all proposals are synced.");
+    parser
+        .addArgument("--overlap_seconds")
+        .help(
+            "The number of seconds before the latest update time seen by the previous run from "
+                + "which proposals are listed again, so that updates that became visible late "
+                + "aren't missed.")
+        .type(Long.class)
+        .setDefault(300L);
+    parser
+        .addArgument("--full")
+        .help("Lists all proposals, rather than only those updated since the previous run.")
+        .action(Arguments.storeTrue());
+    parser
+        .addArgument("-p", "--page_size")
+        .help(
+            "The number of rows to return per page. The server may return fewer rows than "
+                + "specified. By default, the page size is adjusted to the latency and size of "
+                + "the pages received.")
+        .type(Integer.class);
+
+    OutputFormat.addArgument(parser);
+
+    Namespace parsedArgs = null;
+    try {
+      parsedArgs = parser.parseArgs(args);
+      if (parsedArgs.getLong("overlap_seconds") < 0) {
+        throw new ArgumentParserException(
+            "argument --overlap_seconds must not be negative", parser);
+      }
+    } catch (ArgumentParserException ex) {
+      parser.handleError(ex);
+      Utils.exit(1);
+    }
+
+    OutputFormat.select(parsedArgs);
+
+    AuthorizedBuyersMarketplace client = null;
+    try {
+      client = Utils.getMarketplaceClient();
+    } catch (IOException ex) {
+      System.out.printf("Unable to create Marketplace API service:%n%s", ex);
+      System.out.println("Did you specify a valid path to a service account key file?");
+      Utils.exit(1);
+    } catch (GeneralSecurityException ex) {
+      System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
+      Utils.exit(1);
+    }
+
+    execute(client, parsedArgs);
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.proposals.deals;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
+import com.google.api.services.samples.authorizedbuyers.marketplace.FieldMasks;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.batch.MultiGet;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * This sample illustrates how to get multiple deals for the given buyer account ID and proposal ID
+ * using batch requests, each of which retrieves up to {@code --batch_size} deals in a single round
+ * trip.
+ */
+public class BatchGetDeals {
+
+  public static void execute(AuthorizedBuyersMarketplace marketplaceClient, Namespace parsedArgs) {
+    Long accountId = parsedArgs.getLong("account_id");
+    String proposalId = parsedArgs.getString("proposal_id");
+    String fields = FieldMasks.DEAL.forGet(parsedArgs.getString("fields"));
+
+    List<String> names = new ArrayList<>();
+    try {
+      List<String> ids =
+          MultiGet.readIds(parsedArgs.getList("ids"), parsedArgs.getString("ids_file"));
+      for (String id : ids) {
+        names.add(String.format("buyers/%d/proposals/%s/deals/%s", accountId, proposalId, id));
+      }
+    } catch (IOException ex) {
+      System.out.printf("Unable to read deal IDs:%n%s", ex);
+      Utils.exit(1);
+    }
+    if (names.isEmpty()) {
+      System.out.println("No deal IDs were specified.");
+      Utils.exit(1);
+    }
+
+    List<MultiGet.Result<Deal>> results = null;
+
+    try {
+      results =
+          MultiGet.execute(
+              marketplaceClient,
+              names,
+              name ->
+                  marketplaceClient
+                      .buyers()
+                      .proposals()
+                      .deals()
+                      .get(name)
+                      .setFields(fields),
+              parsedArgs.getInt("batch_size"));
+    } catch (IOException ex) {
+      System.out.printf("Marketplace API returned error response:%n%s", ex);
+      Utils.exit(1);
+    }
+
+    int found = 0;
+    for (MultiGet.Result<Deal> result : results) {
+      if (result.isSuccess()) {
+        Utils.printDeal(result.getResource());
+        found++;
+      } else {
+        System.out.printf(
+            "Unable to get deal \"%s\": %s%n", result.getName(), result.getError().getMessage());
+      }
+    }
+    System.out.printf(
+        "Found %d of %d requested deals for buyer account ID \"%d\".%n",
+        found, results.size(), accountId);
+  }
+
+  public static void main(String[] args) {
+    ArgumentParser parser =
+        ArgumentParsers.newFor("BatchGetDeals")
+            .build()
+            .defaultHelp(true)
+            .description(
+                ("Get multiple deals for the given buyer account ID and proposal ID using batch "
+                    + "requests."));
+    parser
+        .addArgument("-a", "--account_id")
+        .help(
+            "The resource ID of the buyers resource under which the deals are being retrieved. "
+                + "This will be used to construct the names used as path parameters for the "
+                + "deals.get requests.")
+        .required(true)
+        .type(Long.class);
+    parser
+        .addArgument("-p", "--proposal_id")
+        .help(
+            "The resource ID of the buyers.proposals resource under which the deals are being "
+                + "retrieved. This will be used to construct the names used as path parameters "
+                + "for the deals.get requests.")
+        .required(true);
+    parser
+        .addArgument("-i", "--ids")
+        .help(
+            "The resource IDs of the buyers.proposals.deals resources to retrieve. Several IDs "
+                + "may be separated by spaces or commas.")
+        .nargs("*");
+    parser
+        .addArgument("--ids_file")
+        .help(
+            "The path to a file containing resource IDs of buyers.proposals.deals resources to "
+                + "retrieve, one per line. These are retrieved in addition to IDs specified with "
+                + "--ids.");
+    parser
+        .addArgument("-b", "--batch_size")
+        .help(
+            String.format(
+                "The maximum number of deals retrieved by each batch request, up to %d.",
+                MultiGet.MAX_BATCH_SIZE))
+        .type(Integer.class)
+        .choices(Arguments.range(1, MultiGet.MAX_BATCH_SIZE))
+        .setDefault(100);
+
+    FieldMasks.DEAL.addArgument(parser);
+    OutputFormat.addArgument(parser);
+
+    Namespace parsedArgs = null;
+    try {
+      parsedArgs = parser.parseArgs(args);
+    } catch (ArgumentParserException ex) {
+      parser.handleError(ex);
+      Utils.exit(1);
+    }
+
+    OutputFormat.select(parsedArgs);
+
+    AuthorizedBuyersMarketplace client = null;
+    try {
+      client = Utils.getMarketplaceClient();
+    } catch (IOException ex) {
+      System.out.printf("Unable to create Marketplace API service:%n%s", ex);
+      System.out.println("Did you specify a valid path to a service account key file?");
+      Utils.exit(1);
+    } catch (GeneralSecurityException ex) {
+      System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
+      Utils.exit(1);
+    }
+
+    execute(client, parsedArgs);
+  }
+}
@@ -19,7 +19,10 @@ package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.p
 import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListDealsResponse;
+import com.google.api.services.samples.authorizedbuyers.marketplace.FieldMasks;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.PrefetchingPageReader;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.List;
@@ -36,38 +39,37 @@ public class ListDeals {
     String proposalId = parsedArgs.getString("proposal_id");
     Integer pageSize = parsedArgs.getInt("page_size");
     String parent = String.format("buyers/%d/proposals/%s", accountId, proposalId);
-    String pageToken = null;
 
     System.out.printf("Found deals for proposal with name \"%s\":%n", parent);
 
-    do {
-      List<Deal> deals = null;
-
-      try {
-        ListDealsResponse response =
-            marketplaceClient
-                .buyers()
-                .proposals()
-                .deals()
-                .list(parent)
-                .setPageSize(pageSize)
-                .setPageToken(pageToken)
-                .execute();
-
-        deals = response.getDeals();
-        pageToken = response.getNextPageToken();
-      } catch (IOException ex) {
-        System.out.printf("Marketplace API returned error response:%n%s", ex);
-        System.exit(1);
-      }
-      if (deals == null) {
-        System.out.println("No proposals found.");
-      } else {
-        for (Deal deal : deals) {
-          Utils.printDeal(deal);
+    try (PrefetchingPageReader<ListDealsResponse> pages =
+        new PrefetchingPageReader<>(
+            pageToken ->
+                marketplaceClient
+                    .buyers()
+                    .proposals()
+                    .deals()
+                    .list(parent)
+                    .setPageSize(pageSize)
+                    .setPageToken(pageToken)
+                    .setFields(FieldMasks.DEAL.forList(parsedArgs.getString("fields"))),
+            ListDealsResponse::getNextPageToken)) {
+      for (ListDealsResponse page = pages.next(); page != null; page = pages.next()) {
+        List<Deal> deals = page.getDeals();
+        if (deals == null) {
+          System.out.println("No proposals found.");
+        } else {
+          for (Deal deal : deals) {
+            Utils.printDeal(deal);
+          }
         }
+        // Writes out the page while the next one is being requested.
+        OutputFormat.flush();
       }
-    } while (pageToken != null);
+    } catch (IOException ex) {
+      System.out.printf("Marketplace API returned error response:%n%s", ex);
+      Utils.exit(1);
+    }
   }
 
   public static void main(String[] args) {
@@ -95,28 +97,33 @@ public class ListDeals {
         .addArgument("-p", "--page_size")
         .help(
             "The number of rows to return per page. The server may return fewer rows than "
-                + "specified.")
-        .setDefault(Utils.getMaximumPageSize())
+                + "specified. By default, the page size is adjusted to the latency and size of "
+                + "the pages received.")
         .type(Integer.class);
 
+    FieldMasks.DEAL.addArgument(parser);
+    OutputFormat.addArgument(parser);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
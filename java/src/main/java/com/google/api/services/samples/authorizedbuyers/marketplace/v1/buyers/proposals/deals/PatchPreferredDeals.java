@@ -21,6 +21,7 @@ import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.Money;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.PreferredDealTerms;
 import com.google.api.services.authorizedbuyersmarketplace.v1.model.Price;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
 import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
@@ -84,7 +85,7 @@ public class PatchPreferredDeals {
               .execute();
     } catch (IOException ex) {
       System.out.printf("Marketplace API returned error response:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     System.out.printf("Patching deal with name \"%s\":%n", name);
@@ -140,24 +141,28 @@ public class PatchPreferredDeals {
         .type(Integer.class)
         .setDefault(500000000);
 
+    OutputFormat.addArgument(parser);
+
     Namespace parsedArgs = null;
     try {
       parsedArgs = parser.parseArgs(args);
     } catch (ArgumentParserException ex) {
       parser.handleError(ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
+    OutputFormat.select(parsedArgs);
+
     AuthorizedBuyersMarketplace client = null;
     try {
       client = Utils.getMarketplaceClient();
     } catch (IOException ex) {
       System.out.printf("Unable to create Marketplace API service:%n%s", ex);
       System.out.println("Did you specify a valid path to a service account key file?");
-      System.exit(1);
+      Utils.exit(1);
     } catch (GeneralSecurityException ex) {
       System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
-      System.exit(1);
+      Utils.exit(1);
     }
 
     execute(client, parsedArgs);
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.v1.buyers.publisherProfiles;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.PublisherProfile;
+import com.google.api.services.samples.authorizedbuyers.marketplace.FieldMasks;
+import com.google.api.services.samples.authorizedbuyers.marketplace.OutputFormat;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.batch.MultiGet;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * This sample illustrates how to get multiple publisher profiles for the given buyer account ID
+ * using batch requests, each of which retrieves up to {@code --batch_size} publisher profiles in a
+ * single round trip.
+ */
+public class BatchGetPublisherProfiles {
+
+  public static void execute(AuthorizedBuyersMarketplace marketplaceClient, Namespace parsedArgs) {
+    Long accountId = parsedArgs.getLong("account_id");
+    String fields = FieldMasks.PUBLISHER_PROFILE.forGet(parsedArgs.getString("fields"));
+
+    List<String> names = new ArrayList<>();
+    try {
+      List<String> ids =
+          MultiGet.readIds(parsedArgs.getList("ids"), parsedArgs.getString("ids_file"));
+      for (String id : ids) {
+        names.add(String.format("buyers/%d/publisherProfiles/%s", accountId, id));
+      }
+    } catch (IOException ex) {
+      System.out.printf("Unable to read publisher profile IDs:%n%s", ex);
+      Utils.exit(1);
+    }
+    if (names.isEmpty()) {
+      System.out.println("No publisher profile IDs were specified.");
+      Utils.exit(1);
+    }
+
+    List<MultiGet.Result<PublisherProfile>> results = null;
+
+    try {
+      results =
+          MultiGet.execute(
+              marketplaceClient,
+              names,
+              name ->
+                  marketplaceClient
+                      .buyers()
+                      .publisherProfiles()
+                      .get(name)
+                      .setFields(fields),
+              parsedArgs.getInt("batch_size"));
+    } catch (IOException ex) {
+      System.out.printf("Marketplace API returned error response:%n%s", ex);
+      Utils.exit(1);
+    }
+
+    int found = 0;
+    for (MultiGet.Result<PublisherProfile> result : results) {
+      if (result.isSuccess()) {
+        Utils.printPublisherProfile(result.getResource());
+        found++;
+      } else {
+        System.out.printf(
+            "Unable to get publisher profile \"%s\": %s%n",
+            result.getName(),
+            result.getError().getMessage());
+      }
+    }
+    System.out.printf(
+        "Found %d of %d requested publisher profiles for buyer account ID \"%d\".%n",
+        found, results.size(), accountId);
+  }
+
+  public static void main(String[] args) {
+    ArgumentParser parser =
+        ArgumentParsers.newFor("BatchGetPublisherProfiles")
+            .build()
+            .defaultHelp(true)
+            .description(
+                ("Get multiple publisher profiles for the given buyer account ID using batch "
+                    + "requests."));
+    parser
+        .addArgument("-a", "--account_id")
+        .help(
+            "The resource ID of the buyers resource under which the publisher profiles are being "
+                + "retrieved. This will be used to construct the names used as path parameters "
+                + "for the publisherProfiles.get requests.")
+        .required(true)
+        .type(Long.class);
+    parser
+        .addArgument("-i", "--ids")
+        .help(
+            "The resource IDs of the buyers.publisherProfiles resources to retrieve. Several IDs "
+                + "may be separated by spaces or commas.")
+        .nargs("*");
+    parser
+        .addArgument("--ids_file")
+        .help(
+            "The path to a file containing resource IDs of buyers.publisherProfiles resources to "
+                + "retrieve, one per line. These are retrieved in addition to IDs specified with "
+                + "--ids.");
+    parser
+        .addArgument("-b", "--batch_size")
+        .help(
+            String.format(
+                "The maximum number of publisher profiles retrieved by each batch request, up to "
+                    + "%d.",
+                MultiGet.MAX_BATCH_SIZE))
+        .type(Integer.class)
+        .choices(Arguments.range(1, MultiGet.MAX_BATCH_SIZE))
+        .setDefault(100);
+
+    FieldMasks.PUBLISHER_PROFILE.addArgument(parser);
+    OutputFormat.addArgument(parser);
+
+    Namespace parsedArgs = null;
+    try {
+      parsedArgs = parser.parseArgs(args);
+    } catch (ArgumentParserException ex) {
+      parser.handleError(ex);
+      Utils.exit(1);
+    }
+
+    OutputFormat.select(parsedArgs);
+
+    AuthorizedBuyersMarketplace client = null;
+    try {
+      client = Utils.getMarketplaceClient();
+    } catch (IOException ex) {
+      System.out.printf("Unable to create Marketplace API service:%n%s", ex);
+      System.out.println("Did you specify a valid path to a service account key file?");
+      Utils.exit(1);
+    } catch (GeneralSecurityException ex) {
+      System.out.printf("Unable to establish secure HttpTransport:%n%s", ex);
+      Utils.exit(1);
+    }
+
+    execute(client, parsedArgs);
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import org.junit.Test;
+
+/** Tests for {@link FieldMasks}, through the {@code --fields} argument that it parses. */
+public class FieldMasksTest {
+
+  @Test
+  public void acceptsPresets() throws ArgumentParserException {
+    assertEquals("summary", parse(FieldMasks.PROPOSAL, "summary"));
+    assertEquals(FieldMasks.FULL, parse(FieldMasks.PROPOSAL));
+    assertNull(FieldMasks.PROPOSAL.forList(FieldMasks.FULL));
+  }
+
+  @Test
+  public void acceptsFieldLists() throws ArgumentParserException {
+    String fields = "name,deal(displayName,dealType),rtbMetrics/bids7Days";
+    assertEquals(fields, parse(FieldMasks.FINALIZED_DEAL, fields));
+    assertEquals(fields, FieldMasks.FINALIZED_DEAL.forGet(fields));
+    assertEquals(
+        "finalizedDeals(" + fields + "),nextPageToken", FieldMasks.FINALIZED_DEAL.forList(fields));
+  }
+
+  @Test
+  public void addsRequiredPathsToListMask() {
+    assertEquals(
+        "finalizedDeals(name,deal/flightStartTime),nextPageToken",
+        FieldMasks.FINALIZED_DEAL.forList("name", Arrays.asList("deal.flightStartTime")));
+    assertNull(FieldMasks.FINALIZED_DEAL.forList(FieldMasks.FULL, Arrays.asList("name")));
+  }
+
+  @Test
+  public void rejectsMalformedFieldLists() {
+    for (String fields :
+        new String[] {"name,deal(displayName", "name,deal)displayName(", "name,,deal", "name,"}) {
+      ArgumentParserException ex =
+          assertThrows(
+              fields,
+              ArgumentParserException.class,
+              () -> parse(FieldMasks.FINALIZED_DEAL, fields));
+      assertTrue(ex.getMessage(), ex.getMessage().contains("is not a valid field list"));
+    }
+  }
+
+  @Test
+  public void rejectsFieldsThatCantBePrinted() {
+    ArgumentParserException ex =
+        assertThrows(
+            ArgumentParserException.class, () -> parse(FieldMasks.PROPOSAL, "name,unknownField"));
+    assertTrue(ex.getMessage(), ex.getMessage().contains("\"unknownField\""));
+  }
+
+  @Test
+  public void rejectsFieldListsWithoutName() {
+    ArgumentParserException ex =
+        assertThrows(
+            ArgumentParserException.class, () -> parse(FieldMasks.PROPOSAL, "displayName"));
+    assertTrue(ex.getMessage(), ex.getMessage().contains("\"name\""));
+  }
+
+  private static String parse(FieldMasks fieldMasks, String... args)
+      throws ArgumentParserException {
+    ArgumentParser parser = ArgumentParsers.newFor("FieldMasksTest").build();
+    fieldMasks.addArgument(parser);
+    String[] fieldsArgs = new String[args.length * 2];
+    for (int i = 0; i < args.length; i++) {
+      fieldsArgs[2 * i] = "--fields";
+      fieldsArgs[2 * i + 1] = args[i];
+    }
+    return parser.parseArgs(fieldsArgs).getString("fields");
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.AimdConcurrencyLimiter;
+import com.google.api.services.samples.authorizedbuyers.marketplace.http.ThrottlingRequestInitializer;
+import com.google.api.services.samples.authorizedbuyers.marketplace.standin.StandInServer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for {@link MultiGet} against the stand-in server. */
+public class MultiGetTest {
+
+  private StandInServer server;
+  private AimdConcurrencyLimiter concurrencyLimiter;
+  private AuthorizedBuyersMarketplace client;
+
+  @Before
+  public void setUp() throws IOException {
+    server = new StandInServer(Utils.getJsonFactory(), 50);
+    server.start();
+
+    // Allows fewer requests in flight than there are parts in a batch.
+    concurrencyLimiter = new AimdConcurrencyLimiter(2, 1, 2, 0.5);
+    client =
+        new AuthorizedBuyersMarketplace.Builder(
+                new NetHttpTransport(),
+                Utils.getJsonFactory(),
+                new ThrottlingRequestInitializer(null, null, concurrencyLimiter))
+            .setRootUrl(server.getRootUrl())
+            .setApplicationName("MultiGetTest")
+            .build();
+  }
+
+  @After
+  public void tearDown() {
+    server.stop();
+  }
+
+  @Test(timeout = 30000)
+  public void throttlesBatchesRatherThanParts() throws IOException {
+    List<String> names = new ArrayList<>();
+    for (int i = 1; i <= 24; i++) {
+      names.add("buyers/1/proposals/MP" + i);
+    }
+    names.add("buyers/1/proposals/missing");
+
+    List<MultiGet.Result<Proposal>> results =
+        MultiGet.execute(
+            client, names, name -> client.buyers().proposals().get(name), 10);
+
+    assertEquals(names.size(), results.size());
+    for (int i = 0; i < 24; i++) {
+      MultiGet.Result<Proposal> result = results.get(i);
+      assertTrue(result.getName(), result.isSuccess());
+      assertEquals(names.get(i), result.getResource().getName());
+    }
+    MultiGet.Result<Proposal> missing = results.get(24);
+    assertFalse(missing.isSuccess());
+    assertEquals(404, missing.getError().getCode());
+    assertEquals(0, concurrencyLimiter.getInFlight());
+  }
+}
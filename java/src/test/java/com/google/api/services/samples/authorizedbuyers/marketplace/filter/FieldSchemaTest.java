@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Contact;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.RtbMetrics;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.Test;
+
+/** Tests for {@link FieldSchema}. */
+public class FieldSchemaTest {
+
+  @Test
+  public void comparesNumbersAndTimestampsByValue() {
+    FinalizedDeal finalizedDeal =
+        new FinalizedDeal()
+            .setRtbMetrics(new RtbMetrics().setBids7Days(10L))
+            .setDeal(new Deal().setUpdateTime("2026-01-01T00:30:00Z"));
+
+    assertTrue(matches("rtbMetrics.bids7Days > 9", finalizedDeal));
+    assertFalse(matches("rtbMetrics.bids7Days < 9", finalizedDeal));
+    // 01:00 at an offset of two hours is 23:00 UTC on the previous day.
+    assertTrue(matches("deal.updateTime > \"2026-01-01T01:00:00+02:00\"", finalizedDeal));
+    assertTrue(matches("deal.updateTime = \"2026-01-01T00:30:00.000Z\"", finalizedDeal));
+  }
+
+  @Test
+  public void doesNotMatchMissingFieldsExceptWithNotEquals() {
+    FinalizedDeal finalizedDeal = new FinalizedDeal().setDeal(new Deal());
+
+    assertFalse(matches("deal.dealType = PREFERRED_DEAL", finalizedDeal));
+    assertFalse(matches("deal.dealType < PREFERRED_DEAL", finalizedDeal));
+    assertTrue(matches("deal.dealType != PREFERRED_DEAL", finalizedDeal));
+    assertTrue(matches("rtbMetrics.bids7Days != 0", finalizedDeal));
+  }
+
+  @Test
+  public void combinesComparisons() {
+    FinalizedDeal finalizedDeal =
+        new FinalizedDeal()
+            .setDealServingStatus("ACTIVE")
+            .setReadyToServe(true)
+            .setDeal(new Deal().setDealType("PREFERRED_DEAL"));
+
+    assertTrue(matches(null, finalizedDeal));
+    assertTrue(matches("readyToServe = TRUE AND dealServingStatus : ACTIVE", finalizedDeal));
+    // OR binds more tightly than AND.
+    assertTrue(
+        matches(
+            "dealServingStatus = ACTIVE AND deal.dealType = PRIVATE_AUCTION OR readyToServe = true",
+            finalizedDeal));
+    assertFalse(
+        matches(
+            "dealServingStatus = ENDED AND deal.dealType = PRIVATE_AUCTION OR readyToServe = true",
+            finalizedDeal));
+    assertFalse(matches("NOT (dealServingStatus = ACTIVE)", finalizedDeal));
+    assertTrue(matches("NOT deal.dealType = PRIVATE_AUCTION", finalizedDeal));
+  }
+
+  @Test
+  public void matchesAnyValueOfRepeatedField() {
+    Proposal proposal =
+        new Proposal()
+            .setSellerContacts(
+                List.of(
+                    new Contact().setEmail("a@example.com"),
+                    new Contact().setEmail("b@example.com")));
+    Predicate<Proposal> filter =
+        FieldSchema.PROPOSAL.compileFilter("sellerContacts.email = \"b@example.com\"");
+
+    assertTrue(filter.test(proposal));
+    assertFalse(filter.test(new Proposal()));
+    assertEquals(
+        "a@example.com",
+        FieldSchema.PROPOSAL.compileGetter("sellerContacts.email").apply(proposal));
+  }
+
+  @Test
+  public void rejectsInvalidFilters() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FieldSchema.FINALIZED_DEAL.compileFilter("deal.unknownField = 1"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FieldSchema.FINALIZED_DEAL.compileFilter("rtbMetrics.bids7Days > many"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FieldSchema.FINALIZED_DEAL.compileFilter("readyToServe = yes"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FieldSchema.FINALIZED_DEAL.compileFilter("deal.updateTime > yesterday"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FieldSchema.FINALIZED_DEAL.compileFilter("(dealServingStatus = ACTIVE"));
+  }
+
+  @Test
+  public void sortsByKeysWithMissingValuesFirst() {
+    FinalizedDeal a = finalizedDeal("a", "ACTIVE", "2026-02-01T00:00:00Z");
+    FinalizedDeal b = finalizedDeal("b", "ACTIVE", "2026-03-01T00:00:00Z");
+    FinalizedDeal c = finalizedDeal("c", "ENDED", "2026-01-01T00:00:00Z");
+    FinalizedDeal d = finalizedDeal("d", "ACTIVE", null);
+    List<FinalizedDeal> finalizedDeals = List.of(a, b, c, d);
+
+    OrderBy<FinalizedDeal> byStartTime =
+        FieldSchema.FINALIZED_DEAL.compileOrderBy("deal.flightStartTime");
+    OrderBy<FinalizedDeal> byStatusThenLatestStartTime =
+        FieldSchema.FINALIZED_DEAL.compileOrderBy("dealServingStatus, deal.flightStartTime desc");
+
+    assertEquals(List.of("d", "c", "a", "b"), names(byStartTime.sort(finalizedDeals)));
+    assertEquals(
+        List.of("b", "a", "d", "c"), names(byStatusThenLatestStartTime.sort(finalizedDeals)));
+    assertTrue(byStatusThenLatestStartTime.compare(a, b) > 0);
+    assertTrue(byStatusThenLatestStartTime.compare(d, c) < 0);
+  }
+
+  @Test
+  public void keepsOriginalOrderWithoutOrderBy() {
+    List<FinalizedDeal> finalizedDeals =
+        List.of(finalizedDeal("b", "ACTIVE", null), finalizedDeal("a", "ACTIVE", null));
+    OrderBy<FinalizedDeal> orderBy = FieldSchema.FINALIZED_DEAL.compileOrderBy(null);
+
+    assertTrue(orderBy.isEmpty());
+    assertEquals(List.of("b", "a"), names(orderBy.sort(finalizedDeals)));
+    assertEquals(
+        List.of("b", "a"),
+        names(FieldSchema.FINALIZED_DEAL.compileOrderBy("dealServingStatus").sort(finalizedDeals)));
+  }
+
+  @Test
+  public void rejectsInvalidOrderBy() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FieldSchema.FINALIZED_DEAL.compileOrderBy("deal.unknownField"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FieldSchema.FINALIZED_DEAL.compileOrderBy("deal.dealType sideways"));
+  }
+
+  @Test
+  public void readsTimestampsAsInstants() {
+    FinalizedDeal finalizedDeal = finalizedDeal("a", "ACTIVE", "2026-02-01T00:00:00Z");
+
+    assertEquals(
+        Instant.parse("2026-02-01T00:00:00Z"),
+        FieldSchema.FINALIZED_DEAL.compileGetter("deal.flightStartTime").apply(finalizedDeal));
+    assertNull(
+        FieldSchema.FINALIZED_DEAL.compileGetter("deal.flightEndTime").apply(finalizedDeal));
+  }
+
+  private static boolean matches(String filter, FinalizedDeal finalizedDeal) {
+    return FieldSchema.FINALIZED_DEAL.compileFilter(filter).test(finalizedDeal);
+  }
+
+  private static List<String> names(List<FinalizedDeal> finalizedDeals) {
+    List<String> names = new ArrayList<>();
+    for (FinalizedDeal finalizedDeal : finalizedDeals) {
+      names.add(finalizedDeal.getName());
+    }
+    return names;
+  }
+
+  private static FinalizedDeal finalizedDeal(
+      String name, String servingStatus, String flightStartTime) {
+    return new FinalizedDeal()
+        .setName(name)
+        .setDealServingStatus(servingStatus)
+        .setDeal(new Deal().setFlightStartTime(flightStartTime));
+  }
+}
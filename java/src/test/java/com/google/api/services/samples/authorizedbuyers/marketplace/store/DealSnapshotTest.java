@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.store;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.DealPausingInfo;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Money;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.RtbMetrics;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.TimeZone;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests for {@link DealSnapshot}. */
+public class DealSnapshotTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path file;
+
+  @Before
+  public void setUp() {
+    file = temporaryFolder.getRoot().toPath().resolve("deals.abds");
+  }
+
+  @Test
+  public void roundTripsFinalizedDeals() throws IOException {
+    FinalizedDeal full = finalizedDeal(1);
+    FinalizedDeal sparse = new FinalizedDeal().setName("buyers/1/finalizedDeals/2");
+    try (DealSnapshot.Writer writer = DealSnapshot.newWriter(file)) {
+      writer.add(full).add(sparse);
+      assertEquals(2, writer.size());
+      writer.finish();
+    }
+
+    try (DealSnapshot snapshot = DealSnapshot.open(file)) {
+      assertEquals(2, snapshot.size());
+      assertEquals(full, snapshot.get(0).toFinalizedDeal());
+      assertEquals(sparse, snapshot.get(1).toFinalizedDeal());
+    }
+  }
+
+  @Test
+  public void readsSingleFields() throws IOException {
+    try (DealSnapshot.Writer writer = DealSnapshot.newWriter(file)) {
+      writer.add(finalizedDeal(1)).add(new FinalizedDeal().setName("buyers/1/finalizedDeals/2"));
+      writer.finish();
+    }
+
+    try (DealSnapshot snapshot = DealSnapshot.open(file)) {
+      DealSnapshot.Entry entry = snapshot.get(0);
+      assertEquals("buyers/1/finalizedDeals/1", entry.getString("name"));
+      assertEquals("PROGRAMMATIC_GUARANTEED", entry.getString("deal.dealType"));
+      assertEquals(Long.valueOf(1000), entry.getLong("rtbMetrics.bidRequests7Days"));
+      assertEquals(Double.valueOf(0.5), entry.getDouble("rtbMetrics.bidRate7Days"));
+      assertEquals(Boolean.TRUE, entry.getBoolean("readyToServe"));
+      assertEquals(Long.valueOf(250000000), entry.getLong("deal.estimatedGrossSpend.nanos"));
+
+      DealSnapshot.Entry sparseEntry = snapshot.get(1);
+      assertNull(sparseEntry.getString("deal.dealType"));
+      assertNull(sparseEntry.getLong("rtbMetrics.bids7Days"));
+      assertThrows(IllegalArgumentException.class, () -> sparseEntry.getLong("name"));
+      assertThrows(IllegalArgumentException.class, () -> sparseEntry.getString("deal.targeting"));
+    }
+  }
+
+  @Test
+  public void roundTripsManyDistinctStrings() throws IOException {
+    // More distinct strings than the writer deduplicates at once, which are then stored again.
+    int count = 100000;
+    try (DealSnapshot.Writer writer = DealSnapshot.newWriter(file)) {
+      for (int i = 0; i < count; i++) {
+        writer.add(
+            new FinalizedDeal()
+                .setName("buyers/1/finalizedDeals/" + i)
+                .setDealServingStatus((i % 2 == 0) ? "ACTIVE" : "ENDED"));
+      }
+      writer.finish();
+    }
+
+    try (DealSnapshot snapshot = DealSnapshot.open(file)) {
+      assertEquals(count, snapshot.size());
+      for (int i = 0; i < count; i++) {
+        assertEquals("buyers/1/finalizedDeals/" + i, snapshot.get(i).getString("name"));
+        assertEquals(
+            (i % 2 == 0) ? "ACTIVE" : "ENDED", snapshot.get(i).getString("dealServingStatus"));
+      }
+    }
+  }
+
+  @Test
+  public void storesDealsAsFinalizedDeals() throws IOException {
+    Deal deal = finalizedDeal(1).getDeal();
+    try (DealSnapshot.Writer writer = DealSnapshot.newWriter(file)) {
+      writer.add(deal);
+      writer.finish();
+    }
+
+    try (DealSnapshot snapshot = DealSnapshot.open(file)) {
+      assertEquals(new FinalizedDeal().setDeal(deal), snapshot.get(0).toFinalizedDeal());
+    }
+  }
+
+  @Test
+  public void finishReplacesSnapshotAndDeletesTemporaryFiles() throws IOException {
+    try (DealSnapshot.Writer writer = DealSnapshot.newWriter(file)) {
+      writer.add(finalizedDeal(1)).add(finalizedDeal(2));
+      writer.finish();
+    }
+    try (DealSnapshot.Writer writer = DealSnapshot.newWriter(file)) {
+      writer.add(finalizedDeal(3));
+      writer.finish();
+    }
+
+    try (DealSnapshot snapshot = DealSnapshot.open(file)) {
+      assertEquals(1, snapshot.size());
+      assertEquals("buyers/1/finalizedDeals/3", snapshot.get(0).getString("name"));
+    }
+    assertArrayEquals(new String[] {"deals.abds"}, temporaryFolder.getRoot().list());
+  }
+
+  @Test
+  public void closeWithoutFinishDiscardsSnapshot() throws IOException {
+    try (DealSnapshot.Writer writer = DealSnapshot.newWriter(file)) {
+      writer.add(finalizedDeal(1));
+      assertTrue(temporaryFolder.getRoot().list().length > 0);
+    }
+
+    assertArrayEquals(new String[0], temporaryFolder.getRoot().list());
+  }
+
+  private static FinalizedDeal finalizedDeal(int id) {
+    return new FinalizedDeal()
+        .setName("buyers/1/finalizedDeals/" + id)
+        .setDealServingStatus("ACTIVE")
+        .setReadyToServe(true)
+        .setDealPausingInfo(
+            new DealPausingInfo().setPausingConsented(true).setPauseRole("BUYER"))
+        .setRtbMetrics(
+            new RtbMetrics()
+                .setBidRequests7Days(1000L)
+                .setBids7Days(400L)
+                .setBidRate7Days(0.5)
+                .setMustBidRateCurrentMonth(0.25))
+        .setDeal(
+            new Deal()
+                .setName("buyers/1/proposals/MP1/deals/" + id)
+                .setDisplayName("Deal " + id)
+                .setDealType("PROGRAMMATIC_GUARANTEED")
+                .setProposalRevision(3L)
+                .setBilledBuyer("buyers/1")
+                .setEstimatedGrossSpend(
+                    new Money().setCurrencyCode("USD").setUnits(100L).setNanos(250000000))
+                .setSellerTimeZone(new TimeZone().setId("America/New_York")));
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Deal;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.FinalizedDeal;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests for {@link FinalizedDealMirror}. */
+public class FinalizedDealMirrorTest {
+
+  private static final String PUBLISHER_1 = "buyers/1/publisherProfiles/1";
+  private static final String PUBLISHER_2 = "buyers/1/publisherProfiles/2";
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = temporaryFolder.getRoot().toPath();
+    try (ResourceStore<FinalizedDeal> store = openStore()) {
+      store.upsert(
+          finalizedDeal(
+              "a",
+              "ACTIVE",
+              deal(PUBLISHER_1, "PREFERRED_DEAL", "2026-01-01T00:00:00Z", "2026-02-01T00:00:00Z")));
+      store.upsert(
+          finalizedDeal(
+              "b",
+              "PAUSED_BY_BUYER",
+              deal(
+                  PUBLISHER_1,
+                  "PROGRAMMATIC_GUARANTEED",
+                  "2026-03-01T00:00:00Z",
+                  "2026-04-01T00:00:00Z")));
+      store.upsert(
+          finalizedDeal(
+              "c",
+              "ACTIVE",
+              deal(
+                  PUBLISHER_2,
+                  "PROGRAMMATIC_GUARANTEED",
+                  "2026-01-15T00:00:00Z",
+                  "2026-03-15T00:00:00Z")));
+      store.upsert(finalizedDeal("d", "ACTIVE", null));
+    }
+  }
+
+  @Test
+  public void matchesEveryDealWithoutCriteria() throws IOException {
+    try (FinalizedDealMirror mirror = FinalizedDealMirror.open(directory)) {
+      assertEquals(4, mirror.size());
+      assertEquals(List.of("a", "b", "c", "d"), ids(mirror.query().list()));
+      assertEquals("ACTIVE", mirror.get(name("a")).getDealServingStatus());
+      assertNull(mirror.get(name("e")));
+    }
+  }
+
+  @Test
+  public void intersectsIndexedCriteria() throws IOException {
+    try (FinalizedDealMirror mirror = FinalizedDealMirror.open(directory)) {
+      assertEquals(
+          List.of("c"),
+          ids(
+              mirror
+                  .query()
+                  .setServingStatus("ACTIVE")
+                  .setDealType("PROGRAMMATIC_GUARANTEED")
+                  .list()));
+      assertEquals(List.of("a", "b"), ids(mirror.query().setPublisherProfile(PUBLISHER_1).list()));
+      assertEquals(
+          List.of("b"),
+          ids(mirror.query().setName(name("b")).setPublisherProfile(PUBLISHER_1).list()));
+      assertTrue(mirror.query().setName(name("e")).list().isEmpty());
+      assertTrue(
+          mirror
+              .query()
+              .setServingStatus("PAUSED_BY_BUYER")
+              .setDealType("PREFERRED_DEAL")
+              .list()
+              .isEmpty());
+    }
+  }
+
+  @Test
+  public void matchesDealsOverlappingFlightWindow() throws IOException {
+    try (FinalizedDealMirror mirror = FinalizedDealMirror.open(directory)) {
+      assertEquals(
+          List.of("b", "c"),
+          ids(
+              mirror
+                  .query()
+                  .setFlightWindow(
+                      Instant.parse("2026-02-15T00:00:00Z"), Instant.parse("2026-03-10T00:00:00Z"))
+                  .setOrderBy("name")
+                  .list()));
+      assertEquals(
+          List.of("a", "c"),
+          ids(
+              mirror
+                  .query()
+                  .setFlightWindow(null, Instant.parse("2026-02-01T00:00:00Z"))
+                  .setOrderBy("name")
+                  .list()));
+      assertEquals(
+          List.of("a", "b", "c"),
+          ids(mirror.query().setFlightWindow(null, null).setOrderBy("name").list()));
+    }
+  }
+
+  @Test
+  public void filtersAndSortsMatchingDeals() throws IOException {
+    try (FinalizedDealMirror mirror = FinalizedDealMirror.open(directory)) {
+      assertEquals(
+          List.of("c", "a"),
+          ids(
+              mirror
+                  .query()
+                  .setServingStatus("ACTIVE")
+                  .setFilter(
+                      "deal.dealType = PREFERRED_DEAL OR deal.publisherProfile = \""
+                          + PUBLISHER_2
+                          + "\"")
+                  .setOrderBy("deal.flightStartTime desc")
+                  .list()));
+    }
+  }
+
+  @Test
+  public void indexesLatestVersionOfEachDeal() throws IOException {
+    try (ResourceStore<FinalizedDeal> store = openStore()) {
+      FinalizedDeal resumed = store.get(name("b")).clone();
+      store.upsert(resumed.setDealServingStatus("ACTIVE"));
+    }
+
+    try (FinalizedDealMirror mirror = FinalizedDealMirror.open(directory)) {
+      assertTrue(mirror.query().setServingStatus("PAUSED_BY_BUYER").list().isEmpty());
+      assertEquals(
+          List.of("a", "b", "c", "d"),
+          ids(mirror.query().setServingStatus("ACTIVE").setOrderBy("name").list()));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsInvalidFilter() throws IOException {
+    try (FinalizedDealMirror mirror = FinalizedDealMirror.open(directory)) {
+      mirror.query().setFilter("deal.unknownField = 1");
+    }
+  }
+
+  private ResourceStore<FinalizedDeal> openStore() throws IOException {
+    return ResourceStore.open(
+        directory.resolve("finalizedDeals.ndjson"), FinalizedDeal.class, FinalizedDeal::getName);
+  }
+
+  private static List<String> ids(List<FinalizedDeal> finalizedDeals) {
+    List<String> ids = new ArrayList<>();
+    for (FinalizedDeal finalizedDeal : finalizedDeals) {
+      ids.add(finalizedDeal.getName().substring(name("").length()));
+    }
+    return ids;
+  }
+
+  private static String name(String id) {
+    return "buyers/1/finalizedDeals/" + id;
+  }
+
+  private static FinalizedDeal finalizedDeal(String id, String servingStatus, Deal deal) {
+    return new FinalizedDeal().setName(name(id)).setDealServingStatus(servingStatus).setDeal(deal);
+  }
+
+  private static Deal deal(
+      String publisherProfile, String dealType, String flightStartTime, String flightEndTime) {
+    return new Deal()
+        .setPublisherProfile(publisherProfile)
+        .setDealType(dealType)
+        .setFlightStartTime(flightStartTime)
+        .setFlightEndTime(flightEndTime);
+  }
+}
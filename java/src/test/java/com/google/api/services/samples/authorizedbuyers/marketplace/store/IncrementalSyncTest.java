@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.AuthorizedBuyersMarketplace;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.ListProposalsResponse;
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
+import com.google.api.services.samples.authorizedbuyers.marketplace.Utils;
+import com.google.api.services.samples.authorizedbuyers.marketplace.paging.Paginator;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests for {@link IncrementalSync}, listing proposals from a mock transport. */
+public class IncrementalSyncTest {
+
+  private static final String PARENT = "buyers/12345";
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /** The filters of the list requests, in the order they were sent. */
+  private final List<String> requestedFilters = new ArrayList<>();
+
+  /** The proposals returned by the next list request. */
+  private List<Proposal> listedProposals = new ArrayList<>();
+
+  private AuthorizedBuyersMarketplace client;
+  private ResourceStore<Proposal> store;
+  private Path stateFile;
+
+  @Before
+  public void setUp() throws IOException {
+    MockHttpTransport transport =
+        new MockHttpTransport() {
+          @Override
+          public LowLevelHttpRequest buildRequest(String method, String url) {
+            return new MockLowLevelHttpRequest(url) {
+              @Override
+              public LowLevelHttpResponse execute() throws IOException {
+                requestedFilters.add((String) new GenericUrl(url).getFirst("filter"));
+                ListProposalsResponse page = new ListProposalsResponse();
+                page.setProposals(listedProposals);
+                return new MockLowLevelHttpResponse()
+                    .setContentType(Json.MEDIA_TYPE)
+                    .setContent(Utils.getJsonFactory().toString(page));
+              }
+            };
+          }
+        };
+    client =
+        new AuthorizedBuyersMarketplace.Builder(transport, Utils.getJsonFactory(), null)
+            .setApplicationName("IncrementalSyncTest")
+            .build();
+
+    Path directory = temporaryFolder.getRoot().toPath();
+    store =
+        ResourceStore.open(
+            directory.resolve("proposals.jsonl"), Proposal.class, Proposal::getName);
+    stateFile = directory.resolve("proposals.sync.json");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    store.close();
+  }
+
+  @Test
+  public void firstSyncListsEveryResource() throws IOException {
+    listedProposals =
+        Arrays.asList(
+            proposal("a", "2026-03-01T10:00:00Z"), proposal("b", "2026-03-01T12:00:00Z"));
+    List<Proposal> changes = new ArrayList<>();
+
+    IncrementalSync<Proposal> sync = newSync();
+    sync.run(changes::add);
+
+    assertEquals(Arrays.asList((String) null), requestedFilters);
+    assertTrue(sync.isLastSyncFull());
+    assertEquals(2, sync.getListedCount());
+    assertEquals(2, sync.getInsertedCount());
+    assertEquals(2, changes.size());
+    assertEquals(Instant.parse("2026-03-01T12:00:00Z"), sync.getWatermark());
+  }
+
+  @Test
+  public void laterSyncListsChangesSinceWatermarkWithOverlap() throws IOException {
+    listedProposals = Arrays.asList(proposal("a", "2026-03-01T12:00:00Z"));
+    newSync().run(proposal -> {});
+
+    listedProposals =
+        Arrays.asList(
+            proposal("a", "2026-03-01T12:00:00Z"), proposal("b", "2026-03-01T12:30:00Z"));
+    List<Proposal> changes = new ArrayList<>();
+    IncrementalSync<Proposal> sync = newSync().setOverlap(Duration.ofMinutes(10));
+    sync.run(changes::add);
+
+    assertEquals("updateTime > \"2026-03-01T11:50:00Z\"", requestedFilters.get(1));
+    assertFalse(sync.isLastSyncFull());
+    assertEquals(2, sync.getListedCount());
+    assertEquals(1, sync.getInsertedCount());
+    assertEquals(0, sync.getUpdatedCount());
+    assertEquals(Arrays.asList("buyers/12345/proposals/b"), names(changes));
+    assertEquals(Instant.parse("2026-03-01T12:30:00Z"), sync.getWatermark());
+  }
+
+  @Test
+  public void watermarkDoesNotMoveBackwards() throws IOException {
+    listedProposals = Arrays.asList(proposal("a", "2026-03-01T12:00:00Z"));
+    newSync().run(proposal -> {});
+
+    // A change that became visible late, within the overlap window.
+    listedProposals = Arrays.asList(proposal("b", "2026-03-01T11:58:00Z"));
+    IncrementalSync<Proposal> sync = newSync();
+    sync.run(proposal -> {});
+
+    assertEquals(1, sync.getInsertedCount());
+    assertEquals(Instant.parse("2026-03-01T12:00:00Z"), sync.getWatermark());
+
+    listedProposals = new ArrayList<>();
+    newSync().run(proposal -> {});
+    assertEquals("updateTime > \"2026-03-01T11:55:00Z\"", requestedFilters.get(2));
+  }
+
+  @Test
+  public void filterIsCombinedWithWatermark() throws IOException {
+    listedProposals = Arrays.asList(proposal("a", "2026-03-01T12:00:00Z"));
+    newSync().setFilter("dealType = PREFERRED_DEAL").run(proposal -> {});
+    newSync().setFilter("dealType = PREFERRED_DEAL").run(proposal -> {});
+
+    assertEquals(
+        Arrays.asList(
+            "dealType = PREFERRED_DEAL",
+            "(dealType = PREFERRED_DEAL) AND updateTime > \"2026-03-01T11:55:00Z\""),
+        requestedFilters);
+  }
+
+  @Test
+  public void filterChangeForcesFullSync() throws IOException {
+    listedProposals = Arrays.asList(proposal("a", "2026-03-01T12:00:00Z"));
+    newSync().setFilter("dealType = PREFERRED_DEAL").run(proposal -> {});
+
+    IncrementalSync<Proposal> sync = newSync().setFilter("dealType = PRIVATE_AUCTION");
+    sync.run(proposal -> {});
+
+    assertEquals("dealType = PRIVATE_AUCTION", requestedFilters.get(1));
+    assertTrue(sync.isLastSyncFull());
+
+    // The new filter is saved with the watermark, so the next sync is incremental again.
+    sync = newSync().setFilter("dealType = PRIVATE_AUCTION");
+    sync.run(proposal -> {});
+    assertFalse(sync.isLastSyncFull());
+  }
+
+  @Test
+  public void fullSyncIgnoresWatermark() throws IOException {
+    listedProposals = Arrays.asList(proposal("a", "2026-03-01T12:00:00Z"));
+    newSync().run(proposal -> {});
+
+    listedProposals = Arrays.asList(proposal("a", "2026-03-01T12:00:00Z", "Renamed"));
+    List<Proposal> changes = new ArrayList<>();
+    IncrementalSync<Proposal> sync = newSync().setFullSync(true);
+    sync.run(changes::add);
+
+    assertEquals(null, requestedFilters.get(1));
+    assertTrue(sync.isLastSyncFull());
+    assertEquals(1, sync.getUpdatedCount());
+    assertEquals("Renamed", store.get("buyers/12345/proposals/a").getDisplayName());
+  }
+
+  @Test
+  public void fullSyncIntervalForcesFullSync() throws IOException {
+    listedProposals = Arrays.asList(proposal("a", "2026-03-01T12:00:00Z"));
+    newSync().run(proposal -> {});
+
+    IncrementalSync<Proposal> sync = newSync().setFullSyncInterval(Duration.ofDays(1));
+    sync.run(proposal -> {});
+    assertFalse(sync.isLastSyncFull());
+
+    sync = newSync().setFullSyncInterval(Duration.ZERO);
+    sync.run(proposal -> {});
+    assertTrue(sync.isLastSyncFull());
+  }
+
+  private IncrementalSync<Proposal> newSync() {
+    return new IncrementalSync<>(
+        store,
+        stateFile,
+        "updateTime",
+        Proposal::getUpdateTime,
+        filter ->
+            new Paginator<>(
+                pageToken ->
+                    client
+                        .buyers()
+                        .proposals()
+                        .list(PARENT)
+                        .setFilter(filter)
+                        .setPageSize(50)
+                        .setPageToken(pageToken),
+                ListProposalsResponse::getNextPageToken,
+                ListProposalsResponse::getProposals));
+  }
+
+  private static Proposal proposal(String id, String updateTime) {
+    return proposal(id, updateTime, "Proposal " + id);
+  }
+
+  private static Proposal proposal(String id, String updateTime, String displayName) {
+    return new Proposal()
+        .setName(PARENT + "/proposals/" + id)
+        .setUpdateTime(updateTime)
+        .setDisplayName(displayName);
+  }
+
+  private static List<String> names(List<Proposal> proposals) {
+    List<String> names = new ArrayList<>();
+    for (Proposal proposal : proposals) {
+      names.add(proposal.getName());
+    }
+    return names;
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
+import com.google.api.services.samples.authorizedbuyers.marketplace.store.ResourceStore.Change;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests for {@link ResourceStore}. */
+public class ResourceStoreTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path file;
+
+  @Before
+  public void setUp() {
+    file = temporaryFolder.getRoot().toPath().resolve("proposals.jsonl");
+  }
+
+  @Test
+  public void replaysLastVersionOfEachResource() throws IOException {
+    try (ResourceStore<Proposal> store = open()) {
+      assertEquals(Change.INSERTED, store.upsert(proposal("buyers/1/proposals/a", 1)));
+      assertEquals(Change.INSERTED, store.upsert(proposal("buyers/1/proposals/b", 1)));
+      assertEquals(Change.UPDATED, store.upsert(proposal("buyers/1/proposals/a", 2)));
+      assertEquals(Change.UNCHANGED, store.upsert(proposal("buyers/1/proposals/b", 1)));
+    }
+
+    try (ResourceStore<Proposal> store = open()) {
+      assertEquals(2, store.size());
+      assertEquals(2L, (long) store.get("buyers/1/proposals/a").getProposalRevision());
+      assertEquals(1L, (long) store.get("buyers/1/proposals/b").getProposalRevision());
+      assertNull(store.get("buyers/1/proposals/c"));
+    }
+    assertEquals(3, readLines().size());
+  }
+
+  @Test
+  public void ignoresLineCutShortByCrash() throws IOException {
+    try (ResourceStore<Proposal> store = open()) {
+      store.upsert(proposal("buyers/1/proposals/a", 1));
+    }
+    Files.write(
+        file,
+        "{\"name\":\"buyers/1/proposals/b\",\"propos".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.APPEND);
+
+    try (ResourceStore<Proposal> store = open()) {
+      assertEquals(1, store.size());
+      store.upsert(proposal("buyers/1/proposals/c", 1));
+    }
+
+    try (ResourceStore<Proposal> store = open()) {
+      assertEquals(2, store.size());
+      assertEquals(1L, (long) store.get("buyers/1/proposals/c").getProposalRevision());
+    }
+  }
+
+  @Test
+  public void compactsFileOnceMostOfItIsOutdated() throws IOException {
+    try (ResourceStore<Proposal> store = open()) {
+      for (long revision = 1; revision <= 150; revision++) {
+        store.upsert(proposal("buyers/1/proposals/a", revision));
+        store.upsert(proposal("buyers/1/proposals/b", revision));
+      }
+      store.flush();
+      assertEquals(2, readLines().size());
+
+      store.upsert(proposal("buyers/1/proposals/a", 151));
+    }
+
+    try (ResourceStore<Proposal> store = open()) {
+      assertEquals(2, store.size());
+      assertEquals(151L, (long) store.get("buyers/1/proposals/a").getProposalRevision());
+      assertEquals(150L, (long) store.get("buyers/1/proposals/b").getProposalRevision());
+    }
+    assertEquals(3, readLines().size());
+    assertEquals(1, temporaryFolder.getRoot().list().length);
+  }
+
+  @Test
+  public void notifiesListenersOfStoredAndNewResources() throws IOException {
+    List<String> upserts = new ArrayList<>();
+    try (ResourceStore<Proposal> store = open()) {
+      store.upsert(proposal("buyers/1/proposals/a", 1));
+      store.addListener(
+          (previous, resource) ->
+              upserts.add(
+                  String.format(
+                      "%s:%s->%s",
+                      resource.getName(),
+                      (previous != null) ? previous.getProposalRevision() : null,
+                      resource.getProposalRevision())));
+      store.upsert(proposal("buyers/1/proposals/a", 2));
+      store.upsert(proposal("buyers/1/proposals/a", 2));
+    }
+
+    assertEquals(
+        List.of("buyers/1/proposals/a:null->1", "buyers/1/proposals/a:1->2"), upserts);
+  }
+
+  private ResourceStore<Proposal> open() throws IOException {
+    return ResourceStore.open(file, Proposal.class, Proposal::getName);
+  }
+
+  private List<String> readLines() throws IOException {
+    List<String> lines = new ArrayList<>();
+    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+      if (!line.isEmpty()) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+
+  private static Proposal proposal(String name, long revision) {
+    return new Proposal().setName(name).setProposalRevision(revision);
+  }
+}
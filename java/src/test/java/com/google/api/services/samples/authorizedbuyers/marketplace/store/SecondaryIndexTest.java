@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.google.api.services.samples.authorizedbuyers.marketplace.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.services.authorizedbuyersmarketplace.v1.model.Proposal;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+/** Tests for {@link SecondaryIndex}. */
+public class SecondaryIndexTest {
+
+  @Test
+  public void findsResourcesByValue() {
+    SecondaryIndex<Proposal, String> index = stateIndex();
+    index.onUpsert(null, proposal("a", "FINALIZED", 1));
+    index.onUpsert(null, proposal("b", "BUYER_ACCEPTANCE_REQUESTED", 1));
+    index.onUpsert(null, proposal("c", "FINALIZED", 1));
+    index.onUpsert(null, proposal("d", null, 1));
+
+    assertEquals(Set.of("buyers/1/proposals/a", "buyers/1/proposals/c"), index.get("FINALIZED"));
+    assertEquals(Set.of("buyers/1/proposals/b"), index.get("BUYER_ACCEPTANCE_REQUESTED"));
+    assertTrue(index.get("TERMINATED").isEmpty());
+    assertEquals(3, index.getRange(null, null).size());
+  }
+
+  @Test
+  public void movesResourceWhenItsValueChanges() {
+    SecondaryIndex<Proposal, String> index = stateIndex();
+    Proposal created = proposal("a", "SELLER_REVIEW_REQUESTED", 1);
+    Proposal finalized = proposal("a", "FINALIZED", 2);
+    Proposal unset = proposal("a", null, 3);
+
+    index.onUpsert(null, created);
+    index.onUpsert(created, finalized);
+    assertTrue(index.get("SELLER_REVIEW_REQUESTED").isEmpty());
+    assertEquals(Set.of("buyers/1/proposals/a"), index.get("FINALIZED"));
+
+    index.onUpsert(finalized, unset);
+    assertTrue(index.get("FINALIZED").isEmpty());
+    assertTrue(index.getRange(null, null).isEmpty());
+  }
+
+  @Test
+  public void findsResourcesInRangeOrderedByValue() {
+    SecondaryIndex<Proposal, Long> index =
+        new SecondaryIndex<>(Proposal::getName, Proposal::getProposalRevision);
+    index.onUpsert(null, proposal("a", null, 3));
+    index.onUpsert(null, proposal("b", null, 1));
+    index.onUpsert(null, proposal("c", null, 2));
+    index.onUpsert(null, proposal("d", null, 4));
+
+    assertEquals(
+        List.of("buyers/1/proposals/c", "buyers/1/proposals/a", "buyers/1/proposals/d"),
+        List.copyOf(index.getRange(2L, null)));
+    assertEquals(
+        List.of("buyers/1/proposals/b", "buyers/1/proposals/c"),
+        List.copyOf(index.getRange(null, 3L)));
+    assertEquals(List.of("buyers/1/proposals/c"), List.copyOf(index.getRange(2L, 3L)));
+  }
+
+  @Test
+  public void returnsCopiesOfIndexedNames() {
+    SecondaryIndex<Proposal, String> index = stateIndex();
+    index.onUpsert(null, proposal("a", "FINALIZED", 1));
+
+    index.get("FINALIZED").clear();
+    index.getRange(null, null).clear();
+
+    assertEquals(Set.of("buyers/1/proposals/a"), index.get("FINALIZED"));
+  }
+
+  private static SecondaryIndex<Proposal, String> stateIndex() {
+    return new SecondaryIndex<>(Proposal::getName, Proposal::getState);
+  }
+
+  private static Proposal proposal(String id, String state, long revision) {
+    return new Proposal()
+        .setName("buyers/1/proposals/" + id)
+        .setState(state)
+        .setProposalRevision(revision);
+  }
+}